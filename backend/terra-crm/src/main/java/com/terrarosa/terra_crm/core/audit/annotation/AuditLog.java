@@ -30,6 +30,13 @@ public @interface AuditLog {
      */
     String resourceType() default "";
     
+    /**
+     * Name of the parameter holding the resource ID, for actions on a parent resource whose ID
+     * the default rules would not pick (e.g. "customerId" for a note added to a customer).
+     * Optional - if empty, the ID is looked up by the default parameter and return value rules.
+     */
+    String resourceIdParam() default "";
+    
     /**
      * Whether to include method parameters in the audit log metadata.
      * Default is true. Set to false for sensitive data.
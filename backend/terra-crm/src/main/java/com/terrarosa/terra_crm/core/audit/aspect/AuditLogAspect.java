@@ -23,6 +23,9 @@ import java.util.UUID;
  * non-Service classes are NOT intercepted to prevent log flooding.
  * 
  * Pointcut: "@annotation(auditLog) && execution(public * com.terrarosa.terra_crm..*Service.*(..))"
+ * 
+ * Metadata is built here, while arguments and return values are still attached to the caller's
+ * persistence context; the database write happens later on the AuditLogWriter thread.
  */
 @Slf4j
 @Aspect
@@ -151,6 +154,15 @@ public class AuditLogAspect {
         Object[] args = joinPoint.getArgs();
         String[] paramNames = signature.getParameterNames();
         
+        // An explicitly named parameter wins over the naming patterns below
+        if (!auditLog.resourceIdParam().isEmpty()) {
+            for (int i = 0; i < args.length; i++) {
+                if (auditLog.resourceIdParam().equals(paramNames[i]) && args[i] instanceof UUID) {
+                    return (UUID) args[i];
+                }
+            }
+        }
+        
         // Try to find resource ID in method parameters
         // Common patterns: tenantId, userId, id, resourceId
         for (int i = 0; i < args.length; i++) {
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,4 +40,16 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
      */
     @Query("SELECT al FROM AuditLog al WHERE al.resourceType = :resourceType AND al.resourceId = :resourceId ORDER BY al.createdAt DESC")
     List<AuditLog> findByResource(@Param("resourceType") String resourceType, @Param("resourceId") UUID resourceId);
+
+    /**
+     * Audit logs of a resource within a tenant, newest first, starting after the keyset position
+     * (createdAt, id); one page of a resource timeline. Uses idx_audit_logs_resource_timeline.
+     */
+    @Query(value = "SELECT al.* FROM public.audit_logs al WHERE al.resource_type = :resourceType "
+            + "AND al.resource_id = :resourceId AND al.tenant_id = :tenantId AND COALESCE(al.deleted, false) = false "
+            + "AND (al.created_at, al.id) < (:createdAt, :id) ORDER BY al.created_at DESC, al.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<AuditLog> findResourceTimelinePage(@Param("resourceType") String resourceType,
+            @Param("resourceId") UUID resourceId, @Param("tenantId") UUID tenantId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, @Param("limit") int limit);
 }
@@ -0,0 +1,26 @@
+package com.terrarosa.terra_crm.core.audit.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An audit log entry captured in the request thread and written later by {@link AuditLogWriter}.
+ *
+ * Only values that are cheap to read in the caller are captured; the acting user is kept as the
+ * authenticated email and resolved to a user id by the writer, once per batch. The id is assigned
+ * at capture time so a spilled event that is replayed twice is still written once.
+ */
+public record AuditEvent(
+        UUID id,
+        LocalDateTime occurredAt,
+        String userEmail,
+        UUID tenantId,
+        String action,
+        String resourceType,
+        UUID resourceId,
+        String ipAddress,
+        String userAgent,
+        Map<String, Object> metadata
+) {
+}
@@ -4,7 +4,6 @@ import com.terrarosa.terra_crm.core.audit.entity.AuditLog;
 import com.terrarosa.terra_crm.core.audit.repository.AuditLogRepository;
 import com.terrarosa.terra_crm.core.security.service.JwtService;
 import com.terrarosa.terra_crm.core.tenancy.TenantContext;
-import com.terrarosa.terra_crm.modules.auth.repository.UserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
@@ -41,7 +40,7 @@ import java.util.UUID;
 public class AuditLogService {
     
     private final AuditLogRepository auditLogRepository;
-    private final UserRepository userRepository;
+    private final AuditLogWriter auditLogWriter;
     private final JwtService jwtService;
     
     @PersistenceContext
@@ -50,6 +49,10 @@ public class AuditLogService {
     /**
      * Log an action to the audit log.
      * 
+     * The entry is captured here and written asynchronously by {@link AuditLogWriter}, outside the
+     * caller's transaction; a failed audit write can no longer roll back or slow down the business
+     * operation, and the entry is visible shortly after this method returns, not immediately.
+     * 
      * @param action Action name (e.g., "TENANT_SUSPENDED")
      * @param resourceType Resource type (e.g., "TENANT", "USER")
      * @param resourceId Resource ID (optional)
@@ -57,11 +60,10 @@ public class AuditLogService {
      * @param ipAddress IP address of the client (optional)
      * @param userAgent User agent string (optional)
      */
-    @Transactional
     public void logAction(String action, String resourceType, UUID resourceId, Map<String, Object> metadata, String ipAddress, String userAgent) {
-        // Get current user from SecurityContext
-        UUID userId = getCurrentUserId();
-        if (userId == null) {
+        // Get current user from SecurityContext; the writer resolves it to a user ID per batch
+        String userEmail = getCurrentUserEmail();
+        if (userEmail == null) {
             log.warn("Cannot log action {}: No authenticated user found", action);
             return;
         }
@@ -77,19 +79,19 @@ public class AuditLogService {
             }
         }
         
-        AuditLog auditLog = AuditLog.builder()
-                .userId(userId)
-                .action(action)
-                .resourceType(resourceType)
-                .resourceId(resourceId)
-                .tenantId(tenantId)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .metadata(metadata != null ? metadata : Map.of())
-                .build();
-        
-        auditLogRepository.save(auditLog);
-        log.debug("Logged audit action: {} by user {}", action, userId);
+        auditLogWriter.submit(new AuditEvent(
+                UUID.randomUUID(),
+                LocalDateTime.now(),
+                userEmail,
+                tenantId,
+                action,
+                resourceType,
+                resourceId,
+                ipAddress,
+                userAgent,
+                metadata != null ? metadata : Map.of()
+        ));
+        log.debug("Queued audit action: {} by user {}", action, userEmail);
     }
     
     /**
@@ -205,12 +207,11 @@ public class AuditLogService {
     }
     
     /**
-     * Get current user ID from SecurityContext.
-     * Extracts email from authentication and looks up user ID from database.
+     * Get current user email from SecurityContext.
      * 
-     * @return User ID or null if not authenticated
+     * @return User email or null if not authenticated
      */
-    private UUID getCurrentUserId() {
+    private String getCurrentUserEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return null;
@@ -221,11 +222,7 @@ public class AuditLogService {
         if (email == null || email.isBlank()) {
             return null;
         }
-        
-        // Look up user by email to get ID
-        return userRepository.findByEmail(email)
-                .map(user -> user.getId())
-                .orElse(null);
+        return email;
     }
     
     /**
@@ -0,0 +1,481 @@
+package com.terrarosa.terra_crm.core.audit.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuditLogWriter
+ *
+ * Writes audit events off the request thread. {@link AuditLogService#logAction} captures an
+ * {@link AuditEvent} into a bounded queue; a single writer thread drains whatever is queued (up to
+ * {@code batch-size}), resolves the acting users' ids with one query and writes the batch with one
+ * JDBC batch insert in its own transaction, so audit writes neither slow down nor take part in the
+ * business transaction.
+ *
+ * A full queue is handled by the {@link AuditOverflowPolicy}: wait for room, drop (counted in
+ * {@code audit.log.dropped}), or spill to a local NDJSON file. The spill file is replayed when the
+ * writer is idle, {@code batch-size} events at a time; events keep the id assigned at capture and
+ * are inserted with {@code ON CONFLICT (id) DO NOTHING}, so a partially replayed file can be
+ * replayed again. A replayed batch that fails for a reason other than an unavailable database is
+ * retried event by event, and an event that still fails (or cannot be read) is moved to a
+ * quarantine file (counted in {@code audit.log.quarantined}), so one bad event does not keep the
+ * rest of the spill file from draining. With SPILL, batches that fail to write are spilled as well.
+ * Events of users that cannot be resolved are skipped and counted in {@code audit.log.skipped}. On shutdown the writer stops and whatever
+ * is still queued is written (or spilled) before the datasource goes away; events submitted after
+ * that are spilled with SPILL and otherwise written on the caller's thread.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO public.audit_logs (id, user_id, action, resource_type, "
+            + "resource_id, tenant_id, ip_address, user_agent, metadata, created_at, updated_at, deleted) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, false) ON CONFLICT (id) DO NOTHING";
+
+    private static final int[] INSERT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.OTHER, Types.OTHER, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private static final String USERS_SQL = "SELECT id, LOWER(email) AS email FROM public.users "
+            + "WHERE LOWER(email) = ANY(?) AND deleted = false";
+
+    static final String SPILL_FILE = "audit-spill.ndjson";
+    static final String REPLAY_FILE = "audit-spill.replaying.ndjson";
+    static final String QUARANTINE_FILE = "audit-spill.quarantine.ndjson";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration pollTimeout;
+    private final AuditOverflowPolicy overflow;
+    private final Duration replayInterval;
+    private final Duration shutdownTimeout;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path quarantineFile;
+    private final Object spillLock = new Object();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong quarantined = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private ExecutorService writer;
+    private long nextReplayNanos;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.writer.capacity:10000}") int capacity,
+                          @Value("${app.audit.writer.batch-size:500}") int batchSize,
+                          @Value("${app.audit.writer.poll-timeout:PT0.5S}") Duration pollTimeout,
+                          @Value("${app.audit.writer.overflow:SPILL}") AuditOverflowPolicy overflow,
+                          @Value("${app.audit.writer.spill-directory:audit-spill}") String spillDirectory,
+                          @Value("${app.audit.writer.replay-interval:PT30S}") Duration replayInterval,
+                          @Value("${app.audit.writer.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.overflow = overflow;
+        this.replayInterval = replayInterval;
+        this.shutdownTimeout = shutdownTimeout;
+        Path spillPath = Path.of(spillDirectory);
+        this.spillFile = spillPath.resolve(SPILL_FILE);
+        this.replayFile = spillPath.resolve(REPLAY_FILE);
+        this.quarantineFile = spillPath.resolve(QUARANTINE_FILE);
+        if (overflow == AuditOverflowPolicy.SPILL) {
+            try {
+                Files.createDirectories(spillPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create audit spill directory " + spillDirectory, e);
+            }
+        }
+        FunctionCounter.builder("audit.log.dropped", dropped, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("audit.log.spilled", spilled, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("audit.log.skipped", skipped, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("audit.log.quarantined", quarantined, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("audit.log.queued", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(this::writeLoop);
+        log.info("Audit log writer started (capacity: {}, batch size: {}, overflow: {})",
+                capacity, batchSize, overflow);
+    }
+
+    /**
+     * Stop the writer thread, then write whatever is still queued. Later submissions bypass the
+     * queue.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        running = false;
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    writer.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                writer.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Queue an event; never throws, a full queue is handled by the overflow policy.
+     */
+    public void submit(AuditEvent event) {
+        if (stopped) {
+            writeAfterStop(event);
+            return;
+        }
+        // stop() may drain the queue between the check above and the enqueue; an event it missed
+        // is taken back and handled like any submission after the stop
+        if (enqueue(event) && stopped && queue.remove(event)) {
+            writeAfterStop(event);
+        }
+    }
+
+    /**
+     * @return whether the event was queued
+     */
+    private boolean enqueue(AuditEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        switch (overflow) {
+            case BLOCK -> {
+                try {
+                    queue.put(event);
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(1, "interrupted while waiting for room");
+                }
+            }
+            case DROP -> drop(1, "buffer full");
+            case SPILL -> spill(List.of(event));
+        }
+        return false;
+    }
+
+    /**
+     * There is no writer thread after {@link #stop()}: spill the event for the next start, or write
+     * it right away.
+     */
+    private void writeAfterStop(AuditEvent event) {
+        if (overflow == AuditOverflowPolicy.SPILL) {
+            spill(List.of(event));
+        } else {
+            flush(List.of(event));
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public long spilled() {
+        return spilled.get();
+    }
+
+    public long skipped() {
+        return skipped.get();
+    }
+
+    public long quarantined() {
+        return quarantined.get();
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                AuditEvent first = queue.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpillIfDue();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Audit log writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a drained batch; a failed batch is spilled or dropped according to the overflow policy.
+     */
+    void flush(List<AuditEvent> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            if (overflow == AuditOverflowPolicy.SPILL) {
+                log.error("Failed to write {} audit events, spilling them: {}", batch.size(), e.getMessage());
+                spill(batch);
+            } else {
+                log.error("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+                drop(batch.size(), "write failed");
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> events) {
+        Map<String, UUID> userIds = findUserIds(events);
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            UUID userId = userIds.get(event.userEmail().toLowerCase(Locale.ROOT));
+            if (userId == null) {
+                long total = skipped.incrementAndGet();
+                log.warn("Cannot log action {}: user {} not found ({} skipped in total)",
+                        event.action(), event.userEmail(), total);
+                continue;
+            }
+            Timestamp occurredAt = Timestamp.valueOf(event.occurredAt());
+            args.add(new Object[] {
+                    event.id(),
+                    userId,
+                    event.action(),
+                    event.resourceType(),
+                    event.resourceId(),
+                    event.tenantId(),
+                    event.ipAddress(),
+                    event.userAgent(),
+                    objectMapper.writeValueAsString(event.metadata() != null ? event.metadata() : Map.of()),
+                    occurredAt,
+                    occurredAt
+            });
+        }
+        if (!args.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, args, INSERT_TYPES));
+            log.debug("Wrote {} audit events", args.size());
+        }
+    }
+
+    private Map<String, UUID> findUserIds(List<AuditEvent> events) {
+        Object[] emails = events.stream()
+                .map(event -> event.userEmail().toLowerCase(Locale.ROOT))
+                .distinct()
+                .toArray();
+        Map<String, UUID> userIds = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(USERS_SQL, new SqlArrayValue("text", emails))) {
+            userIds.put((String) row.get("email"), (UUID) row.get("id"));
+        }
+        return userIds;
+    }
+
+    private void drop(int count, String reason) {
+        long total = dropped.addAndGet(count);
+        // Logged on the first drop and then every thousand, not per event
+        if (total == count || total / 1000 != (total - count) / 1000) {
+            log.warn("Dropped {} audit events ({}), {} in total", count, reason, total);
+        }
+    }
+
+    private void spill(List<AuditEvent> events) {
+        synchronized (spillLock) {
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditEvent event : events) {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.newLine();
+                }
+                spilled.addAndGet(events.size());
+            } catch (IOException | JacksonException e) {
+                log.error("Failed to spill {} audit events to {}: {}", events.size(), spillFile, e.getMessage());
+                drop(events.size(), "spill failed");
+            }
+        }
+    }
+
+    private void replaySpillIfDue() {
+        long now = System.nanoTime();
+        if (overflow != AuditOverflowPolicy.SPILL || now - nextReplayNanos < 0) {
+            return;
+        }
+        nextReplayNanos = now + replayInterval.toNanos();
+        replaySpill();
+    }
+
+    /**
+     * Write spilled events in batches of {@code batch-size}. The spill file is moved aside first so
+     * producers can keep spilling while it is replayed; a replay file left by a failed attempt (or a
+     * crash) is retried first. The replay file is only kept when the database is unavailable.
+     */
+    void replaySpill() {
+        try {
+            synchronized (spillLock) {
+                if (Files.notExists(replayFile)) {
+                    if (Files.notExists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            long quarantinedBefore = quarantined.get();
+            int replayed = 0;
+            try (BufferedReader in = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                List<String> lines = new ArrayList<>(batchSize);
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    lines.add(line);
+                    if (lines.size() == batchSize) {
+                        replayed += replayBatch(lines);
+                        lines.clear();
+                    }
+                }
+                replayed += replayBatch(lines);
+            }
+            Files.delete(replayFile);
+            log.info("Replayed {} spilled audit events ({} quarantined)", replayed,
+                    quarantined.get() - quarantinedBefore);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to replay spilled audit events, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write one batch of spilled lines; lines that cannot be read or written are quarantined.
+     *
+     * @return number of events read from the lines
+     */
+    private int replayBatch(List<String> lines) {
+        List<AuditEvent> events = new ArrayList<>(lines.size());
+        List<String> readable = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            try {
+                events.add(objectMapper.readValue(line, AuditEvent.class));
+                readable.add(line);
+            } catch (JacksonException e) {
+                // A line cut short by a crash while spilling
+                quarantine(line, "unreadable: " + e.getOriginalMessage());
+            }
+        }
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            write(events);
+        } catch (RuntimeException e) {
+            if (isUnavailable(e)) {
+                throw e;
+            }
+            log.warn("Failed to replay {} spilled audit events, writing them one by one: {}",
+                    events.size(), e.getMessage());
+            for (int i = 0; i < events.size(); i++) {
+                try {
+                    write(List.of(events.get(i)));
+                } catch (RuntimeException eventFailure) {
+                    if (isUnavailable(eventFailure)) {
+                        throw eventFailure;
+                    }
+                    quarantine(readable.get(i), eventFailure.getMessage());
+                }
+            }
+        }
+        return events.size();
+    }
+
+    /**
+     * Failures that say nothing about the events themselves; retrying event by event would not help.
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private void quarantine(String line, String error) {
+        try (BufferedWriter out = Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line);
+            out.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot quarantine spilled audit event to " + quarantineFile, e);
+        }
+        quarantined.incrementAndGet();
+        log.error("Quarantined spilled audit event in {}: {}", quarantineFile, error);
+    }
+}
@@ -0,0 +1,24 @@
+package com.terrarosa.terra_crm.core.audit.service;
+
+/**
+ * What {@link AuditLogWriter} does with an event when its buffer is full, or with a batch
+ * that could not be written to the database.
+ */
+public enum AuditOverflowPolicy {
+
+    /**
+     * Wait for room in the buffer, slowing down the submitting request thread instead of losing
+     * the event. Failed batches are dropped.
+     */
+    BLOCK,
+
+    /**
+     * Drop the event and count it.
+     */
+    DROP,
+
+    /**
+     * Append the event to a local spill file, which the writer replays when it is idle.
+     */
+    SPILL
+}
@@ -0,0 +1,40 @@
+package com.terrarosa.terra_crm.core.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * JdbcTemplate beans.
+ *
+ * The default template is declared here because a second JdbcTemplate bean would otherwise
+ * switch off Spring Boot's auto-configured one. The streaming template reads large result sets
+ * with a cursor instead of materializing them; PostgreSQL only honours the fetch size inside a
+ * transaction, so callers must stream within one.
+ */
+@Configuration
+public class JdbcConfig {
+
+    public static final String STREAMING_JDBC_TEMPLATE = "streamingJdbcTemplate";
+
+    /**
+     * Rows fetched per round trip by the streaming template.
+     */
+    static final int STREAM_FETCH_SIZE = 1000;
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean(name = STREAMING_JDBC_TEMPLATE)
+    public JdbcTemplate streamingJdbcTemplate(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(STREAM_FETCH_SIZE);
+        return template;
+    }
+}
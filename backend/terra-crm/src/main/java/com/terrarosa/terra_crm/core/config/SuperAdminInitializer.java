@@ -10,6 +10,7 @@ import com.terrarosa.terra_crm.modules.auth.repository.RoleRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.SuperAdminRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.UserPermissionRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.UserRepository;
+import com.terrarosa.terra_crm.modules.auth.service.EffectivePermissionStore;
 import com.terrarosa.terra_crm.modules.auth.service.PermissionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -55,6 +57,7 @@ public class SuperAdminInitializer implements CommandLineRunner {
     private final PermissionRepository permissionRepository;
     private final UserPermissionRepository userPermissionRepository;
     private final PermissionService permissionService;
+    private final EffectivePermissionStore effectivePermissionStore;
 
     @Override
     @Transactional
@@ -211,6 +214,9 @@ public class SuperAdminInitializer implements CommandLineRunner {
                 log.debug("Assigned permission: {}", permissionName);
             }
 
+            // The grants above bypass PermissionService: refresh the materialized effective permissions
+            effectivePermissionStore.recomputeUsers(Set.of(userId));
+
             log.info(
                     "Super Admin permission assignment completed: {} assigned, {} already existed, {} not found, {} total expected",
                     assignedCount, skippedCount, notFoundCount, superAdminPermissionNames.size());
@@ -0,0 +1,15 @@
+package com.terrarosa.terra_crm.core.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request conflicts with the current state of a resource, e.g. a booking
+ * that overlaps an existing one.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
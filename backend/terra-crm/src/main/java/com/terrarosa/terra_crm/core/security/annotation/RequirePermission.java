@@ -6,11 +6,30 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Annotation to require a specific permission for accessing an endpoint.
- * Usage: @RequirePermission("APPOINTMENTS_VIEW")
+ * Require permissions for accessing an endpoint.
+ * Usage: @RequirePermission("APPOINTMENTS_VIEW"),
+ * @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"}) (any of),
+ * @RequirePermission(allOf = {"CUSTOMERS_VIEW", "CUSTOMERS_UPDATE"}).
+ *
+ * Names are permissions or roles. Super Admin passes every check. A method annotation
+ * replaces the annotation of its class. Enforced by RequirePermissionAuthorizationManager.
  */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RequirePermission {
-    String value();
+
+    /**
+     * Alias for {@link #anyOf()}.
+     */
+    String[] value() default {};
+
+    /**
+     * Granted if the user has at least one of these.
+     */
+    String[] anyOf() default {};
+
+    /**
+     * Granted only if the user has all of these (combined with {@link #anyOf()} if both are set).
+     */
+    String[] allOf() default {};
 }
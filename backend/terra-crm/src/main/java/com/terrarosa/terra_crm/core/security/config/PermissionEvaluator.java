@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.core.security.config;
 
 import com.terrarosa.terra_crm.core.security.service.JwtService;
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -30,10 +31,10 @@ public class PermissionEvaluator implements org.springframework.security.access.
 
         String permissionName = permission.toString();
 
-        // Extract permissions from JWT token
-        // The token should be in the authentication details or we need to extract it from the request
-        // For now, we'll check if the user has the required permission in their authorities
-        // In a real implementation, we'd extract permissions from JWT claims
+        PermissionSet grants = grantsOf(authentication);
+        if (grants != null) {
+            return grants.contains(permissionName);
+        }
 
         // Check if user has the required permission
         Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
@@ -49,13 +50,24 @@ public class PermissionEvaluator implements org.springframework.security.access.
     /**
      * Check if the authenticated user has a specific permission.
      * This method extracts permissions from JWT token claims.
-     * Used by @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'PERMISSION_NAME')")
+     * Used for programmatic checks; endpoints use @RequirePermission.
      */
     public boolean hasPermission(Authentication authentication, String permissionName) {
         if (authentication == null || permissionName == null) {
             return false;
         }
 
+        // Requests authenticated by JwtAuthenticationFilter carry their authorities compiled to a
+        // bitset: super admin bypass and permission check are single lookups
+        PermissionSet grants = grantsOf(authentication);
+        if (grants != null) {
+            boolean granted = grants.isSuperAdmin() || grants.contains(permissionName);
+            if (log.isDebugEnabled()) {
+                log.debug("Permission {} {}", permissionName, granted ? "granted" : "denied");
+            }
+            return granted;
+        }
+
         // CRITICAL: Super Admin bypass - Super Admin has access to all permissions
         // Check both authorities and roles for Super Admin (defense in depth)
         boolean isSuperAdmin = authentication.getAuthorities().stream()
@@ -105,16 +117,30 @@ public class PermissionEvaluator implements org.springframework.security.access.
         return false;
     }
 
+    static PermissionSet grantsOf(Authentication authentication) {
+        return authentication.getDetails() instanceof JwtAuthenticationDetails details ? details.getGrants() : null;
+    }
+
     /**
      * Wrapper class to hold JWT details including permissions.
      */
     public static class JwtAuthenticationDetails {
         private final List<String> permissions;
         private final String token;
+        private final PermissionSet grants;
 
         public JwtAuthenticationDetails(List<String> permissions, String token) {
+            this(permissions, token, null);
+        }
+
+        /**
+         * @param grants all authorities of the authentication (roles, database authorities and
+         *               JWT permissions), compiled against the permission catalog
+         */
+        public JwtAuthenticationDetails(List<String> permissions, String token, PermissionSet grants) {
             this.permissions = permissions;
             this.token = token;
+            this.grants = grants;
         }
 
         public List<String> getPermissions() {
@@ -124,5 +150,9 @@ public class PermissionEvaluator implements org.springframework.security.access.
         public String getToken() {
             return token;
         }
+
+        public PermissionSet getGrants() {
+            return grants;
+        }
     }
 }
@@ -0,0 +1,131 @@
+package com.terrarosa.terra_crm.core.security.config;
+
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Enforces {@link RequirePermission}.
+ *
+ * The annotation of a method (or of its class) is resolved once per method into a
+ * {@link PermissionCheck}; a call then only tests the request's {@link PermissionSet}, which
+ * JwtAuthenticationFilter compiled from the token. There is no expression parsing or bean
+ * resolution per call as with SpEL {@code @PreAuthorize}.
+ */
+public class RequirePermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Map<Method, PermissionCheck> checks = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication,
+                                         MethodInvocation invocation) {
+        PermissionCheck check = checks.computeIfAbsent(targetMethod(invocation), PermissionCheck::compile);
+        return check.test(authentication.get()) ? GRANTED : DENIED;
+    }
+
+    private static Method targetMethod(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        return target != null
+                ? AopUtils.getMostSpecificMethod(invocation.getMethod(), AopUtils.getTargetClass(target))
+                : invocation.getMethod();
+    }
+
+    /**
+     * A compiled {@link RequirePermission}: granted for Super Admin, otherwise if the user has
+     * one of {@code anyOf} (when given) and all of {@code allOf}.
+     */
+    record PermissionCheck(String[] anyOf, String[] allOf) {
+
+        static PermissionCheck compile(Method method) {
+            RequirePermission annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequirePermission.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(),
+                        RequirePermission.class);
+            }
+            if (annotation == null) {
+                throw new IllegalStateException("No @RequirePermission on " + method);
+            }
+            String[] anyOf = Stream.concat(Arrays.stream(annotation.value()), Arrays.stream(annotation.anyOf()))
+                    .distinct()
+                    .toArray(String[]::new);
+            String[] allOf = Arrays.stream(annotation.allOf()).distinct().toArray(String[]::new);
+            if (anyOf.length == 0 && allOf.length == 0) {
+                throw new IllegalStateException("@RequirePermission without permissions on " + method);
+            }
+            return new PermissionCheck(anyOf, allOf);
+        }
+
+        boolean test(Authentication authentication) {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return false;
+            }
+            PermissionSet grants = PermissionEvaluator.grantsOf(authentication);
+            if (grants != null) {
+                return grants.isSuperAdmin() || (matchesAny(grants::contains) && matchesAll(grants::contains));
+            }
+            // Authentications not created by JwtAuthenticationFilter
+            Set<String> authorities = authorityNames(authentication);
+            return authorities.stream().anyMatch(PermissionSet.SUPER_ADMIN_ROLE::equalsIgnoreCase)
+                    || (matchesAny(authorities::contains) && matchesAll(authorities::contains));
+        }
+
+        private boolean matchesAny(Predicate<String> granted) {
+            if (anyOf.length == 0) {
+                return true;
+            }
+            for (String permission : anyOf) {
+                if (granted.test(permission)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matchesAll(Predicate<String> granted) {
+            for (String permission : allOf) {
+                if (!granted.test(permission)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static Set<String> authorityNames(Authentication authentication) {
+            Set<String> names = new HashSet<>();
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                names.add(authority.getAuthority());
+            }
+            if (authentication.getPrincipal() instanceof UserDetails userDetails) {
+                for (GrantedAuthority authority : userDetails.getAuthorities()) {
+                    names.add(authority.getAuthority());
+                }
+            }
+            if (authentication.getDetails() instanceof PermissionEvaluator.JwtAuthenticationDetails details
+                    && details.getPermissions() != null) {
+                names.addAll(details.getPermissions());
+            }
+            return names;
+        }
+    }
+}
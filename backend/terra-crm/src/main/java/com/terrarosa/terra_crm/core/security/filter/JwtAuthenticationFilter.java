@@ -2,6 +2,8 @@ package com.terrarosa.terra_crm.core.security.filter;
 
 import com.terrarosa.terra_crm.core.security.service.CustomUserDetailsService;
 import com.terrarosa.terra_crm.core.security.service.JwtService;
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService;
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
 import com.terrarosa.terra_crm.core.tenancy.TenantContext;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
 import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
@@ -12,8 +14,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -21,8 +25,13 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -37,10 +46,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String TENANT_HEADER = "X-Tenant-ID";
+    private static final int MAX_COMPILED_AUTHORITIES = 1024;
     
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
     private final TenantRepository tenantRepository;
+    private final PermissionEpochService permissionEpochService;
+
+    /**
+     * Authorities compiled per combination of token permissions (catalog version, bitmap and
+     * uncatalogued names) and roles. Users of a tenant share a few such combinations, so most
+     * requests reuse the authority list and bitset instead of rebuilding them.
+     */
+    private final Map<AuthorityKey, CompiledAuthorities> compiledAuthorities = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<AuthorityKey, CompiledAuthorities> eldest) {
+                    return size() > MAX_COMPILED_AUTHORITIES;
+                }
+            });
+
+    private record AuthorityKey(PermissionSet jwtGrants, List<String> roles) {
+    }
+
+    /**
+     * @param permissions names of the token permissions
+     * @param authorities roles, then token permissions, without duplicates
+     * @param grants      all of them compiled against the permission catalog
+     */
+    private record CompiledAuthorities(List<String> permissions, List<GrantedAuthority> authorities,
+                                       PermissionSet grants) {
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -112,7 +148,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // SUSPENDED tenants are rejected at filter level (before business logic)
             try {
                 UUID tenantUuid = UUID.fromString(jwtTenantId);
-                Tenant tenant = tenantRepository.findById(tenantUuid).orElse(null);
+                // Read past the second-level cache so that a suspension applies on all nodes at once
+                Tenant tenant = tenantRepository.findCurrentById(tenantUuid).orElse(null);
                 
                 if (tenant == null) {
                     log.error("Tenant not found with ID: {}", jwtTenantId);
@@ -136,20 +173,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.debug("Set tenant context from JWT: tenantId={}, schemaName={}", jwtTenantId, schemaName);
         }
         
+        // Reject tokens issued before the last permission change of their user or tenant (in-memory
+        // epoch lookup); 401 makes the client refresh and pick up the current permissions
+        PermissionEpochService.Stamp epochs = jwtService.extractPermissionEpochs(token);
+        if (epochs != null && !permissionEpochService.isCurrent(epochs)) {
+            log.debug("Request rejected: access token of user {} predates a permission change", epochs.userId());
+            TenantContext.clear();
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Permissions changed, access token must be refreshed\"}");
+            return;
+        }
+        
         // Extract email and load user details
         String email = jwtService.extractEmail(token);
         
-        // Extract permissions from JWT token (module permissions)
-        List<String> jwtPermissions = jwtService.extractPermissions(token);
+        // Extract permissions from JWT token (module permissions), decoded from the bitmap claim.
+        // Tokens encoded with a permission catalog that is no longer known get a 401 so that the
+        // client refreshes them, like tokens that predate a permission change
+        PermissionSet jwtGrants;
+        try {
+            jwtGrants = jwtService.extractPermissionSet(token);
+        } catch (BadCredentialsException e) {
+            log.debug("Request rejected: {}", e.getMessage());
+            TenantContext.clear();
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Permission catalog changed, access token must be refreshed\"}");
+            return;
+        }
         
         // Extract roles from JWT token
         List<String> jwtRoles = jwtService.extractRoles(token);
         
         // Log extracted JWT claims for debugging
-        log.debug("Extracted from JWT for user {}: roles={}, permissions={}", 
-                email, 
-                jwtRoles != null ? jwtRoles : "null", 
-                jwtPermissions != null ? jwtPermissions : "null");
+        log.debug("Extracted from JWT for user {}: roles={}", email, jwtRoles != null ? jwtRoles : "null");
         
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
@@ -157,67 +215,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // CRITICAL: Merge JWT roles AND permissions with database authorities for @PreAuthorize checks
             // Spring Security's @PreAuthorize("hasAnyAuthority(...)") checks authorities
             // JWT token contains both roles and module permissions, so we need to ensure they're all in authorities
-            Collection<org.springframework.security.core.GrantedAuthority> mergedAuthorities = 
-                    new java.util.ArrayList<>(userDetails.getAuthorities());
-            
-            int addedRoles = 0;
-            int addedPermissions = 0;
-            
-            // Add JWT roles as authorities if not already present
+            List<String> roles = new ArrayList<>();
+            userDetails.getAuthorities().forEach(authority -> roles.add(authority.getAuthority()));
             if (jwtRoles != null) {
-                for (String role : jwtRoles) {
-                    org.springframework.security.core.GrantedAuthority authority = 
-                            new org.springframework.security.core.authority.SimpleGrantedAuthority(role);
-                    if (!mergedAuthorities.contains(authority)) {
-                        mergedAuthorities.add(authority);
-                        addedRoles++;
-                        log.debug("Added JWT role '{}' to authorities for user {}", role, email);
-                    }
-                }
-            }
-            
-            // CRITICAL FIX: Add JWT permissions (module permissions) as authorities
-            // These are needed for @PreAuthorize checks like hasAnyAuthority('SETTINGS_PERMISSIONS_CREATE')
-            if (jwtPermissions != null) {
-                for (String permission : jwtPermissions) {
-                    org.springframework.security.core.GrantedAuthority authority = 
-                            new org.springframework.security.core.authority.SimpleGrantedAuthority(permission);
-                    if (!mergedAuthorities.contains(authority)) {
-                        mergedAuthorities.add(authority);
-                        addedPermissions++;
-                        log.debug("Added JWT permission '{}' to authorities for user {}", permission, email);
-                    }
-                }
+                roles.addAll(jwtRoles);
             }
+            CompiledAuthorities compiled = compiledAuthorities(jwtGrants, roles);
             
             // Create authentication token with merged authorities
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
-                    mergedAuthorities
+                    compiled.authorities()
             );
             
-            // Set JWT details including permissions for permission evaluator
+            // Set JWT details including permissions for permission evaluator; all authorities are
+            // compiled into a bitset so each @PreAuthorize check is a single bit test
             com.terrarosa.terra_crm.core.security.config.PermissionEvaluator.JwtAuthenticationDetails jwtDetails = 
-                    new com.terrarosa.terra_crm.core.security.config.PermissionEvaluator.JwtAuthenticationDetails(jwtPermissions, token);
+                    new com.terrarosa.terra_crm.core.security.config.PermissionEvaluator.JwtAuthenticationDetails(
+                            compiled.permissions(), token, compiled.grants());
             authentication.setDetails(jwtDetails);
             
             // Set authentication in security context
             SecurityContextHolder.getContext().setAuthentication(authentication);
             
             // CRITICAL: Log authority names at DEBUG level for 403 troubleshooting
-            String authorityNames = mergedAuthorities.stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .collect(java.util.stream.Collectors.joining(", "));
-            log.debug("Set authentication for user: {} (tenant: {}) with {} JWT roles (added {}), {} JWT permissions (added {}), {} total authorities: [{}]", 
-                    email, 
-                    jwtService.extractTenantId(token),
-                    jwtRoles != null ? jwtRoles.size() : 0, 
-                    addedRoles,
-                    jwtPermissions != null ? jwtPermissions.size() : 0, 
-                    addedPermissions,
-                    mergedAuthorities.size(), 
-                    authorityNames);
+            if (log.isDebugEnabled()) {
+                String authorityNames = compiled.authorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(java.util.stream.Collectors.joining(", "));
+                log.debug("Set authentication for user: {} (tenant: {}) with {} JWT roles, {} JWT permissions, {} total authorities: [{}]", 
+                        email, 
+                        jwtTenantId,
+                        jwtRoles != null ? jwtRoles.size() : 0, 
+                        compiled.permissions().size(),
+                        compiled.authorities().size(), 
+                        authorityNames);
+            }
         }
         
         try {
@@ -228,6 +262,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
     
+    /**
+     * The authorities for these token permissions and roles, compiled on first use.
+     */
+    private CompiledAuthorities compiledAuthorities(PermissionSet jwtGrants, List<String> roles) {
+        AuthorityKey key = new AuthorityKey(jwtGrants, roles);
+        CompiledAuthorities compiled = compiledAuthorities.get(key);
+        if (compiled == null) {
+            List<String> permissions = jwtGrants.names();
+            // Set-based merge: SimpleGrantedAuthority equality is by name
+            Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+            roles.forEach(role -> authorities.add(new SimpleGrantedAuthority(role)));
+            permissions.forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+            compiled = new CompiledAuthorities(List.copyOf(permissions), List.copyOf(authorities),
+                    jwtGrants.plus(roles));
+            compiledAuthorities.put(key, compiled);
+        }
+        return compiled;
+    }
+    
     /**
      * Extract JWT token from request.
      * Stateless API: Only Authorization: Bearer header is used (no cookies).
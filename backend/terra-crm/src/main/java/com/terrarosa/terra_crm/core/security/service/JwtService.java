@@ -1,18 +1,26 @@
 package com.terrarosa.terra_crm.core.security.service;
 
 import com.terrarosa.terra_crm.core.security.util.PermissionMapper;
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalogService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.io.Decoders;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -21,7 +29,27 @@ import java.util.function.Function;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class JwtService {
+
+    /**
+     * Permissions are carried as a bitmap over the permission catalog ({@link PermissionSet#toBitmap()})
+     * plus the catalog version it was encoded with; the "permissions" claim then only lists
+     * compressed names that are not in the catalog. Tokens without a bitmap use the list alone;
+     * tokens whose catalog version is no longer known are rejected.
+     */
+    private static final String PERMISSIONS_CLAIM = "permissions";
+    private static final String PERMISSIONS_BITMAP_CLAIM = "perm_bits";
+    private static final String PERMISSIONS_VERSION_CLAIM = "perm_v";
+
+    /**
+     * Permission epochs ({@link PermissionEpochService}) of the token's user and tenant at issue time.
+     */
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String USER_EPOCH_CLAIM = "pe_u";
+    private static final String TENANT_EPOCH_CLAIM = "pe_t";
+
+    private final PermissionCatalogService permissionCatalogService;
     
     @Value("${jwt.secret}")
     private String secretKey;
@@ -69,28 +97,27 @@ public class JwtService {
     /**
      * Generate access token for a user.
      * Short-lived token (15 minutes) containing all authorization information.
-     * Permissions are compressed to reduce JWT size.
+     * Permissions are encoded as a catalog bitmap to reduce JWT size.
      * 
      * @param email User email
      * @param tenantId Tenant ID
      * @param schemaName Schema name
      * @param roles User roles
      * @param permissions User permissions
+     * @param epochs Permission epochs of the user and tenant, read before the permissions
      * @return Access token string
      */
-    public String generateAccessToken(String email, String tenantId, String schemaName, List<String> roles, List<String> permissions) {
+    public String generateAccessToken(String email, String tenantId, String schemaName, List<String> roles,
+                                      List<String> permissions, PermissionEpochService.Stamp epochs) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration); // 15 minutes
         
-        // Compress permissions to reduce JWT size
-        List<String> compressedPermissions = PermissionMapper.compressPermissions(permissions);
-        
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(email)
                 .claim("tenantId", tenantId)
                 .claim("schema_name", schemaName)
-                .claim("roles", roles)
-                .claim("permissions", compressedPermissions)
+                .claim("roles", roles);
+        return withEpochs(withPermissions(builder, permissions), epochs)
                 .claim("type", "access") // Token type claim
                 .issuedAt(now)
                 .expiration(expiryDate)
@@ -176,7 +203,7 @@ public class JwtService {
      */
     @Deprecated
     public String generateToken(String email, String tenantId, String schemaName, List<String> roles, List<String> permissions) {
-        return generateAccessToken(email, tenantId, schemaName, roles, permissions);
+        return generateAccessToken(email, tenantId, schemaName, roles, permissions, null);
     }
     
     /**
@@ -185,7 +212,7 @@ public class JwtService {
      */
     @Deprecated
     public String generateToken(String email, String tenantId, String schemaName, List<String> roles) {
-        return generateAccessToken(email, tenantId, schemaName, roles, List.of());
+        return generateAccessToken(email, tenantId, schemaName, roles, List.of(), null);
     }
     
     /**
@@ -253,19 +280,80 @@ public class JwtService {
     }
     
     /**
-     * Extract permissions from token.
-     * Permissions are expanded from compressed format back to full names.
+     * Extract permissions from token as full names.
      */
-    @SuppressWarnings("unchecked")
     public List<String> extractPermissions(String token) {
-        List<String> compressed = extractClaim(token, claims -> claims.get("permissions", List.class));
-        if (compressed == null || compressed.isEmpty()) {
-            return List.of();
+        return extractPermissionSet(token).names();
+    }
+
+    /**
+     * Extract permissions from token, compiled against the current permission catalog.
+     *
+     * The bitmap is decoded with the catalog version it was issued with; if the catalog has
+     * been reloaded since, its names are re-indexed against the current catalog. Tokens without
+     * a bitmap use the string list.
+     *
+     * @throws BadCredentialsException if the token was issued with a catalog version that is no
+     *                                 longer known: the list only holds the names outside the
+     *                                 bitmap, so the permissions cannot be recovered and the
+     *                                 token must be refreshed
+     */
+    @SuppressWarnings("unchecked")
+    public PermissionSet extractPermissionSet(String token) {
+        Claims claims = extractAllClaims(token);
+        List<String> listed = PermissionMapper.expandPermissions(claims.get(PERMISSIONS_CLAIM, List.class));
+        PermissionCatalog current = permissionCatalogService.getCatalog();
+        String bitmap = claims.get(PERMISSIONS_BITMAP_CLAIM, String.class);
+        if (bitmap == null) {
+            return PermissionSet.of(current, listed);
         }
-        // Expand compressed permissions back to full names
-        return PermissionMapper.expandPermissions(compressed);
+        String version = claims.get(PERMISSIONS_VERSION_CLAIM, String.class);
+        Optional<PermissionCatalog> issuedWith = permissionCatalogService.getCatalog(version);
+        if (issuedWith.isEmpty()) {
+            log.debug("Access token permissions use unknown catalog version {}", version);
+            throw new BadCredentialsException("Access token permissions use an unknown catalog version");
+        }
+        PermissionSet decoded = PermissionSet.fromBitmap(issuedWith.get(), bitmap, listed);
+        return issuedWith.get() == current ? decoded : PermissionSet.of(current, decoded.names());
+    }
+
+    private JwtBuilder withPermissions(JwtBuilder builder, List<String> permissions) {
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        PermissionSet granted = PermissionSet.of(catalog, permissions != null ? permissions : List.of());
+        return builder
+                .claim(PERMISSIONS_VERSION_CLAIM, catalog.version())
+                .claim(PERMISSIONS_BITMAP_CLAIM, granted.toBitmap())
+                .claim(PERMISSIONS_CLAIM,
+                        PermissionMapper.compressPermissions(List.copyOf(granted.getUncatalogued())));
     }
     
+    /**
+     * Extract the permission epochs the token was issued with, or null for tokens issued without
+     * them (checked by nothing but their expiry).
+     */
+    public PermissionEpochService.Stamp extractPermissionEpochs(String token) {
+        Claims claims = extractAllClaims(token);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Long userEpoch = claims.get(USER_EPOCH_CLAIM, Long.class);
+        Long tenantEpoch = claims.get(TENANT_EPOCH_CLAIM, Long.class);
+        if (userId == null || userEpoch == null || tenantEpoch == null) {
+            return null;
+        }
+        String tenantId = claims.get("tenantId", String.class);
+        return new PermissionEpochService.Stamp(UUID.fromString(userId),
+                tenantId != null ? UUID.fromString(tenantId) : null, userEpoch, tenantEpoch);
+    }
+
+    private JwtBuilder withEpochs(JwtBuilder builder, PermissionEpochService.Stamp epochs) {
+        if (epochs == null) {
+            return builder;
+        }
+        return builder
+                .claim(USER_ID_CLAIM, epochs.userId().toString())
+                .claim(USER_EPOCH_CLAIM, epochs.userEpoch())
+                .claim(TENANT_EPOCH_CLAIM, epochs.tenantEpoch());
+    }
+
     /**
      * Check if token is expired.
      */
@@ -291,6 +379,7 @@ public class JwtService {
      * @param impersonatedRoles Roles of the impersonated user
      * @param impersonatedPermissions Permissions of the impersonated user
      * @param originalUserId UUID of the Super Admin who started impersonation
+     * @param impersonatedEpochs Permission epochs of the impersonated user and tenant
      * @return Impersonation JWT token
      */
     public String generateImpersonationToken(
@@ -299,20 +388,18 @@ public class JwtService {
             String impersonatedSchemaName,
             List<String> impersonatedRoles,
             List<String> impersonatedPermissions,
-            String originalUserId) {
+            String originalUserId,
+            PermissionEpochService.Stamp impersonatedEpochs) {
         
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration); // 15 minutes (same as access token)
         
-        // Compress permissions to reduce JWT size
-        List<String> compressedPermissions = PermissionMapper.compressPermissions(impersonatedPermissions);
-        
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(impersonatedEmail) // Subject is the impersonated user's email
                 .claim("tenantId", impersonatedTenantId)
                 .claim("schema_name", impersonatedSchemaName)
-                .claim("roles", impersonatedRoles)
-                .claim("permissions", compressedPermissions)
+                .claim("roles", impersonatedRoles);
+        return withEpochs(withPermissions(builder, impersonatedPermissions), impersonatedEpochs)
                 .claim("type", "access") // Token type is still "access"
                 .claim("is_impersonation", true) // CRITICAL: Flag indicating this is an impersonation token
                 .claim("impersonated_user_id", impersonatedEmail) // User being impersonated (email for now)
@@ -0,0 +1,154 @@
+package com.terrarosa.terra_crm.core.security.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user and per-tenant permission epochs ({@code public.permission_epochs}).
+ *
+ * Access tokens carry the epochs of their user and tenant at issue time. Whatever changes what
+ * a token grants (permissions, bundles, modules, roles, enabled flag, password) bumps the epoch,
+ * and JwtAuthenticationFilter rejects tokens older than the current epochs, so the client
+ * refreshes at once instead of using stale permissions until the token expires.
+ *
+ * The check is two hash-map lookups: every node keeps the epochs in memory. Local bumps are
+ * applied once committed; bumps made by other nodes are picked up by polling the rows changed
+ * within the last {@code lookback}, every {@code poll-interval}. Subjects without a row have
+ * epoch 0.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PermissionEpochService {
+
+    public enum SubjectType {
+        USER, TENANT
+    }
+
+    /**
+     * Epochs of a user and its tenant, as embedded in an access token.
+     */
+    public record Stamp(UUID userId, UUID tenantId, long userEpoch, long tenantEpoch) {
+    }
+
+    private static final String BUMP = "INSERT INTO public.permission_epochs (subject_type, subject_id, epoch, changed_at) "
+            + "SELECT ?, s.id, nextval('public.permission_epoch_seq'), NOW() FROM unnest(?::uuid[]) AS s(id) "
+            + "ON CONFLICT (subject_type, subject_id) "
+            + "DO UPDATE SET epoch = EXCLUDED.epoch, changed_at = EXCLUDED.changed_at "
+            + "RETURNING subject_type, subject_id, epoch";
+
+    private static final String FIND = "SELECT subject_type, subject_id, epoch FROM public.permission_epochs "
+            + "WHERE (subject_type = 'USER' AND subject_id = ?) OR (subject_type = 'TENANT' AND subject_id = ?)";
+
+    private static final String FIND_ALL = "SELECT subject_type, subject_id, epoch FROM public.permission_epochs";
+
+    private static final String FIND_CHANGED = FIND_ALL + " WHERE changed_at >= NOW() - make_interval(secs => ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.security.permission-epochs.lookback:PT1M}")
+    private Duration lookback;
+
+    private final Map<UUID, Long> userEpochs = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> tenantEpochs = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Current epochs of a user and its tenant, read from the database. When issuing a token,
+     * call this before reading the permissions: a change committed in between then makes the
+     * token stale, never the other way round.
+     */
+    public Stamp currentStamp(UUID userId, UUID tenantId) {
+        Map<SubjectType, Long> epochs = new HashMap<>();
+        jdbcTemplate.query(FIND, (RowCallbackHandler) rs -> {
+            epochs.put(SubjectType.valueOf(rs.getString(1)), rs.getLong(3));
+            applyRow(rs);
+        }, userId, tenantId);
+        return new Stamp(userId, tenantId,
+                epochs.getOrDefault(SubjectType.USER, 0L), epochs.getOrDefault(SubjectType.TENANT, 0L));
+    }
+
+    /**
+     * Whether a token with these epochs was issued after the last bump of its user and tenant.
+     */
+    public boolean isCurrent(Stamp stamp) {
+        return userEpochs.getOrDefault(stamp.userId(), 0L) <= stamp.userEpoch()
+                && (stamp.tenantId() == null || tenantEpochs.getOrDefault(stamp.tenantId(), 0L) <= stamp.tenantEpoch());
+    }
+
+    /**
+     * Invalidate the access tokens of the users. Runs on the caller's transaction (one statement);
+     * takes effect on this node once committed.
+     */
+    public void bumpUsers(Collection<UUID> userIds) {
+        bump(SubjectType.USER, userIds);
+    }
+
+    /**
+     * Invalidate the access tokens of all users of the tenant.
+     */
+    public void bumpTenant(UUID tenantId) {
+        bump(SubjectType.TENANT, Set.of(tenantId));
+    }
+
+    private void bump(SubjectType type, Collection<UUID> subjectIds) {
+        if (subjectIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Long> epochs = new HashMap<>();
+        jdbcTemplate.query(BUMP, (RowCallbackHandler) rs -> epochs.put(rs.getObject(2, UUID.class), rs.getLong(3)),
+                type.name(), new SqlArrayValue("uuid", subjectIds.toArray()));
+        eventPublisher.publishEvent(new PermissionEpochsBumpedEvent(type, epochs));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionEpochsBumped(PermissionEpochsBumpedEvent event) {
+        event.epochs().forEach((subjectId, epoch) -> apply(event.subjectType(), subjectId, epoch));
+    }
+
+    /**
+     * Pick up bumps made by other nodes. The first run loads all epochs.
+     */
+    @Scheduled(fixedDelayString = "${app.security.permission-epochs.poll-interval:PT2S}")
+    public void poll() {
+        try {
+            if (loaded) {
+                jdbcTemplate.query(FIND_CHANGED, (RowCallbackHandler) this::applyRow, lookback.toSeconds());
+            } else {
+                jdbcTemplate.query(FIND_ALL, (RowCallbackHandler) this::applyRow);
+                loaded = true;
+                log.info("Loaded permission epochs: {} users, {} tenants", userEpochs.size(), tenantEpochs.size());
+            }
+        } catch (Exception e) {
+            log.error("Failed to poll permission epochs: {}", e.getMessage(), e);
+        }
+    }
+
+    private void applyRow(ResultSet rs) throws SQLException {
+        apply(SubjectType.valueOf(rs.getString(1)), rs.getObject(2, UUID.class), rs.getLong(3));
+    }
+
+    private void apply(SubjectType type, UUID subjectId, long epoch) {
+        (type == SubjectType.USER ? userEpochs : tenantEpochs).merge(subjectId, epoch, Math::max);
+    }
+}
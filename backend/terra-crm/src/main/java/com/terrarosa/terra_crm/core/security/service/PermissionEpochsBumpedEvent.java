@@ -0,0 +1,11 @@
+package com.terrarosa.terra_crm.core.security.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Published when permission epochs are bumped, so the in-memory epochs of this node are updated
+ * once the change is committed.
+ */
+public record PermissionEpochsBumpedEvent(PermissionEpochService.SubjectType subjectType, Map<UUID, Long> epochs) {
+}
@@ -0,0 +1,175 @@
+package com.terrarosa.terra_crm.core.security.util;
+
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The authorities granted to one authenticated request, compiled against a
+ * {@link PermissionCatalog}: catalogued permissions are bits at their dense catalog index,
+ * anything else (roles, names unknown to the catalog) is kept in a small name set.
+ *
+ * Built once per request by JwtAuthenticationFilter so that the many
+ * {@code @permissionEvaluator.hasPermission(...)} checks of a request are a lookup and a bit
+ * test instead of scans over the authority list. Immutable; the catalog it was built with is
+ * kept, so a catalog reload during the request does not shift the indexes.
+ *
+ * The catalogued part also serves as the compact permission claim of access tokens: a
+ * base64url bitmap (bit i is byte i/8, bit i%8) valid for one catalog version.
+ *
+ * Two sets are equal when they grant the same authorities against the same catalog version, so
+ * a set can key caches of what is derived from it.
+ */
+public final class PermissionSet {
+
+    public static final String SUPER_ADMIN_ROLE = "ROLE_SUPER_ADMIN";
+
+    private final PermissionCatalog catalog;
+    private final long[] words;
+    private final Set<String> uncatalogued;
+    private final boolean superAdmin;
+
+    private PermissionSet(PermissionCatalog catalog, long[] words, Set<String> uncatalogued, boolean superAdmin) {
+        this.catalog = catalog;
+        this.words = words;
+        this.uncatalogued = uncatalogued;
+        this.superAdmin = superAdmin;
+    }
+
+    public static PermissionSet of(PermissionCatalog catalog, Collection<String> authorities) {
+        return of(catalog, new long[(catalog.size() + 63) >>> 6], authorities);
+    }
+
+    /**
+     * Decode a bitmap produced by {@link #toBitmap()} with the same catalog version, together
+     * with authorities that are not in the bitmap.
+     *
+     * @throws IllegalArgumentException if the bitmap is not valid base64url
+     */
+    public static PermissionSet fromBitmap(PermissionCatalog catalog, String bitmap, Collection<String> authorities) {
+        byte[] bytes = Base64.getUrlDecoder().decode(bitmap);
+        long[] words = new long[(catalog.size() + 63) >>> 6];
+        int limit = Math.min(bytes.length, (catalog.size() + 7) >>> 3);
+        for (int i = 0; i < limit; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        int tail = catalog.size() & 63;
+        if (tail != 0 && words.length > 0) {
+            // Bits beyond the catalog belong to no permission
+            words[words.length - 1] &= (1L << tail) - 1;
+        }
+        return of(catalog, words, authorities);
+    }
+
+    /**
+     * A set that also contains the given authorities.
+     */
+    public PermissionSet plus(Collection<String> authorities) {
+        PermissionSet added = of(catalog, words.clone(), authorities);
+        Set<String> names = new HashSet<>(uncatalogued);
+        names.addAll(added.uncatalogued);
+        return new PermissionSet(catalog, added.words, Set.copyOf(names), superAdmin || added.superAdmin);
+    }
+
+    private static PermissionSet of(PermissionCatalog catalog, long[] words, Collection<String> authorities) {
+        Set<String> uncatalogued = new HashSet<>();
+        boolean superAdmin = false;
+        for (String authority : authorities) {
+            if (authority == null) {
+                continue;
+            }
+            int index = catalog.indexOf(authority);
+            if (index >= 0) {
+                words[index >>> 6] |= 1L << index;
+            } else {
+                uncatalogued.add(authority);
+            }
+            superAdmin |= SUPER_ADMIN_ROLE.equalsIgnoreCase(authority);
+        }
+        return new PermissionSet(catalog, words, Set.copyOf(uncatalogued), superAdmin);
+    }
+
+    /**
+     * Whether the authority was granted. Does not apply the super admin bypass; see
+     * {@link #isSuperAdmin()}.
+     */
+    public boolean contains(String authority) {
+        int index = catalog.indexOf(authority);
+        if (index >= 0) {
+            return (words[index >>> 6] & (1L << index)) != 0;
+        }
+        return authority != null && uncatalogued.contains(authority);
+    }
+
+    public boolean isSuperAdmin() {
+        return superAdmin;
+    }
+
+    public PermissionCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Authorities that are not in the catalog (roles, unknown names).
+     */
+    public Set<String> getUncatalogued() {
+        return uncatalogued;
+    }
+
+    /**
+     * The catalogued permissions as a base64url bitmap, without trailing zero bytes.
+     */
+    public String toBitmap() {
+        byte[] bytes = new byte[words.length << 3];
+        int length = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+            if (bytes[i] != 0) {
+                length = i + 1;
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+    }
+
+    /**
+     * All granted authority names: catalogued permissions in catalog order, then the rest.
+     */
+    public List<String> names() {
+        List<PermissionCatalog.Entry> entries = catalog.all();
+        List<String> names = new ArrayList<>(entries.size() + uncatalogued.size());
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                names.add(entries.get((w << 6) + Long.numberOfTrailingZeros(word)).name());
+                word &= word - 1;
+            }
+        }
+        names.addAll(uncatalogued);
+        return names;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionSet other)) {
+            return false;
+        }
+        return superAdmin == other.superAdmin
+                && Arrays.equals(words, other.words)
+                && uncatalogued.equals(other.uncatalogued)
+                && catalog.version().equals(other.catalog.version());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(words) + uncatalogued.hashCode();
+    }
+}
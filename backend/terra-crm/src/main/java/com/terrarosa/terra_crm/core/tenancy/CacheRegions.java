@@ -0,0 +1,26 @@
+package com.terrarosa.terra_crm.core.tenancy;
+
+/**
+ * Hibernate second-level cache regions, created by {@link HibernateConfig}.
+ */
+public final class CacheRegions {
+
+    /**
+     * Roles and permissions: public schema, changed only by migrations.
+     */
+    public static final String AUTH_REFERENCE = "auth-reference";
+
+    /**
+     * Tenants and their modules: public schema, changed by super admin operations.
+     */
+    public static final String TENANT_DIRECTORY = "tenant-directory";
+
+    /**
+     * Hibernate's default query cache regions.
+     */
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
@@ -1,14 +1,34 @@
 package com.terrarosa.terra_crm.core.tenancy;
 
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
 import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.EternalExpiryPolicy;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration class that manually provides Spring-managed multi-tenancy beans
  * to Hibernate. This ensures Hibernate uses the Spring-managed instances instead
  * of instantiating them directly, which would result in null dependencies.
+ *
+ * Also enables the second-level and query cache for read-mostly public-schema entities
+ * ({@link CacheRegions}). Cache keys are tenant-aware ({@link TenantAwareCacheKeysFactory}). The
+ * caches are local to each node, so entries expire after a TTL to pick up changes made on other
+ * nodes; the update timestamps region never expires, otherwise cached query results could
+ * outlive the invalidation of their tables. Cache hits bypass the soft-delete restriction, so
+ * the cached entities are removed with bulk statements (which evict their region), not soft-deleted.
  */
 @Configuration
 public class HibernateConfig {
@@ -16,11 +36,39 @@ public class HibernateConfig {
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
             MultiTenantConnectionProvider multiTenantConnectionProvider,
-            CurrentTenantIdentifierResolver currentTenantIdentifierResolver) {
+            CurrentTenantIdentifierResolver currentTenantIdentifierResolver,
+            CacheManager hibernateCacheManager) {
         return hibernateProperties -> {
             hibernateProperties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, multiTenantConnectionProvider);
             hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, currentTenantIdentifierResolver);
             hibernateProperties.put("hibernate.multiTenancy", "SCHEMA");
+
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY,
+                    new JCacheRegionFactory(new TenantAwareCacheKeysFactory()));
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
         };
     }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.hibernate-cache.reference-ttl:PT10M}") Duration referenceTtl,
+            @Value("${app.hibernate-cache.tenant-ttl:PT30S}") Duration tenantTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        cacheManager.createCache(CacheRegions.AUTH_REFERENCE, expiringAfter(referenceTtl));
+        cacheManager.createCache(CacheRegions.TENANT_DIRECTORY, expiringAfter(tenantTtl));
+        cacheManager.createCache(CacheRegions.QUERY_RESULTS, expiringAfter(tenantTtl));
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, new MutableConfiguration<>()
+                .setExpiryPolicyFactory(EternalExpiryPolicy.factoryOf()));
+        return cacheManager;
+    }
+
+    private static MutableConfiguration<Object, Object> expiringAfter(Duration ttl) {
+        return new MutableConfiguration<>()
+                .setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(
+                        new javax.cache.expiry.Duration(TimeUnit.MILLISECONDS, ttl.toMillis())))
+                .setStatisticsEnabled(true);
+    }
 }
@@ -0,0 +1,76 @@
+package com.terrarosa.terra_crm.core.tenancy;
+
+import jakarta.persistence.Table;
+import org.hibernate.cache.internal.DefaultCacheKeysFactory;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Second-level cache keys for schema-per-tenant multitenancy.
+ *
+ * Hibernate qualifies every cache key with the session's tenant identifier (the schema name).
+ * That is right for tenant-schema entities, whose rows with the same id live in different
+ * schemas, but wrong for entities mapped to the {@code public} schema: the same row would be
+ * cached once per tenant, and an update made in one tenant's session would evict only that
+ * tenant's copy. Keys of public-schema entities (and of their collections) are therefore created
+ * without a tenant identifier, so all tenants share one entry per row.
+ */
+public class TenantAwareCacheKeysFactory implements CacheKeysFactory {
+
+    private static final String SHARED_SCHEMA = "public";
+
+    private final Map<Class<?>, Boolean> sharedTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public Object createCollectionKey(Object id, CollectionPersister persister, SessionFactoryImplementor factory,
+                                      String tenantIdentifier) {
+        boolean shared = isShared(persister.getOwnerEntityPersister().getMappedClass());
+        return DefaultCacheKeysFactory.staticCreateCollectionKey(id, persister, factory,
+                shared ? null : tenantIdentifier);
+    }
+
+    @Override
+    public Object createEntityKey(Object id, EntityPersister persister, SessionFactoryImplementor factory,
+                                  String tenantIdentifier) {
+        boolean shared = isShared(persister.getMappedClass());
+        return DefaultCacheKeysFactory.staticCreateEntityKey(id, persister, factory,
+                shared ? null : tenantIdentifier);
+    }
+
+    @Override
+    public Object createNaturalIdKey(Object naturalIdValues, EntityPersister persister,
+                                     SharedSessionContractImplementor session) {
+        return DefaultCacheKeysFactory.staticCreateNaturalIdKey(naturalIdValues, persister, session);
+    }
+
+    @Override
+    public Object getEntityId(Object cacheKey) {
+        return DefaultCacheKeysFactory.staticGetEntityId(cacheKey);
+    }
+
+    @Override
+    public Object getCollectionId(Object cacheKey) {
+        return DefaultCacheKeysFactory.staticGetCollectionId(cacheKey);
+    }
+
+    @Override
+    public Object getNaturalIdValues(Object cacheKey) {
+        return DefaultCacheKeysFactory.staticGetNaturalIdValues(cacheKey);
+    }
+
+    /**
+     * Whether the entity is mapped to the public schema, so its cache entries are shared by all tenants.
+     */
+    boolean isShared(Class<?> entityClass) {
+        return sharedTypes.computeIfAbsent(entityClass, type -> {
+            Table table = type.getAnnotation(Table.class);
+            return table != null && SHARED_SCHEMA.equals(table.schema());
+        });
+    }
+}
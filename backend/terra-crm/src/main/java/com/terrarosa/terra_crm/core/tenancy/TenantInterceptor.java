@@ -63,7 +63,7 @@ public class TenantInterceptor implements HandlerInterceptor {
         // Validate tenant exists in public schema (tenants table is in public schema)
         // This query runs in public schema, no need to change schema
         try {
-            Tenant tenant = tenantRepository.findById(java.util.UUID.fromString(tenantId))
+            Tenant tenant = tenantRepository.findCurrentById(java.util.UUID.fromString(tenantId))
                     .orElse(null);
             
             if (tenant == null) {
@@ -0,0 +1,82 @@
+package com.terrarosa.terra_crm.core.tenancy.config;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.entity.SchemaPoolStatus;
+import com.terrarosa.terra_crm.core.tenancy.repository.SchemaPoolRepository;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.health.service.CustomerParametersService;
+import com.terrarosa.terra_crm.modules.health.service.ReminderSettingsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies pending tenant migrations to every existing tenant schema on startup.
+ * 
+ * Tenant migrations are otherwise only executed when a schema is provisioned into the pool,
+ * so schemas created before a new db/migration/tenant script was added would never receive it.
+ * Covers assigned tenant schemas and READY pool schemas. Failures are logged per schema and
+ * do not stop the application.
+ * 
+ * Each migrated schema also gets the health module's system defaults, like a newly provisioned
+ * one, so reference data reads can rely on them without seeding on the read path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(50) // Before SuperAdminInitializer (100) and seed data (101)
+@DependsOn("flyway") // CRITICAL: public schema (tenants, schema_pool) must be migrated first
+public class TenantSchemaMigrationRunner implements CommandLineRunner {
+
+    private final TenantRepository tenantRepository;
+    private final SchemaPoolRepository schemaPoolRepository;
+    private final TenantService tenantService;
+    private final CustomerParametersService customerParametersService;
+    private final ReminderSettingsService reminderSettingsService;
+
+    @Value("${app.tenancy.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!migrateOnStartup) {
+            log.info("Tenant schema migration on startup is disabled");
+            return;
+        }
+
+        Set<String> schemaNames = new LinkedHashSet<>(tenantRepository.findAllTenantSchemaNames());
+        schemaPoolRepository.findAll().stream()
+                .filter(pool -> pool.getStatus() == SchemaPoolStatus.READY)
+                .forEach(pool -> schemaNames.add(pool.getSchemaName()));
+
+        int migrated = 0;
+        for (String schemaName : schemaNames) {
+            try {
+                tenantService.runTenantMigrations(schemaName);
+                seedSystemDefaults(schemaName);
+                migrated++;
+            } catch (Exception e) {
+                log.error("Failed to migrate tenant schema {} on startup: {}", schemaName, e.getMessage(), e);
+            }
+        }
+        log.info("Tenant schema migrations checked for {}/{} schemas", migrated, schemaNames.size());
+    }
+
+    private void seedSystemDefaults(String schemaName) {
+        TenantContext.setCurrentTenant(null, schemaName);
+        try {
+            customerParametersService.ensureSystemDefaults();
+            reminderSettingsService.ensureSystemDefaults();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
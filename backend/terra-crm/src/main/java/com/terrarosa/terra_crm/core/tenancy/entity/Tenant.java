@@ -1,8 +1,11 @@
 package com.terrarosa.terra_crm.core.tenancy.entity;
 
 import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
+import com.terrarosa.terra_crm.core.tenancy.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -10,6 +13,8 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TENANT_DIRECTORY)
 @Table(name = "tenants", schema = "public")
 @Getter
 @Setter
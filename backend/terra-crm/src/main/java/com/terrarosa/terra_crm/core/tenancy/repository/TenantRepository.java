@@ -2,13 +2,42 @@ package com.terrarosa.terra_crm.core.tenancy.repository;
 
 import com.terrarosa.terra_crm.core.common.repository.SoftDeleteRepository;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TenantRepository extends SoftDeleteRepository<Tenant, UUID> {
     
+    /**
+     * Query-cached: the system tenant is looked up by schema name for every super admin request.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Tenant> findBySchemaName(String schemaName);
+    
+    /**
+     * The tenant as currently stored, for the per-request status check: the read bypasses the
+     * second-level cache, whose entries on other nodes only expire after the tenant TTL, so a
+     * suspension takes effect on every node at once. The fresh state replaces this node's entry.
+     */
+    @Query("SELECT t FROM Tenant t WHERE t.id = :id")
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    Optional<Tenant> findCurrentById(@Param("id") UUID id);
+
+    /**
+     * Schema names of all tenants that own a dedicated schema (excludes the SYSTEM tenant's public schema).
+     */
+    @Query("SELECT t.schemaName FROM Tenant t WHERE t.schemaName <> 'public' ORDER BY t.schemaName")
+    List<String> findAllTenantSchemaNames();
 }
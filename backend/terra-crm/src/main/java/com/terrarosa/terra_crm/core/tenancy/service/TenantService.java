@@ -266,4 +266,16 @@ public class TenantService {
         // Only allow alphanumeric, underscore, and ensure it doesn't start with numbers
         return schemaName.replaceAll("[^a-zA-Z0-9_]", "");
     }
+    
+    /**
+     * Validated, double-quoted tenant schema identifier for native SQL.
+     * Rejects a missing or public schema, since tenant tables only exist in tenant schemas.
+     */
+    public String quotedSchema(String schemaName) {
+        if (schemaName == null || "public".equals(schemaName)) {
+            throw new IllegalStateException("Operation requires a tenant context");
+        }
+        validateSchemaName(schemaName);
+        return "\"" + sanitizeSchemaName(schemaName) + "\"";
+    }
 }
@@ -1,16 +1,30 @@
 package com.terrarosa.terra_crm.modules.ads.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.ads.dto.DedupeJobDto;
 import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
 import com.terrarosa.terra_crm.modules.ads.dto.LeadDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadIntakeBatchRequest;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadIntakeResultDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchPageDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchRequest;
 import com.terrarosa.terra_crm.modules.ads.dto.LeadUpdateRequest;
+import com.terrarosa.terra_crm.modules.ads.dto.MatchCandidateDto;
+import com.terrarosa.terra_crm.modules.ads.dto.PromoteFieldRequest;
+import com.terrarosa.terra_crm.modules.ads.dto.PromotedFieldDto;
+import com.terrarosa.terra_crm.modules.ads.intake.LeadIntakeService;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateDedupeService;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
+import com.terrarosa.terra_crm.modules.ads.search.LeadSearchService;
+import com.terrarosa.terra_crm.modules.ads.search.PromotedFieldService;
 import com.terrarosa.terra_crm.modules.ads.service.LeadService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -26,32 +40,135 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class LeadController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final LeadService leadService;
+    private final LeadIntakeService leadIntakeService;
+    private final DuplicateMatchingService duplicateMatchingService;
+    private final DuplicateDedupeService duplicateDedupeService;
+    private final LeadSearchService leadSearchService;
+    private final PromotedFieldService promotedFieldService;
 
     @GetMapping("/leads")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<LeadDto>>> getAllLeads() {
         List<LeadDto> leads = leadService.getAllLeads();
         return ResponseEntity.ok(ApiResponse.success(leads));
     }
 
     @GetMapping("/leads/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<LeadDto>> getLeadById(@PathVariable UUID id) {
         LeadDto lead = leadService.getLeadById(id);
         return ResponseEntity.ok(ApiResponse.success(lead));
     }
 
+    /**
+     * Paginated lead search, newest first, with filters over dynamicData fields.
+     * POST /api/v1/ads/leads/search?size=20&cursor=...  (cursor from the previous page)
+     */
+    @PostMapping("/leads/search")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<LeadSearchPageDto>> searchLeads(
+            @Valid @RequestBody LeadSearchRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        LeadSearchPageDto leads = leadSearchService.search(request, cursor, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(leads));
+    }
+
+    /**
+     * dynamicData fields with their own index (promoted automatically when filtered often).
+     * GET /api/v1/ads/leads/search/promoted-fields
+     */
+    @GetMapping("/leads/search/promoted-fields")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<List<PromotedFieldDto>>> getPromotedFields() {
+        return ResponseEntity.ok(ApiResponse.success(promotedFieldService.getPromotedFields()));
+    }
+
+    @PostMapping("/leads/search/promoted-fields")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<PromotedFieldDto>> promoteField(@Valid @RequestBody PromoteFieldRequest request) {
+        PromotedFieldDto field = promotedFieldService.promote(request.getPath());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(field, "Field promoted successfully"));
+    }
+
+    @DeleteMapping("/leads/search/promoted-fields")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<Void>> demoteField(@RequestParam String path) {
+        promotedFieldService.demote(path);
+        return ResponseEntity.ok(ApiResponse.success(null, "Field demoted successfully"));
+    }
+
     @PostMapping("/leads")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_CREATE')")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_CREATE"})
     public ResponseEntity<ApiResponse<LeadDto>> createLead(@Valid @RequestBody LeadCreateRequest request) {
         LeadDto lead = leadService.createLead(request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(lead, "Lead created successfully"));
     }
 
+    /**
+     * Lead intake for ad integrations: the lead is staged and written asynchronously.
+     * Requires an Idempotency-Key header; answers 429 with Retry-After when intake is saturated.
+     * POST /api/v1/ads/leads/intake
+     */
+    @PostMapping("/leads/intake")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_CREATE"})
+    public ResponseEntity<ApiResponse<LeadIntakeResultDto>> intakeLead(
+            @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+            @Valid @RequestBody LeadCreateRequest request) {
+        LeadIntakeResultDto result = leadIntakeService.accept(idempotencyKey, List.of(request));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(result));
+    }
+
+    /**
+     * Batch lead intake (up to 500 leads); lead i is deduplicated by "{Idempotency-Key}#i".
+     * POST /api/v1/ads/leads/intake/batch
+     */
+    @PostMapping("/leads/intake/batch")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_CREATE"})
+    public ResponseEntity<ApiResponse<LeadIntakeResultDto>> intakeLeads(
+            @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+            @Valid @RequestBody LeadIntakeBatchRequest request) {
+        LeadIntakeResultDto result = leadIntakeService.accept(idempotencyKey, request.getLeads());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(result));
+    }
+
+    /**
+     * Possible duplicates of a lead among leads and customers, best match first.
+     * GET /api/v1/ads/leads/{id}/matches
+     */
+    @GetMapping("/leads/{id}/matches")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<List<MatchCandidateDto>>> getLeadMatches(@PathVariable UUID id) {
+        List<MatchCandidateDto> matches = duplicateMatchingService.getMatches(MatchType.LEAD, id);
+        return ResponseEntity.ok(ApiResponse.success(matches));
+    }
+
+    /**
+     * Start a tenant-wide dedupe job (key backfill + blocked scan); poll it with the returned job id.
+     * POST /api/v1/ads/leads/dedupe
+     */
+    @PostMapping("/leads/dedupe")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<DedupeJobDto>> startDedupe() {
+        DedupeJobDto job = duplicateDedupeService.start();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job, "Dedupe job started"));
+    }
+
+    @GetMapping("/leads/dedupe/{jobId}")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<DedupeJobDto>> getDedupeJob(@PathVariable UUID jobId) {
+        DedupeJobDto job = duplicateDedupeService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
     @PutMapping("/leads/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_UPDATE')")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
     public ResponseEntity<ApiResponse<LeadDto>> updateLead(
             @PathVariable UUID id,
             @Valid @RequestBody LeadUpdateRequest request) {
@@ -60,7 +177,7 @@ public class LeadController {
     }
 
     @DeleteMapping("/leads/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_DELETE')")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteLead(@PathVariable UUID id) {
         leadService.deleteLead(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Lead deleted successfully"));
@@ -0,0 +1,28 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a tenant-wide duplicate detection run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DedupeJobDto {
+    private UUID jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private long keysUpdated;
+    private long blocksScanned;
+    private long blocksSkipped;
+    private long candidatesFound;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,40 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filter on one field of Lead.dynamicData.
+ *
+ * {@code path} is a JSONPath-style member path such as {@code "budget"} or
+ * {@code "$.procedure.interest"}. {@code value} is used by the comparison operators,
+ * {@code values} by IN; EXISTS takes neither.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DynamicFieldFilter {
+
+    public enum Operator {
+        EQ, NE, GT, GTE, LT, LTE, IN, EXISTS
+    }
+
+    @NotBlank(message = "Path is required")
+    private String path;
+
+    @NotNull(message = "Operator is required")
+    private Operator op;
+
+    private Object value;
+
+    @Size(max = 100, message = "At most 100 values are allowed")
+    private List<Object> values;
+}
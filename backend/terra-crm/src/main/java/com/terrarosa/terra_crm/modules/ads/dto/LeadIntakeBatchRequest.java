@@ -0,0 +1,22 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadIntakeBatchRequest {
+
+    @NotEmpty(message = "Leads are required")
+    @Size(max = 500, message = "At most 500 leads per batch")
+    private List<@Valid LeadCreateRequest> leads;
+}
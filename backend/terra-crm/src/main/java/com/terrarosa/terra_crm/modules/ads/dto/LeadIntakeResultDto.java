@@ -0,0 +1,19 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Acknowledgement of a lead intake request. Accepted leads are durably staged and
+ * written to the leads table asynchronously; duplicates were already received earlier.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadIntakeResultDto {
+    private int accepted;
+    private int duplicates;
+}
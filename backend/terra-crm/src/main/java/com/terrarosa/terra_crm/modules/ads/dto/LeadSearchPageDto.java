@@ -0,0 +1,20 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of lead search results, newest first. {@code nextCursor} is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadSearchPageDto {
+    private List<LeadDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lead search criteria; all given criteria must match.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadSearchRequest {
+
+    private String status;
+    private String source;
+    private String country;
+    private UUID serviceId;
+    private UUID assignedTo;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+
+    @Size(max = 20, message = "At most 20 dynamic field filters are allowed")
+    private List<@Valid DynamicFieldFilter> filters;
+}
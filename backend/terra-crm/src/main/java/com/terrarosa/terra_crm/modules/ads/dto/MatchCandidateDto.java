@@ -0,0 +1,30 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A possible duplicate of a lead or customer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchCandidateDto {
+    private UUID matchId;
+    private MatchType type;
+    private UUID id;
+    private String name;
+    private String phone;
+    private String email;
+    private BigDecimal score;
+    private List<String> matchedOn;
+    private String status;
+}
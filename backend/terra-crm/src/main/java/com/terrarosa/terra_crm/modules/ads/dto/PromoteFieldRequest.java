@@ -0,0 +1,17 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromoteFieldRequest {
+
+    @NotBlank(message = "Path is required")
+    private String path;
+}
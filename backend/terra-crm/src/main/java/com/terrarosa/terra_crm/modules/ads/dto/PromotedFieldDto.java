@@ -0,0 +1,24 @@
+package com.terrarosa.terra_crm.modules.ads.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A dynamic_data path that has its own expression index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotedFieldDto {
+
+    private String path;
+    private String indexName;
+    private String mode; // AUTO, MANUAL
+    private LocalDateTime createdAt;
+    private LocalDateTime lastUsedAt;
+}
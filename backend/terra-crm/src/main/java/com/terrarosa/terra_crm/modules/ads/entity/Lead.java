@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.modules.ads.entity;
 
 import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchKeys;
 import com.terrarosa.terra_crm.modules.health.entity.Service;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -55,4 +56,16 @@ public class Lead extends BaseEntity {
 
     @Column(nullable = false)
     private String status;
+
+    /**
+     * Duplicate-matching blocking keys, derived from name/phone/email on every write.
+     */
+    @Embedded
+    private MatchKeys matchKeys;
+
+    @PrePersist
+    @PreUpdate
+    void refreshMatchKeys() {
+        matchKeys = MatchKeys.of(name, phone, email);
+    }
 }
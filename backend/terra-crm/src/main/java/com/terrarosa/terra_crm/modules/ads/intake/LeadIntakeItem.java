@@ -0,0 +1,12 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A staged lead waiting to be written. {@code id} is the staging row id and becomes the lead id.
+ */
+public record LeadIntakeItem(String schemaName, UUID id, LeadCreateRequest request, LocalDateTime receivedAt) {
+}
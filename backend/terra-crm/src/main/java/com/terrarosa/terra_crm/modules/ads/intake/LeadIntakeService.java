@@ -0,0 +1,114 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import com.terrarosa.terra_crm.core.exception.TooManyRequestsException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadIntakeResultDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lead intake for ad integrations (Google, Meta, Instagram) that push leads in bursts.
+ *
+ * A request only stages its leads: one multi-row insert into lead_intake, deduplicated by
+ * idempotency key, then the leads are handed to the {@link LeadIntakeWriter} and acknowledged.
+ * The writer creates the actual leads asynchronously in batches. Room in the writer's buffer
+ * is reserved before staging, so a full buffer rejects the request (429) without side effects.
+ *
+ * Deliberately not transactional: the staging insert must be committed before the writer can
+ * pick the leads up, and an auto-committed single statement is also the cheapest acknowledgement.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeadIntakeService {
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+
+    private static final String STAGE_SQL = "INSERT INTO %s.lead_intake (id, idempotency_key, payload, received_at) "
+            + "SELECT s.id, s.idempotency_key, s.payload::jsonb, ? "
+            + "FROM unnest(?::uuid[], ?::text[], ?::text[]) AS s(id, idempotency_key, payload) "
+            + "ON CONFLICT (idempotency_key) DO NOTHING RETURNING id";
+
+    private final LeadIntakeWriter leadIntakeWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Accept a batch of leads. Lead {@code i} is deduplicated by {@code idempotencyKey + "#" + i},
+     * so retrying the same request (same key, same order) never creates a lead twice.
+     *
+     * @throws TooManyRequestsException if the write-behind buffer is full
+     */
+    public LeadIntakeResultDto accept(String idempotencyKey, List<LeadCreateRequest> leads) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key header is required");
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        if (leads == null || leads.isEmpty()) {
+            throw new IllegalArgumentException("Leads are required");
+        }
+
+        String schemaName = TenantContext.getCurrentSchemaName();
+        String schema = tenantService.quotedSchema(schemaName);
+        int count = leads.size();
+
+        if (!leadIntakeWriter.reserve(count)) {
+            throw new TooManyRequestsException("Lead intake is busy, retry later",
+                    LeadIntakeWriter.RETRY_AFTER_SECONDS);
+        }
+
+        List<LeadIntakeItem> accepted = new ArrayList<>(count);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Object[] ids = new Object[count];
+            Object[] keys = new Object[count];
+            Object[] payloads = new Object[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = UUID.randomUUID();
+                keys[i] = idempotencyKey + "#" + i;
+                payloads[i] = objectMapper.writeValueAsString(leads.get(i));
+            }
+
+            Set<UUID> staged = new HashSet<>(jdbcTemplate.queryForList(String.format(STAGE_SQL, schema), UUID.class,
+                    now,
+                    new SqlArrayValue("uuid", ids),
+                    new SqlArrayValue("text", keys),
+                    new SqlArrayValue("text", payloads)));
+
+            for (int i = 0; i < count; i++) {
+                if (staged.contains((UUID) ids[i])) {
+                    accepted.add(new LeadIntakeItem(schemaName, (UUID) ids[i], leads.get(i), now));
+                }
+            }
+        } finally {
+            leadIntakeWriter.release(count - accepted.size());
+        }
+        leadIntakeWriter.submit(accepted);
+
+        int duplicates = count - accepted.size();
+        if (duplicates > 0) {
+            log.debug("Lead intake {}: {} accepted, {} duplicates", idempotencyKey, accepted.size(), duplicates);
+        }
+        return LeadIntakeResultDto.builder()
+                .accepted(accepted.size())
+                .duplicates(duplicates)
+                .build();
+    }
+}
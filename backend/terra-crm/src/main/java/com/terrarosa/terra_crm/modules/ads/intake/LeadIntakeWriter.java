@@ -0,0 +1,425 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchSubject;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.LeadRollupKey;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.RollupDelta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeadIntakeWriter
+ *
+ * Write-behind half of the lead intake. Staged leads are queued in a bounded
+ * {@link WriteBehindBuffer}; a single writer thread drains it and writes each tenant's share of
+ * a batch with one JDBC batch insert into leads plus one update marking the staging rows
+ * processed, in one transaction per tenant. The transaction first locks the batch's unprocessed
+ * staging rows with {@code FOR UPDATE SKIP LOCKED} and only writes those, so a lead is inserted,
+ * counted in the dashboard rollup and matched by exactly one transaction, even when two nodes
+ * queue it. The batch is then matched against existing leads and
+ * customers with a single candidate query (see {@link DuplicateMatchingService}).
+ *
+ * The buffer is only an accelerator: every queued lead is already committed to lead_intake.
+ * A failed flush leaves its rows unprocessed, and a maintenance task periodically re-queues
+ * unprocessed rows older than {@code replay-interval} (this also covers rows left by a crash or
+ * shutdown) and prunes processed rows after {@code retention}. The replay claims the rows it
+ * re-queues for this node; other nodes skip them until the claim is older than
+ * {@code claim-timeout}. Rows that are still queued or being written are tracked by id and never
+ * re-queued, and a batch is de-duplicated by id before it is written. Leads are inserted with the
+ * staging id and {@code ON CONFLICT (id) DO NOTHING}; rows that are already processed, or locked by
+ * another writer, are skipped, so they are neither counted in the dashboard rollup nor matched
+ * again.
+ *
+ * When a tenant's batch fails for a reason other than an unavailable database, its rows are
+ * retried one by one and a row that still fails is parked in lead_intake with the error, so one
+ * bad lead neither blocks the rest of the batch nor is replayed forever.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeadIntakeWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO %s.leads (id, name, phone, email, country, source, "
+            + "dynamic_data, service_id, assigned_to, status, created_at, updated_at, phone_key, email_local_key, "
+            + "name_key, match_keys_version, deleted) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?, ?, ?, ?, ?, false) ON CONFLICT (id) DO NOTHING";
+
+    private static final int[] INSERT_TYPES = {
+            Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.OTHER, Types.OTHER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.SMALLINT
+    };
+
+    private static final String SERVICES_SQL = "SELECT id FROM %s.services WHERE id = ANY(?)";
+
+    private static final String LOCK_PENDING_SQL = "SELECT id FROM %s.lead_intake "
+            + "WHERE id = ANY(?) AND processed_at IS NULL AND failed_at IS NULL FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_PROCESSED_SQL = "UPDATE %s.lead_intake SET processed_at = CURRENT_TIMESTAMP "
+            + "WHERE id = ANY(?)";
+
+    private static final String CLAIM_PENDING_SQL = "UPDATE %1$s.lead_intake "
+            + "SET claimed_by = ?, claimed_at = CURRENT_TIMESTAMP WHERE id IN ("
+            + "SELECT id FROM %1$s.lead_intake WHERE processed_at IS NULL AND failed_at IS NULL AND received_at < ? "
+            + "AND (claimed_at IS NULL OR claimed_at < ? OR claimed_by = ?) "
+            + "ORDER BY received_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, payload::text AS payload, received_at";
+
+    private static final String PARK_SQL = "UPDATE %s.lead_intake SET failed_at = CURRENT_TIMESTAMP, error = ? "
+            + "WHERE id = ? AND processed_at IS NULL";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String PRUNE_SQL = "DELETE FROM %s.lead_intake "
+            + "WHERE processed_at IS NOT NULL AND processed_at < ?";
+
+    /**
+     * Suggested client back-off when the buffer is full.
+     */
+    static final long RETRY_AFTER_SECONDS = 1;
+
+    private final TenantRepository tenantRepository;
+    private final TenantService tenantService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final DuplicateMatchingService duplicateMatchingService;
+    private final DashboardRollupService dashboardRollupService;
+
+    @Value("${app.leads.intake.capacity:50000}")
+    private int capacity;
+
+    @Value("${app.leads.intake.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.leads.intake.poll-timeout:PT0.5S}")
+    private Duration pollTimeout;
+
+    @Value("${app.leads.intake.replay-interval:PT1M}")
+    private Duration replayInterval;
+
+    @Value("${app.leads.intake.retention:P1D}")
+    private Duration retention;
+
+    @Value("${app.leads.intake.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    /**
+     * Identifies this node in the claims of replayed rows.
+     */
+    private final UUID nodeId = UUID.randomUUID();
+
+    private WriteBehindBuffer<LeadIntakeItem> buffer;
+
+    /**
+     * Ids of leads that are queued or being written, so a replay does not queue them again.
+     */
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService writer;
+    private ScheduledExecutorService maintenance;
+
+    @PostConstruct
+    void init() {
+        buffer = new WriteBehindBuffer<>(capacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer = Executors.newSingleThreadExecutor(daemon("lead-intake-writer"));
+        maintenance = Executors.newSingleThreadScheduledExecutor(daemon("lead-intake-maintenance"));
+        writer.execute(this::writeLoop);
+        maintenance.scheduleWithFixedDelay(this::maintainSafely, 0, replayInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Lead intake writer started (capacity: {}, batch size: {}, replay: {})",
+                capacity, batchSize, replayInterval);
+    }
+
+    /**
+     * Queued leads are durably staged, so dropping the buffer on shutdown loses nothing;
+     * they are replayed on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writer != null) {
+            writer.shutdownNow();
+        }
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserve buffer room for {@code count} leads before staging them.
+     *
+     * @return false if the buffer is full and the request should be rejected
+     */
+    public boolean reserve(int count) {
+        return buffer.tryReserve(count);
+    }
+
+    public void release(int count) {
+        buffer.release(count);
+    }
+
+    /**
+     * Queue staged leads for which room was reserved.
+     */
+    public void submit(Collection<LeadIntakeItem> items) {
+        items.forEach(item -> inFlight.add(item.id()));
+        buffer.commit(items);
+    }
+
+    public int queued() {
+        return buffer.size();
+    }
+
+    private void writeLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<LeadIntakeItem> batch = buffer.drain(batchSize, pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Lead intake writer error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Write a drained batch, one transaction per tenant so one tenant's failure does not block the others.
+     */
+    void flush(List<LeadIntakeItem> batch) {
+        Map<String, Map<UUID, LeadIntakeItem>> bySchema = new LinkedHashMap<>();
+        for (LeadIntakeItem item : batch) {
+            bySchema.computeIfAbsent(item.schemaName(), k -> new LinkedHashMap<>()).putIfAbsent(item.id(), item);
+        }
+        try {
+            bySchema.forEach((schemaName, items) -> write(schemaName, List.copyOf(items.values())));
+        } finally {
+            batch.forEach(item -> inFlight.remove(item.id()));
+        }
+    }
+
+    private void write(String schemaName, List<LeadIntakeItem> items) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(schemaName, items));
+        } catch (RuntimeException e) {
+            if (isUnavailable(e)) {
+                log.error("Failed to write {} staged leads for schema {}; they stay staged for replay: {}",
+                        items.size(), schemaName, e.getMessage());
+            } else if (items.size() == 1) {
+                park(schemaName, items.get(0).id(), e.getMessage());
+            } else {
+                log.warn("Failed to write {} staged leads for schema {}, writing them one by one: {}",
+                        items.size(), schemaName, e.getMessage());
+                items.forEach(item -> write(schemaName, List.of(item)));
+            }
+        }
+    }
+
+    /**
+     * Failures that say nothing about the rows themselves; retrying row by row would not help.
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private void park(String schemaName, UUID id, String error) {
+        String message = error == null ? "Unknown error"
+                : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH));
+        try {
+            jdbcTemplate.update(String.format(PARK_SQL, tenantService.quotedSchema(schemaName)), message, id);
+            log.error("Parked staged lead {} in schema {}: {}", id, schemaName, message);
+        } catch (RuntimeException e) {
+            log.error("Failed to park staged lead {} in schema {}; it stays staged for replay: {}",
+                    id, schemaName, e.getMessage());
+        }
+    }
+
+    private void writeBatch(String schemaName, List<LeadIntakeItem> items) {
+        String schema = tenantService.quotedSchema(schemaName);
+        // Rows another transaction holds are written by it; processed rows were written already
+        Set<UUID> locked = lockPendingRows(schema, items);
+        List<LeadIntakeItem> pending = items.stream().filter(item -> locked.contains(item.id())).toList();
+        if (pending.isEmpty()) {
+            log.debug("Skipped {} leads of schema {}, already written or being written", items.size(), schemaName);
+            return;
+        }
+        Set<UUID> services = findExistingServiceIds(schema, pending);
+
+        List<Object[]> args = new ArrayList<>(pending.size());
+        Object[] ids = new Object[pending.size()];
+        List<MatchSubject> subjects = new ArrayList<>(pending.size());
+        RollupDelta rollupDelta = new RollupDelta();
+        for (int i = 0; i < pending.size(); i++) {
+            LeadIntakeItem item = pending.get(i);
+            ids[i] = item.id();
+            LeadCreateRequest r = item.request();
+            rollupDelta.change(null, LeadRollupKey.of(item.receivedAt(), r.getSource(), r.getStatus()));
+            // Unknown services are dropped instead of failing the whole batch on the foreign key
+            UUID serviceId = r.getServiceId() != null && services.contains(r.getServiceId()) ? r.getServiceId() : null;
+            MatchSubject subject = MatchSubject.of(MatchType.LEAD, item.id(), r.getName(), r.getPhone(),
+                    r.getEmail(), r.getCountry(), null);
+            subjects.add(subject);
+            args.add(new Object[] {
+                    item.id(),
+                    r.getName(),
+                    r.getPhone(),
+                    r.getEmail(),
+                    r.getCountry(),
+                    r.getSource(),
+                    r.getDynamicData() != null ? objectMapper.writeValueAsString(r.getDynamicData()) : null,
+                    serviceId,
+                    r.getAssignedTo(),
+                    r.getStatus(),
+                    item.receivedAt(),
+                    item.receivedAt(),
+                    subject.keys().getPhoneKey(),
+                    subject.keys().getEmailLocalKey(),
+                    subject.keys().getNameKey(),
+                    subject.keys().getVersion()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(String.format(INSERT_SQL, schema), args, INSERT_TYPES);
+        jdbcTemplate.update(String.format(MARK_PROCESSED_SQL, schema), new SqlArrayValue("uuid", ids));
+        duplicateMatchingService.recordMatches(schemaName, subjects);
+        dashboardRollupService.apply(schemaName, rollupDelta);
+        log.debug("Wrote {} leads to schema {} ({} already written or being written)", args.size(), schemaName,
+                items.size() - pending.size());
+    }
+
+    private Set<UUID> findExistingServiceIds(String schema, List<LeadIntakeItem> items) {
+        Object[] serviceIds = items.stream()
+                .map(item -> item.request().getServiceId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray();
+        if (serviceIds.length == 0) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(SERVICES_SQL, schema), UUID.class,
+                new SqlArrayValue("uuid", serviceIds)));
+    }
+
+    private Set<UUID> lockPendingRows(String schema, List<LeadIntakeItem> items) {
+        Object[] ids = items.stream().map(LeadIntakeItem::id).toArray();
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(LOCK_PENDING_SQL, schema), UUID.class,
+                new SqlArrayValue("uuid", ids)));
+    }
+
+    private void maintainSafely() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (String schemaName : tenantRepository.findAllTenantSchemaNames()) {
+                String schema = tenantService.quotedSchema(schemaName);
+                replay(schemaName, schema, now.minus(replayInterval), now.minus(claimTimeout));
+                int pruned = jdbcTemplate.update(String.format(PRUNE_SQL, schema),
+                        Timestamp.valueOf(now.minus(retention)));
+                if (pruned > 0) {
+                    log.debug("Pruned {} processed lead intake rows in schema {}", pruned, schemaName);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Lead intake maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claim and re-queue staged rows that were not written and are not already queued, as far as
+     * the buffer has room. Rows claimed by another node are skipped until their claim is older
+     * than {@code claimedBefore}. Rows whose payload cannot be read are parked.
+     */
+    private void replay(String schemaName, String schema, LocalDateTime receivedBefore, LocalDateTime claimedBefore) {
+        int room = buffer.remainingCapacity() / 2;
+        if (room <= 0) {
+            return;
+        }
+        Map<UUID, String> unreadable = new LinkedHashMap<>();
+        List<LeadIntakeItem> pending = jdbcTemplate.query(String.format(CLAIM_PENDING_SQL, schema),
+                (rs, rowNum) -> toItem(schemaName, rs.getObject("id", UUID.class), rs.getString("payload"),
+                        rs.getTimestamp("received_at").toLocalDateTime(), unreadable),
+                nodeId, Timestamp.valueOf(receivedBefore), Timestamp.valueOf(claimedBefore), nodeId, room);
+        unreadable.forEach((id, error) -> park(schemaName, id, error));
+
+        List<LeadIntakeItem> valid = pending.stream()
+                .filter(Objects::nonNull)
+                .filter(item -> inFlight.add(item.id()))
+                .toList();
+        if (valid.isEmpty()) {
+            return;
+        }
+        if (buffer.offer(valid)) {
+            log.info("Replaying {} staged leads for schema {}", valid.size(), schemaName);
+        } else {
+            valid.forEach(item -> inFlight.remove(item.id()));
+        }
+    }
+
+    private LeadIntakeItem toItem(String schemaName, UUID id, String payload, LocalDateTime receivedAt,
+                                  Map<UUID, String> unreadable) {
+        try {
+            return new LeadIntakeItem(schemaName, id, objectMapper.readValue(payload, LeadCreateRequest.class),
+                    receivedAt);
+        } catch (JacksonException e) {
+            unreadable.put(id, "Unreadable payload: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
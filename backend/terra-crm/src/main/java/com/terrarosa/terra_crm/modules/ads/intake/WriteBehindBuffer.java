@@ -0,0 +1,148 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory buffer between request threads and a single background writer.
+ *
+ * Producers first {@link #tryReserve reserve} room for a whole batch, do their durable work,
+ * then {@link #commit} the items (or {@link #release} the reservation on failure). Reserving
+ * up front lets a request be rejected before anything is persisted, so a full buffer turns
+ * into backpressure instead of unbounded memory or a half-accepted batch.
+ *
+ * The writer {@link #drain drains} whatever is queued, up to a batch size, so batches grow
+ * naturally with load while a single item is still written without delay.
+ *
+ * @param <T> item type
+ */
+public class WriteBehindBuffer<T> {
+
+    private final int capacity;
+    private final ArrayDeque<T> items = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Slots promised to producers that have not committed yet.
+     */
+    private int reserved;
+
+    public WriteBehindBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reserve room for {@code count} items.
+     *
+     * @return false if the buffer cannot take them (nothing is reserved then)
+     */
+    public boolean tryReserve(int count) {
+        lock.lock();
+        try {
+            if (items.size() + reserved + count > capacity) {
+                return false;
+            }
+            reserved += count;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back reserved slots that will not be committed.
+     */
+    public void release(int count) {
+        lock.lock();
+        try {
+            reserved = Math.max(0, reserved - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue items for which room was reserved before.
+     */
+    public void commit(Collection<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            reserved = Math.max(0, reserved - batch.size());
+            items.addAll(batch);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserve and queue in one step.
+     *
+     * @return false if the buffer cannot take the whole batch (nothing is queued then)
+     */
+    public boolean offer(Collection<T> batch) {
+        if (!tryReserve(batch.size())) {
+            return false;
+        }
+        commit(batch);
+        return true;
+    }
+
+    /**
+     * Take up to {@code maxItems} queued items, waiting at most {@code timeout} for the first one.
+     *
+     * @return the items, empty if none arrived in time
+     */
+    public List<T> drain(int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.isEmpty()) {
+                if (nanos <= 0) {
+                    return List.of();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            List<T> batch = new ArrayList<>(Math.min(maxItems, items.size()));
+            while (batch.size() < maxItems && !items.isEmpty()) {
+                batch.add(items.poll());
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queued (not reserved) items.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - items.size() - reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import com.terrarosa.terra_crm.core.config.JdbcConfig;
+import com.terrarosa.terra_crm.core.exception.ConflictException;
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.core.exception.TooManyRequestsException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.DedupeJobDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tenant-wide duplicate detection over all leads and customers, run in the background with
+ * parallel workers.
+ *
+ * <ol>
+ *   <li>Backfill: rows without current blocking keys are read in id order per UUID range (one
+ *       range per worker) and updated with one {@code UPDATE ... FROM unnest(...)} per page.</li>
+ *   <li>Blocking: for every blocking key and hash partition of its values, a worker streams
+ *       the members of all blocks (rows sharing a key) ordered by key and scores the pairs
+ *       inside each block. Blocks larger than {@code max-block-size} are skipped: they are
+ *       generic values (a shared office number, a very common name) whose pairs are mostly
+ *       noise and would make the run quadratic.</li>
+ * </ol>
+ *
+ * Every step is bounded by the number of rows or by block sizes, never by rows squared, so a
+ * tenant with a million records finishes in minutes. Candidates are upserted into
+ * match_candidates; pairs already confirmed or dismissed keep their status.
+ *
+ * At most {@code max-concurrent-runs} tenants are scanned at a time, each with its own pool of
+ * {@code workers}; further runs wait in a queue of {@code max-queued-runs} and are rejected
+ * (429) beyond that.
+ */
+@Slf4j
+@Service
+public class DuplicateDedupeService {
+
+    private static final String PENDING_KEYS_SQL = "SELECT id, name, phone, email FROM %s.%s "
+            + "WHERE id >= ?::uuid AND id < ?::uuid AND deleted = false "
+            + "AND match_keys_version IS DISTINCT FROM ? ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_KEYS_SQL = "UPDATE %s.%s t SET phone_key = u.phone_key, "
+            + "email_local_key = u.email_local_key, name_key = u.name_key, match_keys_version = ? "
+            + "FROM unnest(?::uuid[], ?::text[], ?::text[], ?::text[]) AS u(id, phone_key, email_local_key, name_key) "
+            + "WHERE t.id = u.id";
+
+    private static final String UUID_UPPER_BOUND = "ffffffff-ffff-ffff-ffff-ffffffffffff";
+
+    private static final Duration JOB_RETENTION = Duration.ofDays(1);
+
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TenantService tenantService;
+    private final DuplicateMatchingService matchingService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.leads.dedupe.workers:4}")
+    private int workers;
+
+    @Value("${app.leads.dedupe.page-size:5000}")
+    private int pageSize;
+
+    @Value("${app.leads.dedupe.max-block-size:100}")
+    private int maxBlockSize;
+
+    @Value("${app.leads.dedupe.max-concurrent-runs:2}")
+    private int maxConcurrentRuns;
+
+    @Value("${app.leads.dedupe.max-queued-runs:20}")
+    private int maxQueuedRuns;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, UUID> runningBySchema = new ConcurrentHashMap<>();
+    private ExecutorService coordinator;
+
+    public DuplicateDedupeService(JdbcTemplate jdbcTemplate,
+                                  @Qualifier(JdbcConfig.STREAMING_JDBC_TEMPLATE) JdbcTemplate streamingJdbcTemplate,
+                                  TenantService tenantService,
+                                  DuplicateMatchingService matchingService,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.tenantService = tenantService;
+        this.matchingService = matchingService;
+        this.transactionManager = transactionManager;
+    }
+
+    @PostConstruct
+    void init() {
+        coordinator = new ThreadPoolExecutor(maxConcurrentRuns, maxConcurrentRuns, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxQueuedRuns), daemon("dedupe-job"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        coordinator.shutdownNow();
+    }
+
+    /**
+     * Start a dedupe run for the current tenant; only one run per tenant at a time.
+     *
+     * @throws ConflictException if a run for the tenant is already queued or in progress
+     * @throws TooManyRequestsException if too many runs are queued
+     */
+    public DedupeJobDto start() {
+        String schemaName = TenantContext.getCurrentSchemaName();
+        String schema = tenantService.quotedSchema(schemaName);
+        Job job = new Job(UUID.randomUUID(), schemaName);
+        jobs.values().removeIf(old -> old.finishedAt != null
+                && old.finishedAt.isBefore(LocalDateTime.now().minus(JOB_RETENTION)));
+        if (runningBySchema.putIfAbsent(schemaName, job.id) != null) {
+            throw new ConflictException("A duplicate detection run is already in progress");
+        }
+        jobs.put(job.id, job);
+        try {
+            coordinator.execute(() -> runJob(schemaName, schema, job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            runningBySchema.remove(schemaName);
+            throw new TooManyRequestsException("Too many duplicate detection runs, retry later", RETRY_AFTER_SECONDS);
+        }
+        return job.toDto();
+    }
+
+    private void runJob(String schemaName, String schema, Job job) {
+        job.status = "RUNNING";
+        try {
+            run(schemaName, schema, job);
+            job.status = "COMPLETED";
+        } catch (Exception e) {
+            log.error("Dedupe run {} for schema {} failed: {}", job.id, schemaName, e.getMessage(), e);
+            job.status = "FAILED";
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            runningBySchema.remove(schemaName);
+        }
+    }
+
+    public DedupeJobDto getJob(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.schemaName.equals(TenantContext.getCurrentSchemaName())) {
+            throw new ResourceNotFoundException("Dedupe job not found");
+        }
+        return job.toDto();
+    }
+
+    private void run(String schemaName, String schema, Job job) throws Exception {
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, daemon("dedupe-worker"));
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (MatchType type : MatchType.values()) {
+                for (String[] range : uuidRanges(workers)) {
+                    tasks.add(pool.submit(() -> backfillKeys(schema, type, range[0], range[1], job)));
+                }
+            }
+            awaitAll(tasks);
+            log.info("Dedupe {}: backfilled {} keys in {} ms", job.id, job.keysUpdated.get(),
+                    System.currentTimeMillis() - start);
+
+            tasks.clear();
+            for (String key : DuplicateMatchingService.BLOCKING_KEYS) {
+                for (int partition = 0; partition < workers; partition++) {
+                    int p = partition;
+                    tasks.add(pool.submit(() -> scanBlocks(schemaName, schema, key, p, job)));
+                }
+            }
+            awaitAll(tasks);
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Dedupe {} for schema {} done in {} ms: {} blocks ({} skipped), {} candidates",
+                job.id, schemaName, System.currentTimeMillis() - start, job.blocksScanned.get(),
+                job.blocksSkipped.get(), job.candidatesFound.get());
+    }
+
+    /**
+     * Compute missing blocking keys of one table's UUID range, page by page.
+     */
+    private void backfillKeys(String schema, MatchType type, String fromId, String toId, Job job) {
+        String table = DuplicateMatchingService.tableOf(type);
+        String select = String.format(PENDING_KEYS_SQL, schema, table);
+        String update = String.format(UPDATE_KEYS_SQL, schema, table);
+        String lower = fromId;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object[]> page = jdbcTemplate.query(select, (rs, rowNum) -> new Object[] {
+                    rs.getObject("id", UUID.class), rs.getString("name"), rs.getString("phone"), rs.getString("email")
+            }, lower, toId, MatchKeys.VERSION, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            int size = page.size();
+            Object[] ids = new Object[size];
+            Object[] phoneKeys = new Object[size];
+            Object[] emailKeys = new Object[size];
+            Object[] nameKeys = new Object[size];
+            for (int i = 0; i < size; i++) {
+                Object[] row = page.get(i);
+                MatchKeys keys = MatchKeys.of((String) row[1], (String) row[2], (String) row[3]);
+                ids[i] = row[0];
+                phoneKeys[i] = keys.getPhoneKey();
+                emailKeys[i] = keys.getEmailLocalKey();
+                nameKeys[i] = keys.getNameKey();
+            }
+            jdbcTemplate.update(update, MatchKeys.VERSION, new SqlArrayValue("uuid", ids),
+                    new SqlArrayValue("text", phoneKeys), new SqlArrayValue("text", emailKeys),
+                    new SqlArrayValue("text", nameKeys));
+            job.keysUpdated.addAndGet(size);
+            if (size < pageSize) {
+                return;
+            }
+            // Updated rows no longer qualify, but keep the keyset cursor so each page is an index range scan
+            lower = ids[size - 1].toString();
+        }
+    }
+
+    /**
+     * Score all pairs inside the blocks of one key whose value hashes to {@code partition}.
+     */
+    private void scanBlocks(String schemaName, String schema, String key, int partition, Job job) {
+        Map<DuplicateMatchingService.PairKey, Object[]> pairs = new LinkedHashMap<>();
+        List<MatchSubject> block = new ArrayList<>();
+        String[] currentKey = {null};
+
+        RowCallbackHandler collector = rs -> {
+            String value = rs.getString("block_key");
+            if (!value.equals(currentKey[0])) {
+                scoreBlock(block, pairs, job);
+                block.clear();
+                currentKey[0] = value;
+                if (pairs.size() >= pageSize) {
+                    flushPairs(schemaName, pairs, job);
+                }
+            }
+            block.add(DuplicateMatchingService.readSubject(rs));
+        };
+
+        // Stream with a cursor instead of materializing the partition; pairs are written in the same transaction
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            streamingJdbcTemplate.query(blockSql(schema, key), collector, workers, partition, maxBlockSize);
+            scoreBlock(block, pairs, job);
+            flushPairs(schemaName, pairs, job);
+        });
+
+        Long skipped = jdbcTemplate.queryForObject(oversizedBlocksSql(schema, key), Long.class,
+                workers, partition, maxBlockSize);
+        job.blocksSkipped.addAndGet(skipped != null ? skipped : 0);
+    }
+
+    private void scoreBlock(List<MatchSubject> block, Map<DuplicateMatchingService.PairKey, Object[]> pairs, Job job) {
+        if (block.size() < 2) {
+            return;
+        }
+        job.blocksScanned.incrementAndGet();
+        for (int i = 0; i < block.size(); i++) {
+            for (int j = i + 1; j < block.size(); j++) {
+                DuplicateMatchingService.addPair(pairs, block.get(i), block.get(j));
+            }
+        }
+    }
+
+    private void flushPairs(String schemaName, Map<DuplicateMatchingService.PairKey, Object[]> pairs, Job job) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        matchingService.store(schemaName, pairs.values());
+        job.candidatesFound.addAndGet(pairs.size());
+        pairs.clear();
+    }
+
+    /**
+     * Members of all blocks of {@code key} in one hash partition, ordered by block.
+     * The key column comes from {@link DuplicateMatchingService#BLOCKING_KEYS}, never from input.
+     */
+    private static String blockSql(String schema, String key) {
+        return "WITH subjects AS (" + subjectsSql(schema, key) + "), "
+                + "blocks AS (SELECT " + key + " AS block_key FROM subjects "
+                + "WHERE (hashtext(" + key + ") & 2147483647) % ? = ? "
+                + "GROUP BY " + key + " HAVING count(*) BETWEEN 2 AND ?) "
+                + "SELECT b.block_key, s.* FROM subjects s JOIN blocks b ON s." + key + " = b.block_key "
+                + "ORDER BY b.block_key";
+    }
+
+    private static String oversizedBlocksSql(String schema, String key) {
+        return "SELECT count(*) FROM (SELECT " + key + " FROM (" + subjectsSql(schema, key) + ") subjects "
+                + "WHERE (hashtext(" + key + ") & 2147483647) % ? = ? "
+                + "GROUP BY " + key + " HAVING count(*) > ?) oversized";
+    }
+
+    private static String subjectsSql(String schema, String key) {
+        List<String> parts = new ArrayList<>();
+        for (MatchType type : MatchType.values()) {
+            parts.add("SELECT " + DuplicateMatchingService.subjectColumns(type) + " FROM " + schema + "."
+                    + DuplicateMatchingService.tableOf(type) + " WHERE deleted = false AND " + key + " IS NOT NULL");
+        }
+        return String.join(" UNION ALL ", parts);
+    }
+
+    /**
+     * Split the UUID space into {@code count} contiguous ranges by the leading byte.
+     */
+    static List<String[]> uuidRanges(int count) {
+        List<String[]> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String lower = String.format("%02x000000-0000-0000-0000-000000000000", i * 256 / count);
+            String upper = i == count - 1
+                    ? UUID_UPPER_BOUND
+                    : String.format("%02x000000-0000-0000-0000-000000000000", (i + 1) * 256 / count);
+            ranges.add(new String[] {lower, upper});
+        }
+        return ranges;
+    }
+
+    private static void awaitAll(List<Future<?>> tasks) throws Exception {
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Job {
+        private final UUID id;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong keysUpdated = new AtomicLong();
+        private final AtomicLong blocksScanned = new AtomicLong();
+        private final AtomicLong blocksSkipped = new AtomicLong();
+        private final AtomicLong candidatesFound = new AtomicLong();
+        private final String schemaName;
+        private volatile String status = "QUEUED";
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(UUID id, String schemaName) {
+            this.id = id;
+            this.schemaName = schemaName;
+        }
+
+        private DedupeJobDto toDto() {
+            return DedupeJobDto.builder()
+                    .jobId(id)
+                    .status(status)
+                    .keysUpdated(keysUpdated.get())
+                    .blocksScanned(blocksScanned.get())
+                    .blocksSkipped(blocksSkipped.get())
+                    .candidatesFound(candidatesFound.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
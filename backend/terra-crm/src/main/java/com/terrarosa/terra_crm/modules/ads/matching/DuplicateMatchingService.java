@@ -0,0 +1,248 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.MatchCandidateDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Finds and records possible duplicates among leads and customers.
+ *
+ * Candidates are looked up through the indexed blocking keys ({@link MatchKeys}) with one
+ * statement per batch of subjects: each subject probes every key of both tables with a bounded
+ * {@code LATERAL ... LIMIT}, so the cost is proportional to the candidates found, never to the
+ * table size. Candidates are scored by {@link DuplicateScorer} and stored in match_candidates
+ * for review.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DuplicateMatchingService {
+
+    /**
+     * Max candidates taken per subject, table and blocking key (bounds very common names).
+     */
+    static final int CANDIDATES_PER_KEY = 50;
+
+    static final List<String> BLOCKING_KEYS = List.of("phone_key", "email_local_key", "name_key");
+
+    private static final String STORE_SQL = "INSERT INTO %s.match_candidates "
+            + "(source_type, source_id, target_type, target_id, score, matched_on) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (source_type, source_id, target_type, target_id) DO UPDATE "
+            + "SET score = EXCLUDED.score, matched_on = EXCLUDED.matched_on, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE match_candidates.status = 'OPEN'";
+
+    private static final int[] STORE_TYPES = {
+            Types.VARCHAR, Types.OTHER, Types.VARCHAR, Types.OTHER, Types.NUMERIC, Types.VARCHAR
+    };
+
+    private static final String MATCHES_SQL = "SELECT id, source_type, source_id, target_type, target_id, score, "
+            + "matched_on, status FROM %s.match_candidates "
+            + "WHERE (source_type = ? AND source_id = ?) OR (target_type = ? AND target_id = ?) "
+            + "ORDER BY score DESC";
+
+    private static final String SUBJECTS_SQL = "SELECT id, name, phone, email FROM %s.%s "
+            + "WHERE id = ANY(?) AND deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+
+    /**
+     * Match one lead or customer of the current tenant and record its candidates.
+     */
+    @Transactional
+    public int recordMatches(MatchSubject subject) {
+        return recordMatches(TenantContext.getCurrentSchemaName(), List.of(subject));
+    }
+
+    /**
+     * Match a batch of leads/customers of {@code schemaName} with a single candidate query and
+     * record the candidates; returns the number of candidate pairs stored.
+     */
+    @Transactional
+    public int recordMatches(String schemaName, List<MatchSubject> subjects) {
+        if (subjects.isEmpty()) {
+            return 0;
+        }
+        String schema = tenantService.quotedSchema(schemaName);
+        Map<PairKey, Object[]> pairs = new LinkedHashMap<>();
+        Map<Integer, List<MatchSubject>> candidates = findCandidates(schema, subjects);
+        for (int i = 0; i < subjects.size(); i++) {
+            MatchSubject subject = subjects.get(i);
+            for (MatchSubject candidate : candidates.getOrDefault(i + 1, List.of())) {
+                addPair(pairs, subject, candidate);
+            }
+        }
+        store(schemaName, pairs.values());
+        return pairs.size();
+    }
+
+    /**
+     * Stored candidates of a lead or customer, best first.
+     */
+    @Transactional(readOnly = true)
+    public List<MatchCandidateDto> getMatches(MatchType type, UUID id) {
+        String schema = tenantService.quotedSchema(TenantContext.getCurrentSchemaName());
+        List<MatchCandidateDto> matches = jdbcTemplate.query(String.format(MATCHES_SQL, schema), (rs, rowNum) -> {
+            boolean isSource = type.name().equals(rs.getString("source_type"))
+                    && id.equals(rs.getObject("source_id", UUID.class));
+            String side = isSource ? "target" : "source";
+            return MatchCandidateDto.builder()
+                    .matchId(rs.getObject("id", UUID.class))
+                    .type(MatchType.valueOf(rs.getString(side + "_type")))
+                    .id(rs.getObject(side + "_id", UUID.class))
+                    .score(rs.getBigDecimal("score"))
+                    .matchedOn(Arrays.asList(rs.getString("matched_on").split(",")))
+                    .status(rs.getString("status"))
+                    .build();
+        }, type.name(), id, type.name(), id);
+
+        // Resolve the other side's contact fields with one query per type; deleted records drop out
+        Map<MatchType, Map<UUID, Object[]>> details = new HashMap<>();
+        for (MatchType matchType : MatchType.values()) {
+            Object[] ids = matches.stream().filter(m -> m.getType() == matchType).map(MatchCandidateDto::getId)
+                    .distinct().toArray();
+            Map<UUID, Object[]> byId = new HashMap<>();
+            if (ids.length > 0) {
+                jdbcTemplate.query(String.format(SUBJECTS_SQL, schema, tableOf(matchType)),
+                        rs -> {
+                            byId.put(rs.getObject("id", UUID.class),
+                                    new Object[] {rs.getString("name"), rs.getString("phone"), rs.getString("email")});
+                        },
+                        new SqlArrayValue("uuid", ids));
+            }
+            details.put(matchType, byId);
+        }
+
+        List<MatchCandidateDto> result = new ArrayList<>(matches.size());
+        for (MatchCandidateDto match : matches) {
+            Object[] contact = details.get(match.getType()).get(match.getId());
+            if (contact != null) {
+                match.setName((String) contact[0]);
+                match.setPhone((String) contact[1]);
+                match.setEmail((String) contact[2]);
+                result.add(match);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Store scored pairs; shared with the batch dedupe job.
+     */
+    void store(String schemaName, Collection<Object[]> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(String.format(STORE_SQL, tenantService.quotedSchema(schemaName)),
+                new ArrayList<>(pairs), STORE_TYPES);
+    }
+
+    /**
+     * Score a pair and, if it qualifies, add its insert arguments (deduplicated by pair, since a
+     * multi-row upsert cannot touch the same row twice).
+     */
+    static void addPair(Map<PairKey, Object[]> pairs, MatchSubject a, MatchSubject b) {
+        DuplicateScorer.Score score = DuplicateScorer.score(a, b);
+        if (score == null) {
+            return;
+        }
+        MatchSubject source = a.precedes(b) ? a : b;
+        MatchSubject target = source == a ? b : a;
+        pairs.put(new PairKey(source.type(), source.id(), target.type(), target.id()), new Object[] {
+                source.type().name(),
+                source.id(),
+                target.type().name(),
+                target.id(),
+                BigDecimal.valueOf(score.value()),
+                String.join(",", score.matchedOn())
+        });
+    }
+
+    static String tableOf(MatchType type) {
+        return type == MatchType.LEAD ? "leads" : "customers";
+    }
+
+    static MatchSubject readSubject(ResultSet rs) throws SQLException {
+        MatchKeys keys = new MatchKeys(rs.getString("phone_key"), rs.getString("email_local_key"),
+                rs.getString("name_key"), MatchKeys.VERSION);
+        return new MatchSubject(
+                MatchType.valueOf(rs.getString("type")),
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("phone"),
+                rs.getString("email"),
+                rs.getString("country"),
+                rs.getObject("linked_lead_id", UUID.class),
+                keys);
+    }
+
+    /**
+     * Columns selected for a subject; {@code linked_lead_id} is the customer's lead (NULL for leads).
+     */
+    static String subjectColumns(MatchType type) {
+        return "'" + type.name() + "' AS type, id, name, phone, email, country, "
+                + (type == MatchType.CUSTOMER ? "lead_id" : "NULL::uuid") + " AS linked_lead_id, "
+                + "phone_key, email_local_key, name_key";
+    }
+
+    /**
+     * Candidates per subject, keyed by the subject's 1-based position in {@code subjects}.
+     */
+    private Map<Integer, List<MatchSubject>> findCandidates(String schema, List<MatchSubject> subjects) {
+        Object[] phoneKeys = new Object[subjects.size()];
+        Object[] emailKeys = new Object[subjects.size()];
+        Object[] nameKeys = new Object[subjects.size()];
+        for (int i = 0; i < subjects.size(); i++) {
+            MatchKeys keys = subjects.get(i).keys();
+            phoneKeys[i] = keys.getPhoneKey();
+            emailKeys[i] = keys.getEmailLocalKey();
+            nameKeys[i] = keys.getNameKey();
+        }
+
+        Map<Integer, List<MatchSubject>> candidates = new HashMap<>();
+        jdbcTemplate.query(candidateSql(schema), rs -> {
+            candidates.computeIfAbsent(rs.getInt("idx"), k -> new ArrayList<>()).add(readSubject(rs));
+        }, new SqlArrayValue("text", phoneKeys), new SqlArrayValue("text", emailKeys),
+                new SqlArrayValue("text", nameKeys));
+        return candidates;
+    }
+
+    /**
+     * One bounded index probe per table and blocking key for each subject; NULL keys match nothing.
+     */
+    static String candidateSql(String schema) {
+        List<String> probes = new ArrayList<>();
+        for (MatchType type : MatchType.values()) {
+            for (String key : BLOCKING_KEYS) {
+                probes.add("(SELECT " + subjectColumns(type) + " FROM " + schema + "." + tableOf(type)
+                        + " WHERE deleted = false AND " + key + " = s." + key
+                        + " LIMIT " + CANDIDATES_PER_KEY + ")");
+            }
+        }
+        return "SELECT s.idx, c.* FROM unnest(?::text[], ?::text[], ?::text[]) WITH ORDINALITY "
+                + "AS s(phone_key, email_local_key, name_key, idx) "
+                + "CROSS JOIN LATERAL (" + String.join(" UNION ", probes) + ") c";
+    }
+
+    record PairKey(MatchType sourceType, UUID sourceId, MatchType targetType, UUID targetId) {
+    }
+}
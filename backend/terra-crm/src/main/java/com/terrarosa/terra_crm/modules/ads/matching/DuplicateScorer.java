@@ -0,0 +1,68 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Scores how likely two subjects are the same person. Blocking keys only select candidates;
+ * this decides which candidates are reported.
+ *
+ * Weights: same phone 0.6, same email 0.6 (or same email local part 0.3), same name key 0.25,
+ * identical folded name +0.15, same country +0.1 (only together with a name match). Pairs at or
+ * above {@link #THRESHOLD} are reported, so a name alone is reported only when it is identical
+ * and the country agrees.
+ */
+public final class DuplicateScorer {
+
+    public static final double THRESHOLD = 0.5;
+
+    private DuplicateScorer() {
+    }
+
+    public record Score(double value, List<String> matchedOn) {
+    }
+
+    /**
+     * @return the score, or null if the pair is below the threshold or not comparable
+     */
+    public static Score score(MatchSubject a, MatchSubject b) {
+        if (a.isSameOrLinked(b)) {
+            return null;
+        }
+        MatchKeys ka = a.keys();
+        MatchKeys kb = b.keys();
+        double value = 0;
+        List<String> matchedOn = new ArrayList<>(4);
+
+        if (sameKey(ka.getPhoneKey(), kb.getPhoneKey())) {
+            value += 0.6;
+            matchedOn.add("PHONE");
+        }
+        String emailA = MatchKeys.normalizeEmail(a.email());
+        if (sameKey(emailA, MatchKeys.normalizeEmail(b.email()))) {
+            value += 0.6;
+            matchedOn.add("EMAIL");
+        } else if (sameKey(ka.getEmailLocalKey(), kb.getEmailLocalKey())) {
+            value += 0.3;
+            matchedOn.add("EMAIL_LOCAL");
+        }
+        if (sameKey(ka.getNameKey(), kb.getNameKey())) {
+            value += 0.25;
+            if (MatchKeys.foldName(a.name()).equals(MatchKeys.foldName(b.name()))) {
+                value += 0.15;
+            }
+            if (a.country() != null && b.country() != null && a.country().equalsIgnoreCase(b.country())) {
+                value += 0.1;
+            }
+            matchedOn.add("NAME");
+        }
+
+        value = Math.min(1.0, Math.round(value * 100) / 100.0);
+        return value >= THRESHOLD && !matchedOn.isEmpty() ? new Score(value, matchedOn) : null;
+    }
+
+    private static boolean sameKey(String a, String b) {
+        return a != null && Objects.equals(a, b);
+    }
+}
@@ -0,0 +1,196 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Blocking keys used to find duplicate leads/customers without comparing against the whole table.
+ *
+ * <ul>
+ *   <li>{@code phoneKey}: last 10 digits of the phone number, so "+90 532 111 22 33" and
+ *       "0532 111 2233" share a key</li>
+ *   <li>{@code emailLocalKey}: normalized local part of the email ("+tag" stripped, dots removed
+ *       for Gmail), so the same person on different domains shares a key; generic mailboxes
+ *       such as "info" get no key</li>
+ *   <li>{@code nameKey}: Soundex codes of the first and last name token, sorted, computed on a
+ *       Turkish-folded name so "Yılmaz Mehmet" and "Mehmet Yilmaz" share a key</li>
+ * </ul>
+ *
+ * Keys are stored in indexed columns of leads and customers; {@code version} records the
+ * algorithm that produced them so a changed algorithm can be backfilled by the dedupe job.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MatchKeys {
+
+    public static final short VERSION = 1;
+
+    private static final int PHONE_KEY_DIGITS = 10;
+    private static final int MIN_PHONE_DIGITS = 7;
+    private static final int MIN_EMAIL_LOCAL_LENGTH = 3;
+
+    private static final Set<String> GENERIC_MAILBOXES = Set.of(
+            "info", "contact", "admin", "mail", "test", "noreply", "no-reply", "hello", "office",
+            "sales", "support", "destek", "iletisim", "bilgi");
+
+    private static final Set<String> DOT_INSENSITIVE_DOMAINS = Set.of("gmail.com", "googlemail.com");
+
+    @Column(name = "phone_key", length = 16)
+    private String phoneKey;
+
+    @Column(name = "email_local_key")
+    private String emailLocalKey;
+
+    @Column(name = "name_key", length = 16)
+    private String nameKey;
+
+    @Column(name = "match_keys_version")
+    private Short version;
+
+    public static MatchKeys of(String name, String phone, String email) {
+        return new MatchKeys(phoneKey(phone), emailLocalKey(email), nameKey(name), VERSION);
+    }
+
+    /**
+     * Last {@value #PHONE_KEY_DIGITS} digits of the number, or null if it has fewer than
+     * {@value #MIN_PHONE_DIGITS} digits.
+     */
+    public static String phoneKey(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            return null;
+        }
+        return digits.length() > PHONE_KEY_DIGITS ? digits.substring(digits.length() - PHONE_KEY_DIGITS) : digits;
+    }
+
+    /**
+     * Lower-cased address with "+tag" removed (and dots for Gmail), or null if it is not an address.
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String value = email.trim().toLowerCase(Locale.ROOT);
+        int at = value.indexOf('@');
+        if (at <= 0 || at != value.lastIndexOf('@') || at == value.length() - 1) {
+            return null;
+        }
+        String local = value.substring(0, at);
+        String domain = value.substring(at + 1);
+        int plus = local.indexOf('+');
+        if (plus > 0) {
+            local = local.substring(0, plus);
+        }
+        if (DOT_INSENSITIVE_DOMAINS.contains(domain)) {
+            local = local.replace(".", "");
+        }
+        return local + "@" + domain;
+    }
+
+    public static String emailLocalKey(String email) {
+        String normalized = normalizeEmail(email);
+        if (normalized == null) {
+            return null;
+        }
+        String local = normalized.substring(0, normalized.indexOf('@'));
+        if (local.length() < MIN_EMAIL_LOCAL_LENGTH || GENERIC_MAILBOXES.contains(local)) {
+            return null;
+        }
+        return local;
+    }
+
+    /**
+     * Sorted Soundex codes of the first and last name token, e.g. "M530Y452"; null without letters.
+     */
+    public static String nameKey(String name) {
+        List<String> tokens = nameTokens(name);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        String first = soundex(tokens.get(0));
+        if (tokens.size() == 1) {
+            return first;
+        }
+        String last = soundex(tokens.get(tokens.size() - 1));
+        return first.compareTo(last) <= 0 ? first + last : last + first;
+    }
+
+    /**
+     * Name folded to lower-case ASCII words, used for exact name comparison.
+     */
+    public static String foldName(String name) {
+        return String.join(" ", nameTokens(name));
+    }
+
+    /**
+     * American Soundex of an ASCII letter token (first letter + three digits).
+     */
+    static String soundex(String token) {
+        StringBuilder code = new StringBuilder(4);
+        code.append(Character.toUpperCase(token.charAt(0)));
+        char previous = soundexDigit(token.charAt(0));
+        for (int i = 1; i < token.length() && code.length() < 4; i++) {
+            char c = token.charAt(i);
+            char digit = soundexDigit(c);
+            if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            // 'h' and 'w' do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        return switch (c) {
+            case 'b', 'f', 'p', 'v' -> '1';
+            case 'c', 'g', 'j', 'k', 'q', 's', 'x', 'z' -> '2';
+            case 'd', 't' -> '3';
+            case 'l' -> '4';
+            case 'm', 'n' -> '5';
+            case 'r' -> '6';
+            default -> '0';
+        };
+    }
+
+    private static List<String> nameTokens(String name) {
+        List<String> tokens = new ArrayList<>();
+        if (name == null) {
+            return tokens;
+        }
+        for (String token : fold(name).split("[^a-z]+")) {
+            if (token.length() >= 2) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String fold(String value) {
+        // Turkish dotless i / dotted I have no decomposition; map them before stripping accents
+        String mapped = value.replace('ı', 'i').replace('İ', 'i');
+        String decomposed = Normalizer.normalize(mapped, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import java.util.UUID;
+
+/**
+ * A lead or customer as seen by the matcher.
+ *
+ * @param linkedLeadId for customers, the lead they were converted from (never reported as a duplicate)
+ */
+public record MatchSubject(
+        MatchType type,
+        UUID id,
+        String name,
+        String phone,
+        String email,
+        String country,
+        UUID linkedLeadId,
+        MatchKeys keys) {
+
+    public static MatchSubject of(MatchType type, UUID id, String name, String phone, String email,
+                                  String country, UUID linkedLeadId) {
+        return new MatchSubject(type, id, name, phone, email, country, linkedLeadId,
+                MatchKeys.of(name, phone, email));
+    }
+
+    /**
+     * Whether this subject and {@code other} are the same record or a customer and its own lead.
+     */
+    boolean isSameOrLinked(MatchSubject other) {
+        if (type == other.type) {
+            return id.equals(other.id);
+        }
+        MatchSubject customer = type == MatchType.CUSTOMER ? this : other;
+        MatchSubject lead = type == MatchType.LEAD ? this : other;
+        return lead.id.equals(customer.linkedLeadId);
+    }
+
+    /**
+     * Stable ordering of a pair so each pair is stored once.
+     */
+    boolean precedes(MatchSubject other) {
+        int byType = type.compareTo(other.type);
+        return byType != 0 ? byType < 0 : id.compareTo(other.id) < 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+/**
+ * Kind of record taking part in duplicate matching.
+ */
+public enum MatchType {
+    LEAD, CUSTOMER
+}
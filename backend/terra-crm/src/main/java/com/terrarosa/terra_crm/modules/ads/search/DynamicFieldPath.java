@@ -0,0 +1,78 @@
+package com.terrarosa.terra_crm.modules.ads.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A validated member path into Lead.dynamicData, e.g. {@code "$.procedure.interest"}.
+ *
+ * Segments are restricted to letters, digits and underscores, so they can be inlined into SQL
+ * and jsonpath text. Inlining is required for promoted fields: the planner only uses an
+ * expression index when the query contains the same expression, not a bind parameter.
+ */
+public record DynamicFieldPath(List<String> segments) {
+
+    static final int MAX_DEPTH = 4;
+
+    private static final Pattern SEGMENT = Pattern.compile("[A-Za-z0-9_]{1,40}");
+    private static final int INDEX_NAME_PATH_LENGTH = 36;
+
+    public static DynamicFieldPath parse(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Dynamic field path is required");
+        }
+        String value = path.trim();
+        if (value.startsWith("$.")) {
+            value = value.substring(2);
+        }
+        List<String> segments = Arrays.asList(value.split("\\.", -1));
+        if (segments.size() > MAX_DEPTH || !segments.stream().allMatch(s -> SEGMENT.matcher(s).matches())) {
+            throw new IllegalArgumentException("Invalid dynamic field path: " + path
+                    + " (expected up to " + MAX_DEPTH + " dot-separated names of letters, digits or '_')");
+        }
+        return new DynamicFieldPath(List.copyOf(segments));
+    }
+
+    /**
+     * Canonical form without the "$." prefix; identifies promoted fields.
+     */
+    public String value() {
+        return String.join(".", segments);
+    }
+
+    /**
+     * {@code (column -> 'a' -> 'b')}; the same text is used for the expression index and the query.
+     */
+    String jsonbExpression(String column) {
+        StringBuilder sql = new StringBuilder("(").append(column);
+        for (String segment : segments) {
+            sql.append(" -> '").append(segment).append('\'');
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * Lax-mode jsonpath accessor, e.g. {@code $."procedure"."interest"}.
+     */
+    String jsonPath() {
+        StringBuilder path = new StringBuilder("$");
+        for (String segment : segments) {
+            path.append(".\"").append(segment).append('"');
+        }
+        return path.toString();
+    }
+
+    /**
+     * Index name unique per path (paths differing only in case get different hashes) and within
+     * PostgreSQL's 63 character identifier limit.
+     */
+    String indexName() {
+        String readable = value().toLowerCase(Locale.ROOT).replace('.', '_');
+        if (readable.length() > INDEX_NAME_PATH_LENGTH) {
+            readable = readable.substring(0, INDEX_NAME_PATH_LENGTH);
+        }
+        return "idx_leads_dd_" + readable + "_" + Integer.toHexString(value().hashCode());
+    }
+}
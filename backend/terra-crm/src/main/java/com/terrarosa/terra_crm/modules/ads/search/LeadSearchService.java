@@ -0,0 +1,133 @@
+package com.terrarosa.terra_crm.modules.ads.search;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchPageDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Paginated lead search with filters over the campaign form fields in dynamic_data.
+ *
+ * The query is built by {@link LeadSearchSql} so that every filter can be answered by an index:
+ * the GIN jsonb_path_ops index for equality, expression indexes for promoted fields (see
+ * {@link PromotedFieldService}) and the (created_at, id) index for the newest-first order.
+ *
+ * Pages are keyset pages: the cursor is the (created_at, id) of the last lead of a page, and the
+ * next page continues strictly after it, so any page is one short index range scan. One lead more
+ * than requested is fetched to tell whether there is a next page; no total count is queried.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeadSearchService {
+
+    private static final String SELECT_SQL = "SELECT l.id, l.name, l.phone, l.email, l.country, l.source, "
+            + "l.dynamic_data::text AS dynamic_data, l.service_id, s.name AS service_name, l.assigned_to, l.status, "
+            + "l.created_at, l.updated_at FROM %1$s.leads l LEFT JOIN %1$s.services s ON s.id = l.service_id "
+            + "WHERE l.deleted = false%2$s%3$s ORDER BY l.created_at DESC, l.id DESC LIMIT ?";
+
+    private static final String AFTER_SQL = " AND (l.created_at, l.id) < (?, ?)";
+
+    private static final TypeReference<Map<String, Object>> DYNAMIC_DATA = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+    private final PromotedFieldService promotedFieldService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Position of a lead in the newest-first order.
+     */
+    record Position(LocalDateTime createdAt, UUID id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid lead search cursor");
+                }
+                return new Position(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid lead search cursor");
+            }
+        }
+    }
+
+    /**
+     * A page of matching leads, starting after {@code cursor} (from the newest if null).
+     */
+    @Transactional(readOnly = true)
+    public LeadSearchPageDto search(LeadSearchRequest request, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        Position after = cursor != null && !cursor.isBlank() ? Position.decode(cursor) : null;
+        String schemaName = TenantContext.getCurrentSchemaName();
+        String schema = tenantService.quotedSchema(schemaName);
+        LeadSearchSql.Where where = LeadSearchSql.where(request, promotedFieldService.promotedPaths(schemaName));
+        promotedFieldService.recordUsage(schemaName, where.paths());
+
+        List<Object> args = new ArrayList<>(where.args());
+        if (after != null) {
+            args.add(after.createdAt());
+            args.add(after.id());
+        }
+        args.add(size + 1);
+        List<LeadDto> leads = jdbcTemplate.query(
+                String.format(SELECT_SQL, schema, where.sql(), after != null ? AFTER_SQL : ""),
+                (rs, rowNum) -> toDto(rs), args.toArray());
+
+        boolean more = leads.size() > size;
+        List<LeadDto> items = more ? leads.subList(0, size) : leads;
+        LeadDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return LeadSearchPageDto.builder()
+                .items(items)
+                .nextCursor(more ? new Position(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    private LeadDto toDto(ResultSet rs) throws SQLException {
+        String dynamicData = rs.getString("dynamic_data");
+        return LeadDto.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .phone(rs.getString("phone"))
+                .email(rs.getString("email"))
+                .country(rs.getString("country"))
+                .source(rs.getString("source"))
+                .dynamicData(dynamicData != null ? objectMapper.readValue(dynamicData, DYNAMIC_DATA) : null)
+                .serviceId(rs.getObject("service_id", UUID.class))
+                .serviceName(rs.getString("service_name"))
+                .assignedTo(rs.getObject("assigned_to", UUID.class))
+                .status(rs.getString("status"))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
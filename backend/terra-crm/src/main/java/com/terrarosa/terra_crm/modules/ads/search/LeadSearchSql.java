@@ -0,0 +1,225 @@
+package com.terrarosa.terra_crm.modules.ads.search;
+
+import com.terrarosa.terra_crm.modules.ads.dto.DynamicFieldFilter;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Translates a {@link LeadSearchRequest} into the WHERE clause of the lead search.
+ *
+ * Dynamic field filters take the form the available index can answer:
+ * <ul>
+ *   <li>promoted paths compare the inlined expression {@code (l.dynamic_data -> 'field')}
+ *       against jsonb values, matching the btree expression index for every operator</li>
+ *   <li>other paths use containment ({@code @>}) for EQ/NE/IN, answered by the GIN
+ *       jsonb_path_ops index; EXISTS and range comparisons use strict jsonpath ({@code @?}),
+ *       which the GIN index cannot narrow, so they rely on the other criteria (or promotion)</li>
+ * </ul>
+ * Values are limited to strings, numbers, booleans and null and always passed as bind
+ * parameters; only validated path segments are inlined.
+ */
+final class LeadSearchSql {
+
+    static final String DYNAMIC_DATA = "l.dynamic_data";
+
+    private LeadSearchSql() {
+    }
+
+    /**
+     * @param sql   conditions to append after {@code WHERE l.deleted = false}, each starting with " AND"
+     * @param paths dynamic field paths used by the filters, for promotion statistics
+     */
+    record Where(String sql, List<Object> args, List<DynamicFieldPath> paths) {
+    }
+
+    static Where where(LeadSearchRequest request, Set<String> promoted) {
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        appendEquals(sql, args, "l.status", request.getStatus());
+        appendEquals(sql, args, "l.source", request.getSource());
+        appendEquals(sql, args, "l.country", request.getCountry());
+        appendEquals(sql, args, "l.service_id", request.getServiceId());
+        appendEquals(sql, args, "l.assigned_to", request.getAssignedTo());
+        if (request.getCreatedFrom() != null) {
+            sql.append(" AND l.created_at >= ?");
+            args.add(request.getCreatedFrom());
+        }
+        if (request.getCreatedTo() != null) {
+            sql.append(" AND l.created_at < ?");
+            args.add(request.getCreatedTo());
+        }
+
+        List<DynamicFieldPath> paths = new ArrayList<>();
+        if (request.getFilters() != null) {
+            for (DynamicFieldFilter filter : request.getFilters()) {
+                DynamicFieldPath path = DynamicFieldPath.parse(filter.getPath());
+                paths.add(path);
+                if (promoted.contains(path.value())) {
+                    appendIndexed(sql, args, path, filter);
+                } else {
+                    appendDocument(sql, args, path, filter);
+                }
+            }
+        }
+        return new Where(sql.toString(), args, paths);
+    }
+
+    private static void appendEquals(StringBuilder sql, List<Object> args, String column, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+
+    /**
+     * Promoted path: compare the indexed expression.
+     */
+    private static void appendIndexed(StringBuilder sql, List<Object> args, DynamicFieldPath path,
+                                      DynamicFieldFilter filter) {
+        String expression = path.jsonbExpression(DYNAMIC_DATA);
+        switch (filter.getOp()) {
+            case EQ -> {
+                sql.append(" AND ").append(expression).append(" = ?::jsonb");
+                args.add(jsonLiteral(filter.getValue()));
+            }
+            case NE -> {
+                sql.append(" AND ").append(expression).append(" IS DISTINCT FROM ?::jsonb");
+                args.add(jsonLiteral(filter.getValue()));
+            }
+            case IN -> {
+                List<Object> values = requireValues(filter);
+                sql.append(" AND ").append(expression).append(" IN (");
+                for (int i = 0; i < values.size(); i++) {
+                    sql.append(i == 0 ? "?::jsonb" : ", ?::jsonb");
+                    args.add(jsonLiteral(values.get(i)));
+                }
+                sql.append(')');
+            }
+            case EXISTS -> sql.append(" AND ").append(expression).append(" IS NOT NULL");
+            case GT, GTE, LT, LTE -> {
+                Object value = requireComparable(filter);
+                // jsonb orders values of different types by type; restrict to the value's type
+                sql.append(" AND ").append(expression).append(' ').append(sqlOperator(filter.getOp()))
+                        .append(" ?::jsonb AND jsonb_typeof(").append(expression).append(") = ?");
+                args.add(jsonLiteral(value));
+                args.add(value instanceof Number ? "number" : "string");
+            }
+        }
+    }
+
+    /**
+     * Other paths: containment / jsonpath over the whole document.
+     */
+    private static void appendDocument(StringBuilder sql, List<Object> args, DynamicFieldPath path,
+                                       DynamicFieldFilter filter) {
+        switch (filter.getOp()) {
+            case EQ -> {
+                sql.append(" AND ").append(DYNAMIC_DATA).append(" @> ?::jsonb");
+                args.add(containment(path, filter.getValue()));
+            }
+            case NE -> {
+                sql.append(" AND NOT (").append(DYNAMIC_DATA).append(" @> ?::jsonb)");
+                args.add(containment(path, filter.getValue()));
+            }
+            case IN -> {
+                List<Object> values = requireValues(filter);
+                sql.append(" AND (");
+                for (int i = 0; i < values.size(); i++) {
+                    sql.append(i == 0 ? "" : " OR ").append(DYNAMIC_DATA).append(" @> ?::jsonb");
+                    args.add(containment(path, values.get(i)));
+                }
+                sql.append(')');
+            }
+            case EXISTS -> {
+                // "??" is the JDBC escape for a literal "?" (the @? operator)
+                sql.append(" AND ").append(DYNAMIC_DATA).append(" @?? ?::jsonpath");
+                args.add("strict " + path.jsonPath());
+            }
+            case GT, GTE, LT, LTE -> {
+                Object value = requireComparable(filter);
+                sql.append(" AND ").append(DYNAMIC_DATA).append(" @?? ?::jsonpath");
+                args.add("strict " + path.jsonPath() + " ? (@ " + sqlOperator(filter.getOp()) + " "
+                        + jsonLiteral(value) + ")");
+            }
+        }
+    }
+
+    /**
+     * {@code {"a":{"b":value}}} for path a.b.
+     */
+    static String containment(DynamicFieldPath path, Object value) {
+        String json = jsonLiteral(value);
+        List<String> segments = path.segments();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            json = "{" + jsonLiteral(segments.get(i)) + ":" + json + "}";
+        }
+        return json;
+    }
+
+    /**
+     * JSON text of a scalar; also valid as a jsonpath literal.
+     */
+    static String jsonLiteral(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof Number number) {
+            double asDouble = number.doubleValue();
+            if (Double.isNaN(asDouble) || Double.isInfinite(asDouble)) {
+                throw new IllegalArgumentException("Filter value must be a finite number");
+            }
+            return number.toString();
+        }
+        if (value instanceof String text) {
+            StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    default -> {
+                        if (c < 0x20) {
+                            json.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            json.append(c);
+                        }
+                    }
+                }
+            }
+            return json.append('"').toString();
+        }
+        throw new IllegalArgumentException("Filter values must be strings, numbers, booleans or null");
+    }
+
+    private static List<Object> requireValues(DynamicFieldFilter filter) {
+        if (filter.getValues() == null || filter.getValues().isEmpty()) {
+            throw new IllegalArgumentException("IN filter on " + filter.getPath() + " requires values");
+        }
+        return filter.getValues();
+    }
+
+    private static Object requireComparable(DynamicFieldFilter filter) {
+        Object value = filter.getValue();
+        if (!(value instanceof Number) && !(value instanceof String)) {
+            throw new IllegalArgumentException(filter.getOp() + " filter on " + filter.getPath()
+                    + " requires a number or string value");
+        }
+        return value;
+    }
+
+    private static String sqlOperator(DynamicFieldFilter.Operator op) {
+        return switch (op) {
+            case GT -> ">";
+            case GTE -> ">=";
+            case LT -> "<";
+            case LTE -> "<=";
+            default -> throw new IllegalArgumentException("Not a comparison: " + op);
+        };
+    }
+}
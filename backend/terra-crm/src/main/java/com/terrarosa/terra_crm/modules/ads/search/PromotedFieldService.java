@@ -0,0 +1,269 @@
+package com.terrarosa.terra_crm.modules.ads.search;
+
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.PromotedFieldDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manages "promoted" dynamic_data fields: paths with their own btree expression index
+ * {@code (dynamic_data -> 'field')}, so range filters on them are index scans.
+ *
+ * Searches report the paths they filter on. Every {@code evaluation-interval} a maintenance
+ * task promotes paths of a tenant filtered at least {@code promote-after-hits} times in the
+ * interval (up to {@code max-promoted-fields} per tenant), refreshes the last use of promoted
+ * paths, and drops automatically promoted indexes unused for {@code demote-after}. Fields can
+ * also be promoted manually; those are never dropped automatically.
+ *
+ * Indexes are built with CREATE INDEX CONCURRENTLY, so promotion never blocks lead writes;
+ * this requires autocommit, which is why nothing here is transactional.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PromotedFieldService {
+
+    public static final String MODE_AUTO = "AUTO";
+    public static final String MODE_MANUAL = "MANUAL";
+
+    private static final String LIST_SQL = "SELECT path, index_name, mode, created_at, last_used_at "
+            + "FROM %s.lead_promoted_fields ORDER BY path";
+
+    private static final String INSERT_SQL = "INSERT INTO %s.lead_promoted_fields (path, index_name, mode) "
+            + "VALUES (?, ?, ?) ON CONFLICT (path) DO UPDATE SET mode = CASE WHEN EXCLUDED.mode = 'MANUAL' "
+            + "THEN 'MANUAL' ELSE lead_promoted_fields.mode END";
+
+    private static final String TOUCH_SQL = "UPDATE %s.lead_promoted_fields SET last_used_at = ? "
+            + "WHERE path = ANY(?)";
+
+    private static final String STALE_SQL = "SELECT path FROM %s.lead_promoted_fields "
+            + "WHERE mode = 'AUTO' AND last_used_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+    private final TenantRepository tenantRepository;
+
+    @Value("${app.leads.search.promote-after-hits:50}")
+    private int promoteAfterHits;
+
+    @Value("${app.leads.search.max-promoted-fields:10}")
+    private int maxPromotedFields;
+
+    @Value("${app.leads.search.evaluation-interval:PT10M}")
+    private Duration evaluationInterval;
+
+    @Value("${app.leads.search.demote-after:P30D}")
+    private Duration demoteAfter;
+
+    /**
+     * Promoted paths per schema; a cache of lead_promoted_fields refreshed by the maintenance task.
+     */
+    private final Map<String, Set<String>> promoted = new ConcurrentHashMap<>();
+
+    /**
+     * Filter usage per schema and path since the last evaluation.
+     */
+    private final Map<String, Map<String, LongAdder>> hits = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService maintenance;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        maintenance = Executors.newSingleThreadScheduledExecutor(daemon("lead-search-promotion"));
+        maintenance.scheduleWithFixedDelay(this::maintainSafely, evaluationInterval.toMillis(),
+                evaluationInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Promoted paths of a tenant, as used when building a search query.
+     */
+    public Set<String> promotedPaths(String schemaName) {
+        return promoted.computeIfAbsent(schemaName, this::loadPromotedPaths);
+    }
+
+    /**
+     * Count the filter paths of one search towards promotion.
+     */
+    public void recordUsage(String schemaName, Collection<DynamicFieldPath> paths) {
+        Map<String, LongAdder> counters = hits.computeIfAbsent(schemaName, k -> new ConcurrentHashMap<>());
+        for (DynamicFieldPath path : paths) {
+            counters.computeIfAbsent(path.value(), k -> new LongAdder()).increment();
+        }
+    }
+
+    public List<PromotedFieldDto> getPromotedFields() {
+        String schema = tenantService.quotedSchema(TenantContext.getCurrentSchemaName());
+        return jdbcTemplate.query(String.format(LIST_SQL, schema), (rs, rowNum) -> PromotedFieldDto.builder()
+                .path(rs.getString("path"))
+                .indexName(rs.getString("index_name"))
+                .mode(rs.getString("mode"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .lastUsedAt(rs.getTimestamp("last_used_at").toLocalDateTime())
+                .build());
+    }
+
+    /**
+     * Promote a path of the current tenant manually; builds the index before returning.
+     */
+    public PromotedFieldDto promote(String path) {
+        String schemaName = TenantContext.getCurrentSchemaName();
+        DynamicFieldPath fieldPath = DynamicFieldPath.parse(path);
+        Set<String> current = promotedPaths(schemaName);
+        if (!current.contains(fieldPath.value()) && current.size() >= maxPromotedFields) {
+            throw new IllegalArgumentException("At most " + maxPromotedFields + " fields can be promoted");
+        }
+        promote(schemaName, fieldPath, MODE_MANUAL);
+        return getPromotedFields().stream()
+                .filter(field -> field.getPath().equals(fieldPath.value()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Promoted field was not recorded: " + path));
+    }
+
+    /**
+     * Drop the expression index of a promoted path of the current tenant.
+     */
+    public void demote(String path) {
+        String schemaName = TenantContext.getCurrentSchemaName();
+        DynamicFieldPath fieldPath = DynamicFieldPath.parse(path);
+        if (!promotedPaths(schemaName).contains(fieldPath.value())) {
+            throw new ResourceNotFoundException("Promoted field not found: " + path);
+        }
+        demote(schemaName, fieldPath);
+    }
+
+    private void promote(String schemaName, DynamicFieldPath path, String mode) {
+        String schema = tenantService.quotedSchema(schemaName);
+        String indexName = path.indexName();
+        try {
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName + " ON " + schema
+                    + ".leads (" + path.jsonbExpression("dynamic_data") + ") WHERE deleted = FALSE");
+        } catch (RuntimeException e) {
+            // A failed concurrent build leaves an INVALID index behind
+            dropIndex(schema, indexName);
+            throw e;
+        }
+        jdbcTemplate.update(String.format(INSERT_SQL, schema), path.value(), indexName, mode);
+        promoted.remove(schemaName);
+        log.info("Promoted dynamic field {} of schema {} ({}, index {})", path.value(), schemaName, mode, indexName);
+    }
+
+    private void demote(String schemaName, DynamicFieldPath path) {
+        String schema = tenantService.quotedSchema(schemaName);
+        // Forget the field first so searches stop using the index expression before it is dropped
+        jdbcTemplate.update("DELETE FROM " + schema + ".lead_promoted_fields WHERE path = ?", path.value());
+        promoted.remove(schemaName);
+        dropIndex(schema, path.indexName());
+        log.info("Demoted dynamic field {} of schema {}", path.value(), schemaName);
+    }
+
+    private void dropIndex(String schema, String indexName) {
+        try {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + schema + "." + indexName);
+        } catch (RuntimeException e) {
+            log.warn("Could not drop index {}.{}: {}", schema, indexName, e.getMessage());
+        }
+    }
+
+    private void maintainSafely() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (String schemaName : tenantRepository.findAllTenantSchemaNames()) {
+                evaluate(schemaName, now);
+            }
+        } catch (RuntimeException e) {
+            log.error("Lead search field promotion failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Promote frequently filtered paths, refresh the last use of promoted ones and drop stale ones.
+     */
+    void evaluate(String schemaName, LocalDateTime now) {
+        String schema = tenantService.quotedSchema(schemaName);
+        Map<String, LongAdder> counters = hits.remove(schemaName);
+        promoted.remove(schemaName);
+        Set<String> current = new HashSet<>(promotedPaths(schemaName));
+
+        if (counters != null) {
+            List<String> used = new ArrayList<>();
+            List<Map.Entry<String, Long>> candidates = new ArrayList<>();
+            counters.forEach((path, count) -> {
+                if (current.contains(path)) {
+                    used.add(path);
+                } else if (count.sum() >= promoteAfterHits) {
+                    candidates.add(Map.entry(path, count.sum()));
+                }
+            });
+            if (!used.isEmpty()) {
+                jdbcTemplate.update(String.format(TOUCH_SQL, schema), Timestamp.valueOf(now),
+                        new SqlArrayValue("text", used.toArray()));
+            }
+            candidates.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            for (Map.Entry<String, Long> candidate : candidates) {
+                if (current.size() >= maxPromotedFields) {
+                    break;
+                }
+                try {
+                    promote(schemaName, DynamicFieldPath.parse(candidate.getKey()), MODE_AUTO);
+                    current.add(candidate.getKey());
+                } catch (RuntimeException e) {
+                    log.warn("Could not promote dynamic field {} of schema {}: {}", candidate.getKey(), schemaName,
+                            e.getMessage());
+                }
+            }
+        }
+
+        List<String> stale = jdbcTemplate.queryForList(String.format(STALE_SQL, schema), String.class,
+                Timestamp.valueOf(now.minus(demoteAfter)));
+        for (String path : stale) {
+            demote(schemaName, DynamicFieldPath.parse(path));
+        }
+    }
+
+    private Set<String> loadPromotedPaths(String schemaName) {
+        String schema = tenantService.quotedSchema(schemaName);
+        return Set.copyOf(jdbcTemplate.queryForList("SELECT path FROM " + schema + ".lead_promoted_fields",
+                String.class));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
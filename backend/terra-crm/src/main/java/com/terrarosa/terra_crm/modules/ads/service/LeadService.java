@@ -4,7 +4,12 @@ import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
 import com.terrarosa.terra_crm.modules.ads.dto.LeadDto;
 import com.terrarosa.terra_crm.modules.ads.dto.LeadUpdateRequest;
 import com.terrarosa.terra_crm.modules.ads.entity.Lead;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchSubject;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
 import com.terrarosa.terra_crm.modules.ads.repository.LeadRepository;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.LeadRollupKey;
 import com.terrarosa.terra_crm.modules.health.repository.ServiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +27,8 @@ public class LeadService {
 
     private final LeadRepository leadRepository;
     private final ServiceRepository serviceRepository;
+    private final DuplicateMatchingService duplicateMatchingService;
+    private final DashboardRollupService dashboardRollupService;
 
     @Transactional(readOnly = true)
     public List<LeadDto> getAllLeads() {
@@ -57,6 +64,8 @@ public class LeadService {
         }
 
         Lead saved = leadRepository.save(lead);
+        recordMatches(saved);
+        dashboardRollupService.changed(null, LeadRollupKey.of(saved));
         return toDto(saved);
     }
 
@@ -64,6 +73,7 @@ public class LeadService {
     public LeadDto updateLead(UUID id, LeadUpdateRequest request) {
         Lead lead = leadRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lead not found with id: " + id));
+        LeadRollupKey rollupKey = LeadRollupKey.of(lead);
 
         if (request.getName() != null) {
             lead.setName(request.getName());
@@ -96,6 +106,8 @@ public class LeadService {
         }
 
         Lead updated = leadRepository.save(lead);
+        recordMatches(updated);
+        dashboardRollupService.changed(rollupKey, LeadRollupKey.of(updated));
         return toDto(updated);
     }
 
@@ -103,7 +115,14 @@ public class LeadService {
     public void deleteLead(UUID id) {
         Lead lead = leadRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lead not found with id: " + id));
+        LeadRollupKey rollupKey = LeadRollupKey.of(lead);
         leadRepository.softDelete(lead);
+        dashboardRollupService.changed(rollupKey, null);
+    }
+
+    private void recordMatches(Lead lead) {
+        duplicateMatchingService.recordMatches(MatchSubject.of(MatchType.LEAD, lead.getId(), lead.getName(),
+                lead.getPhone(), lead.getEmail(), lead.getCountry(), null));
     }
 
     private LeadDto toDto(Lead lead) {
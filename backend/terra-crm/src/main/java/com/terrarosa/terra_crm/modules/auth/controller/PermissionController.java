@@ -1,6 +1,8 @@
 package com.terrarosa.terra_crm.modules.auth.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.auth.dto.PermissionResponseDTO;
 import com.terrarosa.terra_crm.modules.auth.entity.Permission;
 import com.terrarosa.terra_crm.modules.auth.entity.PermissionBundle;
 import com.terrarosa.terra_crm.modules.auth.service.PermissionService;
@@ -9,7 +11,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -31,7 +32,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/v1/permissions")
 @RequiredArgsConstructor
-@PreAuthorize("hasRole('ROLE_ADMIN')")
+@RequirePermission("ROLE_ADMIN")
 public class PermissionController {
     
     private final PermissionService permissionService;
@@ -41,8 +42,8 @@ public class PermissionController {
      * Get all available permissions.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Permission>>> getAllPermissions() {
-        List<Permission> permissions = permissionService.getAllPermissions();
+    public ResponseEntity<ApiResponse<List<PermissionResponseDTO>>> getAllPermissions() {
+        List<PermissionResponseDTO> permissions = permissionService.getAllPermissions();
         return ResponseEntity.ok(ApiResponse.success(permissions));
     }
     
@@ -146,8 +147,9 @@ public class PermissionController {
      * Get all action-level permissions for a module.
      */
     @GetMapping("/modules/{moduleName}/permissions")
-    public ResponseEntity<ApiResponse<List<Permission>>> getModulePermissions(@PathVariable String moduleName) {
-        List<Permission> permissions = permissionService.getModulePermissions(moduleName);
+    public ResponseEntity<ApiResponse<List<PermissionResponseDTO>>> getModulePermissions(
+            @PathVariable String moduleName) {
+        List<PermissionResponseDTO> permissions = permissionService.getModulePermissions(moduleName);
         return ResponseEntity.ok(ApiResponse.success(permissions));
     }
     
@@ -4,6 +4,7 @@ import com.terrarosa.terra_crm.core.audit.entity.AuditLog;
 import com.terrarosa.terra_crm.core.audit.service.AuditLogService;
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
 import com.terrarosa.terra_crm.core.common.dto.PagedResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
 import com.terrarosa.terra_crm.core.tenancy.TenantContext;
 import com.terrarosa.terra_crm.core.tenancy.dto.SchemaPoolStatsResponse;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
@@ -26,7 +27,6 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -47,7 +47,7 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/v1/super-admin")
 @RequiredArgsConstructor
-@PreAuthorize("hasRole('ROLE_SUPER_ADMIN')")
+@RequirePermission("ROLE_SUPER_ADMIN")
 public class SuperAdminController {
 
         private final SuperAdminService superAdminService;
@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.modules.auth.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
 import com.terrarosa.terra_crm.modules.auth.dto.BundleDto;
 import com.terrarosa.terra_crm.modules.auth.dto.ModuleDTO;
 import com.terrarosa.terra_crm.modules.auth.dto.PasswordResetResponse;
@@ -21,7 +22,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -39,7 +39,7 @@ import java.util.stream.Collectors;
  * resources (users, bundles, permissions) from their own tenant.
  * Super Admin users have access to all tenant resources.
  * 
- * NOTE: We use permission-based @PreAuthorize instead of role-based to allow
+ * NOTE: We use permission-based @RequirePermission instead of role-based to allow
  * any user with appropriate permissions (e.g., SETTINGS_PERMISSIONS_CREATE) to
  * manage bundles,
  * regardless of their role (ROLE_ADMIN, ROLE_AGENT, etc.).
@@ -62,7 +62,7 @@ public class TenantAdminController {
          * Get all users belonging to the current tenant.
          */
         @GetMapping("/users")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_USERS", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<List<UserDto>>> getTenantUsers() {
                 UUID tenantId = tenantSecurityService.getCurrentUserTenantId();
 
@@ -103,7 +103,7 @@ public class TenantAdminController {
          * Password is generated server-side and returned once in the response.
          */
         @PostMapping("/users")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_USERS", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<TenantUserCreateResponse>> createTenantUser(
                         @RequestBody TenantUserCreateRequest request) {
                 UUID tenantId = tenantSecurityService.getCurrentUserTenantId();
@@ -119,7 +119,7 @@ public class TenantAdminController {
          * Validates that the user belongs to the current tenant.
          */
         @PutMapping("/users/{userId}")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_USERS", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<Void>> updateTenantUser(
                         @PathVariable UUID userId,
                         @RequestBody TenantUserCreateRequest request) {
@@ -216,7 +216,7 @@ public class TenantAdminController {
          * Password is generated server-side and returned once in the response.
          */
         @PostMapping("/users/{userId}/reset-password")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_USERS", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<PasswordResetResponse>> resetUserPassword(@PathVariable UUID userId) {
                 // CRITICAL: Validate user belongs to current tenant and is active
                 tenantSecurityService.validateUserActiveAndBelongsToTenant(userId);
@@ -235,7 +235,7 @@ public class TenantAdminController {
          * to prevent LazyInitializationException.
          */
         @GetMapping("/bundles")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_PERMISSIONS_VIEW', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_PERMISSIONS_VIEW", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<List<BundleDto>>> getTenantBundles() {
                 UUID tenantId = tenantSecurityService.getCurrentUserTenantId();
 
@@ -262,9 +262,9 @@ public class TenantAdminController {
          * request body).
          */
         @PostMapping("/bundles")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_PERMISSIONS_CREATE', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_PERMISSIONS_CREATE", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<BundleDto>> createBundle(@RequestBody CreateBundleRequest request) {
-                // DEBUG: Log authorities at @PreAuthorize evaluation point
+                // DEBUG: Log authorities at @RequirePermission evaluation point
                 org.springframework.security.core.Authentication authentication = org.springframework.security.core.context.SecurityContextHolder
                                 .getContext().getAuthentication();
                 if (authentication != null) {
@@ -295,7 +295,7 @@ public class TenantAdminController {
          * Validates that the bundle belongs to the current tenant.
          */
         @PutMapping("/bundles/{bundleId}")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_PERMISSIONS_UPDATE', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_PERMISSIONS_UPDATE", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<BundleDto>> updateBundle(
                         @PathVariable UUID bundleId,
                         @RequestBody UpdateBundleRequest request) {
@@ -318,7 +318,7 @@ public class TenantAdminController {
          * CRITICAL: Cascade cleanup - removes bundle permissions from all users.
          */
         @DeleteMapping("/bundles/{bundleId}")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_PERMISSIONS_DELETE', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_PERMISSIONS_DELETE", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<Void>> deleteBundle(@PathVariable UUID bundleId) {
                 UUID tenantId = tenantSecurityService.getCurrentUserTenantId();
 
@@ -383,8 +383,7 @@ public class TenantAdminController {
                 // CRITICAL: JWT + DB validation for user
                 tenantSecurityService.validateUserActiveAndBelongsToTenant(userId);
 
-                // CRITICAL: This method now removes bundle permissions from user_permissions
-                // table
+                // Direct grants in user_permissions are kept; only the bundle's own grant goes
                 permissionService.removeBundleFromUser(userId, bundleId);
                 return ResponseEntity
                                 .ok(ApiResponse.success(null,
@@ -406,7 +405,7 @@ public class TenantAdminController {
          * Tenant Admin: Returns only ACTION permissions from tenant's assigned modules.
          */
         @GetMapping("/permissions")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_PERMISSIONS_VIEW', 'SETTINGS_PERMISSIONS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_PERMISSIONS_VIEW", "SETTINGS_PERMISSIONS", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<List<PermissionResponseDTO>>> getTenantAvailablePermissions() {
                 // Check if Super Admin
                 org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder
@@ -420,47 +419,12 @@ public class TenantAdminController {
                         // Super Admin: Return all ACTION permissions in system
                         log.debug("Super Admin detected - returning all ACTION permissions");
                         permissions = permissionService.getAllPermissions().stream()
-                                        .filter(p -> p
-                                                        .getType() == com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType.ACTION)
-                                        .map(p -> PermissionResponseDTO.builder()
-                                                        .id(p.getId())
-                                                        .name(p.getName())
-                                                        .description(p.getDescription())
-                                                        .type(p.getType())
-                                                        .parentPermissionId(
-                                                                        p.getParentPermission() != null
-                                                                                        ? p.getParentPermission()
-                                                                                                        .getId()
-                                                                                        : null)
-                                                        .parentPermissionName(
-                                                                        p.getParentPermission() != null
-                                                                                        ? p.getParentPermission()
-                                                                                                        .getName()
-                                                                                        : null)
-                                                        .build())
+                                        .filter(p -> p.getType() == Permission.PermissionType.ACTION)
                                         .collect(Collectors.toList());
                 } else {
                         // Tenant Admin: Return only tenant's available permissions
                         UUID tenantId = tenantSecurityService.getCurrentUserTenantId();
-                        List<Permission> permissionEntities = permissionService.getTenantAvailablePermissions(tenantId);
-                        permissions = permissionEntities.stream()
-                                        .map(p -> PermissionResponseDTO.builder()
-                                                        .id(p.getId())
-                                                        .name(p.getName())
-                                                        .description(p.getDescription())
-                                                        .type(p.getType())
-                                                        .parentPermissionId(
-                                                                        p.getParentPermission() != null
-                                                                                        ? p.getParentPermission()
-                                                                                                        .getId()
-                                                                                        : null)
-                                                        .parentPermissionName(
-                                                                        p.getParentPermission() != null
-                                                                                        ? p.getParentPermission()
-                                                                                                        .getName()
-                                                                                        : null)
-                                                        .build())
-                                        .collect(Collectors.toList());
+                        permissions = permissionService.getTenantAvailablePermissions(tenantId);
                 }
 
                 log.debug("Returning {} ACTION permissions for user", permissions.size());
@@ -475,7 +439,7 @@ public class TenantAdminController {
          * serialization.
          */
         @GetMapping("/modules")
-        @PreAuthorize("hasAnyAuthority('SETTINGS_PERMISSIONS_VIEW', 'SETTINGS_PERMISSIONS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+        @RequirePermission({"SETTINGS_PERMISSIONS_VIEW", "SETTINGS_PERMISSIONS", "ROLE_ADMIN"})
         public ResponseEntity<ApiResponse<List<ModuleDTO>>> getTenantModules() {
                 UUID tenantId = tenantSecurityService.getCurrentUserTenantId();
 
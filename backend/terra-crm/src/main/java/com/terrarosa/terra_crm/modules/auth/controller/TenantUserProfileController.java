@@ -1,13 +1,13 @@
 package com.terrarosa.terra_crm.modules.auth.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
 import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
 import com.terrarosa.terra_crm.modules.auth.dto.UserProfileDto;
 import com.terrarosa.terra_crm.modules.auth.service.UserProfileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -36,7 +36,7 @@ public class TenantUserProfileController {
      * Get profile information for a user within the current tenant.
      */
     @GetMapping("/users/{userId}/profile")
-    @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    @RequirePermission({"SETTINGS_USERS", "ROLE_ADMIN"})
     public ResponseEntity<ApiResponse<UserProfileDto>> getUserProfile(@PathVariable UUID userId) {
         tenantSecurityService.validateUserActiveAndBelongsToTenant(userId);
 
@@ -48,7 +48,7 @@ public class TenantUserProfileController {
      * Create or update profile information for a user within the current tenant.
      */
     @PutMapping("/users/{userId}/profile")
-    @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', 'ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    @RequirePermission({"SETTINGS_USERS", "ROLE_ADMIN"})
     public ResponseEntity<ApiResponse<UserProfileDto>> upsertUserProfile(
             @PathVariable UUID userId,
             @RequestBody UserProfileDto request) {
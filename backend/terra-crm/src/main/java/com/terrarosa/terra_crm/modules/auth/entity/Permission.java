@@ -2,18 +2,23 @@ package com.terrarosa.terra_crm.modules.auth.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
+import com.terrarosa.terra_crm.core.tenancy.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.AUTH_REFERENCE)
 @Table(name = "permissions", schema = "public")
 @Getter
 @Setter
@@ -1,13 +1,18 @@
 package com.terrarosa.terra_crm.modules.auth.entity;
 
 import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
+import com.terrarosa.terra_crm.core.tenancy.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.AUTH_REFERENCE)
 @Table(name = "roles", schema = "public")
 @Getter
 @Setter
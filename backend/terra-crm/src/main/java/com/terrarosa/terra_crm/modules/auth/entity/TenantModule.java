@@ -1,9 +1,12 @@
 package com.terrarosa.terra_crm.modules.auth.entity;
 
 import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
+import com.terrarosa.terra_crm.core.tenancy.CacheRegions;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
@@ -14,6 +17,8 @@ import java.util.Objects;
  * Unique constraint ensures data integrity (one tenant can have one instance of each module).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TENANT_DIRECTORY)
 @Table(name = "tenant_modules", schema = "public",
        uniqueConstraints = @UniqueConstraint(name = "uk_tenant_modules_tenant_permission", 
                                              columnNames = {"tenant_id", "permission_id"}))
@@ -20,7 +20,7 @@ public interface PermissionBundleRepository extends SoftDeleteRepository<Permiss
     @Query("SELECT b FROM PermissionBundle b JOIN b.users u WHERE u.id = :userId")
     List<PermissionBundle> findByUserId(@Param("userId") UUID userId);
 
-    /** Load bundle with permissions eagerly so assignBundleToUser can copy them to user_permissions. */
+    /** Load bundle with permissions eagerly. */
     @Query("SELECT b FROM PermissionBundle b LEFT JOIN FETCH b.permissions WHERE b.id = :id")
     Optional<PermissionBundle> findByIdWithPermissions(@Param("id") UUID id);
 }
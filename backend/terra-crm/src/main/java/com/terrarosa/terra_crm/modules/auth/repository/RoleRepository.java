@@ -2,6 +2,9 @@ package com.terrarosa.terra_crm.modules.auth.repository;
 
 import com.terrarosa.terra_crm.core.common.repository.SoftDeleteRepository;
 import com.terrarosa.terra_crm.modules.auth.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +13,9 @@ import java.util.UUID;
 @Repository
 public interface RoleRepository extends SoftDeleteRepository<Role, UUID> {
     
+    /**
+     * Query-cached: user creation and admin management look up the same few roles.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
 }
@@ -2,8 +2,11 @@ package com.terrarosa.terra_crm.modules.auth.repository;
 
 import com.terrarosa.terra_crm.core.common.repository.SoftDeleteRepository;
 import com.terrarosa.terra_crm.modules.auth.entity.TenantModule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,9 +17,16 @@ import java.util.UUID;
 @Repository
 public interface TenantModuleRepository extends SoftDeleteRepository<TenantModule, UUID> {
 
+    /**
+     * Query-cached; module changes go through this repository and invalidate it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT tm FROM TenantModule tm LEFT JOIN FETCH tm.permission WHERE tm.tenant.id = :tenantId")
     List<TenantModule> findByTenantId(@Param("tenantId") UUID tenantId);
 
+    @Query("SELECT tm.permission.id FROM TenantModule tm WHERE tm.tenant.id = :tenantId")
+    List<UUID> findPermissionIdsByTenantId(@Param("tenantId") UUID tenantId);
+
     @Query("SELECT COUNT(tm) > 0 FROM TenantModule tm WHERE tm.tenant.id = :tenantId AND tm.permission.id = :permissionId")
     boolean existsByTenantIdAndPermissionId(@Param("tenantId") UUID tenantId, @Param("permissionId") UUID permissionId);
 
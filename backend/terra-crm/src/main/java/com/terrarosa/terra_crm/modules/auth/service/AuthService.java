@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.modules.auth.service;
 
 import com.terrarosa.terra_crm.core.security.service.JwtService;
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
 import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
 import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
@@ -50,6 +51,7 @@ public class AuthService {
     private final PermissionService permissionService;
     private final RefreshTokenRepository refreshTokenRepository;
     private final QuotaService quotaService;
+    private final PermissionEpochService permissionEpochService;
 
     /**
      * Login user with email and password.
@@ -143,8 +145,12 @@ public class AuthService {
                     schemaName);
         }
 
-        // Fetch all user permissions
-        // CRITICAL: Super Admin also needs permissions for @PreAuthorize checks
+        // Permission epochs first: a change committed while the permissions are read makes this token stale
+        PermissionEpochService.Stamp epochs = permissionEpochService.currentStamp(user.getId(),
+                user.getTenant().getId());
+
+        // Fetch all effective user permissions (direct grants and bundles, materialized)
+        // CRITICAL: Super Admin also needs permissions for @RequirePermission checks
         // Super Admin has all permissions assigned via SuperAdminInitializer
         List<String> allPermissions = permissionService.getUserPermissions(user.getId());
         log.debug("User {} has {} total permissions: {}", user.getEmail(), allPermissions.size(), allPermissions);
@@ -154,7 +160,7 @@ public class AuthService {
                     user.getEmail());
         }
 
-        // Include ALL permissions in JWT so @PreAuthorize("hasAnyAuthority('SETTINGS_USERS', ...)") works
+        // Include ALL permissions in JWT so @RequirePermission({"SETTINGS_USERS", ...}) works
         // Backend checks ACTION permissions (e.g. SETTINGS_USERS); they must be in token authorities
         List<String> jwtPermissions = allPermissions;
         log.debug("User {} has {} permissions for JWT: {}", user.getEmail(), jwtPermissions.size(), jwtPermissions);
@@ -165,7 +171,8 @@ public class AuthService {
                 userTenantId,
                 schemaName,
                 roles,
-                jwtPermissions);
+                jwtPermissions,
+                epochs);
 
         log.debug("Generated access token for user {} with {} permissions", user.getEmail(), jwtPermissions.size());
 
@@ -229,12 +236,15 @@ public class AuthService {
             schemaName = "public";
         }
 
-        // Fetch all user permissions
+        // Permission epochs first: a change committed while the permissions are read makes this token stale
+        PermissionEpochService.Stamp epochs = permissionEpochService.currentStamp(user.getId(), tenant.getId());
+
+        // Fetch all effective user permissions (direct grants and bundles, materialized)
         // CRITICAL FIX: Super Admin's permissions are already assigned in database
         // Do not return empty list - getUserPermissions() will return all permissions for Super Admin
         List<String> allPermissions = permissionService.getUserPermissions(user.getId());
 
-        // Include ALL permissions in JWT for @PreAuthorize checks
+        // Include ALL permissions in JWT for @RequirePermission checks
         List<String> jwtPermissions = allPermissions;
 
         // Generate access token - all permissions in JWT
@@ -243,7 +253,8 @@ public class AuthService {
                 userTenantId,
                 schemaName,
                 roles,
-                jwtPermissions);
+                jwtPermissions,
+                epochs);
 
         RefreshTokenResponse.RefreshTokenResponseBuilder responseBuilder = RefreshTokenResponse.builder()
                 .accessToken(accessToken)
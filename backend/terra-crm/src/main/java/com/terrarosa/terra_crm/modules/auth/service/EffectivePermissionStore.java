@@ -0,0 +1,98 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The materialized effective permissions of users ({@code public.user_effective_permissions}).
+ *
+ * A user's effective permissions are the direct grants ({@code user_permissions}) plus the
+ * permissions of the user's non-deleted bundles, limited to permissions of the modules assigned
+ * to the user's tenant. Login and token refresh read them with one primary-key range scan
+ * instead of resolving grants, bundles and modules on every token.
+ *
+ * Whatever changes one of the sources recomputes the affected users: the recomputation derives
+ * the desired rows for those users and applies only the difference (one statement), returning
+ * the users whose effective permissions actually changed. Runs on the caller's transaction and
+ * reads the database directly, so pending entity changes must be flushed first.
+ */
+@Component
+@RequiredArgsConstructor
+public class EffectivePermissionStore {
+
+    private static final String FIND_PERMISSION_IDS =
+            "SELECT permission_id FROM public.user_effective_permissions WHERE user_id = ?";
+
+    /**
+     * Recompute for the users selected by the scope predicate (on {@code public.users u}).
+     */
+    private static final String RECOMPUTE = "WITH scope AS ("
+            + "SELECT u.id AS user_id, u.tenant_id FROM public.users u WHERE %s), "
+            + "granted AS ("
+            + "SELECT up.user_id, up.permission_id FROM public.user_permissions up "
+            + "JOIN scope s ON s.user_id = up.user_id "
+            + "UNION "
+            + "SELECT ub.user_id, bp.permission_id FROM public.user_bundles ub "
+            + "JOIN scope s ON s.user_id = ub.user_id "
+            + "JOIN public.permission_bundles b ON b.id = ub.bundle_id AND b.deleted = FALSE "
+            + "JOIN public.bundle_permissions bp ON bp.bundle_id = b.id), "
+            + "desired AS ("
+            + "SELECT g.user_id, g.permission_id FROM granted g "
+            + "JOIN scope s ON s.user_id = g.user_id "
+            + "JOIN public.permissions p ON p.id = g.permission_id "
+            + "JOIN public.tenant_modules tm ON tm.tenant_id = s.tenant_id "
+            + "AND tm.permission_id = COALESCE(p.parent_permission_id, p.id)), "
+            + "removed AS ("
+            + "DELETE FROM public.user_effective_permissions e USING scope s WHERE e.user_id = s.user_id "
+            + "AND NOT EXISTS (SELECT 1 FROM desired d "
+            + "WHERE d.user_id = e.user_id AND d.permission_id = e.permission_id) "
+            + "RETURNING e.user_id), "
+            + "added AS ("
+            + "INSERT INTO public.user_effective_permissions (user_id, permission_id) "
+            + "SELECT user_id, permission_id FROM desired "
+            + "ON CONFLICT (user_id, permission_id) DO NOTHING RETURNING user_id) "
+            + "SELECT user_id FROM removed UNION SELECT user_id FROM added";
+
+    private static final String RECOMPUTE_USERS = RECOMPUTE.formatted("u.id = ANY(?)");
+
+    private static final String RECOMPUTE_TENANT = RECOMPUTE.formatted("u.tenant_id = ?");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Effective permission ids of a user.
+     */
+    public List<UUID> findPermissionIds(UUID userId) {
+        return jdbcTemplate.queryForList(FIND_PERMISSION_IDS, UUID.class, userId);
+    }
+
+    /**
+     * Recompute the given users.
+     *
+     * @return users whose effective permissions changed
+     */
+    public Set<UUID> recomputeUsers(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(jdbcTemplate.queryForList(RECOMPUTE_USERS, UUID.class,
+                new SqlArrayValue("uuid", userIds.toArray())));
+    }
+
+    /**
+     * Recompute all users of a tenant (after a change of its modules).
+     *
+     * @return users whose effective permissions changed
+     */
+    public Set<UUID> recomputeTenant(UUID tenantId) {
+        return new LinkedHashSet<>(jdbcTemplate.queryForList(RECOMPUTE_TENANT, UUID.class, tenantId));
+    }
+}
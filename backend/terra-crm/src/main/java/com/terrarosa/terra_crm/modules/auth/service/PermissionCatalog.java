@@ -0,0 +1,181 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import com.terrarosa.terra_crm.modules.auth.dto.PermissionResponseDTO;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the global permission catalog ({@code public.permissions}): every
+ * permission indexed by id and name, the MODULE permissions, and each module's ACTION children.
+ *
+ * Each permission also has a dense index (its position in {@link #all()}), so a set of
+ * permissions can be held as a bitset; see {@code PermissionSet}. The {@link #version()} is a
+ * hash of the ordered names, so two catalogs with the same version assign the same indexes,
+ * also across application instances.
+ *
+ * Built once from all rows and shared between requests; see {@link PermissionCatalogService}.
+ */
+public final class PermissionCatalog {
+
+    /**
+     * One permission; {@code parentId}/{@code parentName} are null for MODULE permissions.
+     */
+    public record Entry(UUID id, String name, String description, PermissionType type,
+                        UUID parentId, String parentName) {
+
+        public boolean isModule() {
+            return type == PermissionType.MODULE;
+        }
+
+        public PermissionResponseDTO toDto() {
+            return PermissionResponseDTO.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .type(type)
+                    .parentPermissionId(parentId)
+                    .parentPermissionName(parentName)
+                    .build();
+        }
+    }
+
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::name);
+
+    private final List<Entry> all;
+    private final List<Entry> modules;
+    private final Map<UUID, Entry> byId;
+    private final Map<String, Entry> byName;
+    private final Map<String, Integer> indexByName;
+    private final Map<UUID, List<Entry>> childrenByParentId;
+    private final String version;
+
+    private PermissionCatalog(List<Entry> all) {
+        Map<UUID, Entry> ids = new HashMap<>();
+        Map<String, Entry> names = new HashMap<>();
+        Map<UUID, List<Entry>> children = new HashMap<>();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (Entry entry : all) {
+            indexes.put(entry.name(), indexes.size());
+            ids.put(entry.id(), entry);
+            names.put(entry.name(), entry);
+            if (entry.parentId() != null) {
+                children.computeIfAbsent(entry.parentId(), id -> new ArrayList<>()).add(entry);
+            }
+        }
+        this.all = all;
+        this.modules = all.stream().filter(Entry::isModule).toList();
+        this.byId = Map.copyOf(ids);
+        this.byName = Map.copyOf(names);
+        this.indexByName = Map.copyOf(indexes);
+        Map<UUID, List<Entry>> frozen = new HashMap<>();
+        children.forEach((parentId, entries) -> frozen.put(parentId, List.copyOf(entries)));
+        this.childrenByParentId = Map.copyOf(frozen);
+        this.version = versionOf(all);
+    }
+
+    private static String versionOf(List<Entry> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Entry entry : entries) {
+                digest.update(entry.name().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            byte[] hash = digest.digest();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 9));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Build a catalog from permission entities. Only parent ids are read from the parent
+     * association, so lazy parent proxies are not initialized.
+     */
+    public static PermissionCatalog of(Collection<Permission> permissions) {
+        Map<UUID, Permission> byId = new HashMap<>();
+        for (Permission permission : permissions) {
+            byId.put(permission.getId(), permission);
+        }
+        List<Entry> entries = new ArrayList<>(permissions.size());
+        for (Permission permission : permissions) {
+            UUID parentId = permission.getParentPermission() != null
+                    ? permission.getParentPermission().getId()
+                    : null;
+            Permission parent = parentId != null ? byId.get(parentId) : null;
+            entries.add(new Entry(permission.getId(), permission.getName(), permission.getDescription(),
+                    permission.getType(), parentId, parent != null ? parent.getName() : null));
+        }
+        entries.sort(BY_NAME);
+        return new PermissionCatalog(List.copyOf(entries));
+    }
+
+    public List<Entry> all() {
+        return all;
+    }
+
+    public List<Entry> modules() {
+        return modules;
+    }
+
+    public Optional<Entry> findById(UUID id) {
+        return Optional.ofNullable(id != null ? byId.get(id) : null);
+    }
+
+    public Optional<Entry> findByName(String name) {
+        return Optional.ofNullable(name != null ? byName.get(name) : null);
+    }
+
+    /**
+     * Direct children of a permission (the ACTION permissions of a module), ordered by name.
+     */
+    public List<Entry> children(UUID parentId) {
+        return childrenByParentId.getOrDefault(parentId, List.of());
+    }
+
+    /**
+     * The MODULE permission with this name.
+     *
+     * @throws IllegalArgumentException if there is no such permission or it is not a module
+     */
+    public Entry requireModule(String moduleName) {
+        Entry module = findByName(moduleName)
+                .orElseThrow(() -> new IllegalArgumentException("Module not found: " + moduleName));
+        if (!module.isModule()) {
+            throw new IllegalArgumentException("Permission '" + moduleName + "' is not a MODULE-level permission");
+        }
+        return module;
+    }
+
+    /**
+     * Dense index of a permission, in [0, {@link #size()}), or -1 if it is not in the catalog.
+     */
+    public int indexOf(String name) {
+        Integer index = name != null ? indexByName.get(name) : null;
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Identifies the name-to-index assignment of this catalog.
+     */
+    public String version() {
+        return version;
+    }
+
+    public int size() {
+        return all.size();
+    }
+}
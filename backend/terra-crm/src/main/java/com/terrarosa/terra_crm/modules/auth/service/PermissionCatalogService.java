@@ -0,0 +1,99 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import com.terrarosa.terra_crm.modules.auth.repository.PermissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds the current {@link PermissionCatalog}.
+ *
+ * The permission table is global and only changes through migrations (the seed initializers
+ * only read it), so the catalog is loaded with a single query on first use and replaced as a
+ * whole on application start, after migrations and seeding. Readers always see one consistent
+ * snapshot and never hit the database.
+ *
+ * A few replaced catalogs are kept by version, so permission bitmaps in access tokens issued
+ * before a reload can still be resolved to names.
+ */
+@Slf4j
+@Service
+public class PermissionCatalogService {
+
+    private static final int MAX_PREVIOUS_VERSIONS = 4;
+
+    private final PermissionRepository permissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, PermissionCatalog> previousVersions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PermissionCatalog> eldest) {
+            return size() > MAX_PREVIOUS_VERSIONS;
+        }
+    };
+
+    private volatile PermissionCatalog catalog;
+
+    public PermissionCatalogService(PermissionRepository permissionRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.permissionRepository = permissionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public PermissionCatalog getCatalog() {
+        PermissionCatalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                current = catalog;
+                if (current == null) {
+                    current = load();
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replace the catalog with a fresh copy of the permission table.
+     */
+    public synchronized void reload() {
+        PermissionCatalog replaced = catalog;
+        catalog = load();
+        if (replaced != null && !replaced.version().equals(catalog.version())) {
+            previousVersions.put(replaced.version(), replaced);
+        }
+    }
+
+    /**
+     * The current catalog if it has this version, otherwise a recently replaced one.
+     */
+    public Optional<PermissionCatalog> getCatalog(String version) {
+        PermissionCatalog current = getCatalog();
+        if (current.version().equals(version)) {
+            return Optional.of(current);
+        }
+        synchronized (this) {
+            return Optional.ofNullable(previousVersions.get(version));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    private PermissionCatalog load() {
+        PermissionCatalog loaded = transactionTemplate.execute(
+                status -> PermissionCatalog.of(permissionRepository.findAll()));
+        log.info("Loaded permission catalog: {} permissions, {} modules", loaded.size(), loaded.modules().size());
+        return loaded;
+    }
+}
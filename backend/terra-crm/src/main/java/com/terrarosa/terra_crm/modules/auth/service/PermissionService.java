@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.modules.auth.service;
 
 import com.terrarosa.terra_crm.core.audit.annotation.AuditLog;
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
 import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
 import com.terrarosa.terra_crm.modules.auth.dto.BundleDto;
@@ -13,7 +14,6 @@ import com.terrarosa.terra_crm.modules.auth.entity.User;
 import com.terrarosa.terra_crm.modules.auth.entity.UserPermission;
 import com.terrarosa.terra_crm.modules.auth.repository.PermissionBundleRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.PermissionRepository;
-import com.terrarosa.terra_crm.modules.auth.repository.RefreshTokenRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.TenantModuleRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.UserPermissionRepository;
 import com.terrarosa.terra_crm.modules.auth.repository.UserRepository;
@@ -22,6 +22,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -43,24 +45,56 @@ public class PermissionService {
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
     private final PermissionBundleRepository permissionBundleRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final PermissionCatalogService permissionCatalogService;
+    private final UserPermissionBulkWriter userPermissionBulkWriter;
+    private final EffectivePermissionStore effectivePermissionStore;
+    private final PermissionEpochService permissionEpochService;
 
     /**
-     * Get all permissions for a user.
-     * Uses JOIN FETCH to prevent LazyInitializationException.
+     * Get all effective permissions for a user: direct grants plus bundle permissions, limited to
+     * the tenant's modules. One indexed query on the materialized effective permissions, names
+     * resolved from the catalog.
      */
     @Transactional(readOnly = true)
     public List<String> getUserPermissions(UUID userId) {
-        List<UserPermission> userPermissions = userPermissionRepository.findByUserId(userId);
-        log.debug("Found {} permissions for user {}", userPermissions.size(), userId);
-
-        return userPermissions.stream()
-                .map(up -> {
-                    String permissionName = up.getPermission().getName();
-                    log.debug("User {} has permission: {}", userId, permissionName);
-                    return permissionName;
-                })
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        List<String> permissions = effectivePermissionStore.findPermissionIds(userId).stream()
+                .map(catalog::findById)
+                .flatMap(java.util.Optional::stream)
+                .map(PermissionCatalog.Entry::name)
                 .collect(Collectors.toList());
+        log.debug("User {} has {} effective permissions", userId, permissions.size());
+        return permissions;
+    }
+
+    /**
+     * Recompute the effective permissions of users after their grants or bundles changed, and
+     * invalidate the access tokens of the users whose effective permissions changed.
+     *
+     * @return users whose effective permissions changed
+     */
+    private Set<UUID> recomputeEffectivePermissions(Collection<UUID> userIds) {
+        // Pending grant and bundle changes must be visible to the recomputation
+        userPermissionRepository.flush();
+        Set<UUID> changed = effectivePermissionStore.recomputeUsers(userIds);
+        permissionEpochService.bumpUsers(changed);
+        return changed;
+    }
+
+    /**
+     * Recompute the effective permissions of all users of a tenant after its modules changed, and
+     * invalidate the access tokens of the tenant if any user's effective permissions changed.
+     *
+     * @return users whose effective permissions changed
+     */
+    private Set<UUID> recomputeEffectivePermissions(UUID tenantId) {
+        tenantModuleRepository.flush();
+        Set<UUID> changed = effectivePermissionStore.recomputeTenant(tenantId);
+        if (!changed.isEmpty()) {
+            // One epoch for the whole tenant instead of one per user
+            permissionEpochService.bumpTenant(tenantId);
+        }
+        return changed;
     }
 
     /**
@@ -75,34 +109,35 @@ public class PermissionService {
      */
     @Transactional(readOnly = true)
     public void validatePermissionAssignment(UUID tenantId, UUID permissionId) {
-        Permission permission = permissionRepository.findById(permissionId)
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        PermissionCatalog.Entry permission = catalog.findById(permissionId)
                 .orElseThrow(() -> new IllegalArgumentException("Permission not found with id: " + permissionId));
 
-        if (permission.getType() == Permission.PermissionType.MODULE) {
+        if (permission.type() == Permission.PermissionType.MODULE) {
             // For MODULE-level permissions, check if it's directly in tenant_modules
             boolean exists = tenantModuleRepository.existsByTenantIdAndPermissionId(tenantId, permissionId);
             if (!exists) {
                 throw new IllegalArgumentException(
                         String.format(
                                 "Permission '%s' is not available for tenant. Module must be assigned to tenant first.",
-                                permission.getName()));
+                                permission.name()));
             }
-        } else if (permission.getType() == Permission.PermissionType.ACTION) {
+        } else if (permission.type() == Permission.PermissionType.ACTION) {
             // For ACTION-level permissions, check if parent MODULE is in tenant_modules
-            if (permission.getParentPermission() == null) {
+            if (permission.parentId() == null) {
                 throw new IllegalStateException(
                         String.format("ACTION-level permission '%s' must have a parent MODULE permission.",
-                                permission.getName()));
+                                permission.name()));
             }
 
-            UUID parentModuleId = permission.getParentPermission().getId();
+            UUID parentModuleId = permission.parentId();
             boolean parentModuleExists = tenantModuleRepository.existsByTenantIdAndPermissionId(tenantId,
                     parentModuleId);
             if (!parentModuleExists) {
                 throw new IllegalArgumentException(
                         String.format(
                                 "Permission '%s' is not available for tenant. Parent module '%s' must be assigned to tenant first.",
-                                permission.getName(), permission.getParentPermission().getName()));
+                                permission.name(), permission.parentName()));
             }
         }
     }
@@ -140,6 +175,7 @@ public class PermissionService {
                 .build();
 
         userPermissionRepository.save(userPermission);
+        recomputeEffectivePermissions(Set.of(user.getId()));
         log.info("Assigned permission {} to user {}", permission.getName(), user.getEmail());
     }
 
@@ -170,6 +206,7 @@ public class PermissionService {
                 .build();
 
         userPermissionRepository.save(userPermission);
+        recomputeEffectivePermissions(Set.of(user.getId()));
         log.info("Assigned permission {} to user {}", permission.getName(), user.getEmail());
     }
 
@@ -179,6 +216,7 @@ public class PermissionService {
     @Transactional
     public void removePermissionFromUser(UUID userId, UUID permissionId) {
         userPermissionRepository.deleteByUserIdAndPermissionId(userId, permissionId);
+        recomputeEffectivePermissions(Set.of(userId));
         log.info("Removed permission {} from user {}", permissionId, userId);
     }
 
@@ -204,77 +242,51 @@ public class PermissionService {
     }
 
     /**
-     * Get all MODULE-level permissions (modules) assigned to the current tenant as DTOs.
-     * Includes child ACTION permissions to avoid circular reference issues during JSON serialization.
-     * 
-     * CRITICAL: DTO mapping happens within @Transactional(readOnly = true) context
-     * to prevent LazyInitializationException when accessing module.getChildPermissions().
-     * 
+     * Get all MODULE-level permissions (modules) assigned to the current tenant as DTOs,
+     * each with its child ACTION permissions.
+     *
+     * Only the tenant's module ids are read from the database; names and the module tree
+     * come from the {@link PermissionCatalog}.
+     *
      * @param tenantId Tenant ID
      * @return List of ModuleDTO with child permissions always populated
      */
     @Transactional(readOnly = true)
     public List<ModuleDTO> getTenantModulesAsDto(UUID tenantId) {
-        List<Permission> modules = getTenantModules(tenantId);
-        
-        return modules.stream()
-                .map(module -> {
-                    // Eager load child permissions (session açık)
-                    Set<Permission> childPermissions = module.getChildPermissions();
-                    List<PermissionResponseDTO> childDtos = childPermissions.stream()
-                            .map(p -> PermissionResponseDTO.builder()
-                                    .id(p.getId())
-                                    .name(p.getName())
-                                    .description(p.getDescription())
-                                    .type(p.getType())
-                                    .parentPermissionId(module.getId())
-                                    .parentPermissionName(module.getName())
-                                    .build())
-                            .collect(Collectors.toList());
-                    
-                    return ModuleDTO.builder()
-                            .id(module.getId())
-                            .name(module.getName())
-                            .description(module.getDescription())
-                            .type(module.getType())
-                            .childPermissions(childDtos)
-                            .build();
-                })
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        return tenantModuleEntries(tenantId, catalog).stream()
+                .map(module -> ModuleDTO.builder()
+                        .id(module.id())
+                        .name(module.name())
+                        .description(module.description())
+                        .type(module.type())
+                        .childPermissions(catalog.children(module.id()).stream()
+                                .map(PermissionCatalog.Entry::toDto)
+                                .collect(Collectors.toList()))
+                        .build())
                 .collect(Collectors.toList());
     }
 
     /**
      * Get all action-level permissions for a module.
      */
-    @Transactional(readOnly = true)
-    public List<Permission> getModulePermissions(String moduleName) {
-        Permission module = permissionRepository.findByName(moduleName)
-                .orElseThrow(() -> new IllegalArgumentException("Module not found: " + moduleName));
-
-        if (module.getType() != Permission.PermissionType.MODULE) {
-            throw new IllegalArgumentException("Permission '" + moduleName + "' is not a MODULE-level permission");
-        }
-
-        return permissionRepository.findByParentPermission(module);
+    public List<PermissionResponseDTO> getModulePermissions(String moduleName) {
+        return toDtos(moduleActions(moduleName));
     }
 
     /**
      * Get all available permissions.
      */
-    @Transactional(readOnly = true)
-    public List<Permission> getAllPermissions() {
-        return permissionRepository.findAll();
+    public List<PermissionResponseDTO> getAllPermissions() {
+        return toDtos(permissionCatalogService.getCatalog().all());
     }
 
     /**
      * Get all MODULE-level permissions (available modules).
      * Used by Super Admin to see what modules can be assigned to tenants.
      */
-    @Transactional(readOnly = true)
-    public List<Permission> getAllModuleLevelPermissions() {
-        return permissionRepository.findAll().stream()
-                .filter(p -> p.getType() == Permission.PermissionType.MODULE)
-                .collect(Collectors.toList());
+    public List<PermissionResponseDTO> getAllModuleLevelPermissions() {
+        return toDtos(permissionCatalogService.getCatalog().modules());
     }
 
     /**
@@ -288,36 +300,49 @@ public class PermissionService {
      * @return List of ACTION-level permissions available to the tenant
      */
     @Transactional(readOnly = true)
-    public List<Permission> getTenantAvailablePermissions(UUID tenantId) {
-        // Get all modules assigned to the tenant
-        List<Permission> tenantModules = getTenantModules(tenantId);
-        
-        if (tenantModules.isEmpty()) {
-            log.debug("No modules found for tenant {}. Returning empty permission list.", tenantId);
-            return List.of();
-        }
-        
-        // Collect all ACTION permissions from tenant's modules
-        Set<Permission> availablePermissions = new java.util.HashSet<>();
-        
-        for (Permission module : tenantModules) {
-            try {
-                // Get all ACTION permissions for this module
-                List<Permission> modulePermissions = getModulePermissions(module.getName());
-                availablePermissions.addAll(modulePermissions);
-                log.debug("Module {} has {} action permissions", module.getName(), modulePermissions.size());
-            } catch (Exception e) {
-                log.warn("Failed to get permissions for module {}: {}", module.getName(), e.getMessage());
-            }
-        }
-        
-        List<Permission> result = new java.util.ArrayList<>(availablePermissions);
-        log.info("Retrieved {} available ACTION permissions for tenant {} from {} modules", 
+    public List<PermissionResponseDTO> getTenantAvailablePermissions(UUID tenantId) {
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        List<PermissionCatalog.Entry> tenantModules = tenantModuleEntries(tenantId, catalog);
+
+        List<PermissionResponseDTO> result = tenantModules.stream()
+                .flatMap(module -> catalog.children(module.id()).stream())
+                .map(PermissionCatalog.Entry::toDto)
+                .collect(Collectors.toList());
+        log.debug("Retrieved {} available ACTION permissions for tenant {} from {} modules",
                 result.size(), tenantId, tenantModules.size());
-        
         return result;
     }
 
+    /**
+     * ACTION permissions of a module, from the catalog.
+     */
+    private List<PermissionCatalog.Entry> moduleActions(String moduleName) {
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        return catalog.children(catalog.requireModule(moduleName).id());
+    }
+
+    /**
+     * MODULE permissions assigned to a tenant: one query for the assigned ids, resolved
+     * against the catalog.
+     */
+    private List<PermissionCatalog.Entry> tenantModuleEntries(UUID tenantId, PermissionCatalog catalog) {
+        // Pending module changes of the current transaction must be visible
+        tenantModuleRepository.flush();
+        Set<UUID> moduleIds = new LinkedHashSet<>(tenantModuleRepository.findPermissionIdsByTenantId(tenantId));
+        return moduleIds.stream()
+                .map(catalog::findById)
+                .flatMap(java.util.Optional::stream)
+                .filter(PermissionCatalog.Entry::isModule)
+                .sorted(java.util.Comparator.comparing(PermissionCatalog.Entry::name))
+                .collect(Collectors.toList());
+    }
+
+    private static List<PermissionResponseDTO> toDtos(List<PermissionCatalog.Entry> entries) {
+        return entries.stream()
+                .map(PermissionCatalog.Entry::toDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Assign a module to a tenant.
      */
@@ -346,6 +371,7 @@ public class PermissionService {
                 .build();
 
         tenantModuleRepository.save(tenantModule);
+        recomputeEffectivePermissions(tenant.getId());
         log.info("Assigned module {} to tenant {}", moduleName, tenant.getName());
     }
 
@@ -383,6 +409,7 @@ public class PermissionService {
                 .build();
 
         tenantModuleRepository.save(tenantModule);
+        recomputeEffectivePermissions(tenant.getId());
         log.info("Assigned module {} to tenant {}", moduleName, tenant.getName());
     }
 
@@ -392,6 +419,17 @@ public class PermissionService {
      */
     @Transactional
     public void assignModulesToTenant(Tenant tenant, List<String> moduleNames) {
+        if (addModulesToTenant(tenant, moduleNames)) {
+            recomputeEffectivePermissions(tenant.getId());
+        }
+    }
+
+    /**
+     * Insert the tenant_modules rows that are missing; effective permissions are not recomputed.
+     *
+     * @return whether any module was added
+     */
+    private boolean addModulesToTenant(Tenant tenant, List<String> moduleNames) {
         if (tenant.getId() == null) {
             throw new IllegalStateException("Tenant must be persisted before assigning modules");
         }
@@ -427,9 +465,10 @@ public class PermissionService {
             // subsequent queries
             tenantModuleRepository.flush();
             log.info("Assigned {} modules to tenant {} in batch", newTenantModules.size(), tenant.getName());
-        } else {
-            log.warn("All modules already assigned to tenant {}", tenant.getName());
+            return true;
         }
+        log.warn("All modules already assigned to tenant {}", tenant.getName());
+        return false;
     }
 
     /**
@@ -438,6 +477,8 @@ public class PermissionService {
      * SuperAdmin creation flow).
      * 
      * CRITICAL: When modules are removed, cascade removal of permissions from all users.
+     * Users gain and lose module permissions through a fixed number of set-based statements,
+     * independent of the tenant's user count.
      */
     @Transactional
     public void setModulesForTenant(Tenant tenant, List<String> moduleNames) {
@@ -449,14 +490,9 @@ public class PermissionService {
         log.info("Setting modules for tenant {}: {}", tenant.getName(), moduleNames);
 
         // 1. Get current modules before clearing
-        // CRITICAL: Flush first to ensure we read the latest state
-        tenantModuleRepository.flush();
-        List<Permission> currentModules = tenantModuleRepository.findByTenantId(tenantId).stream()
-                .map(TenantModule::getPermission)
-                .filter(p -> p.getType() == Permission.PermissionType.MODULE)
-                .collect(Collectors.toList());
-        Set<String> currentModuleNames = currentModules.stream()
-                .map(Permission::getName)
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        Set<String> currentModuleNames = tenantModuleEntries(tenantId, catalog).stream()
+                .map(PermissionCatalog.Entry::name)
                 .collect(Collectors.toSet());
         
         log.debug("Current modules for tenant {}: {}", tenant.getName(), currentModuleNames);
@@ -473,52 +509,12 @@ public class PermissionService {
         log.debug("Module changes for tenant {}: removed={}, added={}", 
                 tenant.getName(), removedModuleNames, addedModuleNames);
 
-        // 3. CRITICAL: Remove permissions from all users for removed modules
+        // 3. CRITICAL: Remove permissions of removed modules from all tenant users (one statement)
         if (!removedModuleNames.isEmpty()) {
-            log.info("Removing permissions for {} removed modules from all tenant users: {}", 
-                    removedModuleNames.size(), removedModuleNames);
-            
-            // Get all users for this tenant
-            List<User> tenantUsers = userRepository.findByTenantId(tenantId);
-            
-            for (String removedModuleName : removedModuleNames) {
-                Permission removedModule = permissionRepository.findByName(removedModuleName)
-                        .orElse(null);
-                
-                if (removedModule == null) {
-                    log.warn("Removed module {} not found in permissions table", removedModuleName);
-                    continue;
-                }
-                
-                // Get all permissions for this module (MODULE + all ACTION permissions)
-                List<Permission> modulePermissions = getModulePermissions(removedModuleName);
-                Set<UUID> permissionIdsToRemove = modulePermissions.stream()
-                        .map(Permission::getId)
-                        .collect(Collectors.toSet());
-                permissionIdsToRemove.add(removedModule.getId()); // Include the module itself
-                
-                // Remove permissions from all tenant users
-                for (User user : tenantUsers) {
-                    int removedCount = 0;
-                    for (UUID permissionId : permissionIdsToRemove) {
-                        if (userPermissionRepository.findByUserIdAndPermissionId(user.getId(), permissionId).isPresent()) {
-                            userPermissionRepository.deleteByUserIdAndPermissionId(user.getId(), permissionId);
-                            removedCount++;
-                        }
-                    }
-                    if (removedCount > 0) {
-                        log.info("Removed {} permissions from user {} due to module {} removal", 
-                                removedCount, user.getEmail(), removedModuleName);
-                        
-                        // CRITICAL: Invalidate all refresh tokens for this user to force re-login with updated permissions
-                        refreshTokenRepository.revokeAllUserTokens(user.getId(), java.time.LocalDateTime.now());
-                        log.info("Revoked all refresh tokens for user {} to force re-login with updated permissions", user.getEmail());
-                    }
-                }
-            }
-            
-            // Flush to ensure permissions are removed before clearing modules
-            userPermissionRepository.flush();
+            Set<UUID> permissionIdsToRemove = modulePermissionIds(catalog, removedModuleNames);
+            Set<UUID> usersChanged = userPermissionBulkWriter.revokeFromTenantUsers(tenantId, permissionIdsToRemove);
+            log.info("Removed permissions of modules {} from {} users of tenant {}",
+                    removedModuleNames, usersChanged.size(), tenant.getName());
         }
 
         // 4. Clear existing modules from tenant_modules
@@ -527,72 +523,48 @@ public class PermissionService {
         tenantModuleRepository.flush();
 
         // 5. Assign new modules
-        assignModulesToTenant(tenant, moduleNames);
+        addModulesToTenant(tenant, moduleNames);
         
-        // 6. CRITICAL: Assign permissions from newly added modules to all existing tenant users
+        // 6. CRITICAL: Assign permissions of newly added modules to all tenant users (one statement)
         if (!addedModuleNames.isEmpty()) {
-            log.info("Assigning permissions for {} newly added modules to all tenant users: {}", 
-                    addedModuleNames.size(), addedModuleNames);
-            
-            // Get all users for this tenant
-            List<User> tenantUsers = userRepository.findByTenantId(tenantId);
-            
-            for (String addedModuleName : addedModuleNames) {
-                Permission addedModule = permissionRepository.findByName(addedModuleName)
-                        .orElse(null);
-                
-                if (addedModule == null) {
-                    log.warn("Added module {} not found in permissions table", addedModuleName);
-                    continue;
-                }
-                
-                // Get all permissions for this module (MODULE + all ACTION permissions)
-                List<Permission> modulePermissions = getModulePermissions(addedModuleName);
-                Set<UUID> permissionIdsToAdd = modulePermissions.stream()
-                        .map(Permission::getId)
-                        .collect(Collectors.toSet());
-                permissionIdsToAdd.add(addedModule.getId()); // Include the module itself
-                
-                // Assign permissions to all tenant users
-                for (User user : tenantUsers) {
-                    int addedCount = 0;
-                    List<UserPermission> permissionsToSave = new java.util.ArrayList<>();
-                    
-                    for (UUID permissionId : permissionIdsToAdd) {
-                        // Check if already assigned
-                        if (userPermissionRepository.findByUserIdAndPermissionId(user.getId(), permissionId).isEmpty()) {
-                            Permission permission = permissionRepository.findById(permissionId)
-                                    .orElse(null);
-                            if (permission != null) {
-                                permissionsToSave.add(UserPermission.builder()
-                                        .user(user)
-                                        .permission(permission)
-                                        .build());
-                                addedCount++;
-                            }
-                        }
-                    }
-                    
-                    if (!permissionsToSave.isEmpty()) {
-                        userPermissionRepository.saveAll(permissionsToSave);
-                        log.info("Assigned {} permissions from module {} to user {}", 
-                                addedCount, addedModuleName, user.getEmail());
-                        
-                        // CRITICAL: Invalidate all refresh tokens for this user to force re-login with updated permissions
-                        refreshTokenRepository.revokeAllUserTokens(user.getId(), java.time.LocalDateTime.now());
-                        log.info("Revoked all refresh tokens for user {} to force re-login with new permissions", user.getEmail());
-                    }
-                }
-            }
-            
-            // Flush to ensure permissions are assigned
-            userPermissionRepository.flush();
+            Set<UUID> permissionIdsToAdd = modulePermissionIds(catalog, addedModuleNames);
+            Set<UUID> usersChanged = userPermissionBulkWriter.grantToTenantUsers(tenantId, permissionIdsToAdd);
+            log.info("Assigned permissions of modules {} to {} users of tenant {}",
+                    addedModuleNames, usersChanged.size(), tenant.getName());
+        }
+
+        // 7. Recompute effective permissions of all tenant users (one statement)
+        Set<UUID> affectedUserIds = recomputeEffectivePermissions(tenantId);
+
+        // 8. CRITICAL: Invalidate refresh tokens of changed users to force re-login with updated permissions
+        int revokedTokens = userPermissionBulkWriter.revokeRefreshTokens(affectedUserIds);
+        if (revokedTokens > 0) {
+            log.info("Revoked {} refresh tokens of {} users to force re-login with updated permissions",
+                    revokedTokens, affectedUserIds.size());
         }
         
         log.info("Successfully updated modules for tenant {}. Removed {} modules, added {} modules", 
                 tenant.getName(), removedModuleNames.size(), addedModuleNames.size());
     }
 
+    /**
+     * Ids of the given MODULE permissions and all their ACTION permissions. Unknown modules are
+     * skipped.
+     */
+    private Set<UUID> modulePermissionIds(PermissionCatalog catalog, Collection<String> moduleNames) {
+        Set<UUID> permissionIds = new LinkedHashSet<>();
+        for (String moduleName : moduleNames) {
+            PermissionCatalog.Entry module = catalog.findByName(moduleName).orElse(null);
+            if (module == null) {
+                log.warn("Module {} not found in permissions table", moduleName);
+                continue;
+            }
+            permissionIds.add(module.id());
+            catalog.children(module.id()).forEach(action -> permissionIds.add(action.id()));
+        }
+        return permissionIds;
+    }
+
     /**
      * Remove a module from a tenant.
      * CRITICAL: Cascade invalidation - removes all permissions from that module
@@ -600,19 +572,13 @@ public class PermissionService {
      */
     @Transactional
     public void removeModuleFromTenant(UUID tenantId, String moduleName) {
-        Permission module = permissionRepository.findByName(moduleName)
-                .orElseThrow(() -> new IllegalArgumentException("Module not found: " + moduleName));
-
-        if (module.getType() != Permission.PermissionType.MODULE) {
-            throw new IllegalArgumentException("Permission '" + moduleName + "' is not a MODULE-level permission");
-        }
+        PermissionCatalog.Entry module = permissionCatalogService.getCatalog().requireModule(moduleName);
 
         // Get all action permissions for this module
-        List<Permission> modulePermissions = getModulePermissions(moduleName);
-        Set<UUID> permissionIdsToRemove = modulePermissions.stream()
-                .map(Permission::getId)
+        Set<UUID> permissionIdsToRemove = moduleActions(moduleName).stream()
+                .map(PermissionCatalog.Entry::id)
                 .collect(Collectors.toSet());
-        permissionIdsToRemove.add(module.getId()); // Include the module itself
+        permissionIdsToRemove.add(module.id()); // Include the module itself
 
         // CRITICAL: Cascade invalidation - remove permissions from all tenant bundles
         List<PermissionBundle> tenantBundles = permissionBundleRepository.findByTenantId(tenantId);
@@ -630,7 +596,8 @@ public class PermissionService {
         }
 
         // Remove module from tenant_modules
-        tenantModuleRepository.deleteByTenantIdAndPermissionId(tenantId, module.getId());
+        tenantModuleRepository.deleteByTenantIdAndPermissionId(tenantId, module.id());
+        recomputeEffectivePermissions(tenantId);
         log.info("Removed module {} from tenant {} and invalidated related bundle permissions",
                 moduleName, tenantId);
     }
@@ -655,14 +622,10 @@ public class PermissionService {
             throw new IllegalStateException("User must be persisted before assigning permissions");
         }
 
-        // CRITICAL: Flush to ensure tenant modules are persisted before reading
-        tenantModuleRepository.flush();
-        
         // Get all modules for the tenant
-        List<Permission> tenantModules = tenantModuleRepository.findByTenantId(tenantId).stream()
-                .map(TenantModule::getPermission)
-                .filter(p -> p.getType() == Permission.PermissionType.MODULE)
-                .collect(Collectors.toList());
+        // CRITICAL: This flushes pending tenant modules and the user itself before the JDBC writes
+        PermissionCatalog catalog = permissionCatalogService.getCatalog();
+        List<PermissionCatalog.Entry> tenantModules = tenantModuleEntries(tenantId, catalog);
 
         if (tenantModules.isEmpty()) {
             log.error("No modules found for tenant {}. Cannot assign permissions to user {}. " +
@@ -673,115 +636,28 @@ public class PermissionService {
 
         // CRITICAL: Log module names for debugging
         List<String> moduleNames = tenantModules.stream()
-                .map(Permission::getName)
+                .map(PermissionCatalog.Entry::name)
                 .collect(Collectors.toList());
         log.info("Found {} modules for tenant {}. Assigning all permissions to user {} from modules: {}",
                 tenantModules.size(), tenantId, user.getEmail(), moduleNames);
 
         // CRITICAL: Get all valid permission IDs that belong to tenant modules
         // This includes MODULE permissions and all ACTION permissions for each module
-        Set<UUID> validPermissionIds = new java.util.HashSet<>();
-        Set<String> validPermissionNames = new java.util.HashSet<>();
-        for (Permission module : tenantModules) {
-            validPermissionIds.add(module.getId()); // Add MODULE permission
-            validPermissionNames.add(module.getName());
-            
-            // Add all ACTION permissions for this module
-            try {
-                List<Permission> modulePermissions = getModulePermissions(module.getName());
-                for (Permission actionPermission : modulePermissions) {
-                    validPermissionIds.add(actionPermission.getId());
-                    validPermissionNames.add(actionPermission.getName());
-                }
-                log.debug("Module {} has {} action permissions", module.getName(), modulePermissions.size());
-            } catch (Exception e) {
-                log.warn("Failed to get permissions for module {}: {}", module.getName(), e.getMessage());
-            }
-        }
-        
-        log.info("Valid permission IDs for tenant modules: {} ({} permissions)", 
-                validPermissionIds.size(), validPermissionNames);
+        Set<UUID> validPermissionIds = modulePermissionIds(catalog, moduleNames);
+        log.info("Valid permission IDs for tenant modules: {}", validPermissionIds.size());
         
-        // CRITICAL: Remove ALL existing permissions first, then assign only tenant module permissions
-        // This ensures user ONLY has permissions from currently assigned modules (clean slate approach)
-        List<UserPermission> existingPermissions = userPermissionRepository.findByUserId(userId);
-        int removedCount = 0;
-        Set<String> removedPermissionNames = new java.util.HashSet<>();
-        for (UserPermission existingPerm : existingPermissions) {
-            UUID permissionId = existingPerm.getPermission().getId();
-            String permissionName = existingPerm.getPermission().getName();
-            if (!validPermissionIds.contains(permissionId)) {
-                // This permission doesn't belong to any tenant module - remove it
-                userPermissionRepository.deleteByUserIdAndPermissionId(userId, permissionId);
-                removedCount++;
-                removedPermissionNames.add(permissionName);
-                log.debug("Removed invalid permission {} from user {} (not in tenant modules)", 
-                        permissionName, user.getEmail());
-            }
-        }
+        // CRITICAL: Remove permissions outside the tenant modules, then assign the missing tenant module
+        // permissions. This ensures user ONLY has permissions from currently assigned modules.
+        int removedCount = userPermissionBulkWriter.revokeFromUserExcept(userId, validPermissionIds);
         if (removedCount > 0) {
-            log.info("Removed {} invalid permissions from user {} (not in tenant modules): {}", 
-                    removedCount, user.getEmail(), removedPermissionNames);
-            userPermissionRepository.flush();
+            log.info("Removed {} invalid permissions from user {} (not in tenant modules)",
+                    removedCount, user.getEmail());
         }
 
-        int totalPermissionsAssigned = 0;
-        List<UserPermission> permissionsToSave = new java.util.ArrayList<>();
-
-        // For each module, assign the module itself and all its action-level
-        // permissions
-        for (Permission module : tenantModules) {
-            try {
-                // 1. Assign the MODULE permission itself
-                if (userPermissionRepository.findByUserIdAndPermissionId(userId, module.getId()).isEmpty()) {
-                    permissionsToSave.add(UserPermission.builder()
-                            .user(user)
-                            .permission(module)
-                            .build());
-                    totalPermissionsAssigned++;
-                    log.debug("Prepared MODULE permission {} for user {}", module.getName(), user.getEmail());
-                }
-
-                // 2. Assign all ACTION-level permissions for this module
-                List<Permission> modulePermissions = getModulePermissions(module.getName());
-                log.debug("Module {} has {} action permissions", module.getName(), modulePermissions.size());
-
-                for (Permission permission : modulePermissions) {
-                    try {
-                        // Check if already assigned
-                        if (userPermissionRepository.findByUserIdAndPermissionId(userId, permission.getId())
-                                .isPresent()) {
-                            continue;
-                        }
-
-                        // Validate permission assignment
-                        validatePermissionAssignment(tenantId, permission.getId());
-
-                        // Create UserPermission
-                        permissionsToSave.add(UserPermission.builder()
-                                .user(user)
-                                .permission(permission)
-                                .build());
-                        totalPermissionsAssigned++;
-
-                        log.debug("Prepared permission {} for user {}", permission.getName(), user.getEmail());
-                    } catch (Exception e) {
-                        log.warn("Failed to prepare permission {} for user {}: {}",
-                                permission.getName(), user.getEmail(), e.getMessage());
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("Failed to get permissions for module {}: {}", module.getName(), e.getMessage());
-            }
-        }
-
-        // CRITICAL: Batch save all permissions and flush to ensure they're persisted
-        if (!permissionsToSave.isEmpty()) {
-            userPermissionRepository.saveAll(permissionsToSave);
-            userPermissionRepository.flush(); // Ensure all permissions are persisted
-            log.info("Successfully saved {} permissions to database for user {}",
-                    permissionsToSave.size(), user.getEmail());
-        }
+        int totalPermissionsAssigned = userPermissionBulkWriter.grantToUser(userId, validPermissionIds);
+        log.info("Successfully saved {} permissions to database for user {}",
+                totalPermissionsAssigned, user.getEmail());
+        recomputeEffectivePermissions(Set.of(userId));
 
         // Verify permissions were saved
         List<String> savedPermissions = getUserPermissions(userId);
@@ -845,7 +721,8 @@ public class PermissionService {
 
     /**
      * Assign a bundle to a user.
-     * Copies all permissions from the bundle to user_permissions table.
+     * The bundle's permissions become effective through the bundle membership; they are not
+     * copied to user_permissions.
      */
     @AuditLog(action = "BUNDLE_ASSIGNED", resourceType = "USER")
     @Transactional
@@ -853,7 +730,7 @@ public class PermissionService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
 
-        PermissionBundle bundle = permissionBundleRepository.findByIdWithPermissions(bundleId)
+        PermissionBundle bundle = permissionBundleRepository.findById(bundleId)
                 .orElseThrow(() -> new IllegalArgumentException("Bundle not found with id: " + bundleId));
 
         // Validate bundle belongs to user's tenant
@@ -868,29 +745,16 @@ public class PermissionService {
         // Keep inverse side in sync for in-memory consistency
         user.getBundles().add(bundle);
 
-        // Copy all permissions from bundle to user_permissions (permissions loaded eagerly above)
-        int permissionsAssigned = 0;
-        for (Permission permission : bundle.getPermissions()) {
-            try {
-                assignPermissionToUser(user, permission.getId());
-                permissionsAssigned++;
-            } catch (Exception e) {
-                log.warn("Failed to assign permission {} from bundle {} to user {}: {}",
-                        permission.getName(), bundle.getName(), user.getEmail(), e.getMessage());
-            }
-        }
+        Set<UUID> changed = recomputeEffectivePermissions(Set.of(userId));
 
-        log.info("Assigned bundle '{}' to user {}. {} permissions copied to user_permissions",
-                bundle.getName(), user.getEmail(), permissionsAssigned);
+        log.info("Assigned bundle '{}' to user {}. Effective permissions {}",
+                bundle.getName(), user.getEmail(), changed.isEmpty() ? "unchanged" : "updated");
     }
 
     /**
      * Remove a bundle from a user.
-     * CRITICAL: Removes bundle association AND removes all permissions from that bundle
-     * from user_permissions table (cascade cleanup).
-     *
-     * This ensures that when a bundle is removed from a user, the user loses
-     * all permissions that were granted through that bundle.
+     * The user loses the bundle's permissions unless they are granted directly or by another
+     * bundle; direct grants in user_permissions are left untouched.
      */
     @AuditLog(action = "BUNDLE_REMOVED", resourceType = "USER")
     @Transactional
@@ -901,39 +765,27 @@ public class PermissionService {
         PermissionBundle bundle = permissionBundleRepository.findById(bundleId)
                 .orElseThrow(() -> new IllegalArgumentException("Bundle not found with id: " + bundleId));
 
-        // CRITICAL: Remove all permissions from bundle from user_permissions table
-        Set<UUID> bundlePermissionIds = bundle.getPermissions().stream()
-                .map(Permission::getId)
-                .collect(Collectors.toSet());
-        
-        int removedCount = 0;
-        for (UUID permissionId : bundlePermissionIds) {
-            if (userPermissionRepository.findByUserIdAndPermissionId(userId, permissionId).isPresent()) {
-                userPermissionRepository.deleteByUserIdAndPermissionId(userId, permissionId);
-                removedCount++;
-            }
-        }
-        
         // CRITICAL: PermissionBundle owns the relationship; update owning side so user_bundles is updated
         bundle.getUsers().remove(user);
         permissionBundleRepository.save(bundle);
         user.getBundles().remove(bundle);
+        Set<UUID> changed = recomputeEffectivePermissions(Set.of(userId));
 
-        log.info("Removed bundle '{}' from user {}. Removed {} permissions from user_permissions table",
-                bundle.getName(), user.getEmail(), removedCount);
+        log.info("Removed bundle '{}' from user {}. Effective permissions {}",
+                bundle.getName(), user.getEmail(), changed.isEmpty() ? "unchanged" : "updated");
     }
 
     /**
      * Delete a bundle with cascade cleanup.
-     * CRITICAL: When a bundle is deleted, all permissions from that bundle are removed
-     * from all users who had the bundle assigned.
+     * CRITICAL: When a bundle is deleted, all users who had the bundle assigned lose its
+     * permissions, except those granted directly or by another bundle.
      * 
      * Steps:
      * 1. Find all users who have this bundle assigned
-     * 2. For each user, remove all bundle permissions from user_permissions table
-     * 3. Remove bundle-user associations (user_bundles table - JPA Many-to-Many handles this)
-     * 4. Bundle-permission associations are removed automatically (DB cascade)
-     * 5. Soft delete the bundle
+     * 2. Remove bundle-user associations (user_bundles table, owned by the bundle)
+     * 3. Bundle-permission associations are removed automatically (DB cascade)
+     * 4. Soft delete the bundle
+     * 5. Recompute the effective permissions of these users
      *
      * @param bundleId Bundle ID to delete
      */
@@ -946,41 +798,16 @@ public class PermissionService {
         String bundleName = bundle.getName();
         
         // Get all users who have this bundle assigned
-        List<User> usersWithBundle = bundle.getUsers().stream()
-                .collect(Collectors.toList());
-        
-        log.info("Deleting bundle '{}' (id: {}). Found {} users with this bundle assigned.",
-                bundleName, bundleId, usersWithBundle.size());
-        
-        // Get all permission IDs from bundle
-        Set<UUID> bundlePermissionIds = bundle.getPermissions().stream()
-                .map(Permission::getId)
+        Set<UUID> bundleUserIds = bundle.getUsers().stream()
+                .map(User::getId)
                 .collect(Collectors.toSet());
+        int usersWithBundle = bundleUserIds.size();
         
-        // For each user, remove bundle permissions from user_permissions table
-        int totalPermissionsRemoved = 0;
-        for (User user : usersWithBundle) {
-            int userPermissionsRemoved = 0;
-            for (UUID permissionId : bundlePermissionIds) {
-                if (userPermissionRepository.findByUserIdAndPermissionId(user.getId(), permissionId).isPresent()) {
-                    userPermissionRepository.deleteByUserIdAndPermissionId(user.getId(), permissionId);
-                    userPermissionsRemoved++;
-                    totalPermissionsRemoved++;
-                }
-            }
-            
-            if (userPermissionsRemoved > 0) {
-                log.info("Removed {} permissions from user {} (email: {}) due to bundle deletion",
-                        userPermissionsRemoved, user.getId(), user.getEmail());
-            }
-        }
+        log.info("Deleting bundle '{}' (id: {}). Found {} users with this bundle assigned.",
+                bundleName, bundleId, usersWithBundle);
         
-        // Remove bundle-user associations (JPA Many-to-Many will handle user_bundles table)
-        // We need to clear the relationship from both sides
-        for (User user : usersWithBundle) {
-            user.getBundles().remove(bundle);
-        }
-        userRepository.saveAll(usersWithBundle);
+        // Remove bundle-user associations (user_bundles table) on the owning side
+        bundle.getUsers().clear();
         
         // Bundle-permission associations will be removed automatically by DB cascade
         // (bundle_permissions table has ON DELETE CASCADE)
@@ -989,9 +816,10 @@ public class PermissionService {
         bundle.setDeleted(true);
         bundle.setDeletedAt(java.time.LocalDateTime.now());
         permissionBundleRepository.save(bundle);
+        Set<UUID> changed = recomputeEffectivePermissions(bundleUserIds);
         
-        log.info("Successfully deleted bundle '{}' (id: {}). Removed {} permissions from {} users.",
-                bundleName, bundleId, totalPermissionsRemoved, usersWithBundle.size());
+        log.info("Successfully deleted bundle '{}' (id: {}). Effective permissions of {} of {} users changed.",
+                bundleName, bundleId, changed.size(), usersWithBundle);
     }
 
     /**
@@ -1019,6 +847,8 @@ public class PermissionService {
 
         bundle.setPermissions(permissions);
         PermissionBundle updatedBundle = permissionBundleRepository.save(bundle);
+        // Users of the bundle gain or lose the changed permissions
+        recomputeEffectivePermissions(bundle.getUsers().stream().map(User::getId).toList());
 
         log.info("Updated bundle '{}' with {} permissions", bundle.getName(), permissions.size());
 
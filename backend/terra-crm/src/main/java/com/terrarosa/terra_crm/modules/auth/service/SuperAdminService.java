@@ -2,6 +2,7 @@ package com.terrarosa.terra_crm.modules.auth.service;
 
 import com.terrarosa.terra_crm.core.audit.annotation.AuditLog;
 import com.terrarosa.terra_crm.core.security.service.JwtService;
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService;
 import com.terrarosa.terra_crm.core.security.util.RandomPasswordGenerator;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
 import com.terrarosa.terra_crm.core.tenancy.entity.TenantStatus;
@@ -50,6 +51,7 @@ public class SuperAdminService {
         private final PasswordEncoder passwordEncoder;
         private final JwtService jwtService;
         private final RefreshTokenRepository refreshTokenRepository;
+        private final PermissionEpochService permissionEpochService;
 
         /**
          * Check if a user is a super admin.
@@ -467,6 +469,7 @@ public class SuperAdminService {
                 String encodedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encodedPassword);
                 userRepository.save(user);
+                permissionEpochService.bumpUsers(Set.of(userId));
                 log.info("Reset password for user: {}", user.getEmail());
         }
 
@@ -481,6 +484,7 @@ public class SuperAdminService {
 
                 user.setEnabled(enabled);
                 userRepository.save(user);
+                permissionEpochService.bumpUsers(Set.of(userId));
                 log.info("Set user {} enabled status to: {}", user.getEmail(), enabled);
         }
 
@@ -521,6 +525,8 @@ public class SuperAdminService {
                                 .map(Role::getName)
                                 .collect(Collectors.toList());
 
+                PermissionEpochService.Stamp epochs = permissionEpochService.currentStamp(user.getId(),
+                                tenant.getId());
                 List<String> permissions = permissionService.getUserPermissions(user.getId());
 
                 // Get original Super Admin user ID from SecurityContext
@@ -547,7 +553,8 @@ public class SuperAdminService {
                                 tenant.getSchemaName(),
                                 roles,
                                 permissions,
-                                originalUserId);
+                                originalUserId,
+                                epochs);
 
                 log.info("Starting impersonation session: Super Admin {} impersonating user {} (tenant: {})",
                                 originalUserId, user.getEmail(), tenant.getName());
@@ -654,6 +661,7 @@ public class SuperAdminService {
                 if (!user.getRoles().contains(adminRole)) {
                         user.getRoles().add(adminRole);
                         userRepository.save(user);
+                        permissionEpochService.bumpUsers(Set.of(userId));
                 }
         }
 
@@ -693,6 +701,7 @@ public class SuperAdminService {
 
                 user.getRoles().remove(adminRole);
                 userRepository.save(user);
+                permissionEpochService.bumpUsers(Set.of(userId));
         }
 
         /**
@@ -830,10 +839,14 @@ public class SuperAdminService {
                         });
                         user.setEmail(email);
                 }
+                boolean enabledChanged = enabled != null && !enabled.equals(user.getEnabled());
                 if (enabled != null)
                         user.setEnabled(enabled);
 
                 User updatedUser = userRepository.save(user);
+                if (enabledChanged) {
+                        permissionEpochService.bumpUsers(Set.of(userId));
+                }
 
                 return Map.of(
                                 "id", updatedUser.getId(),
@@ -861,5 +874,6 @@ public class SuperAdminService {
 
                 user.setPassword(passwordEncoder.encode(newPassword));
                 userRepository.save(user);
+                permissionEpochService.bumpUsers(Set.of(userId));
         }
 }
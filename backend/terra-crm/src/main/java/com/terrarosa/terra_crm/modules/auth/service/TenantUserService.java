@@ -2,6 +2,7 @@ package com.terrarosa.terra_crm.modules.auth.service;
 
 import com.terrarosa.terra_crm.core.audit.annotation.AuditLog;
 import com.terrarosa.terra_crm.core.quota.service.QuotaService;
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService;
 import com.terrarosa.terra_crm.core.security.util.RandomPasswordGenerator;
 import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
 import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
@@ -25,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -55,6 +57,7 @@ public class TenantUserService {
         private final QuotaService quotaService;
         private final RefreshTokenRepository refreshTokenRepository;
         private final UserProfileService userProfileService;
+        private final PermissionEpochService permissionEpochService;
 
         /**
          * Update an existing user in the given tenant.
@@ -231,8 +234,9 @@ public class TenantUserService {
                 userRepository.save(user);
 
                 // Revoke all refresh tokens so that the user must log in again with the new
-                // password
+                // password; the epoch bump also ends the current access tokens
                 refreshTokenRepository.revokeAllUserTokens(userId, LocalDateTime.now());
+                permissionEpochService.bumpUsers(Set.of(userId));
 
                 log.info("Reset password for user {}", user.getEmail());
 
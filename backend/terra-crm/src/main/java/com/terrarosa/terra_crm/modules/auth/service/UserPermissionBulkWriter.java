@@ -0,0 +1,100 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based writes to {@code public.user_permissions} for PermissionService.
+ *
+ * Every method is a single statement, whatever the number of users and permissions involved:
+ * {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING} to grant, {@code DELETE ... USING} to
+ * revoke. Grants and revocations that touch a whole tenant return the ids of the users whose
+ * permissions actually changed, so their refresh tokens can be revoked with one more statement.
+ *
+ * Runs on the caller's transaction. The JDBC statements bypass the persistence context: pending
+ * entity changes they depend on (new users, tenant modules) must be flushed first.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPermissionBulkWriter {
+
+    private static final String GRANT_TO_TENANT_USERS = "INSERT INTO public.user_permissions (user_id, permission_id) "
+            + "SELECT u.id, p.id FROM public.users u CROSS JOIN unnest(?::uuid[]) AS p(id) "
+            + "WHERE u.tenant_id = ? AND u.deleted = FALSE "
+            + "ON CONFLICT (user_id, permission_id) DO NOTHING RETURNING user_id";
+
+    private static final String REVOKE_FROM_TENANT_USERS = "DELETE FROM public.user_permissions up "
+            + "USING public.users u WHERE up.user_id = u.id AND u.tenant_id = ? AND up.permission_id = ANY(?) "
+            + "RETURNING up.user_id";
+
+    private static final String GRANT_TO_USER = "INSERT INTO public.user_permissions (user_id, permission_id) "
+            + "SELECT ?, p.id FROM unnest(?::uuid[]) AS p(id) ON CONFLICT (user_id, permission_id) DO NOTHING";
+
+    private static final String REVOKE_FROM_USER_EXCEPT = "DELETE FROM public.user_permissions "
+            + "WHERE user_id = ? AND permission_id <> ALL(?)";
+
+    private static final String REVOKE_REFRESH_TOKENS = "UPDATE public.refresh_tokens SET revoked = TRUE, "
+            + "revoked_at = ? WHERE user_id = ANY(?) AND revoked = FALSE AND deleted = FALSE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Grant the permissions to every active user of the tenant.
+     *
+     * @return users that gained at least one permission
+     */
+    public Set<UUID> grantToTenantUsers(UUID tenantId, Collection<UUID> permissionIds) {
+        return new LinkedHashSet<>(jdbcTemplate.queryForList(GRANT_TO_TENANT_USERS, UUID.class,
+                uuids(permissionIds), tenantId));
+    }
+
+    /**
+     * Revoke the permissions from every user of the tenant.
+     *
+     * @return users that lost at least one permission
+     */
+    public Set<UUID> revokeFromTenantUsers(UUID tenantId, Collection<UUID> permissionIds) {
+        return new LinkedHashSet<>(jdbcTemplate.queryForList(REVOKE_FROM_TENANT_USERS, UUID.class,
+                tenantId, uuids(permissionIds)));
+    }
+
+    /**
+     * @return number of permissions granted (already granted ones are skipped)
+     */
+    public int grantToUser(UUID userId, Collection<UUID> permissionIds) {
+        return jdbcTemplate.update(GRANT_TO_USER, userId, uuids(permissionIds));
+    }
+
+    /**
+     * Revoke every permission of the user that is not in {@code permissionIds}.
+     *
+     * @return number of permissions revoked
+     */
+    public int revokeFromUserExcept(UUID userId, Collection<UUID> permissionIds) {
+        return jdbcTemplate.update(REVOKE_FROM_USER_EXCEPT, userId, uuids(permissionIds));
+    }
+
+    /**
+     * Revoke all active refresh tokens of the users, forcing a re-login with current permissions.
+     *
+     * @return number of tokens revoked
+     */
+    public int revokeRefreshTokens(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(REVOKE_REFRESH_TOKENS, LocalDateTime.now(), uuids(userIds));
+    }
+
+    private static SqlArrayValue uuids(Collection<UUID> ids) {
+        return new SqlArrayValue("uuid", ids.toArray());
+    }
+}
@@ -0,0 +1,41 @@
+package com.terrarosa.terra_crm.modules.dashboard.controller;
+
+import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.dashboard.dto.DashboardStatsDto;
+import com.terrarosa.terra_crm.modules.dashboard.service.DashboardStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Dashboard endpoints.
+ * Path: /api/v1/dashboard
+ */
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardStatsService dashboardStatsService;
+
+    /**
+     * Daily customer, lead and reminder statistics; defaults to the last 30 days.
+     * GET /api/v1/dashboard/stats?from=2026-03-01&to=2026-03-31
+     */
+    @GetMapping("/stats")
+    @RequirePermission("DASHBOARD_VIEW")
+    public ResponseEntity<ApiResponse<DashboardStatsDto>> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(ApiResponse.success(dashboardStatsService.getStats(start, end)));
+    }
+}
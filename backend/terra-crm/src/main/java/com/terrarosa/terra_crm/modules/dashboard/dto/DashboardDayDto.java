@@ -0,0 +1,30 @@
+package com.terrarosa.terra_crm.modules.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dashboard figures of a single day. Map keys are status/source values; an empty key stands
+ * for records without a value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDayDto {
+    private LocalDate date;
+    private long newCustomers;
+    private Map<String, Long> customersByStatus;
+    private Map<String, Long> customersBySource;
+    private long newLeads;
+    private Map<String, Long> leadsBySource;
+    private Map<String, Long> leadsByStatus;
+    private long remindersCompleted;
+    private Map<UUID, Long> remindersCompletedByCategory;
+}
@@ -0,0 +1,25 @@
+package com.terrarosa.terra_crm.modules.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard statistics of a date range, one entry per day (days without activity included).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsDto {
+    private LocalDate from;
+    private LocalDate to;
+    private long newCustomers;
+    private long newLeads;
+    private long remindersCompleted;
+    private List<DashboardDayDto> days;
+}
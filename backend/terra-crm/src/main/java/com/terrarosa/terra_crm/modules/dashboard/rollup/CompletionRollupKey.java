@@ -0,0 +1,41 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A completed reminder is counted on its completion day under its category.
+ */
+public record CompletionRollupKey(LocalDate day, UUID categoryId) implements RollupKey {
+
+    /**
+     * Key of a reminder entity, or null if it is deleted or not completed.
+     */
+    public static CompletionRollupKey of(Reminder reminder) {
+        return of(reminder.getDeleted(), reminder.getIsCompleted(), reminder.getCompletedAt(),
+                reminder.getCategoryId());
+    }
+
+    public static CompletionRollupKey of(Boolean deleted, Boolean completed, LocalDateTime completedAt,
+                                         UUID categoryId) {
+        if (Boolean.TRUE.equals(deleted) || !Boolean.TRUE.equals(completed) || completedAt == null
+                || categoryId == null) {
+            return null;
+        }
+        return new CompletionRollupKey(completedAt.toLocalDate(), categoryId);
+    }
+
+    @Override
+    public RollupTable table() {
+        return RollupTable.REMINDER_COMPLETIONS;
+    }
+
+    @Override
+    public Object[] values() {
+        return new Object[] {Date.valueOf(day), categoryId};
+    }
+}
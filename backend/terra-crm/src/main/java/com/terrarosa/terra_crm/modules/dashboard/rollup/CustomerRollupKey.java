@@ -0,0 +1,43 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+import com.terrarosa.terra_crm.modules.health.entity.Customer;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A customer is counted on its registration day (creation day if unset) under its status and source.
+ */
+public record CustomerRollupKey(LocalDate day, String status, String source) implements RollupKey {
+
+    public CustomerRollupKey {
+        status = status != null ? status : "";
+        source = source != null ? source : "";
+    }
+
+    /**
+     * Key of a customer entity, or null if it is deleted.
+     */
+    public static CustomerRollupKey of(Customer customer) {
+        if (Boolean.TRUE.equals(customer.getDeleted())) {
+            return null;
+        }
+        return of(customer.getRegistrationDate() != null ? customer.getRegistrationDate() : customer.getCreatedAt(),
+                customer.getStatus(), customer.getSource());
+    }
+
+    public static CustomerRollupKey of(LocalDateTime registeredAt, String status, String source) {
+        return registeredAt != null ? new CustomerRollupKey(registeredAt.toLocalDate(), status, source) : null;
+    }
+
+    @Override
+    public RollupTable table() {
+        return RollupTable.CUSTOMERS;
+    }
+
+    @Override
+    public Object[] values() {
+        return new Object[] {Date.valueOf(day), status, source};
+    }
+}
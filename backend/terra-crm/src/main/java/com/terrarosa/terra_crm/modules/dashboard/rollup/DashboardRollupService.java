@@ -0,0 +1,101 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-tenant dashboard rollup tables (see {@link RollupTable}).
+ *
+ * Services report each create, update and delete as a {@link RollupDelta}, which is applied as
+ * {@code INSERT ... ON CONFLICT DO UPDATE SET total = total + delta} in the caller's transaction,
+ * so a rollup changes exactly when its source rows commit. Writes that bypass the services
+ * (manual SQL, a lost race) are corrected by the nightly reconciliation, which rebuilds every
+ * table from its source table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardRollupService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+    private final TenantRepository tenantRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Record that a record of the current tenant moved from {@code before} to {@code after}.
+     */
+    public void changed(RollupKey before, RollupKey after) {
+        apply(TenantContext.getCurrentSchemaName(), RollupDelta.of(before, after));
+    }
+
+    /**
+     * Apply a batch of changes to the rollups of a tenant; joins the caller's transaction.
+     */
+    public void apply(String schemaName, RollupDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        String schema = tenantService.quotedSchema(schemaName);
+        for (RollupTable table : RollupTable.values()) {
+            List<Object[]> args = delta.deltas(table).stream()
+                    .map(DashboardRollupService::upsertArgs)
+                    .toList();
+            if (!args.isEmpty()) {
+                jdbcTemplate.batchUpdate(table.upsertSql(schema), args);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.dashboard.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        log.info("Starting dashboard rollup reconciliation");
+        for (String schemaName : tenantRepository.findAllTenantSchemaNames()) {
+            try {
+                reconcile(schemaName);
+            } catch (RuntimeException e) {
+                log.error("Dashboard rollup reconciliation failed for schema {}: {}", schemaName, e.getMessage(), e);
+            }
+        }
+        log.info("Completed dashboard rollup reconciliation");
+    }
+
+    /**
+     * Rebuild the rollups of a tenant from the source tables, one table per transaction.
+     *
+     * The table is locked against writers while it is rebuilt. A writer whose source change the
+     * rebuild does not see has not applied its delta yet either (deltas are applied before commit
+     * and wait for the lock), so it adds the delta on top of the rebuilt total afterwards.
+     */
+    public void reconcile(String schemaName) {
+        String schema = tenantService.quotedSchema(schemaName);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (RollupTable table : RollupTable.values()) {
+            Integer rows = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + table.qualifiedName(schema) + " IN EXCLUSIVE MODE");
+                jdbcTemplate.update("DELETE FROM " + table.qualifiedName(schema));
+                return jdbcTemplate.update(table.rebuildSql(schema));
+            });
+            log.debug("Rebuilt {} of schema {} ({} rows)", table.tableName(), schemaName, rows);
+        }
+    }
+
+    private static Object[] upsertArgs(Map.Entry<RollupKey, Long> entry) {
+        Object[] values = entry.getKey().values();
+        Object[] args = Arrays.copyOf(values, values.length + 1);
+        args[values.length] = entry.getValue();
+        return args;
+    }
+}
@@ -0,0 +1,42 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+import com.terrarosa.terra_crm.modules.ads.entity.Lead;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A lead is counted on its creation day under its source and status.
+ */
+public record LeadRollupKey(LocalDate day, String source, String status) implements RollupKey {
+
+    public LeadRollupKey {
+        source = source != null ? source : "";
+        status = status != null ? status : "";
+    }
+
+    /**
+     * Key of a lead entity, or null if it is deleted.
+     */
+    public static LeadRollupKey of(Lead lead) {
+        if (Boolean.TRUE.equals(lead.getDeleted())) {
+            return null;
+        }
+        return of(lead.getCreatedAt(), lead.getSource(), lead.getStatus());
+    }
+
+    public static LeadRollupKey of(LocalDateTime createdAt, String source, String status) {
+        return createdAt != null ? new LeadRollupKey(createdAt.toLocalDate(), source, status) : null;
+    }
+
+    @Override
+    public RollupTable table() {
+        return RollupTable.LEADS;
+    }
+
+    @Override
+    public Object[] values() {
+        return new Object[] {Date.valueOf(day), source, status};
+    }
+}
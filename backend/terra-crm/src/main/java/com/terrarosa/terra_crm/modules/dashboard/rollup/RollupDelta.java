@@ -0,0 +1,57 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pending changes to the rollup tables: a record leaving a key counts -1 there, a record entering
+ * a key counts +1. Collect the changes of one write or of a whole batch, then apply them with
+ * {@link DashboardRollupService#apply(String, RollupDelta)}.
+ */
+public class RollupDelta {
+
+    private final Map<RollupKey, Long> deltas = new HashMap<>();
+
+    public static RollupDelta of(RollupKey before, RollupKey after) {
+        return new RollupDelta().change(before, after);
+    }
+
+    /**
+     * Record that a record moved from {@code before} to {@code after}; null means "not counted",
+     * so (null, key) is a create and (key, null) a delete.
+     */
+    public RollupDelta change(RollupKey before, RollupKey after) {
+        if (!Objects.equals(before, after)) {
+            if (before != null) {
+                add(before, -1);
+            }
+            if (after != null) {
+                add(after, 1);
+            }
+        }
+        return this;
+    }
+
+    public RollupDelta add(RollupKey key, long delta) {
+        deltas.merge(key, delta, Long::sum);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return deltas.values().stream().allMatch(delta -> delta == 0);
+    }
+
+    /**
+     * Non-zero deltas of one table, in a fixed key order so concurrent writers lock rollup rows
+     * in the same order and cannot deadlock on them.
+     */
+    List<Map.Entry<RollupKey, Long>> deltas(RollupTable table) {
+        return deltas.entrySet().stream()
+                .filter(entry -> entry.getKey().table() == table && entry.getValue() != 0)
+                .sorted(Comparator.comparing(entry -> entry.getKey().toString()))
+                .toList();
+    }
+}
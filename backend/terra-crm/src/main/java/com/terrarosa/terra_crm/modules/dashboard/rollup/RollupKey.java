@@ -0,0 +1,15 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+/**
+ * Key of one row of a dashboard rollup table: the day and dimensions a record is counted under.
+ * A record that is not counted at all (deleted, or a reminder that is not completed) has no key.
+ */
+public sealed interface RollupKey permits CustomerRollupKey, LeadRollupKey, CompletionRollupKey {
+
+    RollupTable table();
+
+    /**
+     * Key column values in the column order of the table, ready to bind as JDBC parameters.
+     */
+    Object[] values();
+}
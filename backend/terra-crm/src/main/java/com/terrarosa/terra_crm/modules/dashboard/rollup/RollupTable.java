@@ -0,0 +1,58 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+/**
+ * The dashboard rollup tables of a tenant schema (see the tenant migration V27), with the
+ * aggregate query each one is rebuilt from.
+ *
+ * Every table has a composite key of a day and dimension columns, and a {@code total} column.
+ */
+public enum RollupTable {
+
+    CUSTOMERS("customer_daily_stats", "day, status, source",
+            "SELECT COALESCE(registration_date, created_at)::date, status, COALESCE(source, ''), count(*) "
+                    + "FROM %s.customers WHERE COALESCE(deleted, FALSE) = FALSE GROUP BY 1, 2, 3"),
+
+    LEADS("lead_daily_stats", "day, source, status",
+            "SELECT created_at::date, COALESCE(source, ''), COALESCE(status, ''), count(*) "
+                    + "FROM %s.leads WHERE COALESCE(deleted, FALSE) = FALSE GROUP BY 1, 2, 3"),
+
+    REMINDER_COMPLETIONS("reminder_daily_completions", "day, category_id",
+            "SELECT completed_at::date, category_id, count(*) FROM %s.reminders "
+                    + "WHERE COALESCE(deleted, FALSE) = FALSE AND is_completed = TRUE AND completed_at IS NOT NULL "
+                    + "GROUP BY 1, 2");
+
+    private final String tableName;
+    private final String keyColumns;
+    private final String sourceQuery;
+
+    RollupTable(String tableName, String keyColumns, String sourceQuery) {
+        this.tableName = tableName;
+        this.keyColumns = keyColumns;
+        this.sourceQuery = sourceQuery;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    String qualifiedName(String schema) {
+        return schema + "." + tableName;
+    }
+
+    /**
+     * Adds a delta to the total of one key; parameters are the key columns followed by the delta.
+     */
+    String upsertSql(String schema) {
+        String placeholders = "?, ".repeat(keyColumns.split(",").length) + "?";
+        return "INSERT INTO " + qualifiedName(schema) + " (" + keyColumns + ", total) VALUES (" + placeholders
+                + ") ON CONFLICT (" + keyColumns + ") DO UPDATE SET total = " + tableName + ".total + EXCLUDED.total";
+    }
+
+    /**
+     * Fills the (emptied) table from the source table.
+     */
+    String rebuildSql(String schema) {
+        return "INSERT INTO " + qualifiedName(schema) + " (" + keyColumns + ", total) "
+                + String.format(sourceQuery, schema);
+    }
+}
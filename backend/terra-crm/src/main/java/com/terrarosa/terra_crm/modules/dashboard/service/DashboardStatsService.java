@@ -0,0 +1,101 @@
+package com.terrarosa.terra_crm.modules.dashboard.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.dashboard.dto.DashboardDayDto;
+import com.terrarosa.terra_crm.modules.dashboard.dto.DashboardStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Dashboard statistics, read only from the daily rollup tables maintained by
+ * {@link com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService}; the cost
+ * depends on the number of days, not on the number of customers, leads or reminders.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsService {
+
+    private static final String CUSTOMERS_SQL = "SELECT day, status, source, total FROM %s.customer_daily_stats "
+            + "WHERE day BETWEEN ? AND ? AND total <> 0";
+
+    private static final String LEADS_SQL = "SELECT day, source, status, total FROM %s.lead_daily_stats "
+            + "WHERE day BETWEEN ? AND ? AND total <> 0";
+
+    private static final String COMPLETIONS_SQL = "SELECT day, category_id, total FROM %s.reminder_daily_completions "
+            + "WHERE day BETWEEN ? AND ? AND total <> 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+
+    @Value("${app.dashboard.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Transactional(readOnly = true)
+    public DashboardStatsDto getStats(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must be at most " + maxRangeDays + " days");
+        }
+        String schema = tenantService.quotedSchema(TenantContext.getCurrentSchemaName());
+
+        Map<LocalDate, DashboardDayDto> days = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.put(day, DashboardDayDto.builder()
+                    .date(day)
+                    .customersByStatus(new TreeMap<>())
+                    .customersBySource(new TreeMap<>())
+                    .leadsBySource(new TreeMap<>())
+                    .leadsByStatus(new TreeMap<>())
+                    .remindersCompletedByCategory(new LinkedHashMap<>())
+                    .build());
+        }
+
+        jdbcTemplate.query(String.format(CUSTOMERS_SQL, schema), rs -> {
+            DashboardDayDto day = days.get(rs.getDate("day").toLocalDate());
+            long total = rs.getLong("total");
+            day.setNewCustomers(day.getNewCustomers() + total);
+            day.getCustomersByStatus().merge(rs.getString("status"), total, Long::sum);
+            day.getCustomersBySource().merge(rs.getString("source"), total, Long::sum);
+        }, Date.valueOf(from), Date.valueOf(to));
+
+        jdbcTemplate.query(String.format(LEADS_SQL, schema), rs -> {
+            DashboardDayDto day = days.get(rs.getDate("day").toLocalDate());
+            long total = rs.getLong("total");
+            day.setNewLeads(day.getNewLeads() + total);
+            day.getLeadsBySource().merge(rs.getString("source"), total, Long::sum);
+            day.getLeadsByStatus().merge(rs.getString("status"), total, Long::sum);
+        }, Date.valueOf(from), Date.valueOf(to));
+
+        jdbcTemplate.query(String.format(COMPLETIONS_SQL, schema), rs -> {
+            DashboardDayDto day = days.get(rs.getDate("day").toLocalDate());
+            long total = rs.getLong("total");
+            day.setRemindersCompleted(day.getRemindersCompleted() + total);
+            day.getRemindersCompletedByCategory().merge(rs.getObject("category_id", UUID.class), total, Long::sum);
+        }, Date.valueOf(from), Date.valueOf(to));
+
+        List<DashboardDayDto> dayList = List.copyOf(days.values());
+        return DashboardStatsDto.builder()
+                .from(from)
+                .to(to)
+                .newCustomers(dayList.stream().mapToLong(DashboardDayDto::getNewCustomers).sum())
+                .newLeads(dayList.stream().mapToLong(DashboardDayDto::getNewLeads).sum())
+                .remindersCompleted(dayList.stream().mapToLong(DashboardDayDto::getRemindersCompleted).sum())
+                .days(dayList)
+                .build();
+    }
+}
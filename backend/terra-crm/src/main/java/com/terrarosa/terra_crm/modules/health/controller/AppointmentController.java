@@ -0,0 +1,108 @@
+package com.terrarosa.terra_crm.modules.health.controller;
+
+import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.health.dto.AppointmentDto;
+import com.terrarosa.terra_crm.modules.health.dto.AppointmentRequest;
+import com.terrarosa.terra_crm.modules.health.dto.AvailabilityWindowDto;
+import com.terrarosa.terra_crm.modules.health.service.AppointmentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appointment scheduling endpoints.
+ * Path: /api/v1/health/appointments
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/health/appointments")
+@RequiredArgsConstructor
+public class AppointmentController {
+
+    private final AppointmentService appointmentService;
+
+    /**
+     * Appointments starting in [from, to) (at most 62 days), optionally filtered.
+     * GET /api/v1/health/appointments?from=2026-03-02T00:00:00&to=2026-03-09T00:00:00&doctorId=...
+     */
+    @GetMapping
+    @RequirePermission("APPOINTMENTS_VIEW")
+    public ResponseEntity<ApiResponse<List<AppointmentDto>>> getAppointments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) UUID doctorId,
+            @RequestParam(required = false) UUID customerId) {
+        List<AppointmentDto> appointments = appointmentService.getAppointments(from, to, doctorId, customerId);
+        return ResponseEntity.ok(ApiResponse.success(appointments));
+    }
+
+    /**
+     * Free intervals of a doctor within working hours, e.g. for a week.
+     * GET /api/v1/health/appointments/availability?doctorId=...&from=2026-03-02&days=7&minMinutes=30
+     */
+    @GetMapping("/availability")
+    @RequirePermission("APPOINTMENTS_VIEW")
+    public ResponseEntity<ApiResponse<List<AvailabilityWindowDto>>> getAvailability(
+            @RequestParam UUID doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "09:00") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dayStart,
+            @RequestParam(defaultValue = "18:00") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dayEnd,
+            @RequestParam(defaultValue = "30") int minMinutes) {
+        List<AvailabilityWindowDto> windows = appointmentService.getAvailability(doctorId, from, days,
+                dayStart, dayEnd, minMinutes);
+        return ResponseEntity.ok(ApiResponse.success(windows));
+    }
+
+    @GetMapping("/{id}")
+    @RequirePermission("APPOINTMENTS_VIEW")
+    public ResponseEntity<ApiResponse<AppointmentDto>> getAppointment(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(appointmentService.getAppointment(id)));
+    }
+
+    /**
+     * Book an appointment; 409 if the doctor or room is already booked in the slot.
+     */
+    @PostMapping
+    @RequirePermission("APPOINTMENTS_CREATE")
+    public ResponseEntity<ApiResponse<AppointmentDto>> createAppointment(
+            @Valid @RequestBody AppointmentRequest request) {
+        AppointmentDto appointment = appointmentService.createAppointment(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(appointment, "Appointment created successfully"));
+    }
+
+    @PutMapping("/{id}")
+    @RequirePermission("APPOINTMENTS_UPDATE")
+    public ResponseEntity<ApiResponse<AppointmentDto>> updateAppointment(
+            @PathVariable UUID id,
+            @Valid @RequestBody AppointmentRequest request) {
+        AppointmentDto appointment = appointmentService.updateAppointment(id, request);
+        return ResponseEntity.ok(ApiResponse.success(appointment, "Appointment updated successfully"));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @RequirePermission("APPOINTMENTS_UPDATE")
+    public ResponseEntity<ApiResponse<AppointmentDto>> cancelAppointment(@PathVariable UUID id) {
+        AppointmentDto appointment = appointmentService.cancelAppointment(id);
+        return ResponseEntity.ok(ApiResponse.success(appointment, "Appointment cancelled successfully"));
+    }
+
+    @DeleteMapping("/{id}")
+    @RequirePermission("APPOINTMENTS_DELETE")
+    public ResponseEntity<ApiResponse<Void>> deleteAppointment(@PathVariable UUID id) {
+        appointmentService.deleteAppointment(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "Appointment deleted successfully"));
+    }
+}
@@ -1,18 +1,31 @@
 package com.terrarosa.terra_crm.modules.health.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.ads.dto.MatchCandidateDto;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
 import com.terrarosa.terra_crm.modules.health.dto.CustomerCreateRequest;
 import com.terrarosa.terra_crm.modules.health.dto.CustomerDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerImportResultDto;
+import com.terrarosa.terra_crm.modules.health.dto.TimelinePageDto;
+import com.terrarosa.terra_crm.modules.health.service.CustomerImportService;
 import com.terrarosa.terra_crm.modules.health.service.CustomerService;
+import com.terrarosa.terra_crm.modules.health.service.CustomerTimelineService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -22,9 +35,12 @@ import java.util.UUID;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final DuplicateMatchingService duplicateMatchingService;
+    private final CustomerTimelineService customerTimelineService;
 
     @GetMapping
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<CustomerDto>>> getAllCustomers() {
         log.info("Fetching all health customers");
         List<CustomerDto> customers = customerService.getAllCustomers();
@@ -32,15 +48,39 @@ public class CustomerController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<CustomerDto>> getCustomerById(@PathVariable UUID id) {
         log.info("Fetching health customer by id: {}", id);
         CustomerDto customer = customerService.getCustomerById(id);
         return ResponseEntity.ok(ApiResponse.success(customer));
     }
 
+    /**
+     * Possible duplicates of a customer among leads and customers, best match first.
+     */
+    @GetMapping("/{id}/matches")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<List<MatchCandidateDto>>> getCustomerMatches(@PathVariable UUID id) {
+        List<MatchCandidateDto> matches = duplicateMatchingService.getMatches(MatchType.CUSTOMER, id);
+        return ResponseEntity.ok(ApiResponse.success(matches));
+    }
+
+    /**
+     * Activity timeline of a customer (reminders, files, audit events), newest first.
+     * GET /api/v1/health/customers/{id}/timeline?size=20&cursor=...  (cursor from the previous page)
+     */
+    @GetMapping("/{id}/timeline")
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<TimelinePageDto>> getCustomerTimeline(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        TimelinePageDto timeline = customerTimelineService.getTimeline(id, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(timeline));
+    }
+
     @PostMapping
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_CREATE')")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_CREATE"})
     public ResponseEntity<ApiResponse<CustomerDto>> createCustomer(@Valid @RequestBody CustomerCreateRequest request) {
         log.info("Creating new health customer: {}", request.getName());
         CustomerDto customer = customerService.createCustomer(request);
@@ -48,8 +88,25 @@ public class CustomerController {
                 .body(ApiResponse.success(customer, "Customer created successfully"));
     }
 
+    /**
+     * Bulk import customers from a CSV (header row required) or NDJSON upload.
+     * POST /api/v1/health/customers/import?format=csv|ndjson
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_CREATE"})
+    public ResponseEntity<ApiResponse<CustomerImportResultDto>> importCustomers(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) throws IOException {
+        CustomerImportService.Format importFormat = CustomerImportService.Format.resolve(format, file.getOriginalFilename());
+        log.info("Importing health customers from {} ({}, {} bytes)", file.getOriginalFilename(), importFormat, file.getSize());
+        try (InputStream input = file.getInputStream()) {
+            CustomerImportResultDto result = customerImportService.importCustomers(input, importFormat);
+            return ResponseEntity.ok(ApiResponse.success(result, "Customer import completed"));
+        }
+    }
+
     @PutMapping("/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_UPDATE')")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
     public ResponseEntity<ApiResponse<CustomerDto>> updateCustomer(
             @PathVariable UUID id,
             @Valid @RequestBody CustomerCreateRequest request) {
@@ -58,11 +115,47 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success(customer, "Customer updated successfully"));
     }
 
+    /**
+     * Partial update using JSON Merge Patch semantics.
+     * PATCH /api/v1/health/customers/{id} with an optional If-Match: "{version}" header
+     */
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<CustomerDto>> patchCustomer(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch) {
+        log.info("Patching health customer id: {} fields: {}", id, patch.keySet());
+        CustomerDto customer = customerService.patchCustomer(id, patch, parseVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag("\"" + customer.getVersion() + "\"")
+                .body(ApiResponse.success(customer, "Customer updated successfully"));
+    }
+
     @DeleteMapping("/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_DELETE')")
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteCustomer(@PathVariable UUID id) {
         log.info("Deleting health customer id: {}", id);
         customerService.deleteCustomer(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Customer deleted successfully"));
     }
+
+    /**
+     * Parse an If-Match header value ("3", W/"3" or 3) into a version number.
+     */
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
 }
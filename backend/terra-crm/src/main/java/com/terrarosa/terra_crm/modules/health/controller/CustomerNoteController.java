@@ -0,0 +1,60 @@
+package com.terrarosa.terra_crm.modules.health.controller;
+
+import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.common.dto.PagedResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteRequest;
+import com.terrarosa.terra_crm.modules.health.service.CustomerNoteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * CustomerNoteController
+ *
+ * Append-only notes of a customer (newest first).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/health/customers/{customerId}/notes")
+@RequiredArgsConstructor
+public class CustomerNoteController {
+
+    private final CustomerNoteService noteService;
+
+    /**
+     * Append a note
+     * POST /api/v1/health/customers/{customerId}/notes
+     */
+    @PostMapping
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<CustomerNoteDto>> addNote(
+            @PathVariable UUID customerId,
+            @Valid @RequestBody CustomerNoteRequest request) {
+        CustomerNoteDto note = noteService.addNote(customerId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(note, "Note added successfully"));
+    }
+
+    /**
+     * List notes page by page
+     * GET /api/v1/health/customers/{customerId}/notes?page=0&size=20
+     */
+    @GetMapping
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<PagedResponse<CustomerNoteDto>>> getNotes(
+            @PathVariable UUID customerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<CustomerNoteDto> notes = noteService.getNotes(customerId, PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(notes)));
+    }
+}
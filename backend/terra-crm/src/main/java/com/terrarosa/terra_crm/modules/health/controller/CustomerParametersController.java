@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.modules.health.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
 import com.terrarosa.terra_crm.modules.health.dto.*;
 import com.terrarosa.terra_crm.modules.health.service.CustomerParametersService;
 import jakarta.validation.Valid;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,7 +25,7 @@ public class CustomerParametersController {
     // ==================== CATEGORIES ====================
 
     @GetMapping("/categories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<CategoryDto>>> getAllCategories() {
         log.info("Fetching all customer categories");
         List<CategoryDto> categories = parametersService.getAllCategories();
@@ -33,7 +33,7 @@ public class CustomerParametersController {
     }
 
     @GetMapping("/categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<CategoryDto>> getCategoryById(@PathVariable UUID id) {
         log.info("Fetching category by id: {}", id);
         CategoryDto category = parametersService.getCategoryById(id);
@@ -41,7 +41,7 @@ public class CustomerParametersController {
     }
 
     @PostMapping("/categories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_CREATE"})
     public ResponseEntity<ApiResponse<CategoryDto>> createCategory(@Valid @RequestBody ParameterRequest request) {
         log.info("Creating new category: {}", request.getLabelEn());
         CategoryDto category = parametersService.createCategory(request);
@@ -50,7 +50,7 @@ public class CustomerParametersController {
     }
 
     @PutMapping("/categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_UPDATE"})
     public ResponseEntity<ApiResponse<CategoryDto>> updateCategory(
             @PathVariable UUID id,
             @Valid @RequestBody ParameterRequest request) {
@@ -60,7 +60,7 @@ public class CustomerParametersController {
     }
 
     @DeleteMapping("/categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteCategory(@PathVariable UUID id) {
         log.info("Deleting category id: {}", id);
         parametersService.deleteCategory(id);
@@ -70,7 +70,7 @@ public class CustomerParametersController {
     // ==================== SERVICES ====================
 
     @GetMapping("/services")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ServiceDto>>> getAllServices() {
         log.info("Fetching all customer services");
         List<ServiceDto> services = parametersService.getAllServices();
@@ -78,7 +78,7 @@ public class CustomerParametersController {
     }
 
     @GetMapping("/services/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<ServiceDto>> getServiceById(@PathVariable UUID id) {
         log.info("Fetching service by id: {}", id);
         ServiceDto service = parametersService.getServiceById(id);
@@ -86,7 +86,7 @@ public class CustomerParametersController {
     }
 
     @PostMapping("/services")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_CREATE"})
     public ResponseEntity<ApiResponse<ServiceDto>> createService(@Valid @RequestBody ServiceRequest request) {
         log.info("Creating new service: {}", request.getNameEn());
         ServiceDto service = parametersService.createService(request);
@@ -95,7 +95,7 @@ public class CustomerParametersController {
     }
 
     @PutMapping("/services/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_UPDATE"})
     public ResponseEntity<ApiResponse<ServiceDto>> updateService(
             @PathVariable UUID id,
             @Valid @RequestBody ServiceRequest request) {
@@ -105,7 +105,7 @@ public class CustomerParametersController {
     }
 
     @DeleteMapping("/services/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteService(@PathVariable UUID id) {
         log.info("Deleting service id: {}", id);
         parametersService.deleteService(id);
@@ -115,7 +115,7 @@ public class CustomerParametersController {
     // ==================== STATUSES ====================
 
     @GetMapping("/statuses")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<StatusDto>>> getAllStatuses() {
         log.info("Fetching all customer statuses");
         List<StatusDto> statuses = parametersService.getAllStatuses();
@@ -123,7 +123,7 @@ public class CustomerParametersController {
     }
 
     @GetMapping("/statuses/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<StatusDto>> getStatusById(@PathVariable UUID id) {
         log.info("Fetching status by id: {}", id);
         StatusDto status = parametersService.getStatusById(id);
@@ -131,7 +131,7 @@ public class CustomerParametersController {
     }
 
     @PostMapping("/statuses")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_CREATE"})
     public ResponseEntity<ApiResponse<StatusDto>> createStatus(@Valid @RequestBody ParameterRequest request) {
         log.info("Creating new status: {}", request.getLabelEn());
         StatusDto status = parametersService.createStatus(request);
@@ -140,7 +140,7 @@ public class CustomerParametersController {
     }
 
     @PutMapping("/statuses/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_UPDATE"})
     public ResponseEntity<ApiResponse<StatusDto>> updateStatus(
             @PathVariable UUID id,
             @Valid @RequestBody ParameterRequest request) {
@@ -150,7 +150,7 @@ public class CustomerParametersController {
     }
 
     @DeleteMapping("/statuses/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteStatus(@PathVariable UUID id) {
         log.info("Deleting status id: {}", id);
         parametersService.deleteStatus(id);
@@ -160,7 +160,7 @@ public class CustomerParametersController {
     // ==================== SOURCES ====================
 
     @GetMapping("/sources")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<SourceDto>>> getAllSources() {
         log.info("Fetching all customer sources");
         List<SourceDto> sources = parametersService.getAllSources();
@@ -168,7 +168,7 @@ public class CustomerParametersController {
     }
 
     @GetMapping("/sources/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<SourceDto>> getSourceById(@PathVariable UUID id) {
         log.info("Fetching source by id: {}", id);
         SourceDto source = parametersService.getSourceById(id);
@@ -176,7 +176,7 @@ public class CustomerParametersController {
     }
 
     @PostMapping("/sources")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_CREATE"})
     public ResponseEntity<ApiResponse<SourceDto>> createSource(@Valid @RequestBody ParameterRequest request) {
         log.info("Creating new source: {}", request.getLabelEn());
         SourceDto source = parametersService.createSource(request);
@@ -185,7 +185,7 @@ public class CustomerParametersController {
     }
 
     @PutMapping("/sources/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_UPDATE"})
     public ResponseEntity<ApiResponse<SourceDto>> updateSource(
             @PathVariable UUID id,
             @Valid @RequestBody ParameterRequest request) {
@@ -195,7 +195,7 @@ public class CustomerParametersController {
     }
 
     @DeleteMapping("/sources/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteSource(@PathVariable UUID id) {
         log.info("Deleting source id: {}", id);
         parametersService.deleteSource(id);
@@ -205,7 +205,7 @@ public class CustomerParametersController {
     // ==================== TAGS ====================
 
     @GetMapping("/tags")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<TagDto>>> getAllTags() {
         log.info("Fetching all customer tags");
         List<TagDto> tags = parametersService.getAllTags();
@@ -213,7 +213,7 @@ public class CustomerParametersController {
     }
 
     @GetMapping("/tags/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<TagDto>> getTagById(@PathVariable UUID id) {
         log.info("Fetching tag by id: {}", id);
         TagDto tag = parametersService.getTagById(id);
@@ -221,7 +221,7 @@ public class CustomerParametersController {
     }
 
     @PostMapping("/tags")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_CREATE"})
     public ResponseEntity<ApiResponse<TagDto>> createTag(@Valid @RequestBody ParameterRequest request) {
         log.info("Creating new tag: {}", request.getLabelEn());
         TagDto tag = parametersService.createTag(request);
@@ -230,7 +230,7 @@ public class CustomerParametersController {
     }
 
     @PutMapping("/tags/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_UPDATE"})
     public ResponseEntity<ApiResponse<TagDto>> updateTag(
             @PathVariable UUID id,
             @Valid @RequestBody ParameterRequest request) {
@@ -240,7 +240,7 @@ public class CustomerParametersController {
     }
 
     @DeleteMapping("/tags/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteTag(@PathVariable UUID id) {
         log.info("Deleting tag id: {}", id);
         parametersService.deleteTag(id);
@@ -250,7 +250,7 @@ public class CustomerParametersController {
     // ==================== FILE CATEGORIES ====================
 
     @GetMapping("/file-categories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<FileCategoryDto>>> getAllFileCategories() {
         log.info("Fetching all file categories");
         List<FileCategoryDto> fileCategories = parametersService.getAllFileCategories();
@@ -258,7 +258,7 @@ public class CustomerParametersController {
     }
 
     @GetMapping("/file-categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<FileCategoryDto>> getFileCategoryById(@PathVariable UUID id) {
         log.info("Fetching file category by id: {}", id);
         FileCategoryDto fileCategory = parametersService.getFileCategoryById(id);
@@ -266,7 +266,7 @@ public class CustomerParametersController {
     }
 
     @PostMapping("/file-categories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_CREATE"})
     public ResponseEntity<ApiResponse<FileCategoryDto>> createFileCategory(
             @Valid @RequestBody ParameterRequest request) {
         log.info("Creating new file category: {}", request.getLabelEn());
@@ -276,7 +276,7 @@ public class CustomerParametersController {
     }
 
     @PutMapping("/file-categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_UPDATE"})
     public ResponseEntity<ApiResponse<FileCategoryDto>> updateFileCategory(
             @PathVariable UUID id,
             @Valid @RequestBody ParameterRequest request) {
@@ -286,7 +286,7 @@ public class CustomerParametersController {
     }
 
     @DeleteMapping("/file-categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CUSTOMERS_P') or @permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_DELETE"})
     public ResponseEntity<ApiResponse<Void>> deleteFileCategory(
             @PathVariable UUID id,
             @RequestParam(required = false) UUID targetCategoryId) {
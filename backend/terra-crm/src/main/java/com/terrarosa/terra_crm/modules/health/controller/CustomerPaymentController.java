@@ -0,0 +1,60 @@
+package com.terrarosa.terra_crm.modules.health.controller;
+
+import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.common.dto.PagedResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentRequest;
+import com.terrarosa.terra_crm.modules.health.service.CustomerPaymentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * CustomerPaymentController
+ *
+ * Append-only payments of a customer (newest first).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/health/customers/{customerId}/payments")
+@RequiredArgsConstructor
+public class CustomerPaymentController {
+
+    private final CustomerPaymentService paymentService;
+
+    /**
+     * Append a payment
+     * POST /api/v1/health/customers/{customerId}/payments
+     */
+    @PostMapping
+    @RequirePermission({"HEALTH_CUSTOMERS_EDIT", "CUSTOMERS_UPDATE"})
+    public ResponseEntity<ApiResponse<CustomerPaymentDto>> addPayment(
+            @PathVariable UUID customerId,
+            @Valid @RequestBody CustomerPaymentRequest request) {
+        CustomerPaymentDto payment = paymentService.addPayment(customerId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(payment, "Payment added successfully"));
+    }
+
+    /**
+     * List payments page by page
+     * GET /api/v1/health/customers/{customerId}/payments?page=0&size=20
+     */
+    @GetMapping
+    @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+    public ResponseEntity<ApiResponse<PagedResponse<CustomerPaymentDto>>> getPayments(
+            @PathVariable UUID customerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<CustomerPaymentDto> payments = paymentService.getPayments(customerId, PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(payments)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.terrarosa.terra_crm.modules.health.controller;
 
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
 import com.terrarosa.terra_crm.modules.health.dto.CustomerFileDto;
 import com.terrarosa.terra_crm.modules.health.dto.FileCategoryFileCountDto;
 import com.terrarosa.terra_crm.modules.health.repository.CustomerFileRepository;
@@ -7,7 +8,6 @@ import com.terrarosa.terra_crm.modules.health.service.CustomerFileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -32,7 +32,7 @@ public class FileManagementController {
      * GET /v1/health/files/trash
      */
     @GetMapping("/trash")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW') or @permissionEvaluator.hasRole(authentication, 'ROLE_SUPER_ADMIN')")
+    @RequirePermission("CUSTOMERS_VIEW")
     public ResponseEntity<List<CustomerFileDto>> getTrashFiles() {
         List<CustomerFileDto> files = fileService.getTrashFiles();
         return ResponseEntity.ok(files);
@@ -43,7 +43,7 @@ public class FileManagementController {
      * DELETE /v1/health/files/{fileId}/permanent
      */
     @DeleteMapping("/{fileId}/permanent")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_UPDATE') or @permissionEvaluator.hasRole(authentication, 'ROLE_SUPER_ADMIN')")
+    @RequirePermission("CUSTOMERS_UPDATE")
     public ResponseEntity<Void> permanentlyDeleteFile(@PathVariable UUID fileId) {
         fileService.permanentlyDeleteFile(fileId);
         return ResponseEntity.noContent().build();
@@ -0,0 +1,92 @@
+package com.terrarosa.terra_crm.modules.health.controller;
+
+import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.core.security.config.PermissionEvaluator;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.health.dto.ReferenceDataDto;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Bootstrap endpoint returning all reference lists of the tenant at once.
+ * Path: /api/v1/health/reference-data
+ *
+ * The response carries a strong ETag built from the tenant's reference data version; a request
+ * with a matching If-None-Match gets 304 Not Modified without touching the tenant schema.
+ */
+@RestController
+@RequestMapping("/api/v1/health/reference-data")
+@RequiredArgsConstructor
+public class ReferenceDataController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final ReferenceDataService referenceDataService;
+    private final PermissionEvaluator permissionEvaluator;
+
+    /**
+     * Sections the user may not view through the individual endpoints are left out.
+     */
+    @GetMapping
+    @RequirePermission({"SETTINGS_CUSTOMERS_P", "SETTINGS_VIEW", "CUSTOMERS_VIEW", "REMINDERS_VIEW"})
+    public ResponseEntity<ApiResponse<ReferenceDataDto>> getReferenceData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        boolean customerParameters = permissionEvaluator.hasPermission(authentication, "SETTINGS_CUSTOMERS_P")
+                || permissionEvaluator.hasPermission(authentication, "SETTINGS_VIEW")
+                || permissionEvaluator.hasPermission(authentication, "CUSTOMERS_VIEW");
+        boolean reminderSettings = permissionEvaluator.hasPermission(authentication, "SETTINGS_VIEW")
+                || permissionEvaluator.hasPermission(authentication, "REMINDERS_VIEW");
+
+        String currentTag = eTag(referenceDataService.currentVersion(), customerParameters, reminderSettings);
+        if (matches(ifNoneMatch, currentTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(currentTag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+
+        ReferenceDataDto referenceData = referenceDataService.getReferenceData(customerParameters, reminderSettings);
+        return ResponseEntity.ok()
+                .eTag(eTag(referenceData.getVersion(), customerParameters, reminderSettings))
+                .cacheControl(CACHE_CONTROL)
+                .body(ApiResponse.success(referenceData));
+    }
+
+    /**
+     * The tag names the tenant (browsers cache per URL, not per login) and the included sections.
+     */
+    private String eTag(long version, boolean customerParameters, boolean reminderSettings) {
+        String sections = (customerParameters ? "c" : "") + (reminderSettings ? "r" : "");
+        return "\"" + TenantContext.getCurrentTenantId() + "-" + version + "-" + sections + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison and may list several tags.
+     */
+    private boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(tag) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
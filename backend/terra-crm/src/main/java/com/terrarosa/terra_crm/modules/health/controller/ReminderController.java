@@ -1,17 +1,28 @@
 package com.terrarosa.terra_crm.modules.health.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.common.dto.PagedResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderBulkRequest;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderBulkResultDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderCalendarDayDto;
 import com.terrarosa.terra_crm.modules.health.dto.ReminderDto;
 import com.terrarosa.terra_crm.modules.health.dto.ReminderRequest;
+import com.terrarosa.terra_crm.modules.health.scheduler.InAppReminderNotifier;
+import com.terrarosa.terra_crm.modules.health.service.ReminderBulkService;
 import com.terrarosa.terra_crm.modules.health.service.ReminderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,42 +35,80 @@ import java.util.UUID;
 public class ReminderController {
 
     private final ReminderService reminderService;
+    private final ReminderBulkService reminderBulkService;
+    private final InAppReminderNotifier inAppReminderNotifier;
 
     @GetMapping
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW')")
+    @RequirePermission({"REMINDERS_VIEW", "HEALTH_CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ReminderDto>>> getAllReminders() {
         return ResponseEntity.ok(ApiResponse.success(reminderService.getAllReminders()));
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW')")
+    @RequirePermission("REMINDERS_VIEW")
     public ResponseEntity<ApiResponse<ReminderDto>> getReminderById(@PathVariable UUID id) {
         return ResponseEntity.ok(ApiResponse.success(reminderService.getReminderById(id)));
     }
 
     @GetMapping("/customer/{customerId}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW')")
+    @RequirePermission({"REMINDERS_VIEW", "HEALTH_CUSTOMERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ReminderDto>>> getRemindersByCustomerId(@PathVariable UUID customerId) {
         return ResponseEntity.ok(ApiResponse.success(reminderService.getRemindersByCustomerId(customerId)));
     }
 
     @GetMapping("/date-range")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW')")
+    @RequirePermission("REMINDERS_VIEW")
     public ResponseEntity<ApiResponse<List<ReminderDto>>> getRemindersByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(ApiResponse.success(reminderService.getRemindersByDateRange(startDate, endDate)));
     }
 
+    /**
+     * Per-day counts by status and category for a month/week view
+     * GET /api/v1/health/reminders/calendar?startDate=2025-01-01&endDate=2025-01-31
+     */
+    @GetMapping("/calendar")
+    @RequirePermission("REMINDERS_VIEW")
+    public ResponseEntity<ApiResponse<List<ReminderCalendarDayDto>>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(ApiResponse.success(reminderService.getCalendar(startDate, endDate)));
+    }
+
+    /**
+     * Time-ordered reminders of one day
+     * GET /api/v1/health/reminders/agenda?date=2025-01-15&page=0&size=20
+     */
+    @GetMapping("/agenda")
+    @RequirePermission("REMINDERS_VIEW")
+    public ResponseEntity<ApiResponse<PagedResponse<ReminderDto>>> getAgenda(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<ReminderDto> agenda = reminderService.getAgenda(date, PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(agenda)));
+    }
+
+    /**
+     * Server-Sent Events stream of reminders of the current tenant as they become due
+     * GET /api/v1/health/reminders/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequirePermission("REMINDERS_VIEW")
+    public SseEmitter streamDueReminders() {
+        return inAppReminderNotifier.subscribe(TenantContext.getCurrentSchemaName());
+    }
+
     @PostMapping
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_CREATE') or @permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT')")
+    @RequirePermission({"REMINDERS_CREATE", "HEALTH_CUSTOMERS_EDIT"})
     public ResponseEntity<ApiResponse<ReminderDto>> createReminder(@Valid @RequestBody ReminderRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(reminderService.createReminder(request)));
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_UPDATE') or @permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT')")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
     public ResponseEntity<ApiResponse<ReminderDto>> updateReminder(
             @PathVariable UUID id,
             @Valid @RequestBody ReminderRequest request) {
@@ -67,14 +116,90 @@ public class ReminderController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_DELETE') or @permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT')")
+    @RequirePermission({"REMINDERS_DELETE", "HEALTH_CUSTOMERS_EDIT"})
     public ResponseEntity<ApiResponse<Void>> deleteReminder(@PathVariable UUID id) {
         reminderService.deleteReminder(id);
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    /**
+     * Edit one occurrence of a recurring reminder
+     * PUT /api/v1/health/reminders/{id}/occurrences/2025-04-15
+     */
+    @PutMapping("/{id}/occurrences/{date}")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderDto>> updateOccurrence(
+            @PathVariable UUID id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Valid @RequestBody ReminderRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(reminderService.updateOccurrence(id, date, request)));
+    }
+
+    @PatchMapping("/{id}/occurrences/{date}/toggle-complete")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderDto>> toggleOccurrenceComplete(
+            @PathVariable UUID id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(ApiResponse.success(reminderService.toggleOccurrenceComplete(id, date)));
+    }
+
+    @DeleteMapping("/{id}/occurrences/{date}")
+    @RequirePermission({"REMINDERS_DELETE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<Void>> cancelOccurrence(
+            @PathVariable UUID id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        reminderService.cancelOccurrence(id, date);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    /**
+     * Bulk operations: select reminders by "ids" and/or filter (startDate, endDate, statusId,
+     * categoryId, relationType, relationId). A filter-only selection requires a date range.
+     * POST /api/v1/health/reminders/bulk/complete
+     */
+    @PostMapping("/bulk/complete")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderBulkResultDto>> bulkComplete(
+            @Valid @RequestBody ReminderBulkRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(reminderBulkService.complete(request)));
+    }
+
+    @PostMapping("/bulk/reopen")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderBulkResultDto>> bulkReopen(
+            @Valid @RequestBody ReminderBulkRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(reminderBulkService.reopen(request)));
+    }
+
+    /**
+     * Shift the selected reminders by offsetDays and/or offsetMinutes (recurring series are skipped)
+     */
+    @PostMapping("/bulk/reschedule")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderBulkResultDto>> bulkReschedule(
+            @Valid @RequestBody ReminderBulkRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(reminderBulkService.reschedule(request)));
+    }
+
+    /**
+     * Set targetStatusId on the selected reminders
+     */
+    @PostMapping("/bulk/status")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderBulkResultDto>> bulkChangeStatus(
+            @Valid @RequestBody ReminderBulkRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(reminderBulkService.changeStatus(request)));
+    }
+
+    @PostMapping("/bulk/delete")
+    @RequirePermission({"REMINDERS_DELETE", "HEALTH_CUSTOMERS_EDIT"})
+    public ResponseEntity<ApiResponse<ReminderBulkResultDto>> bulkDelete(
+            @Valid @RequestBody ReminderBulkRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(reminderBulkService.delete(request)));
+    }
+
     @PatchMapping("/{id}/toggle-complete")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'REMINDERS_UPDATE') or @permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_EDIT')")
+    @RequirePermission({"REMINDERS_UPDATE", "HEALTH_CUSTOMERS_EDIT"})
     public ResponseEntity<ApiResponse<ReminderDto>> toggleComplete(@PathVariable UUID id) {
         return ResponseEntity.ok(ApiResponse.success(reminderService.toggleComplete(id)));
     }
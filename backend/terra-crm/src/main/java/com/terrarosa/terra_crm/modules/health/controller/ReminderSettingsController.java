@@ -1,6 +1,7 @@
 package com.terrarosa.terra_crm.modules.health.controller;
 
 import com.terrarosa.terra_crm.core.common.dto.ApiResponse;
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
 import com.terrarosa.terra_crm.modules.health.dto.*;
 import com.terrarosa.terra_crm.modules.health.service.ReminderSettingsService;
 import jakarta.validation.Valid;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,13 +25,13 @@ public class ReminderSettingsController {
     // ==================== CATEGORIES ====================
 
     @GetMapping("/categories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW')")
+    @RequirePermission({"SETTINGS_VIEW", "REMINDERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ReminderCategoryDto>>> getAllCategories() {
         return ResponseEntity.ok(ApiResponse.success(settingsService.getAllCategories()));
     }
 
     @PostMapping("/categories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission("SETTINGS_CREATE")
     public ResponseEntity<ApiResponse<ReminderCategoryDto>> createCategory(
             @Valid @RequestBody ReminderCategoryRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -39,7 +39,7 @@ public class ReminderSettingsController {
     }
 
     @PutMapping("/categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission("SETTINGS_UPDATE")
     public ResponseEntity<ApiResponse<ReminderCategoryDto>> updateCategory(
             @PathVariable UUID id,
             @Valid @RequestBody ReminderCategoryRequest request) {
@@ -47,7 +47,7 @@ public class ReminderSettingsController {
     }
 
     @DeleteMapping("/categories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission("SETTINGS_DELETE")
     public ResponseEntity<ApiResponse<Void>> deleteCategory(@PathVariable UUID id) {
         settingsService.deleteCategory(id);
         return ResponseEntity.ok(ApiResponse.success(null));
@@ -56,20 +56,20 @@ public class ReminderSettingsController {
     // ==================== SUBCATEGORIES ====================
 
     @GetMapping("/subcategories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW')")
+    @RequirePermission({"SETTINGS_VIEW", "REMINDERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ReminderSubcategoryDto>>> getAllSubcategories() {
         return ResponseEntity.ok(ApiResponse.success(settingsService.getAllSubcategories()));
     }
 
     @GetMapping("/categories/{categoryId}/subcategories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW')")
+    @RequirePermission({"SETTINGS_VIEW", "REMINDERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ReminderSubcategoryDto>>> getSubcategoriesByCategoryId(
             @PathVariable UUID categoryId) {
         return ResponseEntity.ok(ApiResponse.success(settingsService.getSubcategoriesByCategoryId(categoryId)));
     }
 
     @PostMapping("/subcategories")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission("SETTINGS_CREATE")
     public ResponseEntity<ApiResponse<ReminderSubcategoryDto>> createSubcategory(
             @Valid @RequestBody ReminderSubcategoryRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -77,7 +77,7 @@ public class ReminderSettingsController {
     }
 
     @PutMapping("/subcategories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission("SETTINGS_UPDATE")
     public ResponseEntity<ApiResponse<ReminderSubcategoryDto>> updateSubcategory(
             @PathVariable UUID id,
             @Valid @RequestBody ReminderSubcategoryRequest request) {
@@ -85,7 +85,7 @@ public class ReminderSettingsController {
     }
 
     @DeleteMapping("/subcategories/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission("SETTINGS_DELETE")
     public ResponseEntity<ApiResponse<Void>> deleteSubcategory(@PathVariable UUID id) {
         settingsService.deleteSubcategory(id);
         return ResponseEntity.ok(ApiResponse.success(null));
@@ -94,13 +94,13 @@ public class ReminderSettingsController {
     // ==================== STATUSES ====================
 
     @GetMapping("/statuses")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_VIEW') or @permissionEvaluator.hasPermission(authentication, 'REMINDERS_VIEW')")
+    @RequirePermission({"SETTINGS_VIEW", "REMINDERS_VIEW"})
     public ResponseEntity<ApiResponse<List<ReminderStatusDto>>> getAllStatuses() {
         return ResponseEntity.ok(ApiResponse.success(settingsService.getAllStatuses()));
     }
 
     @PostMapping("/statuses")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_CREATE')")
+    @RequirePermission("SETTINGS_CREATE")
     public ResponseEntity<ApiResponse<ReminderStatusDto>> createStatus(
             @Valid @RequestBody ReminderStatusRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -108,7 +108,7 @@ public class ReminderSettingsController {
     }
 
     @PutMapping("/statuses/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_UPDATE')")
+    @RequirePermission("SETTINGS_UPDATE")
     public ResponseEntity<ApiResponse<ReminderStatusDto>> updateStatus(
             @PathVariable UUID id,
             @Valid @RequestBody ReminderStatusRequest request) {
@@ -116,7 +116,7 @@ public class ReminderSettingsController {
     }
 
     @DeleteMapping("/statuses/{id}")
-    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SETTINGS_DELETE')")
+    @RequirePermission("SETTINGS_DELETE")
     public ResponseEntity<ApiResponse<Void>> deleteStatus(@PathVariable UUID id) {
         settingsService.deleteStatus(id);
         return ResponseEntity.ok(ApiResponse.success(null));
@@ -0,0 +1,28 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentDto {
+    private UUID id;
+    private UUID customerId;
+    private String customerName;
+    private UUID doctorId;
+    private String room;
+    private LocalDateTime appointmentDate;
+    private LocalDateTime endDate;
+    private Integer durationMinutes;
+    private String status;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentRequest {
+
+    @NotNull(message = "Customer is required")
+    private UUID customerId;
+
+    @NotNull(message = "Doctor is required")
+    private UUID doctorId;
+
+    @Size(max = 100, message = "Room must be at most 100 characters")
+    private String room;
+
+    @NotNull(message = "Appointment date is required")
+    private LocalDateTime appointmentDate;
+
+    @NotNull(message = "Duration is required")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 1440, message = "Duration must be at most 1440 minutes")
+    private Integer durationMinutes;
+
+    private String status; // SCHEDULED (default), CONFIRMED, COMPLETED, NO_SHOW, CANCELLED
+
+    private String notes;
+}
@@ -0,0 +1,23 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A free interval of a doctor within working hours; any slot inside it can be booked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityWindowDto {
+    private LocalDate date;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private long minutes;
+}
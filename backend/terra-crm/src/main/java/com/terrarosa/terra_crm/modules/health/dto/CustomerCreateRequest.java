@@ -1,5 +1,6 @@
 package com.terrarosa.terra_crm.modules.health.dto;
 
+import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,6 +24,7 @@ public class CustomerCreateRequest {
     @NotBlank(message = "Phone is required")
     private String phone;
 
+    @Email(message = "Email must be valid")
     private String email;
 
     @NotBlank(message = "Country is required")
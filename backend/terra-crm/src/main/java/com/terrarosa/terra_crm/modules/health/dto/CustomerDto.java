@@ -33,9 +33,16 @@ public class CustomerDto {
     private LocalDateTime registrationDate;
     private List<String> services;
     private List<String> tags;
-    private List<Map<String, Object>> notes;
     private List<Map<String, Object>> files;
-    private List<Map<String, Object>> payments;
+    /**
+     * Notes and payments live in their own tables; the full history is paged through
+     * /customers/{id}/notes and /customers/{id}/payments.
+     */
+    private long noteCount;
+    private long paymentCount;
+    private List<CustomerNoteDto> latestNotes;
+    private List<CustomerPaymentDto> latestPayments;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
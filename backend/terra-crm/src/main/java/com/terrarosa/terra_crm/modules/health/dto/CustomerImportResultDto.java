@@ -0,0 +1,33 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk customer import.
+ * Row numbers are 1-based data rows (the CSV header line is not counted).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportResultDto {
+    private long totalRows;
+    private long importedCount;
+    private long failedCount;
+    private long durationMs;
+    private List<RowError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
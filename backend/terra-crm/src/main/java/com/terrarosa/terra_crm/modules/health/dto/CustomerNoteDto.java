@@ -0,0 +1,24 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerNoteDto {
+    private UUID id;
+    private UUID customerId;
+    private String text;
+    private Boolean completed;
+    private Map<String, Object> data;
+    private UUID createdBy;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerNoteRequest {
+
+    @NotBlank(message = "Note text is required")
+    private String text;
+
+    private Boolean completed;
+    private Map<String, Object> data;
+}
@@ -0,0 +1,27 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPaymentDto {
+    private UUID id;
+    private UUID customerId;
+    private String text;
+    private BigDecimal amount;
+    private String currency;
+    private Boolean completed;
+    private Map<String, Object> data;
+    private UUID createdBy;
+    private LocalDateTime createdAt;
+}
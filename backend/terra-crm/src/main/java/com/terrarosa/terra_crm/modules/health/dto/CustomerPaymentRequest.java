@@ -0,0 +1,29 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPaymentRequest {
+
+    @NotBlank(message = "Payment description is required")
+    private String text;
+
+    private BigDecimal amount;
+
+    @Size(max = 10, message = "Currency must be at most 10 characters")
+    private String currency;
+
+    private Boolean completed;
+    private Map<String, Object> data;
+}
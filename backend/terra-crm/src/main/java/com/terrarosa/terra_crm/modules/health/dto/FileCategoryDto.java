@@ -1,17 +1,13 @@
 package com.terrarosa.terra_crm.modules.health.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-@Data
+@Value
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
 public class FileCategoryDto {
     private UUID id;
     private String labelTr;
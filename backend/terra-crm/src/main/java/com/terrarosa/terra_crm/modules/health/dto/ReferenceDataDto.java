@@ -0,0 +1,29 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * All reference lists of a tenant in one response (customer parameters and reminder settings).
+ * Sections the user may not view are null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceDataDto {
+    private long version;
+    private List<CategoryDto> categories;
+    private List<ServiceDto> services;
+    private List<StatusDto> statuses;
+    private List<SourceDto> sources;
+    private List<TagDto> tags;
+    private List<FileCategoryDto> fileCategories;
+    private List<ReminderCategoryDto> reminderCategories;
+    private List<ReminderSubcategoryDto> reminderSubcategories;
+    private List<ReminderStatusDto> reminderStatuses;
+}
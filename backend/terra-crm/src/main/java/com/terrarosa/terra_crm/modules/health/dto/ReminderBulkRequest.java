@@ -0,0 +1,42 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selection and parameters of a bulk reminder operation.
+ *
+ * Reminders are selected by {@code ids}, by the filter fields, or by both (intersection).
+ * A filter-only selection must include a date range so a request can never touch every reminder.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderBulkRequest {
+
+    @Size(max = 5000, message = "At most 5000 reminders can be selected by id")
+    private List<UUID> ids;
+
+    // Filter
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private UUID statusId;
+    private UUID categoryId;
+    private String relationType;
+    private UUID relationId;
+
+    // Reschedule
+    private Integer offsetDays;
+    private Integer offsetMinutes;
+
+    // Change status
+    private UUID targetStatusId;
+}
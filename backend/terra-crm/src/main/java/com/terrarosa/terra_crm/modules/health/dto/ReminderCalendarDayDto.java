@@ -0,0 +1,24 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reminder counts of a single calendar day, broken down by status and by category.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderCalendarDayDto {
+    private LocalDate date;
+    private long total;
+    private Map<UUID, Long> byStatus;
+    private Map<UUID, Long> byCategory;
+}
@@ -11,7 +11,7 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ReminderDto {
@@ -47,4 +47,12 @@ public class ReminderDto {
     private LocalDateTime updatedAt;
     private UUID createdBy;
     private UUID updatedBy;
+
+    private String recurrenceRule;
+    /**
+     * Set on expanded occurrences and on exception rows: id of the recurring series.
+     * For expanded (not stored) occurrences id equals seriesId.
+     */
+    private UUID seriesId;
+    private LocalDate occurrenceDate;
 }
@@ -0,0 +1,25 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Payload of the in-app "reminder-due" event.
+ * Carries no tenant internals (such as the schema name) to the browser.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderDueNotificationDto {
+    private UUID reminderId;
+    private String title;
+    private LocalDateTime dueAt;
+    private String relationType;
+    private UUID relationId;
+}
@@ -2,6 +2,7 @@ package com.terrarosa.terra_crm.modules.health.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,4 +39,10 @@ public class ReminderRequest {
 
     private String relationType;
     private UUID relationId;
+
+    /**
+     * Optional RRULE subset, e.g. "FREQ=MONTHLY;INTERVAL=3;COUNT=8". reminderDate is the first occurrence.
+     */
+    @Size(max = 255, message = "Recurrence rule must be at most 255 characters")
+    private String recurrenceRule;
 }
@@ -0,0 +1,27 @@
+package com.terrarosa.terra_crm.modules.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One event of a customer timeline.
+ * Types: REMINDER (at its due time), FILE_UPLOADED, FILE_TRASHED, AUDIT.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEventDto {
+    private String type;
+    private LocalDateTime occurredAt;
+    private UUID sourceId; // Id of the reminder, file or audit log entry
+    private String title;
+    private UUID actorId;
+    private Map<String, Object> details;
+}
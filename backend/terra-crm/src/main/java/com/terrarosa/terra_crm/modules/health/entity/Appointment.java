@@ -11,6 +11,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Appointment of a customer with a doctor, optionally in a room.
+ * Overlapping active appointments of a doctor or room are rejected by exclusion constraints
+ * on the generated time_range column (see V26).
+ */
 @Entity
 @Table(name = "appointments")
 @Data
@@ -30,6 +35,12 @@ public class Appointment extends BaseEntity {
     @Column(name = "appointment_date", nullable = false)
     private LocalDateTime appointmentDate;
 
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Column(length = 100)
+    private String room;
+
     @Column(nullable = false)
     private String status;
 
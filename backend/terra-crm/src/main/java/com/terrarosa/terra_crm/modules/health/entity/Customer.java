@@ -2,20 +2,29 @@ package com.terrarosa.terra_crm.modules.health.entity;
 
 import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
 import com.terrarosa.terra_crm.modules.ads.entity.Lead;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Customer entity.
+ * Uses dynamic UPDATE statements so partial updates only write the changed columns
+ * (untouched JSONB arrays and medical history are not rewritten), and an optimistic
+ * version column to detect concurrent edits.
+ */
 @Entity
 @Table(name = "customers")
+@DynamicUpdate
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
@@ -23,6 +32,10 @@ import java.util.Map;
 @AllArgsConstructor
 public class Customer extends BaseEntity {
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lead_id")
     private Lead lead;
@@ -78,15 +91,21 @@ public class Customer extends BaseEntity {
     @Column(name = "tags", columnDefinition = "jsonb")
     private List<String> tags;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "notes", columnDefinition = "jsonb")
-    private List<Map<String, Object>> notes;
-
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "files", columnDefinition = "jsonb")
     private List<Map<String, Object>> files;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "payments", columnDefinition = "jsonb")
-    private List<Map<String, Object>> payments;
+    // Notes and payments are stored in customer_notes / customer_payments (see CustomerNote, CustomerPayment)
+
+    /**
+     * Duplicate-matching blocking keys, derived from name/phone/email on every write.
+     */
+    @Embedded
+    private MatchKeys matchKeys;
+
+    @PrePersist
+    @PreUpdate
+    void refreshMatchKeys() {
+        matchKeys = MatchKeys.of(name, phone, email);
+    }
 }
@@ -0,0 +1,48 @@
+package com.terrarosa.terra_crm.modules.health.entity;
+
+import com.terrarosa.terra_crm.core.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only customer note (one row per note instead of a JSONB array on customers).
+ */
+@Entity
+@Table(name = "customer_notes")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerNote extends BaseEntity {
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+
+    /**
+     * Free-form attributes sent by the client (e.g. date, time).
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    @Builder.Default
+    private Map<String, Object> data = Map.of();
+
+    @Column(name = "created_by")
+    private UUID createdBy;
+}
@@ -60,4 +60,30 @@ public class Reminder extends BaseEntity {
 
     @Column(name = "updated_by")
     private UUID updatedBy;
+
+    /**
+     * RRULE subset (see RecurrenceRule); set on the series row, null for one-off reminders.
+     * Occurrences are expanded on read and are not stored.
+     */
+    @Column(name = "recurrence_rule", length = 255)
+    private String recurrenceRule;
+
+    /**
+     * Date of the series' last occurrence (null = unbounded).
+     */
+    @Column(name = "recurrence_until")
+    private LocalDate recurrenceUntil;
+
+    /**
+     * For exception rows: the series and the original date of the occurrence this row replaces.
+     */
+    @Column(name = "series_id")
+    private UUID seriesId;
+
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
+    public boolean isRecurring() {
+        return recurrenceRule != null;
+    }
 }
@@ -2,10 +2,60 @@ package com.terrarosa.terra_crm.modules.health.repository;
 
 import com.terrarosa.terra_crm.core.common.repository.SoftDeleteRepository;
 import com.terrarosa.terra_crm.modules.health.entity.Appointment;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AppointmentRepository extends SoftDeleteRepository<Appointment, UUID> {
+
+    /**
+     * Appointments starting in [from, to), optionally of one doctor and/or customer.
+     */
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.customer "
+            + "WHERE a.appointmentDate >= :from AND a.appointmentDate < :to "
+            + "AND (:doctorId IS NULL OR a.doctorId = :doctorId) "
+            + "AND (:customerId IS NULL OR a.customer.id = :customerId) "
+            + "ORDER BY a.appointmentDate, a.id")
+    List<Appointment> findInWindow(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("doctorId") UUID doctorId, @Param("customerId") UUID customerId);
+
+    /**
+     * Free intervals of a doctor between {@code dayStart} and {@code dayEnd} on each day from
+     * {@code fromDate} to {@code toDate}, at least {@code minMinutes} long.
+     * Each Object[] contains [day, freeFrom, freeTo].
+     *
+     * One statement for the whole range: each day probes the GiST index of the doctor overlap
+     * constraint (its predicate is repeated here so the partial index applies), the busy
+     * intervals are clipped to working hours, and a running MAX(end) over the day's busy
+     * intervals, closed by a sentinel at closing time, yields the gaps between them.
+     */
+    @Query(value = "WITH days AS ("
+            + "  SELECT CAST(d AS date) AS day, CAST(d AS date) + CAST(:dayStart AS time) AS open_at, "
+            + "         CAST(d AS date) + CAST(:dayEnd AS time) AS close_at "
+            + "  FROM generate_series(CAST(:fromDate AS timestamp), CAST(:toDate AS timestamp), INTERVAL '1 day') d"
+            + "), busy AS ("
+            + "  SELECT days.day, GREATEST(lower(a.time_range), days.open_at) AS s, "
+            + "         LEAST(upper(a.time_range), days.close_at) AS e "
+            + "  FROM days JOIN appointments a ON a.doctor_id = :doctorId AND a.deleted = false "
+            + "       AND a.status <> 'CANCELLED' AND a.time_range && tsrange(days.open_at, days.close_at, '[)') "
+            + "  UNION ALL SELECT day, close_at, close_at FROM days"
+            + "), gaps AS ("
+            + "  SELECT day, s, MAX(e) OVER (PARTITION BY day ORDER BY s, e "
+            + "         ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS prev_end "
+            + "  FROM busy"
+            + ") "
+            + "SELECT g.day, COALESCE(g.prev_end, d.open_at) AS free_from, g.s AS free_to "
+            + "FROM gaps g JOIN days d ON d.day = g.day "
+            + "WHERE g.s >= COALESCE(g.prev_end, d.open_at) + :minMinutes * INTERVAL '1 minute' "
+            + "ORDER BY g.day, free_from", nativeQuery = true)
+    List<Object[]> findFreeWindows(@Param("doctorId") UUID doctorId, @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate, @Param("dayStart") LocalTime dayStart,
+            @Param("dayEnd") LocalTime dayEnd, @Param("minMinutes") int minMinutes);
 }
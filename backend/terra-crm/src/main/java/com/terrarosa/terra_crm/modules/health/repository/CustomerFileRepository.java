@@ -24,6 +24,26 @@ public interface CustomerFileRepository extends JpaRepository<CustomerFile, UUID
      */
     List<CustomerFile> findByCustomerIdOrderByCreatedAtDesc(UUID customerId);
 
+    /**
+     * Files of a customer by upload time (trashed ones included), newest first, starting after
+     * the keyset position (createdAt, id); one page of the customer timeline.
+     */
+    @Query(value = "SELECT f.* FROM customer_files f WHERE f.customer_id = :customerId "
+            + "AND (f.created_at, f.id) < (:createdAt, :id) ORDER BY f.created_at DESC, f.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<CustomerFile> findUploadedTimelinePage(@Param("customerId") UUID customerId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, @Param("limit") int limit);
+
+    /**
+     * Trashed files of a customer by trash time, newest first, starting after the keyset position
+     * (deletedAt, id); one page of the customer timeline.
+     */
+    @Query(value = "SELECT f.* FROM customer_files f WHERE f.customer_id = :customerId AND f.is_deleted = true "
+            + "AND (f.deleted_at, f.id) < (:deletedAt, :id) ORDER BY f.deleted_at DESC, f.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<CustomerFile> findTrashedTimelinePage(@Param("customerId") UUID customerId,
+            @Param("deletedAt") LocalDateTime deletedAt, @Param("id") UUID id, @Param("limit") int limit);
+
     /**
      * Find file by ID and customer ID (not deleted)
      */
@@ -0,0 +1,35 @@
+package com.terrarosa.terra_crm.modules.health.repository;
+
+import com.terrarosa.terra_crm.core.common.repository.SoftDeleteRepository;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerPayment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CustomerPaymentRepository extends SoftDeleteRepository<CustomerPayment, UUID> {
+
+    Page<CustomerPayment> findByCustomerIdOrderByCreatedAtDescIdDesc(UUID customerId, Pageable pageable);
+
+    /**
+     * Payment counts per customer in one GROUP BY query.
+     * Each Object[] contains [customerId, count].
+     */
+    @Query("SELECT e.customerId, COUNT(e) FROM CustomerPayment e WHERE e.customerId IN :customerIds GROUP BY e.customerId")
+    List<Object[]> countByCustomerIds(@Param("customerIds") Collection<UUID> customerIds);
+
+    /**
+     * The newest {@code limit} payments of each given customer, in one window-function query.
+     */
+    @Query(value = "SELECT e.* FROM customer_payments e WHERE e.id IN ("
+            + "SELECT r.id FROM (SELECT x.id, ROW_NUMBER() OVER (PARTITION BY x.customer_id ORDER BY x.created_at DESC, x.id DESC) AS rn "
+            + "FROM customer_payments x WHERE x.customer_id IN (:customerIds) AND x.deleted = false) r WHERE r.rn <= :limit) "
+            + "ORDER BY e.created_at DESC, e.id DESC", nativeQuery = true)
+    List<CustomerPayment> findLatestByCustomerIds(@Param("customerIds") Collection<UUID> customerIds, @Param("limit") int limit);
+}
@@ -2,10 +2,21 @@ package com.terrarosa.terra_crm.modules.health.repository;
 
 import com.terrarosa.terra_crm.core.common.repository.SoftDeleteRepository;
 import com.terrarosa.terra_crm.modules.health.entity.Customer;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CustomerRepository extends SoftDeleteRepository<Customer, UUID> {
+
+    /**
+     * Id/name pairs of the given customers, without loading the full rows.
+     * Each Object[] contains [id, name].
+     */
+    @Query("SELECT c.id, c.name FROM Customer c WHERE c.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<UUID> ids);
 }
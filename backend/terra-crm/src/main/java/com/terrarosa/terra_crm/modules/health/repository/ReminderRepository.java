@@ -1,20 +1,93 @@
 package com.terrarosa.terra_crm.modules.health.repository;
 
 import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ReminderRepository extends JpaRepository<Reminder, UUID> {
     List<Reminder> findByRelationTypeAndRelationId(String relationType, UUID relationId);
 
-    List<Reminder> findByReminderDateBetween(LocalDate startDate, LocalDate endDate);
+    /**
+     * Reminders of a relation, latest due time first, starting after the keyset position
+     * (date, time, id); one page of the customer timeline. Uses idx_reminders_relation_due.
+     */
+    @Query(value = "SELECT r.* FROM reminders r WHERE r.deleted = false AND r.relation_type = :relationType "
+            + "AND r.relation_id = :relationId AND (r.reminder_date, r.reminder_time, r.id) < (:date, :time, :id) "
+            + "ORDER BY r.reminder_date DESC, r.reminder_time DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<Reminder> findTimelinePage(@Param("relationType") String relationType, @Param("relationId") UUID relationId,
+            @Param("date") LocalDate date, @Param("time") LocalTime time, @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    /**
+     * Stored reminders (one-off reminders and occurrence exceptions) in the range; recurring series
+     * are expanded separately.
+     */
+    @Query("SELECT r FROM Reminder r WHERE r.recurrenceRule IS NULL AND r.reminderDate BETWEEN :startDate AND :endDate "
+            + "ORDER BY r.reminderDate, r.reminderTime")
+    List<Reminder> findStoredInRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recurring series that may have occurrences in the range.
+     */
+    @Query("SELECT r FROM Reminder r WHERE r.recurrenceRule IS NOT NULL AND r.reminderDate <= :endDate "
+            + "AND (r.recurrenceUntil IS NULL OR r.recurrenceUntil >= :startDate)")
+    List<Reminder> findRecurringInRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Occurrence dates that have an exception row (edited, completed or cancelled) in the range.
+     * Each Object[] contains [seriesId, occurrenceDate]. Soft-deleted (cancelled) exceptions are included.
+     */
+    @Query(value = "SELECT r.series_id, r.occurrence_date FROM reminders r "
+            + "WHERE r.series_id IN (:seriesIds) AND r.occurrence_date BETWEEN :startDate AND :endDate",
+            nativeQuery = true)
+    List<Object[]> findExceptionDates(@Param("seriesIds") Collection<UUID> seriesIds,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Exception row of one occurrence, including a cancelled (soft-deleted) one.
+     */
+    @Query(value = "SELECT r.* FROM reminders r WHERE r.series_id = :seriesId AND r.occurrence_date = :occurrenceDate",
+            nativeQuery = true)
+    Optional<Reminder> findException(@Param("seriesId") UUID seriesId,
+            @Param("occurrenceDate") LocalDate occurrenceDate);
 
     List<Reminder> findByCategoryId(UUID categoryId);
 
     List<Reminder> findByStatusId(UUID statusId);
+
+    List<Reminder> findBySeriesId(UUID seriesId);
+
+    /**
+     * Stored reminder counts per (day, status, category) in the given range (series excluded).
+     * Each Object[] contains [reminderDate, statusId, categoryId, count].
+     * Native so the predicate matches the partial index idx_reminders_date_time.
+     */
+    @Query(value = "SELECT r.reminder_date, r.status_id, r.category_id, COUNT(*) FROM reminders r "
+            + "WHERE r.deleted = false AND r.recurrence_rule IS NULL "
+            + "AND r.reminder_date BETWEEN :startDate AND :endDate "
+            + "GROUP BY r.reminder_date, r.status_id, r.category_id", nativeQuery = true)
+    List<Object[]> countByDayStatusAndCategory(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Stored reminders of a single day ordered by time (agenda view; series excluded).
+     */
+    @Query(value = "SELECT r.* FROM reminders r WHERE r.deleted = false AND r.recurrence_rule IS NULL "
+            + "AND r.reminder_date = :date ORDER BY r.reminder_time, r.id",
+            countQuery = "SELECT COUNT(*) FROM reminders r WHERE r.deleted = false AND r.recurrence_rule IS NULL "
+                    + "AND r.reminder_date = :date",
+            nativeQuery = true)
+    Page<Reminder> findAgenda(@Param("date") LocalDate date, Pageable pageable);
 }
@@ -0,0 +1,221 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timer wheel (Varghese & Lauck).
+ *
+ * Each level has 64 slots; a slot of level {@code n} spans {@code 64^n} ticks. Timers are put
+ * on the lowest level whose range covers their delay and are cascaded one level down whenever
+ * the lower wheel wraps, so scheduling, cancelling and firing are O(1) regardless of how many
+ * timers are pending. Slots are intrusive doubly-linked lists and every timer is indexed by key,
+ * which allows replacing or cancelling a timer without scanning.
+ *
+ * Deadlines beyond the top level's range are parked on the top level and re-cascaded until
+ * they are due, so they never fire early.
+ *
+ * All methods are synchronized; the wheel is meant to be advanced by a single ticker thread
+ * while other threads schedule and cancel timers.
+ *
+ * @param <K> timer key
+ * @param <V> payload returned when the timer fires
+ */
+public class HierarchicalTimerWheel<K, V> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final Node<K, V>[][] wheels;
+    private final Map<K, Node<K, V>> index = new HashMap<>();
+
+    /**
+     * Last tick that has been processed.
+     */
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimerWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (levels < 1 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Unsupported number of levels: " + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.wheels = new Node[levels][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule (or re-schedule) the timer for {@code key}. A deadline in the past fires on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis, V value) {
+        cancel(key);
+        Node<K, V> node = new Node<>(key, value, toTick(deadlineMillis));
+        index.put(key, node);
+        place(node, currentTick + 1);
+    }
+
+    /**
+     * Schedule the timer only if no timer exists for {@code key}.
+     *
+     * @return true if the timer was added
+     */
+    public synchronized boolean scheduleIfAbsent(K key, long deadlineMillis, V value) {
+        if (index.containsKey(key)) {
+            return false;
+        }
+        schedule(key, deadlineMillis, value);
+        return true;
+    }
+
+    /**
+     * Cancel the timer for {@code key}.
+     *
+     * @return true if a pending timer was removed
+     */
+    public synchronized boolean cancel(K key) {
+        Node<K, V> node = index.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Payload of the pending timer for {@code key}, or null.
+     */
+    public synchronized V get(K key) {
+        Node<K, V> node = index.get(key);
+        return node != null ? node.value : null;
+    }
+
+    public synchronized boolean contains(K key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Advance the wheel up to {@code nowMillis} and return the payloads of all timers that became due,
+     * ordered by tick.
+     */
+    public synchronized List<V> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<V> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            fireSlot(expired);
+        }
+        return expired;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            int shift = level * SLOT_BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                break;
+            }
+            int slot = (int) ((currentTick >>> shift) & SLOT_MASK);
+            Node<K, V> node = detachSlot(level, slot);
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                // Timers due on this very tick land in the level-0 slot fired right after the cascade
+                place(node, currentTick);
+                node = next;
+            }
+        }
+    }
+
+    private void fireSlot(List<V> expired) {
+        int slot = (int) (currentTick & SLOT_MASK);
+        Node<K, V> node = detachSlot(0, slot);
+        while (node != null) {
+            Node<K, V> next = node.next;
+            node.prev = null;
+            node.next = null;
+            if (node.deadlineTick <= currentTick) {
+                index.remove(node.key);
+                expired.add(node.value);
+            } else {
+                place(node, currentTick + 1);
+            }
+            node = next;
+        }
+    }
+
+    private void place(Node<K, V> node, long earliestTick) {
+        long deadline = Math.max(node.deadlineTick, earliestTick);
+        long delay = deadline - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delay >= (1L << ((level + 1) * SLOT_BITS))) {
+            level++;
+        }
+        int slot = (int) ((deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+        if (level == levels - 1 && delay >= (1L << (levels * SLOT_BITS))) {
+            // Beyond the top level's range: park in the slot cascaded next and re-place from there
+            slot = (int) (((currentTick >>> (level * SLOT_BITS)) + 1) & SLOT_MASK);
+        }
+        node.level = level;
+        node.slot = slot;
+        Node<K, V> head = wheels[level][slot];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        wheels[level][slot] = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (wheels[node.level][node.slot] == node) {
+            wheels[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private Node<K, V> detachSlot(int level, int slot) {
+        Node<K, V> head = wheels[level][slot];
+        wheels[level][slot] = null;
+        return head;
+    }
+
+    private long toTick(long millis) {
+        // Round up so a timer never fires before its deadline
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadlineTick;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+        private int level;
+        private int slot;
+
+        private Node(K key, V value, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
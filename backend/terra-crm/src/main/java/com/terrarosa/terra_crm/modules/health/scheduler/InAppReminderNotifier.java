@@ -0,0 +1,67 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+import com.terrarosa.terra_crm.modules.health.dto.ReminderDueNotificationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * In-app reminder notifications over Server-Sent Events.
+ * Clients subscribe per tenant schema and receive a "reminder-due" event for every reminder of
+ * their tenant that fires.
+ */
+@Slf4j
+@Component
+public class InAppReminderNotifier implements ReminderNotifier {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<String, Set<SseEmitter>> emittersBySchema = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(String schemaName) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Set<SseEmitter> emitters = emittersBySchema.computeIfAbsent(schemaName, s -> new CopyOnWriteArraySet<>());
+        emitters.add(emitter);
+
+        Runnable remove = () -> {
+            emitters.remove(emitter);
+            emittersBySchema.computeIfPresent(schemaName, (s, set) -> set.isEmpty() ? null : set);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    @Override
+    public void notify(ReminderDueEvent event) {
+        Set<SseEmitter> emitters = emittersBySchema.get(event.schemaName());
+        if (emitters == null) {
+            return;
+        }
+        ReminderDueNotificationDto payload = ReminderDueNotificationDto.builder()
+                .reminderId(event.reminderId())
+                .title(event.title())
+                .dueAt(event.dueAt())
+                .relationType(event.relationType())
+                .relationId(event.relationId())
+                .build();
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("reminder-due")
+                        .id(event.reminderId().toString())
+                        .data(payload));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping closed reminder stream for schema {}: {}", event.schemaName(), e.getMessage());
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
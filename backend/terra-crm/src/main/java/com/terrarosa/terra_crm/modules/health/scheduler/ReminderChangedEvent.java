@@ -0,0 +1,49 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published by ReminderService whenever a reminder is created, updated, completed or deleted,
+ * so the {@link ReminderDispatcher} can keep its timer wheel in sync without rescanning.
+ *
+ * For a recurring series {@code dueAt} is the first occurrence and {@code recurrenceRule} is set;
+ * for an exception row {@code seriesId}/{@code occurrenceDate} name the occurrence it replaces.
+ *
+ * @param active false when the reminder is deleted or completed and must not fire
+ */
+public record ReminderChangedEvent(
+        String schemaName,
+        UUID reminderId,
+        String title,
+        LocalDateTime dueAt,
+        String relationType,
+        UUID relationId,
+        boolean active,
+        String recurrenceRule,
+        UUID seriesId,
+        LocalDate occurrenceDate) {
+
+    public static ReminderChangedEvent of(String schemaName, Reminder reminder) {
+        boolean active = !Boolean.TRUE.equals(reminder.getDeleted())
+                && !Boolean.TRUE.equals(reminder.getIsCompleted());
+        return new ReminderChangedEvent(
+                schemaName,
+                reminder.getId(),
+                reminder.getTitle(),
+                LocalDateTime.of(reminder.getReminderDate(), reminder.getReminderTime()),
+                reminder.getRelationType(),
+                reminder.getRelationId(),
+                active,
+                reminder.getRecurrenceRule(),
+                reminder.getSeriesId(),
+                reminder.getOccurrenceDate());
+    }
+
+    public ReminderDueEvent toDueEvent() {
+        return new ReminderDueEvent(schemaName, reminderId, title, dueAt, relationType, relationId);
+    }
+}
@@ -0,0 +1,390 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.health.service.RecurrenceRule;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * ReminderDispatcher
+ *
+ * Fires due reminders of all tenants. Upcoming, uncompleted reminders are loaded window by
+ * window ({@code horizon} ahead of now, topped up every {@code refresh-interval}) from every
+ * tenant schema into a {@link HierarchicalTimerWheel}. A ticker thread advances the wheel every
+ * {@code tick} and hands due reminders to all {@link ReminderNotifier}s on a separate thread.
+ *
+ * Creates, updates and deletes are applied from {@link ReminderChangedEvent}s after commit, so
+ * the wheel stays correct between window loads without rescanning. Only the current window is
+ * held in memory, which keeps the footprint proportional to reminders due within the horizon.
+ * Recurring series are expanded per window; exception rows suppress the occurrence they replace.
+ *
+ * Reminder date/time columns have no zone; they are interpreted in {@code zone}
+ * (default: server zone). The dispatcher is node-local and off unless
+ * {@code app.reminders.dispatch.enabled=true}; enable it on a single node only, otherwise every
+ * node fires every reminder.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reminders.dispatch.enabled", havingValue = "true")
+public class ReminderDispatcher {
+
+    private static final int WHEEL_LEVELS = 4;
+
+    private static final String LOAD_SQL = "SELECT id, title, reminder_date, reminder_time, relation_type, relation_id "
+            + "FROM %s.reminders "
+            + "WHERE deleted = false AND COALESCE(is_completed, false) = false AND recurrence_rule IS NULL "
+            + "AND reminder_date BETWEEN ? AND ? "
+            + "AND (reminder_date + reminder_time) > ? AND (reminder_date + reminder_time) <= ?";
+
+    private static final String SERIES_SQL = "SELECT id, title, reminder_date, reminder_time, relation_type, "
+            + "relation_id, recurrence_rule FROM %s.reminders "
+            + "WHERE deleted = false AND COALESCE(is_completed, false) = false AND recurrence_rule IS NOT NULL "
+            + "AND reminder_date <= ? AND (recurrence_until IS NULL OR recurrence_until >= ?)";
+
+    /**
+     * Occurrences replaced by an exception row (edited, completed or cancelled), including soft-deleted ones.
+     */
+    private static final String EXCEPTIONS_SQL = "SELECT series_id, occurrence_date FROM %s.reminders "
+            + "WHERE series_id IS NOT NULL AND occurrence_date BETWEEN ? AND ?";
+
+    private static final String EXCEPTION_EXISTS_SQL = "SELECT COUNT(*) FROM %s.reminders "
+            + "WHERE series_id = ? AND occurrence_date = ?";
+
+    /**
+     * Series repeat at most daily, so with a horizon below one day each series has at most one
+     * occurrence in the wheel and can be keyed by its own id.
+     */
+    private static final Duration MAX_HORIZON = Duration.ofHours(23);
+
+    private final TenantRepository tenantRepository;
+    private final TenantService tenantService;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<ReminderNotifier> notifiers;
+
+    @Value("${app.reminders.dispatch.tick:PT0.1S}")
+    private Duration tick;
+
+    @Value("${app.reminders.dispatch.horizon:PT1H}")
+    private Duration horizon;
+
+    @Value("${app.reminders.dispatch.refresh-interval:PT10M}")
+    private Duration refreshInterval;
+
+    @Value("${app.reminders.dispatch.zone:}")
+    private String zone;
+
+    private ZoneId zoneId;
+    private HierarchicalTimerWheel<ReminderKey, ReminderDueEvent> wheel;
+    private ScheduledExecutorService ticker;
+    private ScheduledExecutorService loader;
+    private ExecutorService notifierExecutor;
+
+    /**
+     * Everything due up to this instant (epoch millis) has been loaded into the wheel.
+     */
+    private volatile long loadedUntil;
+
+    /**
+     * Upper bound of the window currently being loaded; changes up to it are applied immediately.
+     */
+    private volatile long loadingUntil;
+
+    /**
+     * Reminders cancelled while a window load is running, so the load cannot resurrect them.
+     */
+    private final Set<ReminderKey> cancelledDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        zoneId = zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        if (horizon.compareTo(MAX_HORIZON) > 0) {
+            log.warn("Reminder dispatch horizon {} exceeds {}; using {}", horizon, MAX_HORIZON, MAX_HORIZON);
+            horizon = MAX_HORIZON;
+        }
+        long now = System.currentTimeMillis();
+        wheel = new HierarchicalTimerWheel<>(tick.toMillis(), WHEEL_LEVELS, now);
+        loadedUntil = now;
+        loadingUntil = now;
+
+        // Window loads hit every tenant schema; keep them off the ticker thread so firing stays on time
+        ticker = Executors.newSingleThreadScheduledExecutor(daemon("reminder-dispatcher"));
+        loader = Executors.newSingleThreadScheduledExecutor(daemon("reminder-loader"));
+        notifierExecutor = Executors.newSingleThreadExecutor(daemon("reminder-notifier"));
+
+        loader.scheduleWithFixedDelay(this::refreshSafely, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::tickSafely, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Reminder dispatcher started (tick: {}, horizon: {}, refresh: {}, zone: {})",
+                tick, horizon, refreshInterval, zoneId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+        if (notifierExecutor != null) {
+            notifierExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Keep the wheel in sync with committed reminder changes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderChanged(ReminderChangedEvent event) {
+        if (wheel == null) {
+            return;
+        }
+        if (event.recurrenceRule() != null) {
+            onSeriesChanged(event);
+            return;
+        }
+        if (event.seriesId() != null) {
+            // An exception row replaces the series occurrence of its date
+            ReminderKey seriesKey = new ReminderKey(event.schemaName(), event.seriesId());
+            ReminderDueEvent pending = wheel.get(seriesKey);
+            if (pending != null && pending.dueAt().toLocalDate().equals(event.occurrenceDate())) {
+                wheel.cancel(seriesKey);
+            }
+        }
+
+        ReminderKey key = new ReminderKey(event.schemaName(), event.reminderId());
+        long dueAt = toEpochMillis(event.dueAt());
+
+        if (event.active() && dueAt > System.currentTimeMillis() && dueAt <= loadingUntil) {
+            cancelledDuringLoad.remove(key);
+            wheel.schedule(key, dueAt, event.toDueEvent());
+        } else {
+            // Deleted, completed or moved outside the loaded window
+            cancelledDuringLoad.add(key);
+            wheel.cancel(key);
+        }
+    }
+
+    /**
+     * Cancel the series' pending occurrence right away; finding the next one needs an exception
+     * lookup, so it runs on the loader thread instead of the committing request thread (which
+     * also orders it with window loads).
+     */
+    private void onSeriesChanged(ReminderChangedEvent event) {
+        ReminderKey key = new ReminderKey(event.schemaName(), event.reminderId());
+        wheel.cancel(key);
+        if (!event.active()) {
+            cancelledDuringLoad.add(key);
+            return;
+        }
+        loader.execute(() -> {
+            try {
+                rescheduleSeries(key, event);
+            } catch (Exception e) {
+                log.warn("Failed to reschedule reminder series {} in schema {}: {}", event.reminderId(),
+                        event.schemaName(), e.getMessage());
+            }
+        });
+    }
+
+    private void rescheduleSeries(ReminderKey key, ReminderChangedEvent event) {
+        String schema = tenantService.quotedSchema(event.schemaName());
+        ReminderDueEvent next = nextOccurrence(event.schemaName(), event.reminderId(), event.title(), event.dueAt(),
+                event.relationType(), event.relationId(), RecurrenceRule.parse(event.recurrenceRule()),
+                LocalDateTime.ofInstant(Instant.now(), zoneId),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(loadingUntil), zoneId),
+                date -> jdbcTemplate.queryForObject(String.format(EXCEPTION_EXISTS_SQL, schema), Long.class,
+                        event.reminderId(), date) > 0);
+        if (next != null) {
+            cancelledDuringLoad.remove(key);
+            wheel.schedule(key, toEpochMillis(next.dueAt()), next);
+        } else {
+            cancelledDuringLoad.add(key);
+        }
+    }
+
+    public int pendingCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private void tickSafely() {
+        try {
+            List<ReminderDueEvent> due = wheel.advance(System.currentTimeMillis());
+            if (!due.isEmpty()) {
+                notifierExecutor.execute(() -> deliver(due));
+            }
+        } catch (Exception e) {
+            log.error("Reminder dispatcher tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void deliver(List<ReminderDueEvent> due) {
+        for (ReminderDueEvent event : due) {
+            for (ReminderNotifier notifier : notifiers) {
+                try {
+                    notifier.notify(event);
+                } catch (Exception e) {
+                    log.warn("Notifier {} failed for reminder {}: {}", notifier.getClass().getSimpleName(),
+                            event.reminderId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            loadWindow();
+        } catch (Exception e) {
+            log.error("Failed to load upcoming reminders: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load reminders due in (loadedUntil, now + horizon] from every tenant schema.
+     */
+    private void loadWindow() {
+        long from = Math.max(loadedUntil, System.currentTimeMillis());
+        long to = System.currentTimeMillis() + horizon.toMillis();
+        if (to <= from) {
+            return;
+        }
+        cancelledDuringLoad.clear();
+        loadingUntil = to;
+
+        LocalDateTime fromTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(from), zoneId);
+        LocalDateTime toTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(to), zoneId);
+        long started = System.currentTimeMillis();
+        int loaded = 0;
+        int schemas = 0;
+
+        for (String schemaName : tenantRepository.findAllTenantSchemaNames()) {
+            try {
+                loaded += loadSchema(schemaName, fromTime, toTime);
+                schemas++;
+            } catch (Exception e) {
+                log.warn("Failed to load reminders for schema {}: {}", schemaName, e.getMessage());
+            }
+        }
+
+        loadedUntil = to;
+        cancelledDuringLoad.clear();
+        log.debug("Loaded {} reminder(s) due until {} from {} schema(s) in {} ms (pending: {})",
+                loaded, toTime, schemas, System.currentTimeMillis() - started, wheel.size());
+    }
+
+    private int loadSchema(String schemaName, LocalDateTime from, LocalDateTime to) {
+        String schema = tenantService.quotedSchema(schemaName);
+        String sql = String.format(LOAD_SQL, schema);
+        int[] count = { 0 };
+        jdbcTemplate.query(sql, rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            ReminderKey key = new ReminderKey(schemaName, id);
+            if (cancelledDuringLoad.contains(key)) {
+                return;
+            }
+            LocalDateTime dueAt = LocalDateTime.of(
+                    rs.getDate("reminder_date").toLocalDate(),
+                    rs.getTime("reminder_time").toLocalTime());
+            ReminderDueEvent event = new ReminderDueEvent(schemaName, id, rs.getString("title"), dueAt,
+                    rs.getString("relation_type"), rs.getObject("relation_id", UUID.class));
+            // A change event applied during the load is newer than the row read here
+            if (wheel.scheduleIfAbsent(key, toEpochMillis(dueAt), event)) {
+                count[0]++;
+            }
+        }, from.toLocalDate(), to.toLocalDate(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return count[0] + loadSeries(schemaName, schema, from, to);
+    }
+
+    /**
+     * Expand recurring series of one schema for the window (at most one occurrence per series).
+     */
+    private int loadSeries(String schemaName, String schema, LocalDateTime from, LocalDateTime to) {
+        Set<String> exceptions = new HashSet<>();
+        jdbcTemplate.query(String.format(EXCEPTIONS_SQL, schema), rs -> {
+            exceptions.add(rs.getObject("series_id", UUID.class) + "|" + rs.getDate("occurrence_date").toLocalDate());
+        }, from.toLocalDate(), to.toLocalDate());
+
+        int[] count = { 0 };
+        jdbcTemplate.query(String.format(SERIES_SQL, schema), rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            ReminderKey key = new ReminderKey(schemaName, id);
+            if (cancelledDuringLoad.contains(key)) {
+                return;
+            }
+            RecurrenceRule rule;
+            try {
+                rule = RecurrenceRule.parse(rs.getString("recurrence_rule"));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping reminder series {} in schema {}: {}", id, schemaName, e.getMessage());
+                return;
+            }
+            LocalDateTime firstDueAt = LocalDateTime.of(
+                    rs.getDate("reminder_date").toLocalDate(),
+                    rs.getTime("reminder_time").toLocalTime());
+            ReminderDueEvent next = nextOccurrence(schemaName, id, rs.getString("title"), firstDueAt,
+                    rs.getString("relation_type"), rs.getObject("relation_id", UUID.class), rule, from, to,
+                    date -> exceptions.contains(id + "|" + date));
+            if (next != null && wheel.scheduleIfAbsent(key, toEpochMillis(next.dueAt()), next)) {
+                count[0]++;
+            }
+        }, to.toLocalDate(), from.toLocalDate());
+        return count[0];
+    }
+
+    /**
+     * First occurrence of a series due in (from, to] that has no exception row, or null.
+     */
+    private ReminderDueEvent nextOccurrence(String schemaName, UUID seriesId, String title, LocalDateTime firstDueAt,
+            String relationType, UUID relationId, RecurrenceRule rule, LocalDateTime from, LocalDateTime to,
+            Predicate<LocalDate> hasException) {
+        for (LocalDate date : rule.occurrencesBetween(firstDueAt.toLocalDate(), from.toLocalDate(), to.toLocalDate())) {
+            LocalDateTime dueAt = LocalDateTime.of(date, firstDueAt.toLocalTime());
+            if (dueAt.isAfter(from) && !dueAt.isAfter(to) && !hasException.test(date)) {
+                return new ReminderDueEvent(schemaName, seriesId, title, dueAt, relationType, relationId);
+            }
+        }
+        return null;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record ReminderKey(String schemaName, UUID reminderId) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A reminder that has become due, handed to {@link ReminderNotifier}.
+ */
+public record ReminderDueEvent(
+        String schemaName,
+        UUID reminderId,
+        String title,
+        LocalDateTime dueAt,
+        String relationType,
+        UUID relationId) {
+}
@@ -0,0 +1,10 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+/**
+ * Delivery channel for due reminders (in-app stream, e-mail, push, ...).
+ * Called from the dispatcher's notification thread; implementations must not block for long.
+ */
+public interface ReminderNotifier {
+
+    void notify(ReminderDueEvent event);
+}
@@ -0,0 +1,235 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.exception.ConflictException;
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.modules.health.dto.AppointmentDto;
+import com.terrarosa.terra_crm.modules.health.dto.AppointmentRequest;
+import com.terrarosa.terra_crm.modules.health.dto.AvailabilityWindowDto;
+import com.terrarosa.terra_crm.modules.health.entity.Appointment;
+import com.terrarosa.terra_crm.modules.health.entity.Customer;
+import com.terrarosa.terra_crm.modules.health.repository.AppointmentRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Appointment scheduling.
+ *
+ * Double booking is prevented by the database: exclusion constraints on the appointment's
+ * time range reject an overlapping active appointment of the same doctor or room, also for
+ * concurrent requests. A violation is reported as 409 Conflict.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentService {
+
+    public static final String STATUS_SCHEDULED = "SCHEDULED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    static final Set<String> STATUSES = Set.of(STATUS_SCHEDULED, "CONFIRMED", "COMPLETED", "NO_SHOW",
+            STATUS_CANCELLED);
+
+    static final int MAX_WINDOW_DAYS = 62;
+    static final int MAX_AVAILABILITY_DAYS = 31;
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String DOCTOR_OVERLAP_CONSTRAINT = "ex_appointments_doctor_overlap";
+    private static final String ROOM_OVERLAP_CONSTRAINT = "ex_appointments_room_overlap";
+
+    private final AppointmentRepository appointmentRepository;
+    private final CustomerRepository customerRepository;
+
+    /**
+     * Appointments starting in [from, to), optionally of one doctor and/or customer.
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> getAppointments(LocalDateTime from, LocalDateTime to, UUID doctorId, UUID customerId) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        if (Duration.between(from, to).toDays() > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Time window must be at most " + MAX_WINDOW_DAYS + " days");
+        }
+        return appointmentRepository.findInWindow(from, to, doctorId, customerId).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentDto getAppointment(UUID id) {
+        return toDto(findAppointment(id));
+    }
+
+    @Transactional
+    public AppointmentDto createAppointment(AppointmentRequest request) {
+        Appointment appointment = Appointment.builder()
+                .status(STATUS_SCHEDULED)
+                .build();
+        apply(appointment, request);
+        Appointment saved = saveChecked(appointment);
+        log.info("Created appointment {} for customer {} with doctor {} at {}", saved.getId(),
+                request.getCustomerId(), saved.getDoctorId(), saved.getAppointmentDate());
+        return toDto(saved);
+    }
+
+    @Transactional
+    public AppointmentDto updateAppointment(UUID id, AppointmentRequest request) {
+        Appointment appointment = findAppointment(id);
+        apply(appointment, request);
+        return toDto(saveChecked(appointment));
+    }
+
+    /**
+     * Cancel an appointment; a cancelled appointment no longer blocks its time slot.
+     */
+    @Transactional
+    public AppointmentDto cancelAppointment(UUID id) {
+        Appointment appointment = findAppointment(id);
+        appointment.setStatus(STATUS_CANCELLED);
+        return toDto(appointmentRepository.save(appointment));
+    }
+
+    @Transactional
+    public void deleteAppointment(UUID id) {
+        appointmentRepository.softDelete(findAppointment(id));
+    }
+
+    /**
+     * Free intervals of a doctor within working hours on {@code days} consecutive days starting
+     * at {@code fromDate}, computed by a single query (see {@link AppointmentRepository#findFreeWindows}).
+     *
+     * @param minMinutes shortest interval worth reporting, typically the duration to book
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityWindowDto> getAvailability(UUID doctorId, LocalDate fromDate, int days,
+                                                       LocalTime dayStart, LocalTime dayEnd, int minMinutes) {
+        if (days < 1 || days > MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_AVAILABILITY_DAYS);
+        }
+        if (!dayEnd.isAfter(dayStart)) {
+            throw new IllegalArgumentException("Day end must be after day start");
+        }
+        if (minMinutes < 1) {
+            throw new IllegalArgumentException("Minimum duration must be positive");
+        }
+        return appointmentRepository.findFreeWindows(doctorId, fromDate, fromDate.plusDays(days - 1L),
+                        dayStart, dayEnd, minMinutes).stream()
+                .map(row -> {
+                    LocalDateTime start = toLocalDateTime(row[1]);
+                    LocalDateTime end = toLocalDateTime(row[2]);
+                    return AvailabilityWindowDto.builder()
+                            .date(toLocalDate(row[0]))
+                            .start(start)
+                            .end(end)
+                            .minutes(Duration.between(start, end).toMinutes())
+                            .build();
+                })
+                .toList();
+    }
+
+    private void apply(Appointment appointment, AppointmentRequest request) {
+        Customer customer = customerRepository.findById(request.getCustomerId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Customer not found with id: " + request.getCustomerId()));
+        appointment.setCustomer(customer);
+        appointment.setDoctorId(request.getDoctorId());
+        String room = request.getRoom();
+        appointment.setRoom(room != null && !room.isBlank() ? room.trim() : null);
+        appointment.setAppointmentDate(request.getAppointmentDate());
+        appointment.setDurationMinutes(request.getDurationMinutes());
+        appointment.setNotes(request.getNotes());
+        if (request.getStatus() != null) {
+            appointment.setStatus(normalizeStatus(request.getStatus()));
+        }
+    }
+
+    static String normalizeStatus(String status) {
+        String normalized = status.trim().toUpperCase(Locale.ROOT);
+        if (!STATUSES.contains(normalized)) {
+            throw new IllegalArgumentException("Unknown appointment status: " + status);
+        }
+        return normalized;
+    }
+
+    /**
+     * Flush immediately so an overlap surfaces here as a conflict rather than at commit.
+     */
+    private Appointment saveChecked(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = exclusionConstraint(e);
+            if (DOCTOR_OVERLAP_CONSTRAINT.equals(constraint)) {
+                throw new ConflictException("The doctor already has an appointment in this time slot");
+            }
+            if (ROOM_OVERLAP_CONSTRAINT.equals(constraint)) {
+                throw new ConflictException("The room is already booked in this time slot");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Name of the violated exclusion constraint, or null if the failure is something else.
+     */
+    static String exclusionConstraint(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                String message = String.valueOf(sql.getMessage());
+                if (message.contains(DOCTOR_OVERLAP_CONSTRAINT)) {
+                    return DOCTOR_OVERLAP_CONSTRAINT;
+                }
+                if (message.contains(ROOM_OVERLAP_CONSTRAINT)) {
+                    return ROOM_OVERLAP_CONSTRAINT;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Appointment findAppointment(UUID id) {
+        return appointmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + id));
+    }
+
+    private AppointmentDto toDto(Appointment appointment) {
+        Customer customer = appointment.getCustomer();
+        return AppointmentDto.builder()
+                .id(appointment.getId())
+                .customerId(customer.getId())
+                .customerName(customer.getName())
+                .doctorId(appointment.getDoctorId())
+                .room(appointment.getRoom())
+                .appointmentDate(appointment.getAppointmentDate())
+                .endDate(appointment.getAppointmentDate().plusMinutes(appointment.getDurationMinutes()))
+                .durationMinutes(appointment.getDurationMinutes())
+                .status(appointment.getStatus())
+                .notes(appointment.getNotes())
+                .createdAt(appointment.getCreatedAt())
+                .updatedAt(appointment.getUpdatedAt())
+                .build();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,484 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.quota.service.QuotaService;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchSubject;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.CustomerRollupKey;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.RollupDelta;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerCreateRequest;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerImportResultDto;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk customer import from CSV or NDJSON uploads.
+ *
+ * The upload is parsed as a stream: rows are validated one by one and valid rows are
+ * buffered and written with JDBC batch inserts of {@link #BATCH_SIZE} rows. Ids are
+ * generated client-side, lead references are resolved with one IN-query per batch and
+ * the tenant's "customers" quota is checked once up front via {@link QuotaService}.
+ * Invalid rows never abort the import; they are reported back per row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerImportService {
+
+    static final int BATCH_SIZE = 1000;
+    private static final String QUOTA_KEY = "customers";
+    private static final String LIST_SEPARATOR_REGEX = "[|;]";
+
+    private static final String INSERT_SQL = "INSERT INTO %s.customers (id, lead_id, name, phone, email, country, city, job, "
+            + "medical_history, operation_type, passport_number, status, consultant_id, categories, source, "
+            + "registration_date, services, tags, files, created_at, updated_at, phone_key, email_local_key, name_key, "
+            + "match_keys_version, deleted) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?::jsonb, ?::jsonb, ?::jsonb, ?, ?, "
+            + "?, ?, ?, ?, false)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.OTHER, Types.VARCHAR,
+            Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.SMALLINT
+    };
+
+    private static final String NOTE_INSERT_SQL = "INSERT INTO %s.customer_notes "
+            + "(id, customer_id, text, completed, data, created_at, updated_at, deleted) "
+            + "VALUES (?, ?, ?, ?, ?::jsonb, ?, ?, false)";
+
+    private static final int[] NOTE_INSERT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BOOLEAN, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private static final String PAYMENT_INSERT_SQL = "INSERT INTO %s.customer_payments "
+            + "(id, customer_id, text, completed, data, created_at, updated_at, amount, currency, deleted) "
+            + "VALUES (?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, false)";
+
+    private static final int[] PAYMENT_INSERT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BOOLEAN, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP,
+            Types.NUMERIC, Types.VARCHAR
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerRepository customerRepository;
+    private final QuotaService quotaService;
+    private final TenantService tenantService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DuplicateMatchingService duplicateMatchingService;
+    private final DashboardRollupService dashboardRollupService;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Resolve the upload format from an explicit parameter, falling back to the file extension.
+         */
+        public static Format resolve(String format, String filename) {
+            if (format != null && !format.isBlank()) {
+                try {
+                    return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unsupported import format: " + format);
+                }
+            }
+            String lower = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * Import customers from the given stream into the current tenant schema.
+     * Runs in a single transaction so an infrastructure failure rolls back the whole import.
+     */
+    @Transactional
+    public CustomerImportResultDto importCustomers(InputStream input, Format format) throws IOException {
+        long startTime = System.currentTimeMillis();
+        String schema = tenantService.quotedSchema(TenantContext.getCurrentSchemaName());
+        ImportRun run = new ImportRun(schema, remainingQuota());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024)) {
+            if (format == Format.NDJSON) {
+                readNdjson(reader, run);
+            } else {
+                readCsv(reader, run);
+            }
+        }
+        flush(run);
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Imported {} of {} customers into schema {} in {} ms ({} failed)",
+                run.imported, run.totalRows, run.schema, duration, run.errors.size());
+
+        return CustomerImportResultDto.builder()
+                .totalRows(run.totalRows)
+                .importedCount(run.imported)
+                .failedCount(run.errors.size())
+                .durationMs(duration)
+                .errors(run.errors)
+                .build();
+    }
+
+    // ==================== PARSING ====================
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long rowNumber = ++run.totalRows;
+            CustomerCreateRequest request;
+            try {
+                request = objectMapper.readValue(line, CustomerCreateRequest.class);
+            } catch (JacksonException e) {
+                run.reject(rowNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            accept(run, rowNumber, request);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream()
+                .map(CustomerImportService::normalizeColumn)
+                .collect(Collectors.toList());
+        if (!columns.contains("name") || !columns.contains("phone") || !columns.contains("country")) {
+            throw new IllegalArgumentException("CSV header must contain name, phone and country columns");
+        }
+
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long rowNumber = ++run.totalRows;
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(columns.get(i), value);
+                }
+            }
+            try {
+                accept(run, rowNumber, toRequest(values));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.reject(rowNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read one RFC 4180 record (quoted fields may contain commas, quotes and line breaks).
+     * Returns null at end of stream.
+     */
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean readAny = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            readAny = true;
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r' && ch != '\uFEFF') {
+                field.append(ch);
+            }
+        }
+        if (!readAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String normalizeColumn(String column) {
+        return column.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-]", "");
+    }
+
+    private CustomerCreateRequest toRequest(Map<String, String> values) {
+        return CustomerCreateRequest.builder()
+                .leadId(parseUuid(values.get("leadid"), "leadId"))
+                .name(values.get("name"))
+                .phone(values.get("phone"))
+                .email(values.get("email"))
+                .country(values.get("country"))
+                .city(values.get("city"))
+                .job(values.get("job"))
+                .medicalHistory(values.get("medicalhistory"))
+                .operationType(values.get("operationtype"))
+                .passportNumber(values.get("passportnumber"))
+                .status(values.get("status"))
+                .consultantId(parseUuid(values.get("consultantid"), "consultantId"))
+                .categories(parseList(values.get("categories")))
+                .source(values.get("source"))
+                .registrationDate(parseDateTime(values.get("registrationdate")))
+                .services(parseList(values.get("services")))
+                .tags(parseList(values.get("tags")))
+                .build();
+    }
+
+    private static UUID parseUuid(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static List<String> parseList(String value) {
+        if (value == null) {
+            return null;
+        }
+        return Arrays.stream(value.split(LIST_SEPARATOR_REGEX))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    // ==================== VALIDATION & BATCHING ====================
+
+    private void accept(ImportRun run, long rowNumber, CustomerCreateRequest request) {
+        Set<ConstraintViolation<CustomerCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            run.reject(rowNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        if (run.remainingQuota != null && run.accepted >= run.remainingQuota) {
+            run.reject(rowNumber, "Customer quota exceeded");
+            return;
+        }
+        run.accepted++;
+        run.pending.add(new PendingRow(rowNumber, request));
+        if (run.pending.size() >= BATCH_SIZE) {
+            flush(run);
+        }
+    }
+
+    private void flush(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        Set<UUID> existingLeads = findExistingLeadIds(run);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> batchArgs = new ArrayList<>(run.pending.size());
+        List<Object[]> noteArgs = new ArrayList<>();
+        List<Object[]> paymentArgs = new ArrayList<>();
+        List<MatchSubject> subjects = new ArrayList<>(run.pending.size());
+        RollupDelta rollupDelta = new RollupDelta();
+        for (PendingRow row : run.pending) {
+            CustomerCreateRequest r = row.request();
+            UUID customerId = UUID.randomUUID();
+            UUID leadId = r.getLeadId() != null && existingLeads.contains(r.getLeadId()) ? r.getLeadId() : null;
+            MatchSubject subject = MatchSubject.of(MatchType.CUSTOMER, customerId, r.getName(), r.getPhone(),
+                    r.getEmail(), r.getCountry(), leadId);
+            subjects.add(subject);
+            String status = r.getStatus() != null ? r.getStatus() : "new";
+            LocalDateTime registrationDate = r.getRegistrationDate() != null ? r.getRegistrationDate() : now;
+            rollupDelta.change(null, CustomerRollupKey.of(registrationDate, status, r.getSource()));
+            batchArgs.add(new Object[] {
+                    customerId,
+                    leadId,
+                    r.getName(),
+                    r.getPhone(),
+                    r.getEmail(),
+                    r.getCountry(),
+                    r.getCity(),
+                    r.getJob(),
+                    r.getMedicalHistory(),
+                    r.getOperationType(),
+                    r.getPassportNumber(),
+                    status,
+                    r.getConsultantId(),
+                    toJson(r.getCategories()),
+                    r.getSource(),
+                    registrationDate,
+                    toJson(r.getServices()),
+                    toJson(r.getTags()),
+                    toJson(r.getFiles()),
+                    now,
+                    now,
+                    subject.keys().getPhoneKey(),
+                    subject.keys().getEmailLocalKey(),
+                    subject.keys().getNameKey(),
+                    subject.keys().getVersion()
+            });
+            addChildRows(noteArgs, customerId, r.getNotes(), now, false);
+            addChildRows(paymentArgs, customerId, r.getPayments(), now, true);
+        }
+
+        jdbcTemplate.batchUpdate(String.format(INSERT_SQL, run.schema), batchArgs, INSERT_TYPES);
+        if (!noteArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(String.format(NOTE_INSERT_SQL, run.schema), noteArgs, NOTE_INSERT_TYPES);
+        }
+        if (!paymentArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(String.format(PAYMENT_INSERT_SQL, run.schema), paymentArgs, PAYMENT_INSERT_TYPES);
+        }
+        duplicateMatchingService.recordMatches(TenantContext.getCurrentSchemaName(), subjects);
+        dashboardRollupService.apply(TenantContext.getCurrentSchemaName(), rollupDelta);
+        run.imported += batchArgs.size();
+        run.pending.clear();
+    }
+
+    /**
+     * Queue notes/payments given inline on an import row for the append-only child tables.
+     */
+    private void addChildRows(List<Object[]> args, UUID customerId, List<Map<String, Object>> items,
+            LocalDateTime now, boolean payment) {
+        if (items == null) {
+            return;
+        }
+        for (Map<String, Object> item : items) {
+            Object text = item.get("text");
+            Object[] values = {
+                    UUID.randomUUID(),
+                    customerId,
+                    text != null ? text.toString() : null,
+                    Boolean.TRUE.equals(item.get("completed")),
+                    toJson(item),
+                    now,
+                    now
+            };
+            if (payment) {
+                values = Arrays.copyOf(values, values.length + 2);
+                values[values.length - 2] = CustomerPaymentService.toAmount(item.get("amount"));
+                values[values.length - 1] = CustomerPaymentService.toCurrency(item.get("currency"));
+            }
+            args.add(values);
+        }
+    }
+
+    /**
+     * Resolve all lead references of the pending batch with a single query.
+     * Unknown leads are dropped silently, matching createCustomer semantics.
+     */
+    private Set<UUID> findExistingLeadIds(ImportRun run) {
+        Object[] leadIds = run.pending.stream()
+                .map(row -> row.request().getLeadId())
+                .filter(id -> id != null)
+                .distinct()
+                .toArray();
+        if (leadIds.length == 0) {
+            return Set.of();
+        }
+        String sql = String.format(
+                "SELECT id FROM %s.leads WHERE id = ANY(?) AND COALESCE(deleted, false) = false", run.schema);
+        return new HashSet<>(jdbcTemplate.queryForList(sql, UUID.class, new SqlArrayValue("uuid", leadIds)));
+    }
+
+    private String toJson(Object value) {
+        return value != null ? objectMapper.writeValueAsString(value) : null;
+    }
+
+    private Long remainingQuota() {
+        String tenantIdStr = TenantContext.getCurrentTenantId();
+        if (tenantIdStr == null || tenantIdStr.isBlank()) {
+            return null;
+        }
+        return quotaService.getRemainingQuota(UUID.fromString(tenantIdStr), QUOTA_KEY, customerRepository.count());
+    }
+
+    private record PendingRow(long rowNumber, CustomerCreateRequest request) {
+    }
+
+    /**
+     * Mutable state of a single import invocation.
+     */
+    private static final class ImportRun {
+        private final String schema;
+        private final Long remainingQuota;
+        private final List<PendingRow> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<CustomerImportResultDto.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long accepted;
+        private long imported;
+
+        private ImportRun(String schema, Long remainingQuota) {
+            this.schema = schema;
+            this.remainingQuota = remainingQuota;
+        }
+
+        private void reject(long rowNumber, String message) {
+            errors.add(CustomerImportResultDto.RowError.builder()
+                    .row(rowNumber)
+                    .message(message)
+                    .build());
+        }
+    }
+}
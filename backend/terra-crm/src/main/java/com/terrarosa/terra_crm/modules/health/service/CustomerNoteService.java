@@ -0,0 +1,142 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.audit.annotation.AuditLog;
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteRequest;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerNote;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerNoteRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only customer notes.
+ * Notes are stored one row per note so adding a note never rewrites the customer row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerNoteService {
+
+    /**
+     * Max ids per IN-list when summarizing many customers (stays well below the bind parameter limit).
+     */
+    static final int ID_CHUNK_SIZE = 1000;
+
+    private final CustomerNoteRepository noteRepository;
+    private final CustomerRepository customerRepository;
+    private final TenantSecurityService tenantSecurityService;
+
+    @AuditLog(action = "CUSTOMER_NOTE_ADDED", resourceType = "CUSTOMER", resourceIdParam = "customerId")
+    @Transactional
+    public CustomerNoteDto addNote(UUID customerId, CustomerNoteRequest request) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+
+        CustomerNote note = CustomerNote.builder()
+                .customerId(customerId)
+                .text(request.getText())
+                .completed(Boolean.TRUE.equals(request.getCompleted()))
+                .data(request.getData() != null ? request.getData() : Map.of())
+                .createdBy(tenantSecurityService.getCurrentUserId())
+                .build();
+
+        CustomerNote saved = noteRepository.save(note);
+        log.info("Added note {} for customer {}", saved.getId(), customerId);
+        return toDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CustomerNoteDto> getNotes(UUID customerId, Pageable pageable) {
+        return noteRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(customerId, pageable)
+                .map(this::toDto);
+    }
+
+    /**
+     * Append notes given in the legacy JSONB item shape ({text, completed, ...}).
+     * Used when a customer is created with initial notes.
+     */
+    @Transactional
+    public void appendLegacyNotes(UUID customerId, List<Map<String, Object>> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        UUID createdBy = tenantSecurityService.getCurrentUserId();
+        List<CustomerNote> notes = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            Object text = item.get("text");
+            notes.add(CustomerNote.builder()
+                    .customerId(customerId)
+                    .text(text != null ? text.toString() : null)
+                    .completed(Boolean.TRUE.equals(item.get("completed")))
+                    .data(item)
+                    .createdBy(createdBy)
+                    .build());
+        }
+        noteRepository.saveAll(notes);
+    }
+
+    /**
+     * Note counts for the given customers, batched into a few GROUP BY queries.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> countByCustomerIds(Collection<UUID> customerIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (List<UUID> chunk : chunk(customerIds)) {
+            for (Object[] row : noteRepository.countByCustomerIds(chunk)) {
+                counts.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * The newest {@code limit} notes per customer, newest first.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<CustomerNoteDto>> findLatestByCustomerIds(Collection<UUID> customerIds, int limit) {
+        Map<UUID, List<CustomerNoteDto>> latest = new HashMap<>();
+        for (List<UUID> chunk : chunk(customerIds)) {
+            for (CustomerNote note : noteRepository.findLatestByCustomerIds(chunk, limit)) {
+                latest.computeIfAbsent(note.getCustomerId(), id -> new ArrayList<>()).add(toDto(note));
+            }
+        }
+        return latest;
+    }
+
+    static List<List<UUID>> chunk(Collection<UUID> ids) {
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += ID_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + ID_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private CustomerNoteDto toDto(CustomerNote note) {
+        return CustomerNoteDto.builder()
+                .id(note.getId())
+                .customerId(note.getCustomerId())
+                .text(note.getText())
+                .completed(note.getCompleted())
+                .data(note.getData())
+                .createdBy(note.getCreatedBy())
+                .createdAt(note.getCreatedAt())
+                .build();
+    }
+}
@@ -1,10 +1,14 @@
 package com.terrarosa.terra_crm.modules.health.service;
 
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
 import com.terrarosa.terra_crm.modules.health.dto.*;
 import com.terrarosa.terra_crm.modules.health.entity.*;
 import com.terrarosa.terra_crm.modules.health.repository.*;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.CachedList;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.ReferenceList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,11 +27,14 @@ public class CustomerParametersService {
     private final SourceRepository sourceRepository;
     private final TagRepository tagRepository;
     private final FileCategoryRepository fileCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Implementation of seeding logic.
      * Assumes TenantContext is already set if running in a multi-tenant
-     * environment.
+     * environment. Called during tenant provisioning and for existing tenants on
+     * startup (TenantSchemaMigrationRunner), never from the read path.
      */
     @Transactional
     public void ensureSystemDefaults() {
@@ -96,25 +103,22 @@ public class CustomerParametersService {
 
     // ==================== CATEGORIES ====================
 
-    @Transactional
     public List<CategoryDto> getAllCategories() {
-        // Lazy seed check: if system category is missing, seed all defaults for this
-        // tenant
-        if (categoryRepository.findByLabelEn("system").isEmpty()) {
-            log.info("System parameters missing for current tenant. Seeding defaults...");
-            ensureSystemDefaults();
-        }
-
-        return categoryRepository.findAll().stream()
-                .map(this::convertCategoryToDto)
-                .collect(Collectors.toList());
+        return categories().items();
     }
 
-    @Transactional(readOnly = true)
     public CategoryDto getCategoryById(UUID id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
-        return convertCategoryToDto(category);
+        CategoryDto category = categories().byId().get(id);
+        if (category == null) {
+            throw new RuntimeException("Category not found with id: " + id);
+        }
+        return category;
+    }
+
+    CachedList<CategoryDto> categories() {
+        return referenceDataCache.get(ReferenceList.CATEGORIES, () -> categoryRepository.findAll().stream()
+                .map(this::convertCategoryToDto)
+                .collect(Collectors.toList()), CategoryDto::getId);
     }
 
     @Transactional
@@ -129,6 +133,7 @@ public class CustomerParametersService {
 
         Category saved = categoryRepository.save(category);
         log.info("Created new category: {}", saved.getLabelEn());
+        referenceDataChanged();
         return convertCategoryToDto(saved);
     }
 
@@ -148,6 +153,7 @@ public class CustomerParametersService {
 
         Category updated = categoryRepository.save(category);
         log.info("Updated category: {}", updated.getLabelEn());
+        referenceDataChanged();
         return convertCategoryToDto(updated);
     }
 
@@ -168,22 +174,27 @@ public class CustomerParametersService {
 
         categoryRepository.deleteById(id);
         log.info("Deleted category: {}", category.getLabelEn());
+        referenceDataChanged();
     }
 
     // ==================== SERVICES ====================
 
-    @Transactional(readOnly = true)
     public List<ServiceDto> getAllServices() {
-        return serviceRepository.findAll().stream()
-                .map(this::convertServiceToDto)
-                .collect(Collectors.toList());
+        return services().items();
     }
 
-    @Transactional(readOnly = true)
     public ServiceDto getServiceById(UUID id) {
-        ServiceEntity service = serviceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Service not found with id: " + id));
-        return convertServiceToDto(service);
+        ServiceDto service = services().byId().get(id);
+        if (service == null) {
+            throw new RuntimeException("Service not found with id: " + id);
+        }
+        return service;
+    }
+
+    CachedList<ServiceDto> services() {
+        return referenceDataCache.get(ReferenceList.SERVICES, () -> serviceRepository.findAll().stream()
+                .map(this::convertServiceToDto)
+                .collect(Collectors.toList()), ServiceDto::getId);
     }
 
     @Transactional
@@ -204,6 +215,7 @@ public class CustomerParametersService {
 
         ServiceEntity saved = serviceRepository.save(service);
         log.info("Created new service: {} in category: {}", saved.getNameEn(), category.getLabelEn());
+        referenceDataChanged();
         return convertServiceToDto(saved);
     }
 
@@ -229,6 +241,7 @@ public class CustomerParametersService {
 
         ServiceEntity updated = serviceRepository.save(service);
         log.info("Updated service: {}", updated.getNameEn());
+        referenceDataChanged();
         return convertServiceToDto(updated);
     }
 
@@ -243,22 +256,27 @@ public class CustomerParametersService {
 
         serviceRepository.deleteById(id);
         log.info("Deleted service: {}", service.getNameEn());
+        referenceDataChanged();
     }
 
     // ==================== STATUSES ====================
 
-    @Transactional(readOnly = true)
     public List<StatusDto> getAllStatuses() {
-        return statusRepository.findAll().stream()
-                .map(this::convertStatusToDto)
-                .collect(Collectors.toList());
+        return statuses().items();
     }
 
-    @Transactional(readOnly = true)
     public StatusDto getStatusById(UUID id) {
-        Status status = statusRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Status not found with id: " + id));
-        return convertStatusToDto(status);
+        StatusDto status = statuses().byId().get(id);
+        if (status == null) {
+            throw new RuntimeException("Status not found with id: " + id);
+        }
+        return status;
+    }
+
+    CachedList<StatusDto> statuses() {
+        return referenceDataCache.get(ReferenceList.STATUSES, () -> statusRepository.findAll().stream()
+                .map(this::convertStatusToDto)
+                .collect(Collectors.toList()), StatusDto::getId);
     }
 
     @Transactional
@@ -274,6 +292,7 @@ public class CustomerParametersService {
 
         Status saved = statusRepository.save(status);
         log.info("Created new status: {}", saved.getLabelEn());
+        referenceDataChanged();
         return convertStatusToDto(saved);
     }
 
@@ -294,6 +313,7 @@ public class CustomerParametersService {
 
         Status updated = statusRepository.save(status);
         log.info("Updated status: {}", updated.getLabelEn());
+        referenceDataChanged();
         return convertStatusToDto(updated);
     }
 
@@ -308,22 +328,27 @@ public class CustomerParametersService {
 
         statusRepository.deleteById(id);
         log.info("Deleted status: {}", status.getLabelEn());
+        referenceDataChanged();
     }
 
     // ==================== SOURCES ====================
 
-    @Transactional(readOnly = true)
     public List<SourceDto> getAllSources() {
-        return sourceRepository.findAll().stream()
-                .map(this::convertSourceToDto)
-                .collect(Collectors.toList());
+        return sources().items();
     }
 
-    @Transactional(readOnly = true)
     public SourceDto getSourceById(UUID id) {
-        Source source = sourceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Source not found with id: " + id));
-        return convertSourceToDto(source);
+        SourceDto source = sources().byId().get(id);
+        if (source == null) {
+            throw new RuntimeException("Source not found with id: " + id);
+        }
+        return source;
+    }
+
+    CachedList<SourceDto> sources() {
+        return referenceDataCache.get(ReferenceList.SOURCES, () -> sourceRepository.findAll().stream()
+                .map(this::convertSourceToDto)
+                .collect(Collectors.toList()), SourceDto::getId);
     }
 
     @Transactional
@@ -339,6 +364,7 @@ public class CustomerParametersService {
 
         Source saved = sourceRepository.save(source);
         log.info("Created new source: {}", saved.getLabelEn());
+        referenceDataChanged();
         return convertSourceToDto(saved);
     }
 
@@ -359,6 +385,7 @@ public class CustomerParametersService {
 
         Source updated = sourceRepository.save(source);
         log.info("Updated source: {}", updated.getLabelEn());
+        referenceDataChanged();
         return convertSourceToDto(updated);
     }
 
@@ -373,22 +400,27 @@ public class CustomerParametersService {
 
         sourceRepository.deleteById(id);
         log.info("Deleted source: {}", source.getLabelEn());
+        referenceDataChanged();
     }
 
     // ==================== TAGS ====================
 
-    @Transactional(readOnly = true)
     public List<TagDto> getAllTags() {
-        return tagRepository.findAll().stream()
-                .map(this::convertTagToDto)
-                .collect(Collectors.toList());
+        return tags().items();
     }
 
-    @Transactional(readOnly = true)
     public TagDto getTagById(UUID id) {
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Tag not found with id: " + id));
-        return convertTagToDto(tag);
+        TagDto tag = tags().byId().get(id);
+        if (tag == null) {
+            throw new RuntimeException("Tag not found with id: " + id);
+        }
+        return tag;
+    }
+
+    CachedList<TagDto> tags() {
+        return referenceDataCache.get(ReferenceList.TAGS, () -> tagRepository.findAll().stream()
+                .map(this::convertTagToDto)
+                .collect(Collectors.toList()), TagDto::getId);
     }
 
     @Transactional
@@ -404,6 +436,7 @@ public class CustomerParametersService {
 
         Tag saved = tagRepository.save(tag);
         log.info("Created new tag: {}", saved.getLabelEn());
+        referenceDataChanged();
         return convertTagToDto(saved);
     }
 
@@ -424,6 +457,7 @@ public class CustomerParametersService {
 
         Tag updated = tagRepository.save(tag);
         log.info("Updated tag: {}", updated.getLabelEn());
+        referenceDataChanged();
         return convertTagToDto(updated);
     }
 
@@ -438,22 +472,27 @@ public class CustomerParametersService {
 
         tagRepository.deleteById(id);
         log.info("Deleted tag: {}", tag.getLabelEn());
+        referenceDataChanged();
     }
 
     // ==================== FILE CATEGORIES ====================
 
-    @Transactional(readOnly = true)
     public List<FileCategoryDto> getAllFileCategories() {
-        return fileCategoryRepository.findAll().stream()
-                .map(this::convertFileCategoryToDto)
-                .collect(Collectors.toList());
+        return fileCategories().items();
     }
 
-    @Transactional(readOnly = true)
     public FileCategoryDto getFileCategoryById(UUID id) {
-        FileCategory fileCategory = fileCategoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("File category not found with id: " + id));
-        return convertFileCategoryToDto(fileCategory);
+        FileCategoryDto fileCategory = fileCategories().byId().get(id);
+        if (fileCategory == null) {
+            throw new RuntimeException("File category not found with id: " + id);
+        }
+        return fileCategory;
+    }
+
+    CachedList<FileCategoryDto> fileCategories() {
+        return referenceDataCache.get(ReferenceList.FILE_CATEGORIES, () -> fileCategoryRepository.findAll().stream()
+                .map(this::convertFileCategoryToDto)
+                .collect(Collectors.toList()), FileCategoryDto::getId);
     }
 
     @Transactional
@@ -469,6 +508,7 @@ public class CustomerParametersService {
 
         FileCategory saved = fileCategoryRepository.save(fileCategory);
         log.info("Created new file category: {}", saved.getLabelEn());
+        referenceDataChanged();
         return convertFileCategoryToDto(saved);
     }
 
@@ -488,6 +528,7 @@ public class CustomerParametersService {
 
         FileCategory updated = fileCategoryRepository.save(fileCategory);
         log.info("Updated file category: {}", updated.getLabelEn());
+        referenceDataChanged();
         return convertFileCategoryToDto(updated);
     }
 
@@ -505,6 +546,14 @@ public class CustomerParametersService {
         fileCategory.setDeleted(true);
         fileCategoryRepository.save(fileCategory);
         log.info("Deleted file category: {}", fileCategory.getLabelEn());
+        referenceDataChanged();
+    }
+
+    /**
+     * Drop state derived from this tenant's reference data once the change is committed.
+     */
+    private void referenceDataChanged() {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(TenantContext.getCurrentSchemaName()));
     }
 
     // ==================== CONVERTERS ====================
@@ -0,0 +1,180 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.audit.annotation.AuditLog;
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentRequest;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerPayment;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerPaymentRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only customer payments.
+ * Payments are stored one row per payment so adding a payment never rewrites the customer row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerPaymentService {
+
+    /**
+     * Largest value of the NUMERIC(14, 2) amount column.
+     */
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("999999999999.99");
+
+    /**
+     * Length of the VARCHAR(10) currency column.
+     */
+    private static final int MAX_CURRENCY_LENGTH = 10;
+
+    private final CustomerPaymentRepository paymentRepository;
+    private final CustomerRepository customerRepository;
+    private final TenantSecurityService tenantSecurityService;
+
+    @AuditLog(action = "CUSTOMER_PAYMENT_ADDED", resourceType = "CUSTOMER", resourceIdParam = "customerId")
+    @Transactional
+    public CustomerPaymentDto addPayment(UUID customerId, CustomerPaymentRequest request) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+
+        CustomerPayment payment = CustomerPayment.builder()
+                .customerId(customerId)
+                .text(request.getText())
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .completed(Boolean.TRUE.equals(request.getCompleted()))
+                .data(request.getData() != null ? request.getData() : Map.of())
+                .createdBy(tenantSecurityService.getCurrentUserId())
+                .build();
+
+        CustomerPayment saved = paymentRepository.save(payment);
+        log.info("Added payment {} for customer {}", saved.getId(), customerId);
+        return toDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CustomerPaymentDto> getPayments(UUID customerId, Pageable pageable) {
+        return paymentRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(customerId, pageable)
+                .map(this::toDto);
+    }
+
+    /**
+     * Append payments given in the legacy JSONB item shape ({text, completed, ...}).
+     * Used when a customer is created with initial payments.
+     */
+    @Transactional
+    public void appendLegacyPayments(UUID customerId, List<Map<String, Object>> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        UUID createdBy = tenantSecurityService.getCurrentUserId();
+        List<CustomerPayment> payments = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            Object text = item.get("text");
+            payments.add(CustomerPayment.builder()
+                    .customerId(customerId)
+                    .text(text != null ? text.toString() : null)
+                    .amount(toAmount(item.get("amount")))
+                    .currency(toCurrency(item.get("currency")))
+                    .completed(Boolean.TRUE.equals(item.get("completed")))
+                    .data(item)
+                    .createdBy(createdBy)
+                    .build());
+        }
+        paymentRepository.saveAll(payments);
+    }
+
+    /**
+     * Payment counts for the given customers, batched into a few GROUP BY queries.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> countByCustomerIds(Collection<UUID> customerIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (List<UUID> chunk : CustomerNoteService.chunk(customerIds)) {
+            for (Object[] row : paymentRepository.countByCustomerIds(chunk)) {
+                counts.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * The newest {@code limit} payments per customer, newest first.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<CustomerPaymentDto>> findLatestByCustomerIds(Collection<UUID> customerIds, int limit) {
+        Map<UUID, List<CustomerPaymentDto>> latest = new HashMap<>();
+        for (List<UUID> chunk : CustomerNoteService.chunk(customerIds)) {
+            for (CustomerPayment payment : paymentRepository.findLatestByCustomerIds(chunk, limit)) {
+                latest.computeIfAbsent(payment.getCustomerId(), id -> new ArrayList<>()).add(toDto(payment));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Parse a legacy amount for the NUMERIC(14, 2) column; malformed or out-of-range values are
+     * dropped (the original stays in data), matching the V20 backfill.
+     */
+    static BigDecimal toAmount(Object value) {
+        if (value == null || value.toString().isBlank()) {
+            return null;
+        }
+        try {
+            BigDecimal amount = new BigDecimal(value.toString().trim());
+            // Range check before rounding so a huge exponent is never expanded
+            if (amount.abs().compareTo(MAX_AMOUNT) > 0) {
+                return null;
+            }
+            amount = amount.setScale(2, RoundingMode.HALF_UP);
+            return amount.abs().compareTo(MAX_AMOUNT) <= 0 ? amount : null;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A legacy currency cut to the VARCHAR(10) column, matching {@code LEFT(currency, 10)} in the
+     * V20 backfill.
+     */
+    static String toCurrency(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String currency = value.toString();
+        return currency.codePointCount(0, currency.length()) > MAX_CURRENCY_LENGTH
+                ? currency.substring(0, currency.offsetByCodePoints(0, MAX_CURRENCY_LENGTH))
+                : currency;
+    }
+
+    private CustomerPaymentDto toDto(CustomerPayment payment) {
+        return CustomerPaymentDto.builder()
+                .id(payment.getId())
+                .customerId(payment.getCustomerId())
+                .text(payment.getText())
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .completed(payment.getCompleted())
+                .data(payment.getData())
+                .createdBy(payment.getCreatedBy())
+                .createdAt(payment.getCreatedAt())
+                .build();
+    }
+}
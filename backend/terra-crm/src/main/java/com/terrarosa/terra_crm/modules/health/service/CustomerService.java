@@ -1,16 +1,34 @@
 package com.terrarosa.terra_crm.modules.health.service;
 
+import com.terrarosa.terra_crm.core.audit.annotation.AuditLog;
 import com.terrarosa.terra_crm.modules.health.dto.CustomerCreateRequest;
 import com.terrarosa.terra_crm.modules.health.dto.CustomerDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentDto;
 import com.terrarosa.terra_crm.modules.health.entity.Customer;
 import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchSubject;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchType;
 import com.terrarosa.terra_crm.modules.ads.repository.LeadRepository;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.CustomerRollupKey;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,19 +39,38 @@ public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final LeadRepository leadRepository;
+    private final CustomerNoteService customerNoteService;
+    private final CustomerPaymentService customerPaymentService;
+    private final ObjectMapper objectMapper;
+    private final DuplicateMatchingService duplicateMatchingService;
+    private final DashboardRollupService dashboardRollupService;
+    private final Validator validator;
+
+    /**
+     * Number of newest notes/payments embedded in CustomerDto.
+     */
+    private static final int LATEST_ITEMS_LIMIT = 3;
+
+    /**
+     * Fields that feed the duplicate matching keys; patching any of them re-runs matching.
+     */
+    private static final Set<String> MATCH_FIELDS = Set.of("name", "phone", "email", "country", "leadId");
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {
+    };
 
     @Transactional(readOnly = true)
     public List<CustomerDto> getAllCustomers() {
-        return customerRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(customerRepository.findAll());
     }
 
     @Transactional(readOnly = true)
     public CustomerDto getCustomerById(UUID id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
-        return convertToDto(customer);
+        return convertToDtos(List.of(customer)).get(0);
     }
 
     @Transactional
@@ -56,9 +93,7 @@ public class CustomerService {
                         : java.time.LocalDateTime.now())
                 .services(request.getServices())
                 .tags(request.getTags())
-                .notes(request.getNotes())
                 .files(request.getFiles())
-                .payments(request.getPayments())
                 .build();
 
         if (request.getLeadId() != null) {
@@ -66,13 +101,19 @@ public class CustomerService {
         }
 
         Customer savedCustomer = customerRepository.save(customer);
-        return convertToDto(savedCustomer);
+        recordMatches(savedCustomer);
+        dashboardRollupService.changed(null, CustomerRollupKey.of(savedCustomer));
+        customerNoteService.appendLegacyNotes(savedCustomer.getId(), request.getNotes());
+        customerPaymentService.appendLegacyPayments(savedCustomer.getId(), request.getPayments());
+        return convertToDtos(List.of(savedCustomer)).get(0);
     }
 
+    @AuditLog(action = "CUSTOMER_UPDATED", resourceType = "CUSTOMER")
     @Transactional
     public CustomerDto updateCustomer(UUID id, CustomerCreateRequest request) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
+        CustomerRollupKey rollupKey = CustomerRollupKey.of(customer);
 
         customer.setName(request.getName());
         customer.setPhone(request.getPhone());
@@ -90,21 +131,170 @@ public class CustomerService {
         customer.setRegistrationDate(request.getRegistrationDate());
         customer.setServices(request.getServices());
         customer.setTags(request.getTags());
-        customer.setNotes(request.getNotes());
         customer.setFiles(request.getFiles());
-        customer.setPayments(request.getPayments());
+        // Notes and payments are append-only sub-resources and are not replaced by PUT
 
         if (request.getLeadId() != null) {
             leadRepository.findById(request.getLeadId()).ifPresent(customer::setLead);
         }
 
         Customer updatedCustomer = customerRepository.save(customer);
-        return convertToDto(updatedCustomer);
+        recordMatches(updatedCustomer);
+        dashboardRollupService.changed(rollupKey, CustomerRollupKey.of(updatedCustomer));
+        return convertToDtos(List.of(updatedCustomer)).get(0);
     }
 
+    /**
+     * Apply a JSON Merge Patch (RFC 7396) to a customer.
+     * Only the supplied fields are changed; a field set to null is cleared. Combined with
+     * the entity's dynamic update, the UPDATE statement contains only the modified columns.
+     *
+     * @param expectedVersion version from If-Match (or the patch's "version" field); when
+     *                        present and stale, the patch is rejected with a conflict
+     */
+    @AuditLog(action = "CUSTOMER_PATCHED", resourceType = "CUSTOMER")
+    @Transactional
+    public CustomerDto patchCustomer(UUID id, Map<String, Object> patch, Long expectedVersion) {
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
+
+        Long expected = expectedVersion;
+        if (expected == null && patch.get("version") != null) {
+            expected = convert("version", patch.get("version"), Long.class);
+        }
+        if (expected != null && !expected.equals(customer.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Customer.class, id);
+        }
+        CustomerRollupKey rollupKey = CustomerRollupKey.of(customer);
+
+        patch.forEach((field, value) -> applyPatchField(customer, field, value));
+
+        Customer updatedCustomer = customerRepository.saveAndFlush(customer);
+        if (patch.keySet().stream().anyMatch(MATCH_FIELDS::contains)) {
+            recordMatches(updatedCustomer);
+        }
+        dashboardRollupService.changed(rollupKey, CustomerRollupKey.of(updatedCustomer));
+        return convertToDtos(List.of(updatedCustomer)).get(0);
+    }
+
+    @AuditLog(action = "CUSTOMER_DELETED", resourceType = "CUSTOMER")
     @Transactional
     public void deleteCustomer(UUID id) {
-        customerRepository.deleteById(id);
+        customerRepository.findById(id).ifPresent(customer -> {
+            customerRepository.deleteById(id);
+            dashboardRollupService.changed(CustomerRollupKey.of(customer), null);
+        });
+    }
+
+    private void recordMatches(Customer customer) {
+        duplicateMatchingService.recordMatches(MatchSubject.of(MatchType.CUSTOMER, customer.getId(),
+                customer.getName(), customer.getPhone(), customer.getEmail(), customer.getCountry(),
+                customer.getLead() != null ? customer.getLead().getId() : null));
+    }
+
+    private void applyPatchField(Customer customer, String field, Object value) {
+        switch (field) {
+            case "name" -> customer.setName(requireText(field, value));
+            case "phone" -> customer.setPhone(requireText(field, value));
+            case "country" -> customer.setCountry(requireText(field, value));
+            case "status" -> customer.setStatus(requireText(field, value));
+            case "email" -> customer.setEmail(validEmail(convert(field, value, String.class)));
+            case "city" -> customer.setCity(convert(field, value, String.class));
+            case "job" -> customer.setJob(convert(field, value, String.class));
+            case "medicalHistory" -> customer.setMedicalHistory(convert(field, value, String.class));
+            case "operationType" -> customer.setOperationType(convert(field, value, String.class));
+            case "passportNumber" -> customer.setPassportNumber(convert(field, value, String.class));
+            case "source" -> customer.setSource(convert(field, value, String.class));
+            case "consultantId" -> customer.setConsultantId(convert(field, value, UUID.class));
+            case "registrationDate" -> customer.setRegistrationDate(convert(field, value, LocalDateTime.class));
+            case "categories" -> customer.setCategories(convert(field, value, STRING_LIST));
+            case "services" -> customer.setServices(convert(field, value, STRING_LIST));
+            case "tags" -> customer.setTags(convert(field, value, STRING_LIST));
+            case "files" -> customer.setFiles(convert(field, value, MAP_LIST));
+            case "notes", "payments", "noteCount", "paymentCount", "latestNotes", "latestPayments" ->
+                throw new IllegalArgumentException("Field '" + field
+                        + "' cannot be patched; use /customers/{id}/notes or /customers/{id}/payments");
+            case "leadId" -> {
+                UUID leadId = convert(field, value, UUID.class);
+                if (leadId == null) {
+                    customer.setLead(null);
+                } else {
+                    leadRepository.findById(leadId).ifPresent(customer::setLead);
+                }
+            }
+            case "version" -> {
+                // Handled as the optimistic lock precondition in patchCustomer
+            }
+            default -> throw new IllegalArgumentException("Unknown or read-only customer field: " + field);
+        }
+    }
+
+    private String requireText(String field, Object value) {
+        String text = convert(field, value, String.class);
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Field '" + field + "' cannot be empty");
+        }
+        return text;
+    }
+
+    /**
+     * Apply the same constraints as create/update to a patched email.
+     */
+    private String validEmail(String email) {
+        Set<ConstraintViolation<CustomerCreateRequest>> violations =
+                validator.validateValue(CustomerCreateRequest.class, "email", email);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return email;
+    }
+
+    private <T> T convert(String field, Object value, Class<T> type) {
+        try {
+            return value != null ? objectMapper.convertValue(value, type) : null;
+        } catch (JacksonException e) {
+            throw invalidValue(field, type.getSimpleName());
+        }
+    }
+
+    private <T> T convert(String field, Object value, TypeReference<T> type) {
+        try {
+            return value != null ? objectMapper.convertValue(value, type) : null;
+        } catch (JacksonException e) {
+            throw invalidValue(field, "list");
+        }
+    }
+
+    /**
+     * Jackson 3 reports conversion errors as JacksonException; surface them as a bad request.
+     */
+    private static IllegalArgumentException invalidValue(String field, String type) {
+        return new IllegalArgumentException("Field '" + field + "' must be a valid " + type);
+    }
+
+    /**
+     * Convert customers to DTOs, loading note/payment counts and latest items for all of
+     * them with a fixed number of queries instead of one per customer.
+     */
+    private List<CustomerDto> convertToDtos(Collection<Customer> customers) {
+        List<UUID> ids = customers.stream().map(Customer::getId).toList();
+        Map<UUID, Long> noteCounts = customerNoteService.countByCustomerIds(ids);
+        Map<UUID, Long> paymentCounts = customerPaymentService.countByCustomerIds(ids);
+        Map<UUID, List<CustomerNoteDto>> latestNotes = customerNoteService.findLatestByCustomerIds(ids,
+                LATEST_ITEMS_LIMIT);
+        Map<UUID, List<CustomerPaymentDto>> latestPayments = customerPaymentService.findLatestByCustomerIds(ids,
+                LATEST_ITEMS_LIMIT);
+
+        return customers.stream()
+                .map(customer -> {
+                    CustomerDto dto = convertToDto(customer);
+                    dto.setNoteCount(noteCounts.getOrDefault(customer.getId(), 0L));
+                    dto.setPaymentCount(paymentCounts.getOrDefault(customer.getId(), 0L));
+                    dto.setLatestNotes(latestNotes.getOrDefault(customer.getId(), List.of()));
+                    dto.setLatestPayments(latestPayments.getOrDefault(customer.getId(), List.of()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
     }
 
     private CustomerDto convertToDto(Customer customer) {
@@ -127,11 +317,10 @@ public class CustomerService {
                 .registrationDate(customer.getRegistrationDate())
                 .services(customer.getServices())
                 .tags(customer.getTags())
-                .notes(customer.getNotes())
                 .files(customer.getFiles())
-                .payments(customer.getPayments())
                 .createdAt(customer.getCreatedAt())
                 .updatedAt(customer.getUpdatedAt())
+                .version(customer.getVersion())
                 .registrationDate(customer.getCreatedAt()) // Use createdAt as registrationDate
                 .build();
     }
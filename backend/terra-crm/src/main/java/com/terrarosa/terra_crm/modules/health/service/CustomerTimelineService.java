@@ -0,0 +1,262 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.audit.entity.AuditLog;
+import com.terrarosa.terra_crm.core.audit.repository.AuditLogRepository;
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.auth.entity.User;
+import com.terrarosa.terra_crm.modules.health.dto.TimelineEventDto;
+import com.terrarosa.terra_crm.modules.health.dto.TimelinePageDto;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerFile;
+import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerFileRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import com.terrarosa.terra_crm.modules.health.repository.ReminderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Customer activity timeline: reminders (at their due time), file uploads, trashed files and
+ * audit events of a customer in one newest-first feed.
+ *
+ * Each source is read with a keyset query returning at most page-size rows already in timeline
+ * order, and the sources are k-way merged through a heap holding the head of each one, so a page
+ * costs one short index range scan per source however long the customer's history is. Events are
+ * ordered by (time desc, source, id desc); the cursor is the position of the last event of a page,
+ * from which every source derives its own keyset bound.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerTimelineService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final String RELATION_TYPE = "customer";
+
+    /**
+     * Customer-scoped actions are audited with this resource type and the customer id
+     * (see the {@code @AuditLog} annotations of CustomerService, CustomerNoteService and CustomerPaymentService).
+     */
+    private static final String AUDIT_RESOURCE_TYPE = "CUSTOMER";
+
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    /**
+     * Timeline sources; at equal times events are ordered by source in declaration order.
+     */
+    enum Source {
+        REMINDER, FILE_UPLOADED, FILE_TRASHED, AUDIT
+    }
+
+    /**
+     * Position of an event in the timeline order.
+     */
+    record Position(LocalDateTime time, Source source, UUID id) {
+
+        static final Position START = new Position(END_OF_TIME, Source.REMINDER, MAX_ID);
+
+        /**
+         * Keyset bound of a source: its events strictly before (time, id), in (time, id) order,
+         * come after this position. At the same time, a later source's events all come after it
+         * and an earlier source's events all came before it.
+         */
+        Position boundFor(Source other) {
+            int order = other.compareTo(source);
+            return new Position(time, other, order == 0 ? id : order > 0 ? MAX_ID : MIN_ID);
+        }
+
+        String encode() {
+            String raw = time + "|" + source.name() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid timeline cursor");
+                }
+                return new Position(LocalDateTime.parse(parts[0]), Source.valueOf(parts[1]), UUID.fromString(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid timeline cursor");
+            }
+        }
+    }
+
+    record Event(Position position, TimelineEventDto dto) {
+    }
+
+    record Merged(List<Event> events, boolean more) {
+    }
+
+    private static final Comparator<Event> TIMELINE_ORDER = Comparator
+            .comparing((Event event) -> event.position().time(), Comparator.reverseOrder())
+            .thenComparing(event -> event.position().source());
+
+    private final CustomerRepository customerRepository;
+    private final ReminderRepository reminderRepository;
+    private final CustomerFileRepository customerFileRepository;
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * A page of the timeline of a customer, starting after {@code cursor} (from the start if null).
+     */
+    @Transactional(readOnly = true)
+    public TimelinePageDto getTimeline(UUID customerId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+        Position after = cursor != null && !cursor.isBlank() ? Position.decode(cursor) : Position.START;
+
+        Map<Source, List<Event>> sources = new EnumMap<>(Source.class);
+        Position bound = after.boundFor(Source.REMINDER);
+        sources.put(Source.REMINDER, reminderRepository.findTimelinePage(RELATION_TYPE, customerId,
+                        bound.time().toLocalDate(), bound.time().toLocalTime(), bound.id(), size).stream()
+                .map(CustomerTimelineService::reminderEvent)
+                .toList());
+        bound = after.boundFor(Source.FILE_UPLOADED);
+        sources.put(Source.FILE_UPLOADED, customerFileRepository.findUploadedTimelinePage(customerId,
+                        bound.time(), bound.id(), size).stream()
+                .map(CustomerTimelineService::uploadEvent)
+                .toList());
+        bound = after.boundFor(Source.FILE_TRASHED);
+        sources.put(Source.FILE_TRASHED, customerFileRepository.findTrashedTimelinePage(customerId,
+                        bound.time(), bound.id(), size).stream()
+                .map(CustomerTimelineService::trashEvent)
+                .toList());
+        UUID tenantId = currentTenantId();
+        if (tenantId != null) {
+            bound = after.boundFor(Source.AUDIT);
+            sources.put(Source.AUDIT, auditLogRepository.findResourceTimelinePage(AUDIT_RESOURCE_TYPE, customerId,
+                            tenantId, bound.time(), bound.id(), size).stream()
+                    .map(CustomerTimelineService::auditEvent)
+                    .toList());
+        }
+
+        Merged merged = merge(sources, size);
+        List<Event> events = merged.events();
+        return TimelinePageDto.builder()
+                .items(events.stream().map(Event::dto).toList())
+                .nextCursor(merged.more() ? events.get(events.size() - 1).position().encode() : null)
+                .build();
+    }
+
+    /**
+     * K-way merge of per-source lists that are each in timeline order, taking up to {@code limit}
+     * events. There may be more if a source has events left, or returned a full page (it was cut
+     * off by the query limit).
+     */
+    static Merged merge(Map<Source, List<Event>> sources, int limit) {
+        record Head(Event event, Iterator<Event> rest) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::event, TIMELINE_ORDER));
+        for (List<Event> events : sources.values()) {
+            Iterator<Event> iterator = events.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+
+        List<Event> page = new ArrayList<>(limit);
+        while (page.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            page.add(head.event());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        boolean more = page.size() == limit
+                && (!heads.isEmpty() || sources.values().stream().anyMatch(events -> events.size() >= limit));
+        return new Merged(page, more);
+    }
+
+    private static Event reminderEvent(Reminder reminder) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        putIfPresent(details, "note", reminder.getNote());
+        putIfPresent(details, "categoryId", reminder.getCategoryId());
+        putIfPresent(details, "statusId", reminder.getStatusId());
+        putIfPresent(details, "completed", reminder.getIsCompleted());
+        putIfPresent(details, "recurrenceRule", reminder.getRecurrenceRule());
+        LocalDateTime due = LocalDateTime.of(reminder.getReminderDate(), reminder.getReminderTime());
+        return event(Source.REMINDER, due, reminder.getId(), reminder.getTitle(), reminder.getCreatedBy(), details);
+    }
+
+    private static Event uploadEvent(CustomerFile file) {
+        return event(Source.FILE_UPLOADED, file.getCreatedAt(), file.getId(), file.getDisplayName(),
+                userId(file.getUploadedBy()), fileDetails(file));
+    }
+
+    private static Event trashEvent(CustomerFile file) {
+        return event(Source.FILE_TRASHED, file.getDeletedAt(), file.getId(), file.getDisplayName(),
+                userId(file.getDeletedBy()), fileDetails(file));
+    }
+
+    private static Event auditEvent(AuditLog auditLog) {
+        return event(Source.AUDIT, auditLog.getCreatedAt(), auditLog.getId(), auditLog.getAction(),
+                auditLog.getUserId(), auditLog.getMetadata());
+    }
+
+    private static Map<String, Object> fileDetails(CustomerFile file) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        putIfPresent(details, "categoryId", file.getCategory() != null ? file.getCategory().getId() : null);
+        putIfPresent(details, "originalFilename", file.getOriginalFilename());
+        putIfPresent(details, "mimeType", file.getMimeType());
+        putIfPresent(details, "fileSize", file.getFileSize());
+        return details;
+    }
+
+    private static Event event(Source source, LocalDateTime time, UUID id, String title, UUID actorId,
+                               Map<String, Object> details) {
+        return new Event(new Position(time, source, id), TimelineEventDto.builder()
+                .type(source.name())
+                .occurredAt(time)
+                .sourceId(id)
+                .title(title)
+                .actorId(actorId)
+                .details(details)
+                .build());
+    }
+
+    private static UUID userId(User user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private static void putIfPresent(Map<String, Object> details, String key, Object value) {
+        if (value != null) {
+            details.put(key, value);
+        }
+    }
+
+    private static UUID currentTenantId() {
+        String tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null || tenantId.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(tenantId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
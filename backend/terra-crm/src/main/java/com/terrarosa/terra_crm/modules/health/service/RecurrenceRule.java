@@ -0,0 +1,216 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Subset of an iCalendar RRULE (RFC 5545) used for recurring reminders:
+ * {@code FREQ=DAILY|WEEKLY|MONTHLY|YEARLY}, optional {@code INTERVAL}, and at most one of
+ * {@code COUNT} / {@code UNTIL}. Example: {@code FREQ=MONTHLY;INTERVAL=3;COUNT=8}.
+ *
+ * Occurrence {@code k} is {@code dtstart + k * INTERVAL} units, so the first occurrence inside a
+ * window is computed arithmetically and expansion costs O(occurrences in the window), never
+ * O(all occurrences since dtstart). Monthly/yearly steps are clamped to the end of short months.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+
+    static final int MAX_INTERVAL = 1000;
+    static final int MAX_COUNT = 1000;
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Parse an RRULE value (with or without the "RRULE:" prefix).
+     *
+     * @throws IllegalArgumentException if the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule cannot be empty");
+        }
+        String value = rule.trim();
+        if (value.toUpperCase(Locale.ROOT).startsWith("RRULE:")) {
+            value = value.substring("RRULE:".length());
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+
+        for (String part : value.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String partValue = part.substring(eq + 1).trim();
+            switch (name) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(partValue.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unsupported recurrence frequency: " + partValue);
+                    }
+                }
+                case "INTERVAL" -> interval = parseBounded(name, partValue, MAX_INTERVAL);
+                case "COUNT" -> count = parseBounded(name, partValue, MAX_COUNT);
+                case "UNTIL" -> until = parseUntil(partValue);
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule must define FREQ");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("Recurrence rule cannot define both COUNT and UNTIL");
+        }
+        return new RecurrenceRule(frequency, interval, count, until);
+    }
+
+    /**
+     * Date of the last occurrence for a series starting at {@code dtstart}, or null if unbounded.
+     */
+    public LocalDate lastOccurrence(LocalDate dtstart) {
+        if (count != null) {
+            return occurrence(dtstart, count - 1L);
+        }
+        return until;
+    }
+
+    /**
+     * Occurrence dates of a series starting at {@code dtstart} that fall within [from, to].
+     */
+    public List<LocalDate> occurrencesBetween(LocalDate dtstart, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (to.isBefore(from) || to.isBefore(dtstart)) {
+            return dates;
+        }
+        LocalDate last = lastOccurrence(dtstart);
+        for (long k = firstIndexNotBefore(dtstart, from);; k++) {
+            if (count != null && k >= count) {
+                break;
+            }
+            LocalDate date = occurrence(dtstart, k);
+            if (date.isAfter(to) || (last != null && date.isAfter(last))) {
+                break;
+            }
+            if (!date.isBefore(from)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Whether {@code date} is an occurrence of a series starting at {@code dtstart}.
+     */
+    public boolean isOccurrence(LocalDate dtstart, LocalDate date) {
+        return occurrencesBetween(dtstart, date, date).contains(date);
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Canonical RRULE text, e.g. {@code FREQ=MONTHLY;INTERVAL=3;COUNT=8}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            sb.append(";INTERVAL=").append(interval);
+        }
+        if (count != null) {
+            sb.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            sb.append(";UNTIL=").append(until.format(BASIC_DATE));
+        }
+        return sb.toString();
+    }
+
+    private LocalDate occurrence(LocalDate dtstart, long k) {
+        long steps = k * interval;
+        return switch (frequency) {
+            case DAILY -> dtstart.plusDays(steps);
+            case WEEKLY -> dtstart.plusWeeks(steps);
+            case MONTHLY -> dtstart.plusMonths(steps);
+            case YEARLY -> dtstart.plusYears(steps);
+        };
+    }
+
+    /**
+     * Smallest occurrence index whose date could be on or after {@code from}.
+     * Month/year steps may land one index early because of end-of-month clamping; callers skip it.
+     */
+    private long firstIndexNotBefore(LocalDate dtstart, LocalDate from) {
+        if (!from.isAfter(dtstart)) {
+            return 0;
+        }
+        return switch (frequency) {
+            case DAILY -> ceilDiv(ChronoUnit.DAYS.between(dtstart, from), interval);
+            case WEEKLY -> ceilDiv(ChronoUnit.DAYS.between(dtstart, from), 7L * interval);
+            case MONTHLY -> Math.max(0, ChronoUnit.MONTHS.between(dtstart, from) / interval - 1);
+            case YEARLY -> Math.max(0, ChronoUnit.YEARS.between(dtstart, from) / interval - 1);
+        };
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static int parseBounded(String name, String value, int max) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1 || parsed > max) {
+                throw new IllegalArgumentException(name + " must be between 1 and " + max);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static LocalDate parseUntil(String value) {
+        try {
+            // Accept 20250131, 20250131T235959Z and 2025-01-31; only the date part is used
+            if (value.length() >= 8 && Character.isDigit(value.charAt(4))) {
+                return LocalDate.parse(value.substring(0, 8), BASIC_DATE);
+            }
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid UNTIL: " + value);
+        }
+    }
+}
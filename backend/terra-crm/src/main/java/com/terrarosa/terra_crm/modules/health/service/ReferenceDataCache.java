@@ -0,0 +1,154 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tenant-keyed in-memory cache of the reference lists (customer parameters and reminder
+ * settings) and their by-id maps, so reads do not hit the tenant schema in steady state.
+ *
+ * Entries are tagged with the tenant's reference data version ({@link ReferenceDataVersionService})
+ * and dropped when it moves on, which also covers changes made by other instances or outside
+ * the settings services. Local changes drop the tenant's entries once committed. A loader that
+ * raced with a change only fills the entry it started with, which is no longer reachable then.
+ *
+ * Bounded to {@code max-tenants} tenants (least recently used are evicted); lists longer than
+ * {@code max-list-size} are served but not cached. Loaders run in a transaction (joining the
+ * caller's, if any), so callers need none for a hit. Loaders only read: system defaults are
+ * seeded when a schema is provisioned or migrated, not here. Hit and miss counts per list are
+ * published as {@code reference_data.cache.requests}.
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    /**
+     * The cached reference lists.
+     */
+    public enum ReferenceList {
+        CATEGORIES, SERVICES, STATUSES, SOURCES, TAGS, FILE_CATEGORIES,
+        REMINDER_CATEGORIES, REMINDER_SUBCATEGORIES, REMINDER_STATUSES
+    }
+
+    /**
+     * An immutable reference list with its by-id index. The same instances are handed to every
+     * reader of the tenant, so the list DTOs are immutable too.
+     */
+    public record CachedList<T>(List<T> items, Map<UUID, T> byId) {
+
+        static <T> CachedList<T> of(List<T> items, Function<T, UUID> idOf) {
+            Map<UUID, T> byId = new LinkedHashMap<>();
+            for (T item : items) {
+                byId.putIfAbsent(idOf.apply(item), item);
+            }
+            return new CachedList<>(List.copyOf(items), Collections.unmodifiableMap(byId));
+        }
+    }
+
+    private record TenantEntry(long version, Map<ReferenceList, CachedList<?>> lists) {
+    }
+
+    private final ReferenceDataVersionService versionService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, TenantEntry> tenants;
+    private final Map<ReferenceList, Counter> hits = new EnumMap<>(ReferenceList.class);
+    private final Map<ReferenceList, Counter> misses = new EnumMap<>(ReferenceList.class);
+    private final int maxListSize;
+
+    public ReferenceDataCache(ReferenceDataVersionService versionService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.reference-data.cache.max-tenants:1000}") int maxTenants,
+                              @Value("${app.reference-data.cache.max-list-size:5000}") int maxListSize) {
+        this.versionService = versionService;
+        this.maxListSize = maxListSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tenants = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TenantEntry> eldest) {
+                return size() > maxTenants;
+            }
+        });
+        for (ReferenceList list : ReferenceList.values()) {
+            String name = list.name().toLowerCase(Locale.ROOT);
+            hits.put(list, Counter.builder("reference_data.cache.requests")
+                    .tag("list", name).tag("result", "hit").register(meterRegistry));
+            misses.put(list, Counter.builder("reference_data.cache.requests")
+                    .tag("list", name).tag("result", "miss").register(meterRegistry));
+        }
+        Gauge.builder("reference_data.cache.tenants", tenants, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * A reference list of the current tenant, loaded with {@code loader} on a miss.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedList<T> get(ReferenceList list, Supplier<List<T>> loader, Function<T, UUID> idOf) {
+        String schemaName = TenantContext.getCurrentSchemaName();
+        if (schemaName == null || "public".equals(schemaName)) {
+            return load(loader, idOf);
+        }
+        TenantEntry entry = entry(schemaName, versionService.currentVersion(schemaName));
+        CachedList<T> cached = (CachedList<T>) entry.lists().get(list);
+        if (cached != null) {
+            hits.get(list).increment();
+            return cached;
+        }
+        misses.get(list).increment();
+        CachedList<T> loaded = load(loader, idOf);
+        if (loaded.items().size() <= maxListSize) {
+            entry.lists().put(list, loaded);
+        } else {
+            log.debug("Not caching {} of {}: {} entries", list, schemaName, loaded.items().size());
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop all cached lists of a tenant.
+     */
+    public void evict(String schemaName) {
+        if (schemaName != null) {
+            tenants.remove(schemaName);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        evict(event.schemaName());
+    }
+
+    private <T> CachedList<T> load(Supplier<List<T>> loader, Function<T, UUID> idOf) {
+        return CachedList.of(transactionTemplate.execute(status -> loader.get()), idOf);
+    }
+
+    private TenantEntry entry(String schemaName, long version) {
+        synchronized (tenants) {
+            TenantEntry entry = tenants.get(schemaName);
+            if (entry == null || entry.version() != version) {
+                entry = new TenantEntry(version, new ConcurrentHashMap<>());
+                tenants.put(schemaName, entry);
+            }
+            return entry;
+        }
+    }
+}
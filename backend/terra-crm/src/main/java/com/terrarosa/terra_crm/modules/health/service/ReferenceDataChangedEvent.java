@@ -0,0 +1,8 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+/**
+ * Published by CustomerParametersService and ReminderSettingsService when they change reference
+ * data of a tenant, so state derived from it is dropped once the change is committed.
+ */
+public record ReferenceDataChangedEvent(String schemaName) {
+}
@@ -0,0 +1,54 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.health.dto.ReferenceDataDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * All reference lists of a tenant (customer parameters, file categories and reminder settings)
+ * in one round trip, tagged with the reference data version the client revalidates its copy
+ * with (see {@link ReferenceDataVersionService}). The lists come from {@link ReferenceDataCache}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataService {
+
+    private final CustomerParametersService parametersService;
+    private final ReminderSettingsService reminderSettingsService;
+    private final ReferenceDataVersionService versionService;
+
+    /**
+     * Current reference data version of the tenant, usually without database access.
+     */
+    public long currentVersion() {
+        return versionService.currentVersion(TenantContext.getCurrentSchemaName());
+    }
+
+    /**
+     * @param customerParameters include customer parameters and file categories
+     * @param reminderSettings   include reminder categories, subcategories and statuses
+     */
+    @Transactional
+    public ReferenceDataDto getReferenceData(boolean customerParameters, boolean reminderSettings) {
+        // Version first: a concurrent change can only make the lists newer than the version.
+        // Loading it also refreshes the version the cached lists are checked against.
+        ReferenceDataDto.ReferenceDataDtoBuilder builder = ReferenceDataDto.builder()
+                .version(versionService.loadVersion(TenantContext.getCurrentSchemaName()));
+        if (customerParameters) {
+            builder.categories(parametersService.getAllCategories())
+                    .services(parametersService.getAllServices())
+                    .statuses(parametersService.getAllStatuses())
+                    .sources(parametersService.getAllSources())
+                    .tags(parametersService.getAllTags())
+                    .fileCategories(parametersService.getAllFileCategories());
+        }
+        if (reminderSettings) {
+            builder.reminderCategories(reminderSettingsService.getAllCategories())
+                    .reminderSubcategories(reminderSettingsService.getAllSubcategories())
+                    .reminderStatuses(reminderSettingsService.getAllStatuses());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant version of the reference data.
+ *
+ * The version is a counter in the tenant schema bumped by statement triggers on every reference
+ * table, so any write path changes it. It is cached per schema so that checking whether a
+ * client's copy is current needs no database access: local changes drop the cached value once
+ * committed, and it is re-read after {@code version-ttl} to pick up changes made elsewhere.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataVersionService {
+
+    private static final String VERSION_SQL = "SELECT version FROM %s.reference_data_version WHERE id = 1";
+
+    private record CachedVersion(long version, long loadedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+
+    @Value("${app.reference-data.version-ttl:PT30S}")
+    private Duration versionTtl;
+
+    private final Map<String, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Current version of a tenant's reference data, from the cache while it is fresh.
+     */
+    public long currentVersion(String schemaName) {
+        CachedVersion cached = versions.get(schemaName);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < versionTtl.toNanos()) {
+            return cached.version();
+        }
+        return loadVersion(schemaName);
+    }
+
+    /**
+     * Read the version from the tenant schema and cache it. Within a transaction that reads the
+     * reference data, call this before reading the lists: a change committed in between then
+     * yields a newer version than the one returned, never an older one.
+     */
+    public long loadVersion(String schemaName) {
+        Long version = jdbcTemplate.queryForObject(
+                String.format(VERSION_SQL, tenantService.quotedSchema(schemaName)), Long.class);
+        long value = version != null ? version : 0L;
+        versions.put(schemaName, new CachedVersion(value, System.nanoTime()));
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        versions.remove(event.schemaName());
+    }
+}
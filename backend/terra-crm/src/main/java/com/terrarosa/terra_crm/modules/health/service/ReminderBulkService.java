@@ -0,0 +1,318 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.audit.service.AuditLogService;
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.CompletionRollupKey;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.RollupDelta;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderBulkRequest;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderBulkResultDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderStatusDto;
+import com.terrarosa.terra_crm.modules.health.scheduler.ReminderChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk reminder operations (complete, reopen, reschedule, change status, delete).
+ *
+ * Every operation is a single set-based {@code UPDATE ... RETURNING} against the tenant's
+ * reminders table instead of loading and saving each entity (deleting series adds one more for
+ * their edited occurrences), followed by one audit record for the whole batch. The returned
+ * rows are published as {@link ReminderChangedEvent}s so the dispatcher stays in sync exactly
+ * as with single-reminder edits, and their completion state before and after the update feeds
+ * the dashboard rollups.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderBulkService {
+
+    enum BulkAction {
+        COMPLETE, REOPEN, RESCHEDULE, CHANGE_STATUS, DELETE
+    }
+
+    private static final String RESOURCE_TYPE = "REMINDER";
+
+    private static final String RETURNING = " RETURNING id, title, reminder_date, reminder_time, relation_type,"
+            + " relation_id, is_completed, deleted, recurrence_rule, series_id, occurrence_date, category_id,"
+            + " completed_at";
+
+    /**
+     * Selected rows with their completion state before the update (returned as was_*).
+     */
+    private static final String TARGET = "WITH target AS (SELECT id AS target_id, is_completed AS was_completed,"
+            + " completed_at AS was_completed_at FROM %s WHERE deleted = FALSE";
+
+    /**
+     * Shifted due timestamp; the offsets are bound as (days, minutes).
+     */
+    private static final String SHIFTED =
+            "(reminder_date + reminder_time + make_interval(days => ?::int, mins => ?::int))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantService tenantService;
+    private final ReminderSettingsService reminderSettingsService;
+    private final TenantSecurityService tenantSecurityService;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DashboardRollupService dashboardRollupService;
+
+    @Transactional
+    public ReminderBulkResultDto complete(ReminderBulkRequest request) {
+        UUID completedStatusId = reminderSettingsService.findStatusByValue("completed")
+                .map(ReminderStatusDto::getId).orElse(null);
+        return execute(BulkAction.COMPLETE, request,
+                "is_completed = TRUE, completed_at = COALESCE(completed_at, CURRENT_TIMESTAMP),"
+                        + " status_id = COALESCE(?::uuid, status_id)",
+                List.of(nullable(completedStatusId)),
+                "COALESCE(is_completed, FALSE) = FALSE");
+    }
+
+    @Transactional
+    public ReminderBulkResultDto reopen(ReminderBulkRequest request) {
+        UUID pendingStatusId = reminderSettingsService.findStatusByValue("pending")
+                .map(ReminderStatusDto::getId).orElse(null);
+        return execute(BulkAction.REOPEN, request,
+                "is_completed = FALSE, completed_at = NULL, status_id = COALESCE(?::uuid, status_id)",
+                List.of(nullable(pendingStatusId)),
+                "is_completed = TRUE");
+    }
+
+    /**
+     * Shift the selected reminders by {@code offsetDays} and/or {@code offsetMinutes}.
+     * Recurring series are skipped: moving a series start would orphan its edited occurrences.
+     */
+    @Transactional
+    public ReminderBulkResultDto reschedule(ReminderBulkRequest request) {
+        int days = request.getOffsetDays() != null ? request.getOffsetDays() : 0;
+        int minutes = request.getOffsetMinutes() != null ? request.getOffsetMinutes() : 0;
+        if (days == 0 && minutes == 0) {
+            throw new IllegalArgumentException("offsetDays or offsetMinutes is required");
+        }
+        if (Math.abs(days) > 3660 || Math.abs(minutes) > 5_270_400) {
+            throw new IllegalArgumentException("Offset cannot exceed 10 years");
+        }
+        return execute(BulkAction.RESCHEDULE, request,
+                "reminder_date = " + SHIFTED + "::date, reminder_time = " + SHIFTED + "::time",
+                List.of(days, minutes, days, minutes),
+                "recurrence_rule IS NULL");
+    }
+
+    @Transactional
+    public ReminderBulkResultDto changeStatus(ReminderBulkRequest request) {
+        if (request.getTargetStatusId() == null) {
+            throw new IllegalArgumentException("targetStatusId is required");
+        }
+        ReminderStatusDto status = reminderSettingsService.statuses().byId().get(request.getTargetStatusId());
+        if (status == null) {
+            throw new ResourceNotFoundException("Reminder status not found");
+        }
+        boolean completed = Boolean.TRUE.equals(status.getIsCompleted());
+        return execute(BulkAction.CHANGE_STATUS, request,
+                "status_id = ?, is_completed = ?,"
+                        + " completed_at = CASE WHEN ? THEN COALESCE(completed_at, CURRENT_TIMESTAMP) END",
+                List.of(status.getId(), completed, completed),
+                "status_id <> ?", status.getId());
+    }
+
+    /**
+     * Soft-delete the selected reminders; edited occurrences of deleted series go with them.
+     */
+    @Transactional
+    public ReminderBulkResultDto delete(ReminderBulkRequest request) {
+        return execute(BulkAction.DELETE, request,
+                "deleted = TRUE, deleted_at = CURRENT_TIMESTAMP, deleted_by = ?::uuid",
+                List.of(nullable(tenantSecurityService.getCurrentUserId())),
+                null);
+    }
+
+    private ReminderBulkResultDto execute(BulkAction action, ReminderBulkRequest request, String assignments,
+                                          List<Object> assignmentArgs, String guard, Object... guardArgs) {
+        String schemaName = TenantContext.getCurrentSchemaName();
+        String table = tenantService.quotedSchema(schemaName) + ".reminders";
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(String.format(TARGET, table));
+        appendSelection(sql, args, request);
+        if (guard != null) {
+            // e.g. rows already in the target state, so they do not count as affected
+            sql.append(" AND ").append(guard);
+            args.addAll(List.of(guardArgs));
+        }
+        sql.append(" FOR UPDATE) UPDATE ").append(table)
+                .append(" SET ").append(assignments).append(", updated_at = CURRENT_TIMESTAMP, updated_by = ?::uuid")
+                .append(" FROM target WHERE id = target_id")
+                .append(RETURNING).append(", was_completed, was_completed_at");
+        args.addAll(assignmentArgs);
+        args.add(nullable(tenantSecurityService.getCurrentUserId()));
+
+        List<ChangedRow> changed = jdbcTemplate.query(sql.toString(), rowMapper(schemaName), args.toArray());
+
+        if (action == BulkAction.DELETE) {
+            List<UUID> seriesIds = changed.stream()
+                    .map(ChangedRow::event)
+                    .filter(event -> event.recurrenceRule() != null)
+                    .map(ReminderChangedEvent::reminderId)
+                    .toList();
+            if (!seriesIds.isEmpty()) {
+                // Deleting leaves the completion state as it was
+                changed = new ArrayList<>(changed);
+                changed.addAll(jdbcTemplate.query(
+                        "UPDATE " + table + " SET deleted = TRUE, deleted_at = CURRENT_TIMESTAMP,"
+                                + " deleted_by = ?::uuid, updated_at = CURRENT_TIMESTAMP"
+                                + " WHERE deleted = FALSE AND series_id = ANY(?)" + RETURNING
+                                + ", is_completed AS was_completed, completed_at AS was_completed_at",
+                        rowMapper(schemaName),
+                        nullable(tenantSecurityService.getCurrentUserId()),
+                        new SqlArrayValue("uuid", seriesIds.toArray())));
+            }
+        }
+
+        RollupDelta rollupDelta = new RollupDelta();
+        changed.forEach(row -> rollupDelta.change(row.before(), row.after()));
+        dashboardRollupService.apply(schemaName, rollupDelta);
+        changed.forEach(row -> eventPublisher.publishEvent(row.event()));
+        audit(action, request, changed.size());
+        log.info("Bulk reminder {} affected {} reminders in schema {}", action, changed.size(), schemaName);
+
+        return ReminderBulkResultDto.builder()
+                .action(action.name())
+                .affected(changed.size())
+                .build();
+    }
+
+    /**
+     * Append the id and filter predicates. Ids are bound as one array parameter ({@code = ANY(?)}),
+     * so the statement text and plan do not depend on the selection size.
+     */
+    static void appendSelection(StringBuilder sql, List<Object> args, ReminderBulkRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byDate = request.getStartDate() != null || request.getEndDate() != null;
+        if (!byIds && !byDate) {
+            throw new IllegalArgumentException("Select reminders by ids or by a date range");
+        }
+        if (request.getStartDate() != null && request.getEndDate() != null
+                && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        if (byIds) {
+            sql.append(" AND id = ANY(?)");
+            args.add(new SqlArrayValue("uuid", new LinkedHashSet<>(request.getIds()).toArray()));
+        }
+        if (request.getStartDate() != null) {
+            sql.append(" AND reminder_date >= ?");
+            args.add(Date.valueOf(request.getStartDate()));
+        }
+        if (request.getEndDate() != null) {
+            sql.append(" AND reminder_date <= ?");
+            args.add(Date.valueOf(request.getEndDate()));
+        }
+        if (request.getStatusId() != null) {
+            sql.append(" AND status_id = ?");
+            args.add(request.getStatusId());
+        }
+        if (request.getCategoryId() != null) {
+            sql.append(" AND category_id = ?");
+            args.add(request.getCategoryId());
+        }
+        if (request.getRelationType() != null && !request.getRelationType().isBlank()) {
+            sql.append(" AND relation_type = ?");
+            args.add(request.getRelationType());
+        }
+        if (request.getRelationId() != null) {
+            sql.append(" AND relation_id = ?");
+            args.add(request.getRelationId());
+        }
+    }
+
+    private void audit(BulkAction action, ReminderBulkRequest request, int affected) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("affected", affected);
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            metadata.put("selectedIds", request.getIds().size());
+        }
+        putIfPresent(metadata, "startDate", request.getStartDate());
+        putIfPresent(metadata, "endDate", request.getEndDate());
+        putIfPresent(metadata, "statusId", request.getStatusId());
+        putIfPresent(metadata, "categoryId", request.getCategoryId());
+        putIfPresent(metadata, "relationType", request.getRelationType());
+        putIfPresent(metadata, "relationId", request.getRelationId());
+        if (action == BulkAction.RESCHEDULE) {
+            putIfPresent(metadata, "offsetDays", request.getOffsetDays());
+            putIfPresent(metadata, "offsetMinutes", request.getOffsetMinutes());
+        }
+        if (action == BulkAction.CHANGE_STATUS) {
+            putIfPresent(metadata, "targetStatusId", request.getTargetStatusId());
+        }
+        auditLogService.logAction("REMINDERS_BULK_" + action.name(), RESOURCE_TYPE, null, metadata,
+                auditLogService.getCurrentIpAddress(), auditLogService.getCurrentUserAgent());
+    }
+
+    private static void putIfPresent(Map<String, Object> metadata, String key, Object value) {
+        if (value != null) {
+            metadata.put(key, value.toString());
+        }
+    }
+
+    /**
+     * An updated reminder: the dispatcher event and its rollup key before and after the update.
+     */
+    private record ChangedRow(ReminderChangedEvent event, CompletionRollupKey before, CompletionRollupKey after) {
+    }
+
+    private static RowMapper<ChangedRow> rowMapper(String schemaName) {
+        return (rs, rowNum) -> {
+            LocalDate date = rs.getDate("reminder_date").toLocalDate();
+            Time time = rs.getTime("reminder_time");
+            Date occurrenceDate = rs.getDate("occurrence_date");
+            boolean active = !rs.getBoolean("deleted") && !rs.getBoolean("is_completed");
+            UUID categoryId = rs.getObject("category_id", UUID.class);
+            CompletionRollupKey before = CompletionRollupKey.of(false, rs.getBoolean("was_completed"),
+                    rs.getObject("was_completed_at", LocalDateTime.class), categoryId);
+            CompletionRollupKey after = CompletionRollupKey.of(rs.getBoolean("deleted"),
+                    rs.getBoolean("is_completed"), rs.getObject("completed_at", LocalDateTime.class), categoryId);
+            ReminderChangedEvent event = new ReminderChangedEvent(
+                    schemaName,
+                    rs.getObject("id", UUID.class),
+                    rs.getString("title"),
+                    LocalDateTime.of(date, time.toLocalTime()),
+                    rs.getString("relation_type"),
+                    rs.getObject("relation_id", UUID.class),
+                    active,
+                    rs.getString("recurrence_rule"),
+                    rs.getObject("series_id", UUID.class),
+                    occurrenceDate != null ? occurrenceDate.toLocalDate() : null);
+            return new ChangedRow(event, before, after);
+        };
+    }
+
+    /**
+     * Typed null holder: {@code List.of} rejects nulls, JDBC binds an untyped null for {@code ?::uuid}.
+     */
+    private static Object nullable(UUID value) {
+        return value != null ? value : new SqlParameterValue(Types.OTHER, null);
+    }
+}
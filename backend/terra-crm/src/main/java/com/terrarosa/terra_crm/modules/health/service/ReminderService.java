@@ -1,19 +1,47 @@
 package com.terrarosa.terra_crm.modules.health.service;
 
 import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.CompletionRollupKey;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.RollupDelta;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderCalendarDayDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderCategoryDto;
 import com.terrarosa.terra_crm.modules.health.dto.ReminderDto;
 import com.terrarosa.terra_crm.modules.health.dto.ReminderRequest;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderStatusDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderSubcategoryDto;
 import com.terrarosa.terra_crm.modules.health.entity.*;
 import com.terrarosa.terra_crm.modules.health.repository.*;
+import com.terrarosa.terra_crm.modules.health.scheduler.ReminderChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,17 +49,31 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReminderService {
 
+    /**
+     * Max customer ids per IN-list when resolving relation names.
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    /**
+     * Longest range accepted by the calendar view, and by any view that expands recurring series
+     * (bounds series expansion).
+     */
+    private static final int MAX_CALENDAR_DAYS = 366;
+
+    private static final Comparator<ReminderDto> AGENDA_ORDER = Comparator
+            .comparing(ReminderDto::getReminderDate)
+            .thenComparing(ReminderDto::getReminderTime)
+            .thenComparing(ReminderDto::getTitle, Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final ReminderRepository reminderRepository;
-    private final ReminderCategoryRepository categoryRepository;
-    private final ReminderSubcategoryRepository subcategoryRepository;
-    private final ReminderStatusRepository statusRepository;
+    private final ReminderSettingsService reminderSettingsService;
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DashboardRollupService dashboardRollupService;
 
     @Transactional(readOnly = true)
     public List<ReminderDto> getAllReminders() {
-        return reminderRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reminderRepository.findAll());
     }
 
     @Transactional(readOnly = true)
@@ -43,25 +85,79 @@ public class ReminderService {
 
     @Transactional(readOnly = true)
     public List<ReminderDto> getRemindersByCustomerId(UUID customerId) {
-        return reminderRepository.findByRelationTypeAndRelationId("customer", customerId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reminderRepository.findByRelationTypeAndRelationId("customer", customerId));
     }
 
+    /**
+     * Reminders in the range ordered by date and time, including occurrences of recurring series
+     * expanded for the range. Ranges of any length are accepted as long as no recurring series
+     * overlaps them; with a series the range is limited to {@value #MAX_CALENDAR_DAYS} days.
+     */
     @Transactional(readOnly = true)
     public List<ReminderDto> getRemindersByDateRange(LocalDate startDate, LocalDate endDate) {
-        return reminderRepository.findByReminderDateBetween(startDate, endDate).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<ReminderDto> stored = convertToDtos(reminderRepository.findStoredInRange(startDate, endDate));
+        if (endDate.isBefore(startDate)) {
+            return stored;
+        }
+        List<Occurrence> occurrences = expandOccurrences(startDate, endDate);
+        if (occurrences.isEmpty()) {
+            return stored;
+        }
+        List<ReminderDto> merged = new ArrayList<>(stored);
+        merged.addAll(toOccurrenceDtos(occurrences));
+        merged.sort(AGENDA_ORDER);
+        return merged;
+    }
+
+    /**
+     * Per-day reminder counts grouped by status and category for a calendar view.
+     * Stored reminders are counted with one aggregate query and recurring series are expanded for
+     * the range only; days without reminders are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<ReminderCalendarDayDto> getCalendar(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+
+        Map<LocalDate, ReminderCalendarDayDto> days = new TreeMap<>();
+        for (Object[] row : reminderRepository.countByDayStatusAndCategory(startDate, endDate)) {
+            addToCalendar(days, toLocalDate(row[0]), (UUID) row[1], (UUID) row[2], ((Number) row[3]).longValue());
+        }
+        for (Occurrence occurrence : expandOccurrences(startDate, endDate)) {
+            Reminder series = occurrence.series();
+            addToCalendar(days, occurrence.date(), series.getStatusId(), series.getCategoryId(), 1);
+        }
+        return new ArrayList<>(days.values());
+    }
+
+    /**
+     * Reminders of a single day ordered by time, page by page.
+     */
+    @Transactional(readOnly = true)
+    public Page<ReminderDto> getAgenda(LocalDate date, Pageable pageable) {
+        List<Occurrence> occurrences = expandOccurrences(date, date);
+        if (occurrences.isEmpty()) {
+            Page<Reminder> page = reminderRepository.findAgenda(date, pageable);
+            return new PageImpl<>(convertToDtos(page.getContent()), pageable, page.getTotalElements());
+        }
+
+        // Merge the day's series occurrences into the stored rows: only the first offset + size stored
+        // rows can appear on the requested page.
+        int end = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        Page<Reminder> head = reminderRepository.findAgenda(date, PageRequest.of(0, Math.max(1, end)));
+        List<ReminderDto> merged = new ArrayList<>(convertToDtos(head.getContent()));
+        merged.addAll(toOccurrenceDtos(occurrences));
+        merged.sort(AGENDA_ORDER);
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(end, merged.size());
+        return new PageImpl<>(merged.subList(from, to), pageable, head.getTotalElements() + occurrences.size());
     }
 
     @Transactional
     public ReminderDto createReminder(ReminderRequest request) {
-        validateReminderRequest(request);
-
-        // Get status to determine initial completion state
-        ReminderStatus status = statusRepository.findById(request.getStatusId())
-                .orElseThrow(() -> new ResourceNotFoundException("Status not found"));
+        // Status determines the initial completion state
+        ReminderStatusDto status = validateReminderRequest(request);
+        boolean completed = Boolean.TRUE.equals(status.getIsCompleted());
 
         Reminder reminder = Reminder.builder()
                 .title(request.getTitle())
@@ -73,10 +169,14 @@ public class ReminderService {
                 .statusId(request.getStatusId())
                 .relationType(request.getRelationType())
                 .relationId(request.getRelationId())
-                .isCompleted(status.getIsCompleted() != null ? status.getIsCompleted() : false)
+                .isCompleted(completed)
+                .completedAt(completed ? LocalDateTime.now() : null)
                 .build();
+        applyRecurrence(reminder, request.getRecurrenceRule());
 
         Reminder saved = reminderRepository.save(reminder);
+        publishChange(saved);
+        dashboardRollupService.changed(null, CompletionRollupKey.of(saved));
         log.info("Created reminder: {} for relation: {}/{}", saved.getId(), saved.getRelationType(),
                 saved.getRelationId());
         return convertToDto(saved);
@@ -86,12 +186,10 @@ public class ReminderService {
     public ReminderDto updateReminder(UUID id, ReminderRequest request) {
         Reminder reminder = reminderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reminder not found"));
+        CompletionRollupKey rollupKey = CompletionRollupKey.of(reminder);
 
-        validateReminderRequest(request);
-
-        // Get status to update completion state
-        ReminderStatus status = statusRepository.findById(request.getStatusId())
-                .orElseThrow(() -> new ResourceNotFoundException("Status not found"));
+        // Status determines the completion state
+        ReminderStatusDto status = validateReminderRequest(request);
 
         reminder.setTitle(request.getTitle());
         reminder.setNote(request.getNote());
@@ -103,6 +201,13 @@ public class ReminderService {
         reminder.setRelationType(request.getRelationType());
         reminder.setRelationId(request.getRelationId());
         reminder.setIsCompleted(status.getIsCompleted() != null ? status.getIsCompleted() : false);
+        if (reminder.getSeriesId() != null) {
+            if (request.getRecurrenceRule() != null) {
+                throw new IllegalArgumentException("An occurrence of a series cannot have its own recurrence rule");
+            }
+        } else {
+            applyRecurrence(reminder, request.getRecurrenceRule());
+        }
 
         // Update completion timestamp
         if (Boolean.TRUE.equals(reminder.getIsCompleted()) && reminder.getCompletedAt() == null) {
@@ -112,6 +217,8 @@ public class ReminderService {
         }
 
         Reminder updated = reminderRepository.save(reminder);
+        publishChange(updated);
+        dashboardRollupService.changed(rollupKey, CompletionRollupKey.of(updated));
         log.info("Updated reminder: {}", updated.getId());
         return convertToDto(updated);
     }
@@ -121,8 +228,21 @@ public class ReminderService {
         Reminder reminder = reminderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reminder not found"));
 
+        RollupDelta rollupDelta = new RollupDelta().change(CompletionRollupKey.of(reminder), null);
         reminder.setDeleted(true);
         reminderRepository.save(reminder);
+        publishChange(reminder);
+
+        if (reminder.isRecurring()) {
+            // Edited/completed occurrences of the series go with it
+            for (Reminder exception : reminderRepository.findBySeriesId(id)) {
+                rollupDelta.change(CompletionRollupKey.of(exception), null);
+                exception.setDeleted(true);
+                reminderRepository.save(exception);
+                publishChange(exception);
+            }
+        }
+        dashboardRollupService.apply(TenantContext.getCurrentSchemaName(), rollupDelta);
         log.info("Deleted reminder: {}", id);
     }
 
@@ -130,7 +250,48 @@ public class ReminderService {
     public ReminderDto toggleComplete(UUID id) {
         Reminder reminder = reminderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reminder not found"));
+        return toggleComplete(reminder);
+    }
+
+    // ==================== RECURRING SERIES OCCURRENCES ====================
+
+    /**
+     * Edit a single occurrence of a recurring series; stores it as an exception row.
+     */
+    @Transactional
+    public ReminderDto updateOccurrence(UUID seriesId, LocalDate occurrenceDate, ReminderRequest request) {
+        if (request.getRecurrenceRule() != null) {
+            throw new IllegalArgumentException("An occurrence of a series cannot have its own recurrence rule");
+        }
+        Reminder exception = materializeOccurrence(seriesId, occurrenceDate);
+        return updateReminder(exception.getId(), request);
+    }
+
+    /**
+     * Toggle completion of a single occurrence of a recurring series.
+     */
+    @Transactional
+    public ReminderDto toggleOccurrenceComplete(UUID seriesId, LocalDate occurrenceDate) {
+        return toggleComplete(materializeOccurrence(seriesId, occurrenceDate));
+    }
+
+    /**
+     * Cancel a single occurrence of a recurring series (a soft-deleted exception row hides it).
+     */
+    @Transactional
+    public void cancelOccurrence(UUID seriesId, LocalDate occurrenceDate) {
+        Reminder exception = materializeOccurrence(seriesId, occurrenceDate);
+        CompletionRollupKey rollupKey = CompletionRollupKey.of(exception);
+        exception.setDeleted(true);
+        reminderRepository.save(exception);
+        publishChange(exception);
+        dashboardRollupService.changed(rollupKey, null);
+        log.info("Cancelled occurrence {} of reminder series {}", occurrenceDate, seriesId);
+    }
 
+    private ReminderDto toggleComplete(Reminder reminder) {
+        UUID id = reminder.getId();
+        CompletionRollupKey rollupKey = CompletionRollupKey.of(reminder);
         boolean newCompletedState = !Boolean.TRUE.equals(reminder.getIsCompleted());
         reminder.setIsCompleted(newCompletedState);
 
@@ -139,43 +300,219 @@ public class ReminderService {
             reminder.setCompletedAt(LocalDateTime.now());
 
             // Try to find "completed" status
-            ReminderStatus completedStatus = statusRepository.findByValue("completed")
-                    .orElseGet(() -> statusRepository.findById(reminder.getStatusId()).orElse(null));
-            if (completedStatus != null) {
-                reminder.setStatusId(completedStatus.getId());
-            }
+            reminderSettingsService.findStatusByValue("completed")
+                    .ifPresent(completedStatus -> reminder.setStatusId(completedStatus.getId()));
         } else {
             reminder.setCompletedAt(null);
 
             // Try to find "pending" status
-            ReminderStatus pendingStatus = statusRepository.findByValue("pending")
-                    .orElseGet(() -> statusRepository.findById(reminder.getStatusId()).orElse(null));
-            if (pendingStatus != null) {
-                reminder.setStatusId(pendingStatus.getId());
-            }
+            reminderSettingsService.findStatusByValue("pending")
+                    .ifPresent(pendingStatus -> reminder.setStatusId(pendingStatus.getId()));
         }
 
         Reminder updated = reminderRepository.save(reminder);
+        publishChange(updated);
+        dashboardRollupService.changed(rollupKey, CompletionRollupKey.of(updated));
         log.info("Toggled reminder completion: {} -> {}", id, newCompletedState);
         return convertToDto(updated);
     }
 
     // ==================== HELPER METHODS ====================
 
+    /**
+     * Exception row for one occurrence of a series, created from the series on first use.
+     */
+    private Reminder materializeOccurrence(UUID seriesId, LocalDate occurrenceDate) {
+        Reminder series = reminderRepository.findById(seriesId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reminder not found"));
+        if (!series.isRecurring()) {
+            throw new IllegalArgumentException("Reminder is not a recurring series");
+        }
+        if (!RecurrenceRule.parse(series.getRecurrenceRule()).isOccurrence(series.getReminderDate(), occurrenceDate)) {
+            throw new IllegalArgumentException("No occurrence of this series on " + occurrenceDate);
+        }
+
+        Optional<Reminder> existing = reminderRepository.findException(seriesId, occurrenceDate);
+        if (existing.isPresent()) {
+            if (Boolean.TRUE.equals(existing.get().getDeleted())) {
+                throw new ResourceNotFoundException("Occurrence has been cancelled");
+            }
+            return existing.get();
+        }
+
+        Reminder exception = Reminder.builder()
+                .title(series.getTitle())
+                .note(series.getNote())
+                .reminderDate(occurrenceDate)
+                .reminderTime(series.getReminderTime())
+                .categoryId(series.getCategoryId())
+                .subcategoryId(series.getSubcategoryId())
+                .statusId(series.getStatusId())
+                .relationType(series.getRelationType())
+                .relationId(series.getRelationId())
+                .isCompleted(false)
+                .seriesId(seriesId)
+                .occurrenceDate(occurrenceDate)
+                .build();
+        return reminderRepository.save(exception);
+    }
+
+    private void applyRecurrence(Reminder reminder, String recurrenceRule) {
+        if (recurrenceRule == null || recurrenceRule.isBlank()) {
+            reminder.setRecurrenceRule(null);
+            reminder.setRecurrenceUntil(null);
+            return;
+        }
+        RecurrenceRule rule = RecurrenceRule.parse(recurrenceRule);
+        reminder.setRecurrenceRule(rule.toString());
+        reminder.setRecurrenceUntil(rule.lastOccurrence(reminder.getReminderDate()));
+    }
+
+    /**
+     * Occurrences of all recurring series in [startDate, endDate], minus occurrences that have an
+     * exception row. Cost is O(series overlapping the range + occurrences in the range).
+     */
+    private List<Occurrence> expandOccurrences(LocalDate startDate, LocalDate endDate) {
+        List<Reminder> seriesList = reminderRepository.findRecurringInRange(startDate, endDate).stream()
+                .filter(series -> !Boolean.TRUE.equals(series.getIsCompleted()))
+                .toList();
+        if (seriesList.isEmpty()) {
+            return List.of();
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException(
+                    "Date range with recurring reminders cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+
+        Set<String> exceptions = new HashSet<>();
+        List<UUID> seriesIds = seriesList.stream().map(Reminder::getId).toList();
+        for (int i = 0; i < seriesIds.size(); i += ID_CHUNK_SIZE) {
+            List<UUID> chunk = seriesIds.subList(i, Math.min(i + ID_CHUNK_SIZE, seriesIds.size()));
+            for (Object[] row : reminderRepository.findExceptionDates(chunk, startDate, endDate)) {
+                exceptions.add(row[0] + "|" + toLocalDate(row[1]));
+            }
+        }
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Reminder series : seriesList) {
+            RecurrenceRule rule;
+            try {
+                rule = RecurrenceRule.parse(series.getRecurrenceRule());
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping reminder series {} with invalid rule '{}': {}", series.getId(),
+                        series.getRecurrenceRule(), e.getMessage());
+                continue;
+            }
+            for (LocalDate date : rule.occurrencesBetween(series.getReminderDate(), startDate, endDate)) {
+                if (!exceptions.contains(series.getId() + "|" + date)) {
+                    occurrences.add(new Occurrence(series, date));
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    private List<ReminderDto> toOccurrenceDtos(List<Occurrence> occurrences) {
+        Map<UUID, Reminder> seriesById = new LinkedHashMap<>();
+        occurrences.forEach(o -> seriesById.putIfAbsent(o.series().getId(), o.series()));
+        Map<UUID, ReminderDto> seriesDtos = convertToDtos(new ArrayList<>(seriesById.values())).stream()
+                .collect(Collectors.toMap(ReminderDto::getId, Function.identity()));
+
+        return occurrences.stream()
+                .map(o -> seriesDtos.get(o.series().getId()).toBuilder()
+                        .reminderDate(o.date())
+                        .seriesId(o.series().getId())
+                        .occurrenceDate(o.date())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void addToCalendar(Map<LocalDate, ReminderCalendarDayDto> days, LocalDate date, UUID statusId,
+            UUID categoryId, long count) {
+        ReminderCalendarDayDto day = days.computeIfAbsent(date, d -> ReminderCalendarDayDto.builder()
+                .date(d)
+                .byStatus(new HashMap<>())
+                .byCategory(new HashMap<>())
+                .build());
+        day.setTotal(day.getTotal() + count);
+        day.getByStatus().merge(statusId, count, Long::sum);
+        day.getByCategory().merge(categoryId, count, Long::sum);
+    }
+
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+    }
+
+    /**
+     * Notify the reminder dispatcher (after commit) so its timer wheel follows this change.
+     */
+    private void publishChange(Reminder reminder) {
+        eventPublisher.publishEvent(ReminderChangedEvent.of(TenantContext.getCurrentSchemaName(), reminder));
+    }
+
     private ReminderDto convertToDto(Reminder reminder) {
-        ReminderCategory category = categoryRepository.findById(reminder.getCategoryId()).orElse(null);
-        ReminderSubcategory subcategory = reminder.getSubcategoryId() != null
-                ? subcategoryRepository.findById(reminder.getSubcategoryId()).orElse(null)
-                : null;
-        ReminderStatus status = statusRepository.findById(reminder.getStatusId()).orElse(null);
+        return convertToDtos(List.of(reminder)).get(0);
+    }
+
+    /**
+     * Convert reminders to DTOs resolving categories, subcategories and statuses from the
+     * reference data cache and customer names with one IN-query per chunk, so the query count
+     * does not grow with the list size.
+     */
+    private List<ReminderDto> convertToDtos(List<Reminder> reminders) {
+        if (reminders.isEmpty()) {
+            return List.of();
+        }
 
-        String relationName = null;
-        if ("customer".equals(reminder.getRelationType()) && reminder.getRelationId() != null) {
-            relationName = customerRepository.findById(reminder.getRelationId())
-                    .map(Customer::getName)
-                    .orElse(null);
+        Map<UUID, ReminderCategoryDto> categories = reminderSettingsService.categories().byId();
+        Map<UUID, ReminderSubcategoryDto> subcategories = reminderSettingsService.subcategories().byId();
+        Map<UUID, ReminderStatusDto> statuses = reminderSettingsService.statuses().byId();
+        Map<UUID, String> customerNames = findCustomerNames(reminders.stream()
+                .filter(r -> "customer".equals(r.getRelationType()))
+                .map(Reminder::getRelationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        return reminders.stream()
+                .map(reminder -> toDto(reminder,
+                        categories.get(reminder.getCategoryId()),
+                        reminder.getSubcategoryId() != null ? subcategories.get(reminder.getSubcategoryId()) : null,
+                        statuses.get(reminder.getStatusId()),
+                        "customer".equals(reminder.getRelationType()) && reminder.getRelationId() != null
+                                ? customerNames.get(reminder.getRelationId())
+                                : null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One expanded (not stored) occurrence of a recurring series.
+     */
+    private record Occurrence(Reminder series, LocalDate date) {
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+    }
+
+    private Map<UUID, String> findCustomerNames(Collection<UUID> customerIds) {
+        Map<UUID, String> names = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(customerIds);
+        for (int i = 0; i < ids.size(); i += ID_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(i, Math.min(i + ID_CHUNK_SIZE, ids.size()));
+            for (Object[] row : customerRepository.findNamesByIdIn(chunk)) {
+                names.put((UUID) row[0], (String) row[1]);
+            }
         }
+        return names;
+    }
 
+    private ReminderDto toDto(Reminder reminder, ReminderCategoryDto category, ReminderSubcategoryDto subcategory,
+            ReminderStatusDto status, String relationName) {
         return ReminderDto.builder()
                 .id(reminder.getId())
                 .title(reminder.getTitle())
@@ -203,28 +540,40 @@ public class ReminderService {
                 .updatedAt(reminder.getUpdatedAt())
                 .createdBy(reminder.getCreatedBy())
                 .updatedBy(reminder.getUpdatedBy())
+                .recurrenceRule(reminder.getRecurrenceRule())
+                .seriesId(reminder.getSeriesId())
+                .occurrenceDate(reminder.getOccurrenceDate())
                 .build();
     }
 
-    private void validateReminderRequest(ReminderRequest request) {
+    /**
+     * Validate the referenced category, subcategory, status and customer.
+     *
+     * @return the referenced status, so callers do not look it up a second time
+     */
+    private ReminderStatusDto validateReminderRequest(ReminderRequest request) {
         // Validate category exists
-        categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        if (!reminderSettingsService.categories().byId().containsKey(request.getCategoryId())) {
+            throw new ResourceNotFoundException("Category not found");
+        }
 
         // Validate subcategory exists if provided
-        if (request.getSubcategoryId() != null) {
-            subcategoryRepository.findById(request.getSubcategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Subcategory not found"));
+        if (request.getSubcategoryId() != null
+                && !reminderSettingsService.subcategories().byId().containsKey(request.getSubcategoryId())) {
+            throw new ResourceNotFoundException("Subcategory not found");
         }
 
         // Validate status exists
-        statusRepository.findById(request.getStatusId())
-                .orElseThrow(() -> new ResourceNotFoundException("Status not found"));
+        ReminderStatusDto status = reminderSettingsService.statuses().byId().get(request.getStatusId());
+        if (status == null) {
+            throw new ResourceNotFoundException("Status not found");
+        }
 
         // Validate customer exists if relationType is customer
-        if ("customer".equals(request.getRelationType()) && request.getRelationId() != null) {
-            customerRepository.findById(request.getRelationId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+        if ("customer".equals(request.getRelationType()) && request.getRelationId() != null
+                && !customerRepository.existsById(request.getRelationId())) {
+            throw new ResourceNotFoundException("Customer not found");
         }
+        return status;
     }
 }
@@ -1,15 +1,20 @@
 package com.terrarosa.terra_crm.modules.health.service;
 
 import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
 import com.terrarosa.terra_crm.modules.health.dto.*;
 import com.terrarosa.terra_crm.modules.health.entity.*;
 import com.terrarosa.terra_crm.modules.health.repository.*;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.CachedList;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.ReferenceList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,10 +26,13 @@ public class ReminderSettingsService {
     private final ReminderCategoryRepository categoryRepository;
     private final ReminderSubcategoryRepository subcategoryRepository;
     private final ReminderStatusRepository statusRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Ensures system default parameters exist for the current tenant.
-     * Called during tenant provisioning and lazy seeding.
+     * Called during tenant provisioning and for existing tenants on startup
+     * (TenantSchemaMigrationRunner), never from the read path.
      */
     @Transactional
     public void ensureSystemDefaults() {
@@ -104,21 +112,22 @@ public class ReminderSettingsService {
 
     // ==================== CATEGORIES ====================
 
-    @Transactional
     public List<ReminderCategoryDto> getAllCategories() {
-        // Always ensure defaults are present (idempotent check)
-        ensureSystemDefaults();
-
-        return categoryRepository.findAll().stream()
-                .map(this::convertCategoryToDto)
-                .collect(Collectors.toList());
+        return categories().items();
     }
 
-    @Transactional(readOnly = true)
     public ReminderCategoryDto getCategoryById(UUID id) {
-        ReminderCategory category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reminder category not found"));
-        return convertCategoryToDto(category);
+        ReminderCategoryDto category = categories().byId().get(id);
+        if (category == null) {
+            throw new ResourceNotFoundException("Reminder category not found");
+        }
+        return category;
+    }
+
+    CachedList<ReminderCategoryDto> categories() {
+        return referenceDataCache.get(ReferenceList.REMINDER_CATEGORIES, () -> categoryRepository.findAll().stream()
+                .map(this::convertCategoryToDto)
+                .collect(Collectors.toList()), ReminderCategoryDto::getId);
     }
 
     @Transactional
@@ -133,6 +142,7 @@ public class ReminderSettingsService {
                 .build();
 
         ReminderCategory saved = categoryRepository.save(category);
+        referenceDataChanged();
         return convertCategoryToDto(saved);
     }
 
@@ -160,6 +170,7 @@ public class ReminderSettingsService {
         }
 
         ReminderCategory updated = categoryRepository.save(category);
+        referenceDataChanged();
         return convertCategoryToDto(updated);
     }
 
@@ -175,25 +186,29 @@ public class ReminderSettingsService {
 
         category.setDeleted(true);
         categoryRepository.save(category);
+        referenceDataChanged();
     }
 
     // ==================== SUBCATEGORIES ====================
 
-    @Transactional
     public List<ReminderSubcategoryDto> getAllSubcategories() {
-        ensureSystemDefaults();
-        return subcategoryRepository.findAll().stream()
-                .map(this::convertSubcategoryToDto)
-                .collect(Collectors.toList());
+        return subcategories().items();
     }
 
-    @Transactional(readOnly = true)
     public List<ReminderSubcategoryDto> getSubcategoriesByCategoryId(UUID categoryId) {
-        return subcategoryRepository.findByCategoryId(categoryId).stream()
-                .map(this::convertSubcategoryToDto)
+        return subcategories().items().stream()
+                .filter(subcategory -> categoryId.equals(subcategory.getCategoryId()))
                 .collect(Collectors.toList());
     }
 
+    CachedList<ReminderSubcategoryDto> subcategories() {
+        return referenceDataCache.get(ReferenceList.REMINDER_SUBCATEGORIES,
+                () -> subcategoryRepository.findAll().stream()
+                        .map(this::convertSubcategoryToDto)
+                        .collect(Collectors.toList()),
+                ReminderSubcategoryDto::getId);
+    }
+
     @Transactional
     public ReminderSubcategoryDto createSubcategory(ReminderSubcategoryRequest request) {
         // Validate category exists
@@ -213,6 +228,7 @@ public class ReminderSettingsService {
                 .build();
 
         ReminderSubcategory saved = subcategoryRepository.save(subcategory);
+        referenceDataChanged();
         return convertSubcategoryToDto(saved);
     }
 
@@ -240,6 +256,7 @@ public class ReminderSettingsService {
         }
 
         ReminderSubcategory updated = subcategoryRepository.save(subcategory);
+        referenceDataChanged();
         return convertSubcategoryToDto(updated);
     }
 
@@ -255,16 +272,28 @@ public class ReminderSettingsService {
 
         subcategory.setDeleted(true);
         subcategoryRepository.save(subcategory);
+        referenceDataChanged();
     }
 
     // ==================== STATUSES ====================
 
-    @Transactional
     public List<ReminderStatusDto> getAllStatuses() {
-        ensureSystemDefaults();
-        return statusRepository.findAll().stream()
+        return statuses().items();
+    }
+
+    /**
+     * The status with the given value (e.g. "completed", "pending"), if any.
+     */
+    Optional<ReminderStatusDto> findStatusByValue(String value) {
+        return statuses().items().stream()
+                .filter(status -> value.equals(status.getValue()))
+                .findFirst();
+    }
+
+    CachedList<ReminderStatusDto> statuses() {
+        return referenceDataCache.get(ReferenceList.REMINDER_STATUSES, () -> statusRepository.findAll().stream()
                 .map(this::convertStatusToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), ReminderStatusDto::getId);
     }
 
     @Transactional
@@ -282,6 +311,7 @@ public class ReminderSettingsService {
                 .build();
 
         ReminderStatus saved = statusRepository.save(status);
+        referenceDataChanged();
         return convertStatusToDto(saved);
     }
 
@@ -311,6 +341,7 @@ public class ReminderSettingsService {
         }
 
         ReminderStatus updated = statusRepository.save(status);
+        referenceDataChanged();
         return convertStatusToDto(updated);
     }
 
@@ -326,10 +357,18 @@ public class ReminderSettingsService {
 
         status.setDeleted(true);
         statusRepository.save(status);
+        referenceDataChanged();
     }
 
     // ==================== HELPER METHODS ====================
 
+    /**
+     * Drop state derived from this tenant's reference data once the change is committed.
+     */
+    private void referenceDataChanged() {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(TenantContext.getCurrentSchemaName()));
+    }
+
     private ReminderCategoryDto convertCategoryToDto(ReminderCategory category) {
         return ReminderCategoryDto.builder()
                 .id(category.getId())
@@ -0,0 +1,4 @@
+-- V28: btree_gist lets GiST exclusion constraints combine equality on scalar columns
+-- (doctor, room) with range overlap. Installed once in public; tenant schemas resolve it
+-- through the search path like update_updated_at_column().
+CREATE EXTENSION IF NOT EXISTS btree_gist WITH SCHEMA public;
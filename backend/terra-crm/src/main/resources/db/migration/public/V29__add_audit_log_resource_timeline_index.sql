@@ -0,0 +1,3 @@
+-- Keyset index for the audit events of one resource (customer timeline)
+CREATE INDEX IF NOT EXISTS idx_audit_logs_resource_timeline
+    ON audit_logs(resource_type, resource_id, created_at, id);
@@ -0,0 +1,30 @@
+-- Materialized effective permissions of each user: direct grants (user_permissions) plus the
+-- permissions of assigned, non-deleted bundles, limited to the modules of the user's tenant.
+-- Maintained by EffectivePermissionStore whenever grants, bundles or tenant modules change;
+-- read at login and token refresh.
+CREATE TABLE IF NOT EXISTS user_effective_permissions (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    permission_id UUID NOT NULL REFERENCES permissions(id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, permission_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_effective_permissions_permission_id
+    ON user_effective_permissions(permission_id);
+
+-- Backfill from the current grants
+INSERT INTO user_effective_permissions (user_id, permission_id)
+SELECT g.user_id, g.permission_id
+FROM (
+    SELECT up.user_id, up.permission_id
+    FROM user_permissions up
+    UNION
+    SELECT ub.user_id, bp.permission_id
+    FROM user_bundles ub
+    JOIN permission_bundles b ON b.id = ub.bundle_id AND b.deleted = false
+    JOIN bundle_permissions bp ON bp.bundle_id = b.id
+) g
+JOIN users u ON u.id = g.user_id
+JOIN permissions p ON p.id = g.permission_id
+JOIN tenant_modules tm ON tm.tenant_id = u.tenant_id
+    AND tm.permission_id = COALESCE(p.parent_permission_id, p.id)
+ON CONFLICT (user_id, permission_id) DO NOTHING;
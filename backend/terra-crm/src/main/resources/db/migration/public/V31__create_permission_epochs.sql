@@ -0,0 +1,17 @@
+-- Permission epochs: a user's or tenant's epoch is bumped whenever something that goes into its
+-- access tokens changes (permissions, bundles, modules, roles, enabled flag, password).
+-- Access tokens carry the epochs they were issued with; PermissionEpochService keeps the epochs in
+-- memory on every node and rejects tokens issued before a bump.
+-- Epochs come from one sequence, so they only grow and a bump always yields a larger value.
+CREATE SEQUENCE IF NOT EXISTS permission_epoch_seq;
+
+CREATE TABLE IF NOT EXISTS permission_epochs (
+    subject_type VARCHAR(10) NOT NULL CHECK (subject_type IN ('USER', 'TENANT')),
+    subject_id UUID NOT NULL,
+    epoch BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (subject_type, subject_id)
+);
+
+-- Other nodes poll the recently bumped rows
+CREATE INDEX IF NOT EXISTS idx_permission_epochs_changed_at ON permission_epochs(changed_at);
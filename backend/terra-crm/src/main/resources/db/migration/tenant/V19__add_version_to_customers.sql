@@ -0,0 +1,3 @@
+-- Optimistic locking for customers (JPA @Version)
+-- Existing rows start at version 0; every UPDATE through JPA increments it.
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
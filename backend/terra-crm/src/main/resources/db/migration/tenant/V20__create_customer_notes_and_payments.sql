@@ -0,0 +1,88 @@
+-- =====================================================
+-- Customer notes and payments as append-only tables
+-- Replaces the customers.notes / customers.payments JSONB arrays
+-- =====================================================
+
+CREATE TABLE customer_notes (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    customer_id UUID NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    text TEXT,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    data JSONB NOT NULL DEFAULT '{}'::jsonb,
+    created_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP,
+    deleted_by UUID
+);
+
+CREATE TABLE customer_payments (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    customer_id UUID NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    text TEXT,
+    amount NUMERIC(14, 2),
+    currency VARCHAR(10),
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    data JSONB NOT NULL DEFAULT '{}'::jsonb,
+    created_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP,
+    deleted_by UUID
+);
+
+-- Newest-first paging per customer
+CREATE INDEX idx_customer_notes_customer_created ON customer_notes(customer_id, created_at DESC, id DESC) WHERE deleted = FALSE;
+CREATE INDEX idx_customer_payments_customer_created ON customer_payments(customer_id, created_at DESC, id DESC) WHERE deleted = FALSE;
+
+-- Backfill from the JSONB arrays. Array order is kept through created_at offsets;
+-- the original element is preserved in data.
+INSERT INTO customer_notes (customer_id, text, completed, data, created_at, updated_at)
+SELECT c.id,
+       e.item->>'text',
+       COALESCE(e.item->>'completed', 'false') = 'true',
+       e.item,
+       c.created_at + (e.ord * INTERVAL '1 millisecond'),
+       CURRENT_TIMESTAMP
+FROM customers c
+CROSS JOIN LATERAL jsonb_array_elements(c.notes) WITH ORDINALITY AS e(item, ord)
+WHERE jsonb_typeof(c.notes) = 'array'
+  AND jsonb_typeof(e.item) = 'object';
+
+INSERT INTO customer_payments (customer_id, text, amount, currency, completed, data, created_at, updated_at)
+SELECT c.id,
+       e.item->>'text',
+       -- Malformed or out-of-range legacy amounts become NULL (the original stays in data) instead
+       -- of aborting the migration; nested CASE keeps the cast behind the format check
+       CASE WHEN e.item->>'amount' ~ '^\s*-?[0-9]{1,20}(\.[0-9]{1,20})?\s*$' THEN
+           CASE WHEN ABS(TRIM(e.item->>'amount')::NUMERIC) < 999999999999.995
+                THEN TRIM(e.item->>'amount')::NUMERIC(14, 2) END
+       END,
+       LEFT(e.item->>'currency', 10),
+       COALESCE(e.item->>'completed', 'false') = 'true',
+       e.item,
+       c.created_at + (e.ord * INTERVAL '1 millisecond'),
+       CURRENT_TIMESTAMP
+FROM customers c
+CROSS JOIN LATERAL jsonb_array_elements(c.payments) WITH ORDINALITY AS e(item, ord)
+WHERE jsonb_typeof(c.payments) = 'array'
+  AND jsonb_typeof(e.item) = 'object';
+
+-- The arrays now live in their own tables; shrink the customer rows
+UPDATE customers SET notes = NULL, payments = NULL
+WHERE notes IS NOT NULL OR payments IS NOT NULL;
+
+CREATE TRIGGER update_customer_notes_updated_at
+    BEFORE UPDATE ON customer_notes
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_customer_payments_updated_at
+    BEFORE UPDATE ON customer_payments
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE customer_notes IS 'Append-only customer notes (formerly customers.notes JSONB)';
+COMMENT ON TABLE customer_payments IS 'Append-only customer payments (formerly customers.payments JSONB)';
@@ -0,0 +1,16 @@
+-- =====================================================
+-- Reminder calendar / agenda index
+-- =====================================================
+
+-- Partial indexes below use "deleted = FALSE"; make sure no row is left with NULL
+UPDATE reminders SET deleted = FALSE WHERE deleted IS NULL;
+ALTER TABLE reminders ALTER COLUMN deleted SET NOT NULL;
+
+-- Serves the day agenda (ordered by time) and the per-day aggregate;
+-- status_id/category_id are included so the month view is an index-only scan.
+CREATE INDEX idx_reminders_date_time ON reminders(reminder_date, reminder_time)
+    INCLUDE (status_id, category_id)
+    WHERE deleted = FALSE;
+
+-- Superseded by idx_reminders_date_time (same leading column)
+DROP INDEX IF EXISTS idx_reminders_date;
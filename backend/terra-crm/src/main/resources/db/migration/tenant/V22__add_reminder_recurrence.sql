@@ -0,0 +1,28 @@
+-- =====================================================
+-- Recurring reminders
+-- A series is one row with recurrence_rule set; its occurrences are expanded on read.
+-- Only exceptions (edited, completed or cancelled occurrences) are stored, as rows
+-- pointing to the series via series_id + occurrence_date.
+-- =====================================================
+
+ALTER TABLE reminders ADD COLUMN recurrence_rule VARCHAR(255);
+ALTER TABLE reminders ADD COLUMN recurrence_until DATE;
+ALTER TABLE reminders ADD COLUMN series_id UUID REFERENCES reminders(id) ON DELETE CASCADE;
+ALTER TABLE reminders ADD COLUMN occurrence_date DATE;
+
+ALTER TABLE reminders ADD CONSTRAINT chk_reminders_exception
+    CHECK ((series_id IS NULL AND occurrence_date IS NULL)
+        OR (series_id IS NOT NULL AND occurrence_date IS NOT NULL AND recurrence_rule IS NULL));
+
+-- Series overlapping a window: reminder_date <= window end AND (until IS NULL OR until >= window start)
+CREATE INDEX idx_reminders_recurring ON reminders(reminder_date, recurrence_until)
+    WHERE recurrence_rule IS NOT NULL AND deleted = FALSE;
+
+-- At most one exception per occurrence (cancelled exceptions are soft-deleted rows and still count)
+CREATE UNIQUE INDEX uq_reminders_series_occurrence ON reminders(series_id, occurrence_date)
+    WHERE series_id IS NOT NULL;
+
+COMMENT ON COLUMN reminders.recurrence_rule IS 'RRULE subset (FREQ, INTERVAL, COUNT, UNTIL); NULL for one-off reminders';
+COMMENT ON COLUMN reminders.recurrence_until IS 'Date of the last occurrence (NULL = unbounded), used for window queries';
+COMMENT ON COLUMN reminders.series_id IS 'Series this row overrides one occurrence of';
+COMMENT ON COLUMN reminders.occurrence_date IS 'Original date of the overridden occurrence';
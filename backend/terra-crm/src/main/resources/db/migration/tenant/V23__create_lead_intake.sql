@@ -0,0 +1,22 @@
+-- =====================================================
+-- Lead intake staging (write-behind)
+-- Leads pushed by ad integrations are staged here synchronously and acknowledged;
+-- a background writer moves them into leads in batches and marks them processed.
+-- Unprocessed rows left by a crash are replayed on startup. The staged id becomes
+-- the lead id, so a replay never inserts a lead twice. Processed rows keep the
+-- idempotency key until they are pruned after the retention period.
+-- =====================================================
+
+CREATE TABLE lead_intake (
+    id UUID PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX uq_lead_intake_idempotency_key ON lead_intake(idempotency_key);
+CREATE INDEX idx_lead_intake_pending ON lead_intake(received_at) WHERE processed_at IS NULL;
+CREATE INDEX idx_lead_intake_processed ON lead_intake(processed_at) WHERE processed_at IS NOT NULL;
+
+COMMENT ON TABLE lead_intake IS 'Durable staging of acknowledged leads; processed rows are kept for idempotency until pruned';
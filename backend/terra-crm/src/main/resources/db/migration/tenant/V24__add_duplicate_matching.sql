@@ -0,0 +1,44 @@
+-- =====================================================
+-- Duplicate matching for leads and customers
+-- Blocking keys (see MatchKeys) are computed by the application and indexed, so candidate
+-- duplicates of a record are found with index lookups instead of a table scan.
+-- Existing rows get their keys from the dedupe job (match_keys_version IS NULL).
+-- =====================================================
+
+ALTER TABLE leads ADD COLUMN phone_key VARCHAR(16);
+ALTER TABLE leads ADD COLUMN email_local_key VARCHAR(255);
+ALTER TABLE leads ADD COLUMN name_key VARCHAR(16);
+ALTER TABLE leads ADD COLUMN match_keys_version SMALLINT;
+
+ALTER TABLE customers ADD COLUMN phone_key VARCHAR(16);
+ALTER TABLE customers ADD COLUMN email_local_key VARCHAR(255);
+ALTER TABLE customers ADD COLUMN name_key VARCHAR(16);
+ALTER TABLE customers ADD COLUMN match_keys_version SMALLINT;
+
+CREATE INDEX idx_leads_phone_key ON leads(phone_key) WHERE deleted = FALSE;
+CREATE INDEX idx_leads_email_local_key ON leads(email_local_key) WHERE deleted = FALSE;
+CREATE INDEX idx_leads_name_key ON leads(name_key) WHERE deleted = FALSE;
+CREATE INDEX idx_customers_phone_key ON customers(phone_key) WHERE deleted = FALSE;
+CREATE INDEX idx_customers_email_local_key ON customers(email_local_key) WHERE deleted = FALSE;
+CREATE INDEX idx_customers_name_key ON customers(name_key) WHERE deleted = FALSE;
+
+-- Candidate duplicate pairs, stored once per pair (source precedes target by type, then id)
+CREATE TABLE match_candidates (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    source_type VARCHAR(20) NOT NULL,
+    source_id UUID NOT NULL,
+    target_type VARCHAR(20) NOT NULL,
+    target_id UUID NOT NULL,
+    score NUMERIC(3, 2) NOT NULL,
+    matched_on VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'OPEN',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_match_candidates_pair UNIQUE (source_type, source_id, target_type, target_id)
+);
+
+CREATE INDEX idx_match_candidates_target ON match_candidates(target_type, target_id);
+
+COMMENT ON TABLE match_candidates IS 'Possible duplicate lead/customer pairs found by blocking keys';
+COMMENT ON COLUMN match_candidates.matched_on IS 'Comma separated match reasons: PHONE, EMAIL, EMAIL_LOCAL, NAME';
+COMMENT ON COLUMN match_candidates.status IS 'OPEN, CONFIRMED or DISMISSED';
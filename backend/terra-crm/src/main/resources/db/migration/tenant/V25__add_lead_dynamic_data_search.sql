@@ -0,0 +1,23 @@
+-- =====================================================
+-- Lead search over dynamic_data (campaign form fields)
+-- Equality / IN filters are answered by the GIN jsonb_path_ops index (@> and @?).
+-- Frequently filtered fields are "promoted": the application creates a btree expression
+-- index on (dynamic_data -> 'field') for them, so range filters are index scans too.
+-- =====================================================
+
+CREATE INDEX idx_leads_dynamic_data ON leads USING GIN (dynamic_data jsonb_path_ops) WHERE deleted = FALSE;
+
+-- Search results are ordered newest first; keeps page reads an index range scan
+CREATE INDEX idx_leads_active_created_at ON leads(created_at DESC, id DESC) WHERE deleted = FALSE;
+
+-- Promoted dynamic_data fields and their expression indexes
+CREATE TABLE lead_promoted_fields (
+    path VARCHAR(200) PRIMARY KEY,
+    index_name VARCHAR(63) NOT NULL UNIQUE,
+    mode VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_used_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE lead_promoted_fields IS 'dynamic_data paths with an expression index; AUTO entries are dropped again when unused';
+COMMENT ON COLUMN lead_promoted_fields.mode IS 'AUTO (promoted by query frequency) or MANUAL';
@@ -0,0 +1,30 @@
+-- =====================================================
+-- Appointment scheduling
+-- An appointment occupies [appointment_date, appointment_date + duration) as a generated
+-- tsrange. Exclusion constraints reject overlapping active appointments of the same doctor
+-- or room, so double booking is impossible even for concurrent requests. Their GiST indexes
+-- (doctor_id, time_range) also serve the availability query.
+-- Timestamps are TIMESTAMP (clinic local time) like the rest of the schema, hence tsrange.
+-- =====================================================
+
+ALTER TABLE appointments ADD COLUMN duration_minutes INTEGER NOT NULL DEFAULT 30;
+ALTER TABLE appointments ADD COLUMN room VARCHAR(100);
+ALTER TABLE appointments ADD CONSTRAINT chk_appointments_duration
+    CHECK (duration_minutes > 0 AND duration_minutes <= 1440);
+
+ALTER TABLE appointments ADD COLUMN time_range TSRANGE GENERATED ALWAYS AS (
+    tsrange(appointment_date, appointment_date + duration_minutes * INTERVAL '1 minute', '[)')
+) STORED;
+
+ALTER TABLE appointments ADD CONSTRAINT ex_appointments_doctor_overlap
+    EXCLUDE USING gist (doctor_id WITH =, time_range WITH &&)
+    WHERE (deleted = FALSE AND status <> 'CANCELLED' AND doctor_id IS NOT NULL);
+
+ALTER TABLE appointments ADD CONSTRAINT ex_appointments_room_overlap
+    EXCLUDE USING gist (room WITH =, time_range WITH &&)
+    WHERE (deleted = FALSE AND status <> 'CANCELLED' AND room IS NOT NULL);
+
+-- Calendar listing by time window
+CREATE INDEX idx_appointments_active_date ON appointments(appointment_date) WHERE deleted = FALSE;
+
+COMMENT ON COLUMN appointments.time_range IS 'Occupied interval; cancelled or deleted appointments do not block it';
@@ -0,0 +1,54 @@
+-- =====================================================
+-- Dashboard rollups
+-- Small daily aggregate tables kept up to date by the services on every write (see
+-- DashboardRollupService), so dashboards read O(days) rows instead of the source tables.
+-- A nightly job rebuilds them from the source tables; this migration does the first build.
+-- Empty source/status values are stored as '' so they can be part of the primary key.
+-- =====================================================
+
+-- Customers by registration day, status and source
+CREATE TABLE customer_daily_stats (
+    day DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    source VARCHAR(100) NOT NULL,
+    total BIGINT NOT NULL,
+    PRIMARY KEY (day, status, source)
+);
+
+-- Leads by creation day, source and status
+CREATE TABLE lead_daily_stats (
+    day DATE NOT NULL,
+    source VARCHAR(100) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    total BIGINT NOT NULL,
+    PRIMARY KEY (day, source, status)
+);
+
+-- Completed reminders by completion day and category
+CREATE TABLE reminder_daily_completions (
+    day DATE NOT NULL,
+    category_id UUID NOT NULL,
+    total BIGINT NOT NULL,
+    PRIMARY KEY (day, category_id)
+);
+
+-- Reminders created as completed did not get a completion time; use their creation time
+UPDATE reminders SET completed_at = created_at WHERE is_completed = TRUE AND completed_at IS NULL;
+
+INSERT INTO customer_daily_stats (day, status, source, total)
+SELECT COALESCE(registration_date, created_at)::date, status, COALESCE(source, ''), count(*)
+FROM customers
+WHERE COALESCE(deleted, FALSE) = FALSE
+GROUP BY 1, 2, 3;
+
+INSERT INTO lead_daily_stats (day, source, status, total)
+SELECT created_at::date, COALESCE(source, ''), COALESCE(status, ''), count(*)
+FROM leads
+WHERE COALESCE(deleted, FALSE) = FALSE
+GROUP BY 1, 2, 3;
+
+INSERT INTO reminder_daily_completions (day, category_id, total)
+SELECT completed_at::date, category_id, count(*)
+FROM reminders
+WHERE COALESCE(deleted, FALSE) = FALSE AND is_completed = TRUE AND completed_at IS NOT NULL
+GROUP BY 1, 2;
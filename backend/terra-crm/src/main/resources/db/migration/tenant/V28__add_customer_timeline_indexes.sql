@@ -0,0 +1,12 @@
+-- =====================================================
+-- Customer timeline
+-- Keyset indexes so each timeline page reads only page-size rows per source, in order.
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_reminders_relation_due
+    ON reminders(relation_type, relation_id, reminder_date, reminder_time, id) WHERE deleted = FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_customer_files_customer_created ON customer_files(customer_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_customer_files_customer_trashed
+    ON customer_files(customer_id, deleted_at, id) WHERE is_deleted = TRUE;
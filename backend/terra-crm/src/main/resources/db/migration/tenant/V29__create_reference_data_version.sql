@@ -0,0 +1,68 @@
+-- =====================================================
+-- Reference data version
+-- A single-row counter bumped by statement triggers on every reference table (customer
+-- parameters, file categories and reminder settings), so that any write path changes it.
+-- Clients revalidate their copy of the reference data against it (see ReferenceDataService).
+-- =====================================================
+
+CREATE TABLE reference_data_version (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    version BIGINT NOT NULL DEFAULT 1
+);
+
+INSERT INTO reference_data_version (id, version) VALUES (1, 1);
+
+-- The table is resolved through TG_TABLE_SCHEMA, so the trigger also works for writes that
+-- qualify the schema instead of relying on search_path.
+CREATE OR REPLACE FUNCTION bump_reference_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    EXECUTE format('UPDATE %I.reference_data_version SET version = version + 1 WHERE id = 1', TG_TABLE_SCHEMA);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON customer_categories
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON customer_services
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON customer_statuses
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON customer_sources
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON customer_tags
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON file_categories
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON reminder_categories
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON reminder_subcategories
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
+
+CREATE TRIGGER trigger_reference_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON reminder_statuses
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_reference_data_version();
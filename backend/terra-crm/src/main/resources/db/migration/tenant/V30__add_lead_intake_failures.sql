@@ -0,0 +1,13 @@
+-- =====================================================
+-- Lead intake failures
+-- A staged lead that cannot be written on its own (bad data, unreadable payload) is parked
+-- with the error instead of being replayed forever; parked rows are kept for inspection and
+-- are neither replayed nor pruned.
+-- =====================================================
+
+ALTER TABLE lead_intake ADD COLUMN failed_at TIMESTAMP;
+ALTER TABLE lead_intake ADD COLUMN error TEXT;
+
+DROP INDEX IF EXISTS idx_lead_intake_pending;
+CREATE INDEX idx_lead_intake_pending ON lead_intake(received_at) WHERE processed_at IS NULL AND failed_at IS NULL;
+CREATE INDEX idx_lead_intake_failed ON lead_intake(failed_at) WHERE failed_at IS NOT NULL;
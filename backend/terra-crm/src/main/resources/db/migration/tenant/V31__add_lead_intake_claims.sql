@@ -0,0 +1,10 @@
+-- =====================================================
+-- Lead intake claims
+-- The periodic replay runs on every node. A node claims the unprocessed rows it re-queues, and
+-- other nodes skip them until the claim times out (the claiming node died or fell behind). The
+-- writer additionally locks the staging rows it writes, so a row is written exactly once even
+-- when a stale claim is taken over.
+-- =====================================================
+
+ALTER TABLE lead_intake ADD COLUMN claimed_by UUID;
+ALTER TABLE lead_intake ADD COLUMN claimed_at TIMESTAMP;
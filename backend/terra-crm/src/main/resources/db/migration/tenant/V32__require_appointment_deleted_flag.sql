@@ -0,0 +1,14 @@
+-- =====================================================
+-- Appointment deleted flag
+-- The overlap constraints of V26 only cover rows with deleted = FALSE. V7 adds the column as
+-- NOT NULL with ADD COLUMN IF NOT EXISTS, so a schema that already had a nullable deleted column
+-- kept it; its rows with deleted IS NULL are active for the application (BaseEntity reads NULL as
+-- not deleted) but escaped the constraints. With the column NOT NULL the predicates cover every
+-- active appointment.
+-- A NULL row that overlaps an active appointment of the same doctor or room fails the backfill
+-- on the constraint; that double booking has to be resolved before this migration can run.
+-- =====================================================
+
+UPDATE appointments SET deleted = FALSE WHERE deleted IS NULL;
+ALTER TABLE appointments ALTER COLUMN deleted SET DEFAULT FALSE;
+ALTER TABLE appointments ALTER COLUMN deleted SET NOT NULL;
@@ -0,0 +1,204 @@
+package com.terrarosa.terra_crm.core.audit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void dropPolicyCountsEventsThatDoNotFit() {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.DROP, 2);
+
+        writer.submit(event("a@demo.com"));
+        writer.submit(event("b@demo.com"));
+        writer.submit(event("c@demo.com"));
+
+        assertEquals(2, writer.queued());
+        assertEquals(1, writer.dropped());
+        assertEquals(1.0, meterRegistry.get("audit.log.dropped").functionCounter().count());
+        assertFalse(Files.exists(spillDirectory.resolve(AuditLogWriter.SPILL_FILE)));
+    }
+
+    @Test
+    void spillPolicyWritesOverflowToDiskAndReplaysIt() throws Exception {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.SPILL, 1);
+        UUID userId = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class)))
+                .thenReturn(List.of(Map.of("id", userId, "email", "b@demo.com")));
+
+        writer.submit(event("a@demo.com"));
+        writer.submit(event("B@demo.com"));
+
+        assertEquals(1, writer.queued());
+        assertEquals(1, writer.spilled());
+        assertEquals(1, Files.readAllLines(spillDirectory.resolve(AuditLogWriter.SPILL_FILE)).size());
+
+        writer.replaySpill();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+        assertFalse(Files.exists(spillDirectory.resolve(AuditLogWriter.SPILL_FILE)));
+        assertFalse(Files.exists(spillDirectory.resolve(AuditLogWriter.REPLAY_FILE)));
+    }
+
+    @Test
+    void blockPolicyWaitsForRoomInsteadOfDropping() throws Exception {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.BLOCK, 1);
+        writer.submit(event("a@demo.com"));
+
+        Thread producer = new Thread(() -> writer.submit(event("b@demo.com")));
+        producer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(Thread.State.WAITING, producer.getState());
+        assertEquals(0, writer.dropped());
+
+        // Draining on stop makes room; the waiting event is then written, not lost
+        writer.stop();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(producer.isAlive());
+        assertEquals(0, writer.queued());
+        assertEquals(0, writer.dropped());
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void eventsSubmittedAfterStopAreSpilledInsteadOfQueued() throws Exception {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.SPILL, 10);
+        writer.stop();
+
+        writer.submit(event("a@demo.com"));
+
+        assertEquals(0, writer.queued());
+        assertEquals(1, writer.spilled());
+        assertEquals(1, Files.readAllLines(spillDirectory.resolve(AuditLogWriter.SPILL_FILE)).size());
+    }
+
+    @Test
+    void eventsSubmittedAfterStopAreWrittenWithoutSpilling() {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.DROP, 10);
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class)))
+                .thenReturn(List.of(Map.of("id", UUID.randomUUID(), "email", "a@demo.com")));
+        writer.stop();
+
+        writer.submit(event("a@demo.com"));
+
+        assertEquals(0, writer.queued());
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void eventsOfUnknownUsersAreSkipped() {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.DROP, 10);
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of());
+
+        writer.flush(List.of(event("gone@demo.com")));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+        assertEquals(0, writer.dropped());
+        assertEquals(1, writer.skipped());
+        assertEquals(1.0, meterRegistry.get("audit.log.skipped").functionCounter().count());
+    }
+
+    @Test
+    void replayQuarantinesEventsThatCannotBeWrittenAndDrainsTheRest() throws Exception {
+        AuditLogWriter writer = spilledWriter();
+        AuditEvent bad = event("a@demo.com");
+        writer.submit(event("a@demo.com"));
+        writer.submit(bad);
+        writer.submit(event("a@demo.com"));
+        Files.writeString(spillDirectory.resolve(AuditLogWriter.SPILL_FILE), "{\"id\":\n",
+                StandardOpenOption.APPEND);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (args.stream().anyMatch(row -> bad.id().equals(row[0]))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return new int[args.size()];
+        });
+
+        writer.replaySpill();
+
+        // One failed batch, then each of its three events on its own
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyList(), any(int[].class));
+        List<String> quarantined = Files.readAllLines(spillDirectory.resolve(AuditLogWriter.QUARANTINE_FILE));
+        assertEquals(2, quarantined.size());
+        assertTrue(quarantined.stream().anyMatch(line -> line.contains(bad.id().toString())));
+        assertEquals(2, writer.quarantined());
+        assertFalse(Files.exists(spillDirectory.resolve(AuditLogWriter.REPLAY_FILE)));
+    }
+
+    @Test
+    void replayKeepsTheFileWhileTheDatabaseIsUnavailable() throws Exception {
+        AuditLogWriter writer = spilledWriter();
+        writer.submit(event("a@demo.com"));
+        writer.submit(event("a@demo.com"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new CannotGetJdbcConnectionException("connection refused"));
+
+        writer.replaySpill();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+        assertEquals(2, Files.readAllLines(spillDirectory.resolve(AuditLogWriter.REPLAY_FILE)).size());
+        assertFalse(Files.exists(spillDirectory.resolve(AuditLogWriter.QUARANTINE_FILE)));
+        assertEquals(0, writer.quarantined());
+    }
+
+    private AuditLogWriter writer(AuditOverflowPolicy overflow, int capacity) {
+        return new AuditLogWriter(jdbcTemplate, mock(PlatformTransactionManager.class), JsonMapper.builder().build(),
+                meterRegistry, capacity, 100, Duration.ofMillis(10), overflow, spillDirectory.toString(), Duration.ZERO,
+                Duration.ofSeconds(1));
+    }
+
+    /**
+     * A writer whose queue is already full, so every submitted event is spilled.
+     */
+    private AuditLogWriter spilledWriter() {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.SPILL, 1);
+        writer.submit(event("a@demo.com"));
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class)))
+                .thenReturn(List.of(Map.of("id", UUID.randomUUID(), "email", "a@demo.com")));
+        return writer;
+    }
+
+    private static AuditEvent event(String email) {
+        return new AuditEvent(UUID.randomUUID(), LocalDateTime.now(), email, null, "FILE_UPLOADED", "FILE",
+                UUID.randomUUID(), "127.0.0.1", "JUnit", Map.of("method", "upload"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.terrarosa.terra_crm.core.security.config;
+
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link PermissionEvaluator#hasPermission(Authentication, String)} call for a user
+ * holding every permission of a large catalog: the bitset built by JwtAuthenticationFilter
+ * against the authority scans still used for authentications without compiled grants (the only
+ * path before the bitset). The granted check hits the last permission, the denied check scans
+ * everything.
+ *
+ * Not a test; run it after {@code mvn test-compile} with
+ * {@code mvn exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.terrarosa.terra_crm.core.security.config.PermissionEvaluatorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionEvaluatorBenchmark {
+
+    @Param({"50", "250", "500"})
+    public int permissions;
+
+    private final PermissionEvaluator evaluator = new PermissionEvaluator(null);
+
+    private Authentication compiled;
+    private Authentication scanned;
+    private String lastPermission;
+
+    @Setup
+    public void setUp() {
+        List<Permission> catalogPermissions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < permissions; i++) {
+            Permission permission = Permission.builder()
+                    .name(String.format("PERM_%03d", i))
+                    .type(PermissionType.ACTION)
+                    .build();
+            permission.setId(UUID.randomUUID());
+            catalogPermissions.add(permission);
+            names.add(permission.getName());
+        }
+        lastPermission = names.getLast();
+
+        PermissionCatalog catalog = PermissionCatalog.of(catalogPermissions);
+        List<String> authorities = new ArrayList<>(names);
+        authorities.add("ROLE_ADMIN");
+        compiled = authentication(authorities, new PermissionEvaluator.JwtAuthenticationDetails(names, "token",
+                PermissionSet.of(catalog, authorities)));
+        scanned = authentication(authorities, new PermissionEvaluator.JwtAuthenticationDetails(names, "token"));
+    }
+
+    @Benchmark
+    public boolean bitsetGranted() {
+        return evaluator.hasPermission(compiled, lastPermission);
+    }
+
+    @Benchmark
+    public boolean bitsetDenied() {
+        return evaluator.hasPermission(compiled, "SETTINGS_VIEW");
+    }
+
+    @Benchmark
+    public boolean scanGranted() {
+        return evaluator.hasPermission(scanned, lastPermission);
+    }
+
+    @Benchmark
+    public boolean scanDenied() {
+        return evaluator.hasPermission(scanned, "SETTINGS_VIEW");
+    }
+
+    private static Authentication authentication(List<String> authorities, Object details) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("user", null,
+                authorities.stream().map(SimpleGrantedAuthority::new).toList());
+        authentication.setDetails(details);
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionEvaluatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,148 @@
+package com.terrarosa.terra_crm.core.security.config;
+
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call authorization overhead of {@link RequirePermissionAuthorizationManager} against the
+ * SpEL {@code @PreAuthorize} check it replaced, for the same rule and a user holding 250
+ * permissions. The SpEL manager is set up like SecurityConfig's expression handler, with the
+ * {@code permissionEvaluator} bean resolved from an application context. Only the second
+ * permission of the rule is granted, so both sides evaluate the whole rule.
+ *
+ * Not a test; run it after {@code mvn test-compile} with
+ * {@code mvn exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.terrarosa.terra_crm.core.security.config.RequirePermissionAuthorizationManagerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequirePermissionAuthorizationManagerBenchmark {
+
+    private static final int PERMISSIONS = 250;
+
+    public static class Endpoints {
+
+        @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'HEALTH_CUSTOMERS_VIEW')"
+                + " or @permissionEvaluator.hasPermission(authentication, 'CUSTOMERS_VIEW')")
+        public void preAuthorize() {
+        }
+
+        @RequirePermission({"HEALTH_CUSTOMERS_VIEW", "CUSTOMERS_VIEW"})
+        public void requirePermission() {
+        }
+    }
+
+    private final RequirePermissionAuthorizationManager requirePermissionManager =
+            new RequirePermissionAuthorizationManager();
+    private final PreAuthorizeAuthorizationManager preAuthorizeManager = new PreAuthorizeAuthorizationManager();
+    private final StaticApplicationContext context = new StaticApplicationContext();
+
+    private Authentication authentication;
+    private MethodInvocation preAuthorizeCall;
+    private MethodInvocation requirePermissionCall;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        List<Permission> catalogPermissions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < PERMISSIONS; i++) {
+            catalogPermissions.add(permission(String.format("PERM_%03d", i)));
+        }
+        catalogPermissions.add(permission("HEALTH_CUSTOMERS_VIEW"));
+        catalogPermissions.add(permission("CUSTOMERS_VIEW"));
+        for (Permission permission : catalogPermissions) {
+            if (!"HEALTH_CUSTOMERS_VIEW".equals(permission.getName())) {
+                names.add(permission.getName());
+            }
+        }
+        List<String> authorities = new ArrayList<>(names);
+        authorities.add("ROLE_ADMIN");
+
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("user", null,
+                authorities.stream().map(SimpleGrantedAuthority::new).toList());
+        token.setDetails(new PermissionEvaluator.JwtAuthenticationDetails(names, "token",
+                PermissionSet.of(PermissionCatalog.of(catalogPermissions), authorities)));
+        authentication = token;
+
+        PermissionEvaluator permissionEvaluator = new PermissionEvaluator(null);
+        context.getBeanFactory().registerSingleton("permissionEvaluator", permissionEvaluator);
+        context.refresh();
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(permissionEvaluator);
+        handler.setApplicationContext(context);
+        preAuthorizeManager.setExpressionHandler(handler);
+
+        Endpoints endpoints = new Endpoints();
+        preAuthorizeCall = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("preAuthorize"));
+        requirePermissionCall = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("requirePermission"));
+        if (!preAuthorize().isGranted() || !requirePermission().isGranted()) {
+            throw new IllegalStateException("Both checks must grant access");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthorizationResult preAuthorize() {
+        return preAuthorizeManager.authorize(() -> authentication, preAuthorizeCall);
+    }
+
+    @Benchmark
+    public AuthorizationResult requirePermission() {
+        return requirePermissionManager.authorize(() -> authentication, requirePermissionCall);
+    }
+
+    private static Permission permission(String name) {
+        Permission permission = Permission.builder()
+                .name(name)
+                .type(PermissionType.ACTION)
+                .build();
+        permission.setId(UUID.randomUUID());
+        return permission;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequirePermissionAuthorizationManagerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.terrarosa.terra_crm.core.security.config;
+
+import com.terrarosa.terra_crm.core.security.annotation.RequirePermission;
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequirePermissionAuthorizationManagerTest {
+
+    private final PermissionCatalog catalog = PermissionCatalog.of(List.of(
+            permission("CUSTOMERS_VIEW"), permission("CUSTOMERS_UPDATE"), permission("SETTINGS_VIEW")));
+
+    private final RequirePermissionAuthorizationManager manager = new RequirePermissionAuthorizationManager();
+
+    @RequirePermission("ROLE_ADMIN")
+    static class Endpoints {
+
+        @RequirePermission({"CUSTOMERS_VIEW", "SETTINGS_VIEW"})
+        public void anyOf() {
+        }
+
+        @RequirePermission(allOf = {"CUSTOMERS_VIEW", "CUSTOMERS_UPDATE"})
+        public void allOf() {
+        }
+
+        public void classLevel() {
+        }
+
+        @RequirePermission
+        public void empty() {
+        }
+    }
+
+    @Test
+    void anyOfAndAllOfAreCheckedAgainstCompiledGrants() {
+        Authentication viewer = authentication("CUSTOMERS_VIEW");
+
+        assertTrue(granted(viewer, "anyOf"));
+        assertTrue(granted(authentication("SETTINGS_VIEW"), "anyOf"));
+        assertFalse(granted(viewer, "allOf"));
+        assertTrue(granted(authentication("CUSTOMERS_VIEW", "CUSTOMERS_UPDATE"), "allOf"));
+        assertFalse(granted(authentication("CUSTOMERS_UPDATE"), "anyOf"));
+    }
+
+    @Test
+    void classAnnotationAppliesUnlessTheMethodHasItsOwn() {
+        assertTrue(granted(authentication("ROLE_ADMIN"), "classLevel"));
+        assertFalse(granted(authentication("CUSTOMERS_VIEW"), "classLevel"));
+        assertFalse(granted(authentication("ROLE_ADMIN"), "anyOf"));
+    }
+
+    @Test
+    void superAdminPassesEveryCheck() {
+        Authentication superAdmin = authentication("ROLE_SUPER_ADMIN");
+
+        assertTrue(granted(superAdmin, "anyOf"));
+        assertTrue(granted(superAdmin, "allOf"));
+        assertTrue(granted(superAdmin, "classLevel"));
+        // Without compiled grants the authorities are checked directly
+        assertTrue(granted(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_SUPER_ADMIN"))), "allOf"));
+    }
+
+    @Test
+    void annotationWithoutPermissionsIsRejected() {
+        assertThrows(IllegalStateException.class, () -> granted(authentication("ROLE_ADMIN"), "empty"));
+    }
+
+    private boolean granted(Authentication authentication, String methodName) {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        try {
+            when(invocation.getMethod()).thenReturn(Endpoints.class.getMethod(methodName));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+        when(invocation.getThis()).thenReturn(new Endpoints());
+        return manager.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    private Authentication authentication(String... authorities) {
+        List<String> names = List.of(authorities);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("user", null,
+                names.stream().map(SimpleGrantedAuthority::new).toList());
+        authentication.setDetails(new PermissionEvaluator.JwtAuthenticationDetails(names, "token",
+                PermissionSet.of(catalog, names)));
+        return authentication;
+    }
+
+    private static Permission permission(String name) {
+        Permission permission = Permission.builder()
+                .name(name)
+                .type(PermissionType.ACTION)
+                .build();
+        permission.setId(UUID.randomUUID());
+        return permission;
+    }
+}
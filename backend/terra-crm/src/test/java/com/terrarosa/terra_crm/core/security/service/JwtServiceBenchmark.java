@@ -0,0 +1,133 @@
+package com.terrarosa.terra_crm.core.security.service;
+
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.repository.PermissionRepository;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalogService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Size and parse time of an access token carrying 250 permissions: as a catalog bitmap, and
+ * listed by name as before the bitmap (encoded against an empty catalog). Each benchmark parses
+ * and verifies the token and compiles its permissions as JwtAuthenticationFilter does; the token
+ * lengths are reported as the {@code tokenCharacters} secondary result.
+ *
+ * Not a test; run it after {@code mvn test-compile} with
+ * {@code mvn exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.terrarosa.terra_crm.core.security.service.JwtServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final int PERMISSIONS = 250;
+
+    private JwtService bitmapService;
+    private JwtService listingService;
+    private String bitmapToken;
+    private String listedToken;
+
+    /**
+     * Secondary result: characters of the token parsed by the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TokenSize {
+
+        public long tokenCharacters;
+    }
+
+    @Setup
+    public void setUp() {
+        List<Permission> permissions = new ArrayList<>();
+        for (int i = 0; i < PERMISSIONS; i++) {
+            Permission permission = Permission.builder()
+                    .name(String.format("PERM_%03d", i))
+                    .type(PermissionType.ACTION)
+                    .build();
+            permission.setId(UUID.randomUUID());
+            permissions.add(permission);
+        }
+        PermissionCatalog catalog = PermissionCatalog.of(permissions);
+        List<String> names = catalog.all().stream().map(PermissionCatalog.Entry::name).toList();
+
+        bitmapService = jwtService(catalog);
+        listingService = jwtService(PermissionCatalog.of(List.of()));
+        String tenantId = UUID.randomUUID().toString();
+        bitmapToken = bitmapService.generateAccessToken("user@terra.test", tenantId, "tp_test",
+                List.of("ROLE_ADMIN"), names, null);
+        listedToken = listingService.generateAccessToken("user@terra.test", tenantId, "tp_test",
+                List.of("ROLE_ADMIN"), names, null);
+    }
+
+    @Benchmark
+    public PermissionSet bitmap(TokenSize size) {
+        size.tokenCharacters = bitmapToken.length();
+        return bitmapService.extractPermissionSet(bitmapToken);
+    }
+
+    @Benchmark
+    public PermissionSet listed(TokenSize size) {
+        size.tokenCharacters = listedToken.length();
+        return listingService.extractPermissionSet(listedToken);
+    }
+
+    private static JwtService jwtService(PermissionCatalog catalog) {
+        // A fixed catalog without mock dispatch on the measured path
+        PermissionCatalogService catalogService = new PermissionCatalogService(mock(PermissionRepository.class),
+                mock(PlatformTransactionManager.class)) {
+            @Override
+            public PermissionCatalog getCatalog() {
+                return catalog;
+            }
+
+            @Override
+            public Optional<PermissionCatalog> getCatalog(String version) {
+                return catalog.version().equals(version) ? Optional.of(catalog) : Optional.empty();
+            }
+        };
+        JwtService service = new JwtService(catalogService);
+        byte[] key = new byte[32];
+        new Random(7).nextBytes(key);
+        ReflectionTestUtils.setField(service, "secretKey", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(service, "expiration", 3_600_000L);
+        return service;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
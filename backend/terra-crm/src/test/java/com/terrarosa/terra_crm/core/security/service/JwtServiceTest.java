@@ -0,0 +1,139 @@
+package com.terrarosa.terra_crm.core.security.service;
+
+import com.terrarosa.terra_crm.core.security.util.PermissionSet;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtServiceTest {
+
+    private static final int PERMISSIONS = 250;
+
+    private final PermissionCatalogService permissionCatalogService = mock(PermissionCatalogService.class);
+    private final JwtService jwtService = new JwtService(permissionCatalogService);
+
+    private final List<Permission> permissions = catalogPermissions();
+    private final PermissionCatalog catalog = PermissionCatalog.of(permissions);
+    private final List<String> names = catalog.all().stream().map(PermissionCatalog.Entry::name).toList();
+
+    @BeforeEach
+    void setUp() {
+        configure(jwtService);
+        useCatalog(catalog);
+    }
+
+    @Test
+    void cataloguedAndUncataloguedPermissionsRoundTrip() {
+        List<String> granted = new ArrayList<>(names.subList(0, 100));
+        granted.add("LEGACY_AUTHORITY");
+
+        PermissionSet decoded = jwtService.extractPermissionSet(token(granted));
+
+        assertEquals(granted, decoded.names());
+    }
+
+    @Test
+    void tokensOfAReplacedButKnownCatalogAreReindexed() {
+        String token = token(names);
+        List<Permission> reloaded = new ArrayList<>(permissions);
+        reloaded.add(permission("AAA_NEW_PERMISSION"));
+        PermissionCatalog current = PermissionCatalog.of(reloaded);
+        when(permissionCatalogService.getCatalog()).thenReturn(current);
+        when(permissionCatalogService.getCatalog(anyString())).thenReturn(Optional.empty());
+        when(permissionCatalogService.getCatalog(catalog.version())).thenReturn(Optional.of(catalog));
+
+        PermissionSet decoded = jwtService.extractPermissionSet(token);
+
+        assertEquals(names, decoded.names());
+        assertSame(current, decoded.getCatalog());
+    }
+
+    @Test
+    void tokensOfAnUnknownCatalogVersionAreRejected() {
+        String token = token(List.of(names.getFirst(), "LEGACY_AUTHORITY"));
+        PermissionCatalog current = PermissionCatalog.of(List.of(permission("CUSTOMERS_VIEW")));
+        when(permissionCatalogService.getCatalog()).thenReturn(current);
+        when(permissionCatalogService.getCatalog(anyString())).thenReturn(Optional.empty());
+
+        // The permissions claim only lists LEGACY_AUTHORITY; falling back to it would silently
+        // drop every catalogued permission
+        assertThrows(BadCredentialsException.class, () -> jwtService.extractPermissionSet(token));
+        assertThrows(BadCredentialsException.class, () -> jwtService.extractPermissions(token));
+    }
+
+    @Test
+    void bitmapTokensAreSmallerThanNameLists() {
+        String bitmapToken = token(names);
+        // Against an empty catalog every permission is listed by name, as before the bitmap
+        PermissionCatalogService emptyCatalogService = mock(PermissionCatalogService.class);
+        PermissionCatalog empty = PermissionCatalog.of(List.of());
+        when(emptyCatalogService.getCatalog()).thenReturn(empty);
+        when(emptyCatalogService.getCatalog(empty.version())).thenReturn(Optional.of(empty));
+        JwtService listing = new JwtService(emptyCatalogService);
+        configure(listing);
+        String listedToken = listing.generateAccessToken("user@terra.test", UUID.randomUUID().toString(), "tp_test",
+                List.of("ROLE_ADMIN"), names, null);
+
+        assertEquals(Set.copyOf(names), Set.copyOf(listing.extractPermissions(listedToken)));
+        // 250 permissions: a 43 character bitmap instead of some 2.5 KB of names
+        assertTrue(bitmapToken.length() < 1024, "bitmap token is " + bitmapToken.length() + " characters");
+        assertTrue(listedToken.length() > 3 * bitmapToken.length(),
+                "listed token is " + listedToken.length() + " characters");
+    }
+
+    private String token(List<String> granted) {
+        return jwtService.generateAccessToken("user@terra.test", UUID.randomUUID().toString(), "tp_test",
+                List.of("ROLE_ADMIN"), granted, null);
+    }
+
+    private void useCatalog(PermissionCatalog current) {
+        when(permissionCatalogService.getCatalog()).thenReturn(current);
+        when(permissionCatalogService.getCatalog(current.version())).thenReturn(Optional.of(current));
+    }
+
+    private static void configure(JwtService service) {
+        byte[] key = new byte[32];
+        new Random(7).nextBytes(key);
+        ReflectionTestUtils.setField(service, "secretKey", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(service, "expiration", 900_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 604_800_000L);
+    }
+
+    private static List<Permission> catalogPermissions() {
+        List<Permission> permissions = new ArrayList<>();
+        for (int i = 0; i < PERMISSIONS; i++) {
+            permissions.add(permission(String.format("PERM_%03d", i)));
+        }
+        return permissions;
+    }
+
+    private static Permission permission(String name) {
+        Permission permission = Permission.builder()
+                .name(name)
+                .type(PermissionType.ACTION)
+                .build();
+        permission.setId(UUID.randomUUID());
+        return permission;
+    }
+}
@@ -0,0 +1,58 @@
+package com.terrarosa.terra_crm.core.security.service;
+
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService.Stamp;
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService.SubjectType;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+class PermissionEpochServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PermissionEpochService service =
+            new PermissionEpochService(jdbcTemplate, mock(ApplicationEventPublisher.class));
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID tenant = UUID.randomUUID();
+
+    @Test
+    void tokensIssuedBeforeABumpAreStale() {
+        assertTrue(service.isCurrent(new Stamp(user, tenant, 0, 0)));
+
+        service.onPermissionEpochsBumped(new PermissionEpochsBumpedEvent(SubjectType.USER, Map.of(user, 7L)));
+        assertFalse(service.isCurrent(new Stamp(user, tenant, 0, 0)));
+        assertTrue(service.isCurrent(new Stamp(user, tenant, 7, 0)));
+
+        service.onPermissionEpochsBumped(new PermissionEpochsBumpedEvent(SubjectType.TENANT, Map.of(tenant, 9L)));
+        assertFalse(service.isCurrent(new Stamp(user, tenant, 7, 0)));
+        assertTrue(service.isCurrent(new Stamp(user, tenant, 7, 9)));
+        // Other users and tenants are unaffected
+        assertTrue(service.isCurrent(new Stamp(UUID.randomUUID(), UUID.randomUUID(), 0, 0)));
+    }
+
+    @Test
+    void epochsNeverGoBack() {
+        service.onPermissionEpochsBumped(new PermissionEpochsBumpedEvent(SubjectType.USER, Map.of(user, 7L)));
+        // A poll can deliver an older value after a local bump
+        service.onPermissionEpochsBumped(new PermissionEpochsBumpedEvent(SubjectType.USER, Map.of(user, 3L)));
+
+        assertFalse(service.isCurrent(new Stamp(user, tenant, 3, 0)));
+    }
+
+    @Test
+    void emptyBumpIsNoStatement() {
+        service.bumpUsers(List.of());
+
+        assertEquals(0, mockingDetails(jdbcTemplate).getInvocations().size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.terrarosa.terra_crm.core.security.util;
+
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.service.PermissionCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionSetTest {
+
+    private static final int PERMISSIONS = 250;
+
+    @Test
+    void bitTestsMatchListMembershipAcrossWordBoundaries() {
+        List<Permission> permissions = catalogPermissions();
+        PermissionCatalog catalog = PermissionCatalog.of(permissions);
+
+        Random random = new Random(42);
+        List<String> granted = new ArrayList<>(List.of("ROLE_ADMIN", "LEGACY_AUTHORITY"));
+        for (Permission permission : permissions) {
+            if (random.nextBoolean()) {
+                granted.add(permission.getName());
+            }
+        }
+        PermissionSet grants = PermissionSet.of(catalog, granted);
+
+        for (Permission permission : permissions) {
+            assertEquals(granted.contains(permission.getName()), grants.contains(permission.getName()),
+                    permission.getName());
+        }
+        assertTrue(grants.contains("ROLE_ADMIN"));
+        assertTrue(grants.contains("LEGACY_AUTHORITY"));
+        assertFalse(grants.contains("UNKNOWN"));
+        assertFalse(grants.contains(null));
+        assertFalse(grants.isSuperAdmin());
+    }
+
+    @Test
+    void bitmapRoundTripsAgainstTheSameCatalog() {
+        PermissionCatalog catalog = PermissionCatalog.of(catalogPermissions());
+        List<String> all = catalog.all().stream().map(PermissionCatalog.Entry::name).toList();
+
+        PermissionSet full = PermissionSet.of(catalog, all);
+        String bitmap = full.toBitmap();
+        // 250 bits: 32 bytes, 43 base64url characters
+        assertEquals(43, bitmap.length());
+
+        PermissionSet decoded = PermissionSet.fromBitmap(catalog, bitmap, List.of("LEGACY_AUTHORITY"));
+        assertEquals(all, decoded.names().subList(0, all.size()));
+        assertTrue(decoded.contains("LEGACY_AUTHORITY"));
+
+        PermissionSet partial = PermissionSet.of(catalog, List.of("PERM_000", "PERM_064", "PERM_249"));
+        assertEquals(List.of("PERM_000", "PERM_064", "PERM_249"),
+                PermissionSet.fromBitmap(catalog, partial.toBitmap(), List.of()).names());
+        assertEquals("", PermissionSet.of(catalog, List.of()).toBitmap());
+    }
+
+    @Test
+    void superAdminRoleIsDetectedOnce() {
+        PermissionCatalog catalog = PermissionCatalog.of(List.of());
+
+        PermissionSet grants = PermissionSet.of(catalog, List.of("ROLE_SUPER_ADMIN"));
+
+        assertTrue(grants.isSuperAdmin());
+        assertFalse(grants.contains("CUSTOMERS_VIEW"));
+    }
+
+    @Test
+    void setsGrantingTheSameAuthoritiesAreEqual() {
+        PermissionCatalog catalog = PermissionCatalog.of(catalogPermissions());
+        PermissionSet grants = PermissionSet.of(catalog, List.of("PERM_001", "PERM_200", "LEGACY_AUTHORITY"));
+
+        PermissionSet decoded = PermissionSet.fromBitmap(PermissionCatalog.of(catalogPermissions()),
+                grants.toBitmap(), List.of("LEGACY_AUTHORITY"));
+        assertEquals(grants, decoded);
+        assertEquals(grants.hashCode(), decoded.hashCode());
+
+        assertNotEquals(grants, PermissionSet.of(catalog, List.of("PERM_001", "PERM_200")));
+        assertNotEquals(grants, PermissionSet.of(catalog, List.of("PERM_001", "PERM_201", "LEGACY_AUTHORITY")));
+        assertNotEquals(grants, grants.plus(List.of("ROLE_SUPER_ADMIN")));
+    }
+
+    private static List<Permission> catalogPermissions() {
+        List<Permission> permissions = new ArrayList<>();
+        for (int i = 0; i < PERMISSIONS; i++) {
+            Permission permission = Permission.builder()
+                    .name(String.format("PERM_%03d", i))
+                    .type(PermissionType.ACTION)
+                    .build();
+            permission.setId(UUID.randomUUID());
+            permissions.add(permission);
+        }
+        return permissions;
+    }
+}
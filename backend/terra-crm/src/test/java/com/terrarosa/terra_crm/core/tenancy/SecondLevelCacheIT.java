@@ -0,0 +1,110 @@
+package com.terrarosa.terra_crm.core.tenancy;
+
+import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.modules.auth.repository.RoleRepository;
+import com.terrarosa.terra_crm.modules.auth.repository.TenantModuleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for the second-level and query cache: public-schema entities are shared by
+ * all tenant sessions, the hot lookups are served from the query cache, and the per-request
+ * tenant status check reads past the cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheIT {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TenantModuleRepository tenantModuleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Tenant testTenant;
+
+    @BeforeEach
+    void setUp() {
+        testTenant = tenantRepository.save(Tenant.builder()
+                .name("Cache Test Tenant")
+                .schemaName("test_tenant_" + UUID.randomUUID().toString().replace("-", ""))
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        statistics.setStatisticsEnabled(false);
+        tenantRepository.delete(testTenant);
+    }
+
+    @Test
+    void publicEntitiesAreSharedAcrossTenantSessions() {
+        TenantContext.setCurrentTenant(testTenant.getId().toString(), "public");
+        tenantRepository.findById(testTenant.getId()).orElseThrow();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        // Another tenant's session resolves the same cache entry
+        TenantContext.setCurrentTenant(UUID.randomUUID().toString(), testTenant.getSchemaName());
+        tenantRepository.findById(testTenant.getId()).orElseThrow();
+
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void statusCheckSeesASuspensionMadeOutsideThisNode() {
+        assertTrue(tenantRepository.findById(testTenant.getId()).orElseThrow().canAcceptRequests());
+        // Another node's update does not evict this node's cache entry
+        jdbcTemplate.update("UPDATE public.tenants SET status = 'SUSPENDED'::tenant_status WHERE id = ?",
+                testTenant.getId());
+
+        assertTrue(tenantRepository.findById(testTenant.getId()).orElseThrow().canAcceptRequests());
+        assertFalse(tenantRepository.findCurrentById(testTenant.getId()).orElseThrow().canAcceptRequests());
+        // The fresh state replaced the cache entry
+        assertFalse(tenantRepository.findById(testTenant.getId()).orElseThrow().canAcceptRequests());
+    }
+
+    @Test
+    void hotLookupsAreServedFromTheQueryCache() {
+        roleRepository.findByName("ROLE_ADMIN");
+        tenantRepository.findBySchemaName("public");
+        tenantModuleRepository.findByTenantId(testTenant.getId());
+        long hits = statistics.getQueryCacheHitCount();
+
+        roleRepository.findByName("ROLE_ADMIN");
+        tenantRepository.findBySchemaName("public");
+        tenantModuleRepository.findByTenantId(testTenant.getId());
+
+        assertEquals(hits + 3, statistics.getQueryCacheHitCount());
+        assertTrue(statistics.getQueryCachePutCount() >= 3);
+    }
+}
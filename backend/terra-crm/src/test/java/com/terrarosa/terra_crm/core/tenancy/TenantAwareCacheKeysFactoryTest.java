@@ -0,0 +1,32 @@
+package com.terrarosa.terra_crm.core.tenancy;
+
+import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Role;
+import com.terrarosa.terra_crm.modules.auth.entity.TenantModule;
+import com.terrarosa.terra_crm.modules.health.entity.Customer;
+import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantAwareCacheKeysFactoryTest {
+
+    private final TenantAwareCacheKeysFactory factory = new TenantAwareCacheKeysFactory();
+
+    @Test
+    void publicSchemaEntitiesShareKeysAcrossTenants() {
+        assertTrue(factory.isShared(Role.class));
+        assertTrue(factory.isShared(Permission.class));
+        assertTrue(factory.isShared(Tenant.class));
+        assertTrue(factory.isShared(TenantModule.class));
+    }
+
+    @Test
+    void tenantSchemaEntitiesKeepTenantQualifiedKeys() {
+        assertFalse(factory.isShared(Customer.class));
+        assertFalse(factory.isShared(Reminder.class));
+        assertFalse(factory.isShared(Object.class));
+    }
+}
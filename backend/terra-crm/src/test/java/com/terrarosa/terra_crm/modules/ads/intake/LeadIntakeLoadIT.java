@@ -0,0 +1,146 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import com.terrarosa.terra_crm.core.exception.TooManyRequestsException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load measurement for the lead intake: 8 producers push 40k leads in requests of 50 through
+ * {@link LeadIntakeService} (staging insert) while the {@link LeadIntakeWriter} writes them to
+ * the database. Producers that get a 429 back off and retry, like an integration would.
+ *
+ * Verifies every lead is written exactly once and that the sustained rate, from the first request
+ * until the last lead is written, reaches {@link #MIN_LEADS_PER_SECOND} on a laptop-class
+ * Postgres. Runs outside the default build with the other integration tests.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class LeadIntakeLoadIT {
+
+    private static final int PRODUCERS = 8;
+    private static final int REQUESTS_PER_PRODUCER = 100;
+    private static final int LEADS_PER_REQUEST = 50;
+    private static final double MIN_LEADS_PER_SECOND = 5_000;
+
+    @Autowired
+    private LeadIntakeService leadIntakeService;
+
+    @Autowired
+    private LeadIntakeWriter leadIntakeWriter;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String schemaName;
+
+    @BeforeEach
+    void setUp() {
+        schemaName = "test_tenant_" + UUID.randomUUID().toString().replace("-", "");
+        tenantService.createTenantSchema(schemaName);
+        tenantService.runTenantMigrations(schemaName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + tenantService.quotedSchema(schemaName) + " CASCADE");
+    }
+
+    @Test
+    void sustainedIntakeRate() throws Exception {
+        int total = PRODUCERS * REQUESTS_PER_PRODUCER * LEADS_PER_REQUEST;
+        String tenantId = UUID.randomUUID().toString();
+        AtomicLong rejected = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch producersDone = new CountDownLatch(PRODUCERS);
+        long start = System.nanoTime();
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                TenantContext.setCurrentTenant(tenantId, schemaName);
+                try {
+                    for (int r = 0; r < REQUESTS_PER_PRODUCER; r++) {
+                        List<LeadCreateRequest> leads = leads(producer, r);
+                        while (true) {
+                            try {
+                                leadIntakeService.accept("load-" + producer + "-" + r, leads);
+                                break;
+                            } catch (TooManyRequestsException e) {
+                                rejected.incrementAndGet();
+                                Thread.sleep(5);
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    TenantContext.clear();
+                    producersDone.countDown();
+                }
+            });
+        }
+
+        assertTrue(producersDone.await(5, TimeUnit.MINUTES), "Producers did not finish");
+        executor.shutdown();
+        String schema = tenantService.quotedSchema(schemaName);
+        long written = 0;
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            written = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + schema + ".leads", Long.class);
+            if (written >= total && leadIntakeWriter.queued() == 0) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double rate = total / seconds;
+
+        log.info("Lead intake load: {} leads in {} s = {} leads/s ({} rejected requests)",
+                total, String.format("%.2f", seconds), String.format("%.0f", rate), rejected.get());
+        assertEquals(total, written);
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + schema + ".lead_intake WHERE processed_at IS NULL", Long.class));
+        assertTrue(rate >= MIN_LEADS_PER_SECOND,
+                String.format("Sustained %.0f leads/s, expected at least %.0f", rate, MIN_LEADS_PER_SECOND));
+    }
+
+    private static List<LeadCreateRequest> leads(int producer, int request) {
+        List<LeadCreateRequest> leads = new ArrayList<>(LEADS_PER_REQUEST);
+        for (int i = 0; i < LEADS_PER_REQUEST; i++) {
+            int n = (producer * REQUESTS_PER_PRODUCER + request) * LEADS_PER_REQUEST + i;
+            leads.add(LeadCreateRequest.builder()
+                    .name("Load Lead " + n)
+                    .phone(String.format("+9055%08d", n))
+                    .country("TR")
+                    .source("META")
+                    .status("new")
+                    .build());
+        }
+        return leads;
+    }
+}
@@ -0,0 +1,152 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadCreateRequest;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.matching.MatchSubject;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeadIntakeWriterTest {
+
+    private final TenantService tenantService = mock(TenantService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DuplicateMatchingService duplicateMatchingService = mock(DuplicateMatchingService.class);
+    private final DashboardRollupService dashboardRollupService = mock(DashboardRollupService.class);
+    private final LeadIntakeWriter writer = new LeadIntakeWriter(mock(TenantRepository.class), tenantService,
+            jdbcTemplate, mock(PlatformTransactionManager.class), JsonMapper.builder().build(),
+            duplicateMatchingService, dashboardRollupService);
+
+    @BeforeEach
+    void setUp() {
+        when(tenantService.quotedSchema("tp_intake")).thenReturn("\"tp_intake\"");
+        writer.init();
+    }
+
+    @Test
+    void leadsQueuedTwiceInOneBatchAreWrittenOnce() {
+        LeadIntakeItem item = item("Ada");
+        pending(item);
+
+        writer.flush(List.of(item, item));
+
+        assertEquals(1, insertedRows().size());
+        assertEquals(1, matchedSubjects().size());
+    }
+
+    @Test
+    void leadsAlreadyWrittenOrLockedByAnotherWriterAreSkipped() {
+        LeadIntakeItem written = item("Ada");
+        LeadIntakeItem pending = item("Bob");
+        pending(pending);
+
+        writer.flush(List.of(written, pending));
+
+        assertEquals(List.of(pending.id()), insertedRows().stream().map(row -> row[0]).toList());
+        assertEquals(List.of(pending.id()), matchedSubjects().stream().map(MatchSubject::id).toList());
+        verify(dashboardRollupService).apply(eq("tp_intake"), any());
+    }
+
+    @Test
+    void nothingIsWrittenWhenNoRowCanBeLocked() {
+        writer.flush(List.of(item("Ada")));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+        verify(jdbcTemplate, never()).update(contains("SET processed_at"), any(Object[].class));
+        verify(duplicateMatchingService, never()).recordMatches(anyString(), anyList());
+        verify(dashboardRollupService, never()).apply(anyString(), any());
+    }
+
+    @Test
+    void aPoisonRowIsParkedAndTheRestOfTheBatchIsWritten() {
+        LeadIntakeItem good = item("Ada");
+        LeadIntakeItem bad = item("Bob");
+        pending(good, bad);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> bad.id().equals(row[0]))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(50)");
+            }
+            return new int[rows.size()];
+        });
+
+        writer.flush(List.of(good, bad));
+
+        verify(jdbcTemplate).update(contains("SET failed_at"), eq("value too long for type character varying(50)"),
+                eq(bad.id()));
+        verify(jdbcTemplate, never()).update(contains("SET failed_at"), anyString(), eq(good.id()));
+        verify(duplicateMatchingService).recordMatches(eq("tp_intake"), anyList());
+    }
+
+    @Test
+    void rowsStayStagedWhenTheDatabaseIsUnavailable() {
+        LeadIntakeItem ada = item("Ada");
+        LeadIntakeItem bob = item("Bob");
+        pending(ada, bob);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection refused"));
+
+        writer.flush(List.of(ada, bob));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+        verify(jdbcTemplate, never()).update(contains("SET failed_at"), any(Object[].class));
+    }
+
+    /**
+     * Staging rows that are unprocessed and not locked by another writer.
+     */
+    private void pending(LeadIntakeItem... items) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM \"tp_intake\".lead_intake"), eq(UUID.class),
+                any(Object[].class))).thenReturn(Arrays.stream(items).map(LeadIntakeItem::id).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        return rows.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MatchSubject> matchedSubjects() {
+        ArgumentCaptor<List<MatchSubject>> subjects = ArgumentCaptor.forClass(List.class);
+        verify(duplicateMatchingService).recordMatches(eq("tp_intake"), subjects.capture());
+        return subjects.getValue();
+    }
+
+    private static LeadIntakeItem item(String name) {
+        LeadCreateRequest request = LeadCreateRequest.builder()
+                .name(name)
+                .phone("+90555000" + Math.abs(name.hashCode() % 10000))
+                .country("TR")
+                .source("META")
+                .status("new")
+                .build();
+        return new LeadIntakeItem("tp_intake", UUID.randomUUID(), request, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,113 @@
+package com.terrarosa.terra_crm.modules.ads.intake;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindBufferTest {
+
+    @Test
+    void rejectsWholeBatchWhenFull() {
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>(10);
+
+        assertTrue(buffer.tryReserve(6));
+        assertFalse(buffer.tryReserve(5), "Reserved slots count against capacity");
+        buffer.commit(List.of(1, 2, 3, 4));
+        buffer.release(2);
+
+        assertEquals(4, buffer.size());
+        assertEquals(6, buffer.remainingCapacity());
+        assertFalse(buffer.offer(List.of(1, 2, 3, 4, 5, 6, 7)));
+        assertEquals(4, buffer.size(), "A rejected batch must not be partially queued");
+    }
+
+    @Test
+    void drainReturnsAtMostBatchSizeAndTimesOutWhenEmpty() throws InterruptedException {
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>(100);
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            items.add(i);
+        }
+        assertTrue(buffer.offer(items));
+
+        assertEquals(items.subList(0, 10), buffer.drain(10, 0, TimeUnit.MILLISECONDS));
+        assertEquals(15, buffer.drain(100, 0, TimeUnit.MILLISECONDS).size());
+        assertTrue(buffer.drain(10, 5, TimeUnit.MILLISECONDS).isEmpty());
+    }
+
+    /**
+     * Producers that hit a full buffer back off and retry, like an integration receiving 429,
+     * while a single writer drains it; every item must come out exactly once. Throughput is
+     * measured end to end in {@link LeadIntakeLoadIT}.
+     */
+    @Test
+    void concurrentProducersAreDrainedExactlyOnce() throws Exception {
+        int producers = 8;
+        int requestsPerProducer = 200;
+        int itemsPerRequest = 50;
+        int total = producers * requestsPerProducer * itemsPerRequest;
+
+        WriteBehindBuffer<Long> buffer = new WriteBehindBuffer<>(1_000);
+        ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+        AtomicBoolean duplicate = new AtomicBoolean();
+        AtomicBoolean producing = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 1);
+        CountDownLatch producersDone = new CountDownLatch(producers);
+
+        executor.execute(() -> {
+            try {
+                while (producing.get() || buffer.size() > 0) {
+                    for (Long id : buffer.drain(500, 10, TimeUnit.MILLISECONDS)) {
+                        if (seen.putIfAbsent(id, Boolean.TRUE) != null) {
+                            duplicate.set(true);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * requestsPerProducer * itemsPerRequest;
+            executor.execute(() -> {
+                try {
+                    for (int r = 0; r < requestsPerProducer; r++) {
+                        List<Long> request = new ArrayList<>(itemsPerRequest);
+                        for (int i = 0; i < itemsPerRequest; i++) {
+                            request.add(base + (long) r * itemsPerRequest + i);
+                        }
+                        while (!buffer.tryReserve(request.size())) {
+                            Thread.sleep(1);
+                        }
+                        buffer.commit(request);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    producersDone.countDown();
+                }
+            });
+        }
+
+        assertTrue(producersDone.await(60, TimeUnit.SECONDS), "Producers did not finish");
+        producing.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "Writer did not finish");
+
+        assertEquals(total, seen.size());
+        assertFalse(duplicate.get(), "An item was drained twice");
+    }
+}
@@ -0,0 +1,76 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import com.terrarosa.terra_crm.core.exception.ConflictException;
+import com.terrarosa.terra_crm.core.exception.TooManyRequestsException;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.DedupeJobDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DuplicateDedupeServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DuplicateDedupeService service = new DuplicateDedupeService(jdbcTemplate, mock(JdbcTemplate.class),
+            mock(TenantService.class), mock(DuplicateMatchingService.class), mock(PlatformTransactionManager.class));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "pageSize", 100);
+        ReflectionTestUtils.setField(service, "maxConcurrentRuns", 1);
+        ReflectionTestUtils.setField(service, "maxQueuedRuns", 1);
+        service.init();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.stop();
+        TenantContext.clear();
+    }
+
+    @Test
+    void secondRunForTheSameTenantIsAConflict() {
+        startFor("tp_alpha");
+
+        assertThrows(ConflictException.class, () -> startFor("tp_alpha"));
+    }
+
+    @Test
+    void runsBeyondTheQueueAreRejected() {
+        startFor("tp_alpha");
+        assertEquals("QUEUED", startFor("tp_beta").getStatus());
+
+        assertThrows(TooManyRequestsException.class, () -> startFor("tp_gamma"));
+        // The rejected tenant is not left marked as running
+        assertThrows(TooManyRequestsException.class, () -> startFor("tp_gamma"));
+    }
+
+    private DedupeJobDto startFor(String schemaName) {
+        TenantContext.setCurrentTenant(UUID.randomUUID().toString(), schemaName);
+        return service.start();
+    }
+}
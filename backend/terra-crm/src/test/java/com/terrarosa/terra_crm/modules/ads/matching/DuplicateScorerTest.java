@@ -0,0 +1,60 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DuplicateScorerTest {
+
+    @Test
+    void samePhoneAndNameIsAStrongMatch() {
+        MatchSubject lead = lead("Mehmet Yılmaz", "+90 532 111 22 33", null, "TR");
+        MatchSubject customer = customer("mehmet yilmaz", "0532 111 2233", null, "TR", null);
+
+        DuplicateScorer.Score score = DuplicateScorer.score(lead, customer);
+
+        assertNotNull(score);
+        assertEquals(1.0, score.value());
+        assertEquals(List.of("PHONE", "NAME"), score.matchedOn());
+    }
+
+    @Test
+    void emailMatchPrefersFullAddressOverLocalPart() {
+        MatchSubject a = lead("A", null, "john.doe+fb@gmail.com", null);
+        MatchSubject b = lead("B", null, "johndoe@gmail.com", null);
+        MatchSubject c = lead("C", null, "johndoe@yahoo.com", null);
+
+        assertEquals(List.of("EMAIL"), DuplicateScorer.score(a, b).matchedOn());
+        assertNull(DuplicateScorer.score(a, c), "A shared local part alone stays below the threshold");
+    }
+
+    @Test
+    void nameAloneNeedsExactNameAndSameCountry() {
+        MatchSubject a = lead("Ayşe Demir", null, null, "TR");
+
+        assertNotNull(DuplicateScorer.score(a, lead("Ayse Demir", null, null, "tr")));
+        assertNull(DuplicateScorer.score(a, lead("Ayse Demir", null, null, "DE")));
+        assertNull(DuplicateScorer.score(a, lead("Ayşe Demirel", null, null, "TR")));
+    }
+
+    @Test
+    void recordAndItsOwnLeadAreNeverReported() {
+        MatchSubject lead = lead("Mehmet Yılmaz", "05321112233", null, "TR");
+
+        assertNull(DuplicateScorer.score(lead, lead));
+        assertNull(DuplicateScorer.score(lead, customer("Mehmet Yılmaz", "05321112233", null, "TR", lead.id())));
+    }
+
+    private static MatchSubject lead(String name, String phone, String email, String country) {
+        return MatchSubject.of(MatchType.LEAD, UUID.randomUUID(), name, phone, email, country, null);
+    }
+
+    private static MatchSubject customer(String name, String phone, String email, String country, UUID leadId) {
+        return MatchSubject.of(MatchType.CUSTOMER, UUID.randomUUID(), name, phone, email, country, leadId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.terrarosa.terra_crm.modules.ads.matching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MatchKeysTest {
+
+    @Test
+    void phoneKeyIgnoresFormattingAndCountryPrefix() {
+        assertEquals("5321112233", MatchKeys.phoneKey("+90 (532) 111 22 33"));
+        assertEquals("5321112233", MatchKeys.phoneKey("0532 111 2233"));
+        assertEquals("1112233", MatchKeys.phoneKey("111-22-33"));
+        assertNull(MatchKeys.phoneKey("12345"));
+        assertNull(MatchKeys.phoneKey(null));
+    }
+
+    @Test
+    void emailIsNormalizedForTagsAndGmailDots() {
+        assertEquals("mehmetyilmaz@gmail.com", MatchKeys.normalizeEmail(" Mehmet.Yilmaz+ads@Gmail.com "));
+        assertEquals("m.yilmaz@firma.com.tr", MatchKeys.normalizeEmail("M.Yilmaz+x@firma.com.tr"));
+        assertNull(MatchKeys.normalizeEmail("not-an-email"));
+        assertNull(MatchKeys.normalizeEmail("a@b@c"));
+    }
+
+    @Test
+    void genericOrShortMailboxesGetNoLocalKey() {
+        assertEquals("mehmetyilmaz", MatchKeys.emailLocalKey("mehmet.yilmaz@gmail.com"));
+        assertNull(MatchKeys.emailLocalKey("info@clinic.com"));
+        assertNull(MatchKeys.emailLocalKey("ab@clinic.com"));
+    }
+
+    @Test
+    void soundexFollowsAmericanRules() {
+        assertEquals("R163", MatchKeys.soundex("robert"));
+        assertEquals("R163", MatchKeys.soundex("rupert"));
+        assertEquals("A261", MatchKeys.soundex("ashcraft"));
+        assertEquals("T522", MatchKeys.soundex("tymczak"));
+        assertEquals("P236", MatchKeys.soundex("pfister"));
+    }
+
+    @Test
+    void nameKeyIsOrderIndependentAndFoldsTurkishLetters() {
+        assertEquals("M530Y452", MatchKeys.nameKey("Mehmet Yılmaz"));
+        assertEquals("M530Y452", MatchKeys.nameKey("YILMAZ, Mehmet"));
+        assertEquals(MatchKeys.nameKey("Şükrü Öztürk"), MatchKeys.nameKey("Sukru Ozturk"));
+        assertEquals("ayse gul celik", MatchKeys.foldName("Ayşe Gül Çelik"));
+        assertNull(MatchKeys.nameKey("1234"));
+    }
+}
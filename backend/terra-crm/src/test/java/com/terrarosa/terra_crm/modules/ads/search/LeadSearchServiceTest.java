@@ -0,0 +1,97 @@
+package com.terrarosa.terra_crm.modules.ads.search;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchPageDto;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class LeadSearchServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0, 0, 123_456_000);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TenantService tenantService = mock(TenantService.class);
+    private final PromotedFieldService promotedFieldService = mock(PromotedFieldService.class);
+    private final LeadSearchService service = new LeadSearchService(jdbcTemplate, tenantService, promotedFieldService,
+            JsonMapper.builder().build());
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(UUID.randomUUID().toString(), "tp_search");
+        when(tenantService.quotedSchema("tp_search")).thenReturn("\"tp_search\"");
+        when(promotedFieldService.promotedPaths("tp_search")).thenReturn(Set.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void oneExtraLeadIsFetchedToFindTheNextPage() {
+        List<LeadDto> leads = List.of(lead(NOON), lead(NOON.minusHours(1)), lead(NOON.minusHours(2)));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(leads);
+
+        LeadSearchPageDto page = service.search(new LeadSearchRequest(), null, 2);
+
+        assertEquals(leads.subList(0, 2), page.getItems());
+        assertNotNull(page.getNextCursor());
+        verify(jdbcTemplate).query(contains("LIMIT ?"), any(RowMapper.class), eq(3));
+        verify(jdbcTemplate, never()).queryForObject(contains("count(*)"), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    void theNextPageStartsStrictlyAfterTheCursor() {
+        LeadDto last = lead(NOON.minusHours(1));
+        String cursor = new LeadSearchService.Position(last.getCreatedAt(), last.getId()).encode();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(lead(NOON.minusHours(2))));
+
+        LeadSearchPageDto page = service.search(new LeadSearchRequest(), cursor, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(jdbcTemplate).query(contains("AND (l.created_at, l.id) < (?, ?) ORDER BY"), any(RowMapper.class),
+                eq(last.getCreatedAt()), eq(last.getId()), eq(3));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.search(new LeadSearchRequest(), "not-a-cursor", 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search(new LeadSearchRequest(), null, 0));
+    }
+
+    private static LeadDto lead(LocalDateTime createdAt) {
+        return LeadDto.builder()
+                .id(UUID.randomUUID())
+                .name("Lead")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.terrarosa.terra_crm.modules.ads.search;
+
+import com.terrarosa.terra_crm.modules.ads.dto.DynamicFieldFilter;
+import com.terrarosa.terra_crm.modules.ads.dto.DynamicFieldFilter.Operator;
+import com.terrarosa.terra_crm.modules.ads.dto.LeadSearchRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeadSearchSqlTest {
+
+    @Test
+    void pathsAreValidatedAndCanonical() {
+        DynamicFieldPath path = DynamicFieldPath.parse("$.procedure.interest");
+
+        assertEquals("procedure.interest", path.value());
+        assertEquals("(l.dynamic_data -> 'procedure' -> 'interest')", path.jsonbExpression("l.dynamic_data"));
+        assertEquals("$.\"procedure\".\"interest\"", path.jsonPath());
+        assertTrue(path.indexName().startsWith("idx_leads_dd_procedure_interest_"));
+        assertTrue(path.indexName().length() <= 63);
+
+        assertThrows(IllegalArgumentException.class, () -> DynamicFieldPath.parse("budget'; DROP TABLE leads"));
+        assertThrows(IllegalArgumentException.class, () -> DynamicFieldPath.parse("a..b"));
+        assertThrows(IllegalArgumentException.class, () -> DynamicFieldPath.parse("a.b.c.d.e"));
+    }
+
+    @Test
+    void unpromotedEqualityUsesContainment() {
+        LeadSearchSql.Where where = LeadSearchSql.where(request(
+                filter("procedure.interest", Operator.EQ, "Hair \"FUE\""),
+                filter("budget", Operator.IN, null, 1000, 2000)), Set.of());
+
+        assertEquals(" AND l.dynamic_data @> ?::jsonb"
+                + " AND (l.dynamic_data @> ?::jsonb OR l.dynamic_data @> ?::jsonb)", where.sql());
+        assertEquals(List.of("{\"procedure\":{\"interest\":\"Hair \\\"FUE\\\"\"}}",
+                "{\"budget\":1000}", "{\"budget\":2000}"), where.args());
+        assertEquals(2, where.paths().size());
+    }
+
+    @Test
+    void unpromotedRangeUsesStrictJsonPath() {
+        LeadSearchSql.Where where = LeadSearchSql.where(request(
+                filter("budget", Operator.GTE, 1500)), Set.of());
+
+        assertEquals(" AND l.dynamic_data @?? ?::jsonpath", where.sql());
+        assertEquals(List.of("strict $.\"budget\" ? (@ >= 1500)"), where.args());
+    }
+
+    @Test
+    void promotedFieldsUseTheIndexedExpression() {
+        LeadSearchSql.Where where = LeadSearchSql.where(request(
+                filter("budget", Operator.LT, 5000),
+                filter("budget", Operator.EXISTS, null)), Set.of("budget"));
+
+        assertEquals(" AND (l.dynamic_data -> 'budget') < ?::jsonb"
+                + " AND jsonb_typeof((l.dynamic_data -> 'budget')) = ?"
+                + " AND (l.dynamic_data -> 'budget') IS NOT NULL", where.sql());
+        assertEquals(List.of("5000", "number"), where.args());
+    }
+
+    @Test
+    void standardCriteriaComeFirst() {
+        LeadSearchRequest request = request(filter("campaign", Operator.NE, "spring"));
+        request.setStatus("NEW");
+        request.setCountry("TR");
+
+        LeadSearchSql.Where where = LeadSearchSql.where(request, Set.of());
+
+        assertEquals(" AND l.status = ? AND l.country = ? AND NOT (l.dynamic_data @> ?::jsonb)", where.sql());
+        assertEquals(List.of("NEW", "TR", "{\"campaign\":\"spring\"}"), where.args());
+    }
+
+    @Test
+    void rejectsUnsupportedValues() {
+        assertThrows(IllegalArgumentException.class, () -> LeadSearchSql.where(request(
+                filter("budget", Operator.GT, true)), Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> LeadSearchSql.where(request(
+                filter("budget", Operator.IN, null)), Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> LeadSearchSql.where(request(
+                filter("budget", Operator.EQ, List.of(1))), Set.of()));
+    }
+
+    private static LeadSearchRequest request(DynamicFieldFilter... filters) {
+        return LeadSearchRequest.builder().filters(List.of(filters)).build();
+    }
+
+    private static DynamicFieldFilter filter(String path, Operator op, Object value, Object... values) {
+        return DynamicFieldFilter.builder()
+                .path(path)
+                .op(op)
+                .value(value)
+                .values(values.length > 0 ? List.of(values) : null)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionCatalogTest {
+
+    private final Permission customers = permission("MODULE_CUSTOMERS", PermissionType.MODULE, null);
+    private final Permission reminders = permission("MODULE_REMINDERS", PermissionType.MODULE, null);
+    private final Permission customersView = permission("CUSTOMERS_VIEW", PermissionType.ACTION, customers);
+    private final Permission customersCreate = permission("CUSTOMERS_CREATE", PermissionType.ACTION, customers);
+
+    private final PermissionCatalog catalog = PermissionCatalog.of(
+            List.of(customersView, reminders, customers, customersCreate));
+
+    @Test
+    void indexesPermissionsByIdNameAndParent() {
+        assertEquals(List.of("MODULE_CUSTOMERS", "MODULE_REMINDERS"),
+                catalog.modules().stream().map(PermissionCatalog.Entry::name).toList());
+        assertEquals(List.of("CUSTOMERS_CREATE", "CUSTOMERS_VIEW"),
+                catalog.children(customers.getId()).stream().map(PermissionCatalog.Entry::name).toList());
+        assertTrue(catalog.children(reminders.getId()).isEmpty());
+
+        PermissionCatalog.Entry view = catalog.findById(customersView.getId()).orElseThrow();
+        assertEquals(customers.getId(), view.parentId());
+        assertEquals("MODULE_CUSTOMERS", view.toDto().getParentPermissionName());
+        assertNull(catalog.findByName("MODULE_CUSTOMERS").orElseThrow().parentId());
+    }
+
+    @Test
+    void requireModuleRejectsUnknownAndActionPermissions() {
+        assertEquals(customers.getId(), catalog.requireModule("MODULE_CUSTOMERS").id());
+        assertThrows(IllegalArgumentException.class, () -> catalog.requireModule("MODULE_UNKNOWN"));
+        assertThrows(IllegalArgumentException.class, () -> catalog.requireModule("CUSTOMERS_VIEW"));
+    }
+
+    private static Permission permission(String name, PermissionType type, Permission parent) {
+        Permission permission = Permission.builder()
+                .name(name)
+                .type(type)
+                .parentPermission(parent)
+                .build();
+        permission.setId(UUID.randomUUID());
+        return permission;
+    }
+}
@@ -0,0 +1,153 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import com.terrarosa.terra_crm.core.security.service.PermissionEpochService;
+import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission;
+import com.terrarosa.terra_crm.modules.auth.entity.Permission.PermissionType;
+import com.terrarosa.terra_crm.modules.auth.entity.TenantModule;
+import com.terrarosa.terra_crm.modules.auth.repository.PermissionBundleRepository;
+import com.terrarosa.terra_crm.modules.auth.repository.PermissionRepository;
+import com.terrarosa.terra_crm.modules.auth.repository.TenantModuleRepository;
+import com.terrarosa.terra_crm.modules.auth.repository.UserPermissionRepository;
+import com.terrarosa.terra_crm.modules.auth.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that changing a tenant's modules updates the permissions, effective permissions,
+ * permission epoch and refresh tokens of its users with a fixed number of statements, independent
+ * of how many users the tenant has. Repository calls count as statements too; only the
+ * tenant_modules rows scale, with the number of requested modules.
+ */
+class PermissionServiceTest {
+
+    private final PermissionRepository permissionRepository = mock(PermissionRepository.class);
+    private final TenantModuleRepository tenantModuleRepository = mock(TenantModuleRepository.class);
+    private final UserPermissionRepository userPermissionRepository = mock(UserPermissionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PermissionCatalogService permissionCatalogService = mock(PermissionCatalogService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final PermissionService permissionService = new PermissionService(permissionRepository,
+            tenantModuleRepository, userPermissionRepository, userRepository, mock(TenantRepository.class),
+            mock(PermissionBundleRepository.class), permissionCatalogService,
+            new UserPermissionBulkWriter(jdbcTemplate), new EffectivePermissionStore(jdbcTemplate),
+            new PermissionEpochService(jdbcTemplate, mock(ApplicationEventPublisher.class)));
+
+    private final Permission customers = permission("MODULE_CUSTOMERS", PermissionType.MODULE, null);
+    private final Permission reminders = permission("MODULE_REMINDERS", PermissionType.MODULE, null);
+    private final List<Permission> catalogPermissions = List.of(customers, reminders,
+            permission("CUSTOMERS_VIEW", PermissionType.ACTION, customers),
+            permission("CUSTOMERS_UPDATE", PermissionType.ACTION, customers),
+            permission("REMINDERS_VIEW", PermissionType.ACTION, reminders));
+
+    @Test
+    void moduleChangeStatementCountIsIndependentOfTenantUsers() {
+        // JDBC: revoke removed module permissions + grant added module permissions
+        // + recompute effective permissions + bump tenant epoch + revoke refresh tokens.
+        // Repositories: read current modules + delete them + per requested module one lookup,
+        // one existence check and one insert
+        assertEquals(10, statementsForModuleSwap(1));
+        assertEquals(10, statementsForModuleSwap(300));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tenantModulesAreReplacedWithOneDeleteAndOneInsertPerModule() {
+        Tenant tenant = tenant();
+        stubModuleSwap(tenant, List.of(UUID.randomUUID()));
+
+        permissionService.setModulesForTenant(tenant, List.of("MODULE_REMINDERS"));
+
+        // The delete is flushed before the new rows are inserted, and the inserts before the
+        // effective permissions are recomputed from them
+        InOrder inOrder = inOrder(tenantModuleRepository, jdbcTemplate);
+        inOrder.verify(tenantModuleRepository).deleteAllByTenantId(tenant.getId());
+        inOrder.verify(tenantModuleRepository).flush();
+        inOrder.verify(tenantModuleRepository).existsByTenantIdAndPermissionId(tenant.getId(), reminders.getId());
+        ArgumentCaptor<Iterable<TenantModule>> saved = ArgumentCaptor.forClass(Iterable.class);
+        inOrder.verify(tenantModuleRepository).saveAll(saved.capture());
+        inOrder.verify(tenantModuleRepository).flush();
+        inOrder.verify(jdbcTemplate).queryForList(contains("INSERT INTO public.user_effective_permissions"),
+                eq(UUID.class), any(Object[].class));
+
+        List<TenantModule> modules = new ArrayList<>();
+        saved.getValue().forEach(modules::add);
+        assertEquals(1, modules.size());
+        assertSame(reminders, modules.getFirst().getPermission());
+        assertSame(tenant, modules.getFirst().getTenant());
+        verify(tenantModuleRepository).findPermissionIdsByTenantId(tenant.getId());
+        verify(tenantModuleRepository, never()).save(any());
+    }
+
+    private int statementsForModuleSwap(int tenantUsers) {
+        Tenant tenant = tenant();
+        List<UUID> userIds = IntStream.range(0, tenantUsers).mapToObj(i -> UUID.randomUUID()).toList();
+        stubModuleSwap(tenant, userIds);
+        clearInvocations(jdbcTemplate, tenantModuleRepository, permissionRepository);
+
+        permissionService.setModulesForTenant(tenant, List.of("MODULE_REMINDERS"));
+
+        assertEquals(0, mockingDetails(userRepository).getInvocations().size());
+        assertEquals(0, mockingDetails(userPermissionRepository).getInvocations().size());
+        return mockingDetails(jdbcTemplate).getInvocations().size()
+                + statements(tenantModuleRepository)
+                + statements(permissionRepository);
+    }
+
+    private void stubModuleSwap(Tenant tenant, List<UUID> userIds) {
+        when(permissionCatalogService.getCatalog()).thenReturn(PermissionCatalog.of(catalogPermissions));
+        when(tenantModuleRepository.findPermissionIdsByTenantId(tenant.getId())).thenReturn(List.of(customers.getId()));
+        when(permissionRepository.findByName("MODULE_REMINDERS")).thenReturn(Optional.of(reminders));
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(Object[].class))).thenReturn(userIds);
+    }
+
+    /**
+     * Repository calls that reach the database; flushes only write what other calls queued.
+     */
+    private static long statements(Object repository) {
+        return mockingDetails(repository).getInvocations().stream()
+                .filter(invocation -> !invocation.getMethod().getName().equals("flush"))
+                .count();
+    }
+
+    private static Tenant tenant() {
+        Tenant tenant = Tenant.builder().name("Clinic").build();
+        tenant.setId(UUID.randomUUID());
+        return tenant;
+    }
+
+    private static Permission permission(String name, PermissionType type, Permission parent) {
+        Permission permission = Permission.builder()
+                .name(name)
+                .type(type)
+                .parentPermission(parent)
+                .build();
+        permission.setId(UUID.randomUUID());
+        return permission;
+    }
+}
@@ -0,0 +1,242 @@
+package com.terrarosa.terra_crm.modules.auth.service;
+
+import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.modules.auth.entity.PermissionBundle;
+import com.terrarosa.terra_crm.modules.auth.entity.User;
+import com.terrarosa.terra_crm.modules.auth.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statements sent to the database by the module and bundle changes of
+ * {@link PermissionService}, counted at the JDBC level so that JdbcTemplate statements are included
+ * (Hibernate statistics only see Hibernate's own). Every operation runs against a tenant with one
+ * user and with 50 users; the statement count must not depend on the user count.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class PermissionStatementCountIT {
+
+    private static final int MANY_USERS = 50;
+
+    private static final StatementCounter STATEMENTS = new StatementCounter();
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private PermissionCatalogService permissionCatalogService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> tenantIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (UUID tenantId : tenantIds) {
+            jdbcTemplate.update("DELETE FROM audit_logs WHERE tenant_id = ?", tenantId);
+            jdbcTemplate.update("DELETE FROM users WHERE tenant_id = ?", tenantId);
+            jdbcTemplate.update("DELETE FROM tenants WHERE id = ?", tenantId);
+        }
+    }
+
+    @Test
+    void statementCountIsIndependentOfTheTenantsUserCount() {
+        Counts one = measure(1);
+        Counts many = measure(MANY_USERS);
+        log.info("Statements with 1 / {} users: {} / {}", MANY_USERS, one, many);
+
+        assertEquals(one.setModules(), many.setModules(), "setModulesForTenant");
+        assertEquals(one.assignAll(), many.assignAll(), "assignAllTenantPermissionsToUser");
+        assertEquals(one.removeBundle(), many.removeBundle(), "removeBundleFromUser");
+        assertEquals(one.deleteBundle(), many.deleteBundle(), "deleteBundle");
+        assertTrue(one.setModules() > 0, "statements are counted");
+    }
+
+    /**
+     * Statements of each operation on a fresh tenant with {@code userCount} users.
+     */
+    private Counts measure(int userCount) {
+        List<PermissionCatalog.Entry> modules = permissionCatalogService.getCatalog().modules();
+        assertTrue(modules.size() >= 2, "the permission catalog needs at least two modules");
+        String firstModule = modules.get(0).name();
+        String secondModule = modules.get(1).name();
+
+        Tenant tenant = tenantRepository.save(Tenant.builder()
+                .name("Statement Count Tenant")
+                .schemaName("test_tenant_" + UUID.randomUUID().toString().replace("-", ""))
+                .maxUsers(MANY_USERS)
+                .build());
+        tenantIds.add(tenant.getId());
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(User.builder()
+                    .email("user" + i + "-" + UUID.randomUUID() + "@terra.test")
+                    .password("encodedPassword")
+                    .firstName("Test")
+                    .lastName("User " + i)
+                    .tenant(tenant)
+                    .enabled(true)
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+        permissionService.setModulesForTenant(tenant, List.of(firstModule));
+
+        // Swap the module: every user loses the first module's permissions and gains the second's
+        long setModules = STATEMENTS.count(() -> permissionService.setModulesForTenant(tenant, List.of(secondModule)));
+        User firstUser = users.get(0);
+        long assignAll = STATEMENTS.count(() -> permissionService.assignAllTenantPermissionsToUser(firstUser));
+
+        List<UUID> permissionIds = List.of(modules.get(1).id());
+        PermissionBundle removed = permissionService.createBundle(tenant.getId(), "Removed", null, permissionIds);
+        PermissionBundle deleted = permissionService.createBundle(tenant.getId(), "Deleted", null, permissionIds);
+        for (User user : users) {
+            permissionService.assignBundleToUser(user.getId(), removed.getId());
+            permissionService.assignBundleToUser(user.getId(), deleted.getId());
+        }
+        long removeBundle = STATEMENTS.count(
+                () -> permissionService.removeBundleFromUser(firstUser.getId(), removed.getId()));
+        long deleteBundle = STATEMENTS.count(() -> permissionService.deleteBundle(deleted.getId()));
+
+        return new Counts(setModules, assignAll, removeBundle, deleteBundle);
+    }
+
+    private record Counts(long setModules, long assignAll, long removeBundle, long deleteBundle) {
+    }
+
+    /**
+     * Counts statement executions on the calling thread while an action runs; statements of
+     * background threads (audit writer, schedulers) are ignored.
+     */
+    private static final class StatementCounter {
+
+        private final ThreadLocal<long[]> current = new ThreadLocal<>();
+
+        long count(Runnable action) {
+            long[] count = new long[1];
+            current.set(count);
+            try {
+                action.run();
+            } finally {
+                current.remove();
+            }
+            return count[0];
+        }
+
+        void executed() {
+            long[] count = current.get();
+            if (count != null) {
+                count[0]++;
+            }
+        }
+    }
+
+    /**
+     * Hands out connections whose statements report every execute call (one per round trip,
+     * a JDBC batch counts once) to {@link #STATEMENTS}.
+     */
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return proxy(Connection.class, connection, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (result instanceof CallableStatement statement) {
+                    return countingStatement(CallableStatement.class, statement);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return countingStatement(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return countingStatement(Statement.class, statement);
+                }
+                return result;
+            });
+        }
+
+        private static <S extends Statement> S countingStatement(Class<S> type, S statement) {
+            return proxy(type, statement, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    STATEMENTS.executed();
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
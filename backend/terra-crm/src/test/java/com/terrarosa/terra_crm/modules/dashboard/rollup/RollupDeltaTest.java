@@ -0,0 +1,83 @@
+package com.terrarosa.terra_crm.modules.dashboard.rollup;
+
+import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollupDeltaTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void statusChangeMovesOneCountBetweenKeys() {
+        CustomerRollupKey before = CustomerRollupKey.of(MONDAY.atTime(10, 0), "new", null);
+        CustomerRollupKey after = CustomerRollupKey.of(MONDAY.atTime(10, 0), "contacted", null);
+
+        List<Map.Entry<RollupKey, Long>> deltas = RollupDelta.of(before, after).deltas(RollupTable.CUSTOMERS);
+
+        assertEquals(2, deltas.size());
+        assertEquals(Map.entry(after, 1L), deltas.get(0));
+        assertEquals(Map.entry(before, -1L), deltas.get(1));
+        assertEquals("", before.source());
+    }
+
+    @Test
+    void unchangedKeysAndCancellingChangesAreDropped() {
+        LeadRollupKey key = LeadRollupKey.of(MONDAY.atStartOfDay(), "facebook", "NEW");
+
+        assertTrue(RollupDelta.of(key, key).isEmpty());
+        assertTrue(RollupDelta.of(null, null).isEmpty());
+        assertTrue(new RollupDelta().change(null, key).change(key, null).isEmpty());
+    }
+
+    @Test
+    void batchDeltasAreSummedPerKeyAndTable() {
+        UUID category = UUID.randomUUID();
+        RollupDelta delta = new RollupDelta();
+        for (int i = 0; i < 3; i++) {
+            delta.change(null, LeadRollupKey.of(MONDAY.atTime(9, i), "google", "NEW"));
+        }
+        delta.change(null, CompletionRollupKey.of(false, true, MONDAY.atTime(12, 0), category));
+
+        assertEquals(List.of(Map.entry(new LeadRollupKey(MONDAY, "google", "NEW"), 3L)),
+                delta.deltas(RollupTable.LEADS));
+        assertEquals(List.of(Map.entry(new CompletionRollupKey(MONDAY, category), 1L)),
+                delta.deltas(RollupTable.REMINDER_COMPLETIONS));
+        assertTrue(delta.deltas(RollupTable.CUSTOMERS).isEmpty());
+    }
+
+    @Test
+    void onlyCompletedLiveRemindersAreCounted() {
+        UUID category = UUID.randomUUID();
+        LocalDateTime completedAt = MONDAY.atTime(15, 30);
+
+        assertNull(CompletionRollupKey.of(false, false, null, category));
+        assertNull(CompletionRollupKey.of(true, true, completedAt, category));
+
+        Reminder reminder = Reminder.builder()
+                .categoryId(category)
+                .isCompleted(true)
+                .completedAt(completedAt)
+                .build();
+        assertEquals(new CompletionRollupKey(MONDAY, category), CompletionRollupKey.of(reminder));
+        reminder.setDeleted(true);
+        assertNull(CompletionRollupKey.of(reminder));
+    }
+
+    @Test
+    void upsertAddsTheDeltaToTheTotal() {
+        assertEquals("INSERT INTO \"tp_1\".lead_daily_stats (day, source, status, total) VALUES (?, ?, ?, ?)"
+                        + " ON CONFLICT (day, source, status) DO UPDATE SET total = lead_daily_stats.total"
+                        + " + EXCLUDED.total",
+                RollupTable.LEADS.upsertSql("\"tp_1\""));
+    }
+}
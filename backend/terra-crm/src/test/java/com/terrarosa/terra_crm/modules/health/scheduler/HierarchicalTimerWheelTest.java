@@ -0,0 +1,75 @@
+package com.terrarosa.terra_crm.modules.health.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTest {
+
+    private static final long TICK = 100;
+    private static final long START = 1_000_000L * TICK;
+
+    @Test
+    void firesEachTimerOnItsTickAcrossAllLevels() {
+        HierarchicalTimerWheel<Integer, Long> wheel = new HierarchicalTimerWheel<>(TICK, 4, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Up to ~5 days ahead: exercises cascading from the upper levels
+            long deadline = START + 1 + (long) (random.nextDouble() * 5 * 24 * 3600 * 1000);
+            deadlines.add(deadline);
+            wheel.schedule(i, deadline, deadline);
+        }
+
+        long now = START;
+        int fired = 0;
+        while (fired < deadlines.size()) {
+            now += TICK;
+            for (long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "Timer fired before its deadline");
+                assertTrue(deadline > now - TICK, "Timer fired more than one tick late");
+                fired++;
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineBeyondTopLevelNeverFiresEarly() {
+        HierarchicalTimerWheel<String, String> wheel = new HierarchicalTimerWheel<>(TICK, 2, START);
+        long farDeadline = START + 64L * 64 * TICK * 3 + 5 * TICK;
+        wheel.schedule("far", farDeadline, "far");
+
+        assertTrue(wheel.advance(farDeadline - TICK).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(farDeadline));
+    }
+
+    @Test
+    void cancelAndRescheduleReplaceThePendingTimer() {
+        HierarchicalTimerWheel<String, String> wheel = new HierarchicalTimerWheel<>(TICK, 4, START);
+        wheel.schedule("a", START + 10 * TICK, "a-v1");
+        wheel.schedule("b", START + 10 * TICK, "b");
+        wheel.schedule("a", START + 20 * TICK, "a-v2");
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+        assertFalse(wheel.scheduleIfAbsent("a", START + 5 * TICK, "a-v3"));
+
+        assertTrue(wheel.advance(START + 15 * TICK).isEmpty());
+        assertEquals(List.of("a-v2"), wheel.advance(START + 20 * TICK));
+        assertFalse(wheel.contains("a"));
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        HierarchicalTimerWheel<String, String> wheel = new HierarchicalTimerWheel<>(TICK, 4, START);
+        wheel.schedule("late", START - 10 * TICK, "late");
+
+        assertEquals(List.of("late"), wheel.advance(START + TICK));
+    }
+}
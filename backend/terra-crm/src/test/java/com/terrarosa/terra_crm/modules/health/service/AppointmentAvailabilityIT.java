@@ -0,0 +1,122 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.health.dto.AvailabilityWindowDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency measurement for the availability query: a tenant with 100k appointments (50 doctors,
+ * eight 30 minute appointments a day each) is asked for one doctor's free windows across a week.
+ *
+ * Asserts the 95th percentile of {@link #RUNS} calls stays under {@link #MAX_MILLIS} and logs the
+ * median. Runs outside the default build with the other integration tests.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentAvailabilityIT {
+
+    private static final int DOCTORS = 50;
+    private static final int APPOINTMENTS_PER_DOCTOR = 2_000;
+    private static final int PER_DAY = 8;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 5);
+    private static final int WARMUP = 10;
+    private static final int RUNS = 50;
+    private static final long MAX_MILLIS = 30;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String schemaName;
+    private final List<UUID> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        schemaName = "test_tenant_" + UUID.randomUUID().toString().replace("-", "");
+        tenantService.createTenantSchema(schemaName);
+        tenantService.runTenantMigrations(schemaName);
+        String schema = tenantService.quotedSchema(schemaName);
+
+        UUID customerId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO " + schema + ".customers (id, name, phone, country) VALUES (?, ?, ?, ?)",
+                customerId, "Availability Customer", "+905550000000", "TR");
+        for (int i = 0; i < DOCTORS; i++) {
+            doctors.add(UUID.randomUUID());
+        }
+        // Appointments at 09:00, 10:00, ... 16:00 of consecutive days, so each hour has a free half
+        jdbcTemplate.update("INSERT INTO " + schema + ".appointments "
+                        + "(customer_id, doctor_id, appointment_date, status, duration_minutes) "
+                        + "SELECT ?, d.id, CAST(? AS date) + (n / ?) * INTERVAL '1 day' + TIME '09:00' "
+                        + "+ (n % ?) * INTERVAL '1 hour', 'SCHEDULED', 30 "
+                        + "FROM unnest(?) AS d(id) CROSS JOIN generate_series(0, ? - 1) AS n",
+                customerId, FIRST_DAY, PER_DAY, PER_DAY, new SqlArrayValue("uuid", doctors.toArray()),
+                APPOINTMENTS_PER_DOCTOR);
+        jdbcTemplate.execute("ANALYZE " + schema + ".appointments");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + tenantService.quotedSchema(schemaName) + " CASCADE");
+    }
+
+    @Test
+    void weeklyAvailabilityOfOneDoctorAnswersWithinTarget() {
+        assertEquals((long) DOCTORS * APPOINTMENTS_PER_DOCTOR, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + tenantService.quotedSchema(schemaName) + ".appointments", Long.class));
+        UUID doctorId = doctors.get(DOCTORS / 2);
+        LocalDate monday = FIRST_DAY.plusWeeks(20);
+
+        TenantContext.setCurrentTenant(UUID.randomUUID().toString(), schemaName);
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                availability(doctorId, monday);
+            }
+            long[] nanos = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                List<AvailabilityWindowDto> windows = availability(doctorId, monday);
+                nanos[i] = System.nanoTime() - start;
+                assertFalse(windows.isEmpty());
+            }
+            Arrays.sort(nanos);
+            double median = nanos[RUNS / 2] / 1e6;
+            double p95 = nanos[(int) Math.ceil(RUNS * 0.95) - 1] / 1e6;
+
+            log.info("Weekly availability over {} appointments: median {} ms, p95 {} ms",
+                    DOCTORS * APPOINTMENTS_PER_DOCTOR, String.format("%.2f", median), String.format("%.2f", p95));
+            assertTrue(p95 < MAX_MILLIS, String.format("p95 %.2f ms, expected under %d ms", p95, MAX_MILLIS));
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private List<AvailabilityWindowDto> availability(UUID doctorId, LocalDate monday) {
+        return appointmentService.getAvailability(doctorId, monday, 7, LocalTime.of(9, 0), LocalTime.of(18, 0), 30);
+    }
+}
@@ -0,0 +1,93 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.exception.ConflictException;
+import com.terrarosa.terra_crm.modules.health.dto.AppointmentRequest;
+import com.terrarosa.terra_crm.modules.health.dto.AvailabilityWindowDto;
+import com.terrarosa.terra_crm.modules.health.entity.Customer;
+import com.terrarosa.terra_crm.modules.health.repository.AppointmentRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceTest {
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final AppointmentService appointmentService =
+            new AppointmentService(appointmentRepository, customerRepository);
+
+    @Test
+    void overlappingBookingIsReportedAsConflict() {
+        UUID customerId = UUID.randomUUID();
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(new Customer()));
+        when(appointmentRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("insert",
+                new SQLException("conflicting key value violates exclusion constraint "
+                        + "\"ex_appointments_doctor_overlap\"", "23P01")));
+
+        AppointmentRequest request = AppointmentRequest.builder()
+                .customerId(customerId)
+                .doctorId(UUID.randomUUID())
+                .appointmentDate(LocalDateTime.of(2026, 3, 2, 10, 0))
+                .durationMinutes(30)
+                .build();
+
+        assertThrows(ConflictException.class, () -> appointmentService.createAppointment(request));
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotConflicts() {
+        DataIntegrityViolationException error = new DataIntegrityViolationException("insert",
+                new SQLException("null value in column", "23502"));
+
+        assertNull(AppointmentService.exclusionConstraint(error));
+        assertEquals("ex_appointments_room_overlap", AppointmentService.exclusionConstraint(
+                new SQLException("violates exclusion constraint \"ex_appointments_room_overlap\"", "23P01")));
+    }
+
+    @Test
+    void availabilityRowsAreMappedToWindows() {
+        UUID doctorId = UUID.randomUUID();
+        LocalDate monday = LocalDate.of(2026, 3, 2);
+        when(appointmentRepository.findFreeWindows(doctorId, monday, monday.plusDays(6), LocalTime.of(9, 0),
+                LocalTime.of(18, 0), 30)).thenReturn(List.<Object[]>of(new Object[] {
+                        java.sql.Date.valueOf(monday),
+                        Timestamp.valueOf(monday.atTime(9, 0)),
+                        Timestamp.valueOf(monday.atTime(10, 30))}));
+
+        List<AvailabilityWindowDto> windows = appointmentService.getAvailability(doctorId, monday, 7,
+                LocalTime.of(9, 0), LocalTime.of(18, 0), 30);
+
+        assertEquals(1, windows.size());
+        assertEquals(monday, windows.get(0).getDate());
+        assertEquals(90, windows.get(0).getMinutes());
+    }
+
+    @Test
+    void rejectsInvalidAvailabilityRangeAndStatus() {
+        UUID doctorId = UUID.randomUUID();
+        LocalDate day = LocalDate.of(2026, 3, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAvailability(doctorId, day, 60,
+                LocalTime.of(9, 0), LocalTime.of(18, 0), 30));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAvailability(doctorId, day, 7,
+                LocalTime.of(18, 0), LocalTime.of(9, 0), 30));
+        assertThrows(IllegalArgumentException.class, () -> AppointmentService.normalizeStatus("postponed"));
+        assertEquals("CONFIRMED", AppointmentService.normalizeStatus(" confirmed "));
+    }
+}
@@ -0,0 +1,140 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.entity.Tenant;
+import com.terrarosa.terra_crm.core.tenancy.repository.TenantRepository;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerImportResultDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load measurement for the bulk customer import: 100k valid rows as CSV and as NDJSON, imported
+ * into a fresh tenant schema after a small warm-up import.
+ *
+ * Verifies every row is imported and that the rate, over the whole importCustomers call (parsing,
+ * validation, lead lookups and batch inserts), reaches {@link #MIN_ROWS_PER_SECOND} on a
+ * laptop-class Postgres. Runs outside the default build with the other integration tests.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerImportLoadIT {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROWS = 5_000;
+    private static final double MIN_ROWS_PER_SECOND = 20_000;
+
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        String schemaName = "test_tenant_" + UUID.randomUUID().toString().replace("-", "");
+        tenantService.createTenantSchema(schemaName);
+        tenantService.runTenantMigrations(schemaName);
+        tenant = tenantRepository.save(Tenant.builder()
+                .name("Import Load Tenant")
+                .schemaName(schemaName)
+                .build());
+        TenantContext.setCurrentTenant(tenant.getId().toString(), schemaName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema() + " CASCADE");
+        tenantRepository.delete(tenant);
+    }
+
+    @Test
+    void csvImportRate() throws IOException {
+        importCsv(0, WARMUP_ROWS);
+
+        assertRate("CSV", importCsv(WARMUP_ROWS, ROWS));
+    }
+
+    @Test
+    void ndjsonImportRate() throws IOException {
+        importNdjson(0, WARMUP_ROWS);
+
+        assertRate("NDJSON", importNdjson(WARMUP_ROWS, ROWS));
+    }
+
+    private Measured importCsv(int first, int count) throws IOException {
+        StringBuilder csv = new StringBuilder("name,phone,email,country,city,registration_date\n");
+        for (int n = first; n < first + count; n++) {
+            csv.append("Load Customer ").append(n).append(',')
+                    .append(phone(n)).append(',')
+                    .append("customer").append(n).append("@terra.test,TR,Istanbul,2025-01-15\n");
+        }
+        return measure(csv, CustomerImportService.Format.CSV);
+    }
+
+    private Measured importNdjson(int first, int count) throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int n = first; n < first + count; n++) {
+            ndjson.append("{\"name\":\"Load Customer ").append(n)
+                    .append("\",\"phone\":\"").append(phone(n))
+                    .append("\",\"email\":\"customer").append(n)
+                    .append("@terra.test\",\"country\":\"TR\",\"city\":\"Istanbul\"}\n");
+        }
+        return measure(ndjson, CustomerImportService.Format.NDJSON);
+    }
+
+    private Measured measure(StringBuilder upload, CustomerImportService.Format format) throws IOException {
+        byte[] bytes = upload.toString().getBytes(StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        CustomerImportResultDto result = customerImportService.importCustomers(new ByteArrayInputStream(bytes), format);
+        return new Measured(result, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void assertRate(String format, Measured measured) {
+        double rate = ROWS / measured.seconds();
+        log.info("Customer import load ({}): {} rows in {} s = {} rows/s", format, ROWS,
+                String.format("%.2f", measured.seconds()), String.format("%.0f", rate));
+
+        assertEquals(ROWS, measured.result().getImportedCount());
+        assertEquals(0, measured.result().getFailedCount());
+        assertEquals((long) ROWS + WARMUP_ROWS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + schema() + ".customers", Long.class));
+        assertTrue(rate >= MIN_ROWS_PER_SECOND,
+                String.format("Imported %.0f rows/s, expected at least %.0f", rate, MIN_ROWS_PER_SECOND));
+    }
+
+    private String schema() {
+        return tenantService.quotedSchema(tenant.getSchemaName());
+    }
+
+    private static String phone(int n) {
+        return String.format("+9055%08d", n);
+    }
+
+    private record Measured(CustomerImportResultDto result, double seconds) {
+    }
+}
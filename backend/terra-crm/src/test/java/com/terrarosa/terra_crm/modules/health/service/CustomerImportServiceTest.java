@@ -0,0 +1,147 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.quota.service.QuotaService;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.core.tenancy.service.TenantService;
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerImportResultDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerImportResultDto.RowError;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerImportServiceTest {
+
+    private static final String HEADER = "name,phone,country,lead_id,registration_date\n";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final QuotaService quotaService = mock(QuotaService.class);
+    private final TenantService tenantService = mock(TenantService.class);
+    private final CustomerImportService service = new CustomerImportService(jdbcTemplate,
+            mock(CustomerRepository.class), quotaService, tenantService,
+            Validation.buildDefaultValidatorFactory().getValidator(), JsonMapper.builder().build(),
+            mock(DuplicateMatchingService.class), mock(DashboardRollupService.class));
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(UUID.randomUUID().toString(), "tp_import");
+        when(tenantService.quotedSchema("tp_import")).thenReturn("\"tp_import\"");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void csvRecordsKeepQuotedSeparatorsQuotesAndLineBreaks() throws IOException {
+        BufferedReader reader = reader("plain,\"a, b\",\"say \"\"hi\"\"\",\"line1\nline2\"\nnext\n");
+
+        assertEquals(List.of("plain", "a, b", "say \"hi\"", "line1\nline2"),
+                CustomerImportService.readCsvRecord(reader));
+        assertEquals(List.of("next"), CustomerImportService.readCsvRecord(reader));
+        assertNull(CustomerImportService.readCsvRecord(reader));
+    }
+
+    @Test
+    void csvRecordsAcceptCrlfLineEndings() throws IOException {
+        BufferedReader reader = reader("a,b\r\n\"c\r\nd\",e\r\n");
+
+        assertEquals(List.of("a", "b"), CustomerImportService.readCsvRecord(reader));
+        // Line breaks inside quotes are kept as written
+        assertEquals(List.of("c\r\nd", "e"), CustomerImportService.readCsvRecord(reader));
+        assertNull(CustomerImportService.readCsvRecord(reader));
+    }
+
+    @Test
+    void rowsBeyondTheRemainingQuotaAreRejected() throws IOException {
+        when(quotaService.getRemainingQuota(any(UUID.class), eq("customers"), anyLong())).thenReturn(2L);
+
+        CustomerImportResultDto result = importCsv(HEADER
+                + "Ada,+905550000001,TR,,\n"
+                + "Bob,+905550000002,TR,,\n"
+                + "Cem,+905550000003,TR,,\n");
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(List.of(new RowError(3, "Customer quota exceeded")), result.getErrors());
+        assertEquals(2, insertedRows());
+    }
+
+    @Test
+    void invalidRowsAreReportedWithoutAbortingTheImport() throws IOException {
+        CustomerImportResultDto result = importCsv(HEADER
+                + "Ada,,TR,,\n"
+                + "Bob,+905550000002,TR,not-a-uuid,\n"
+                + "Cem,+905550000003,TR,,2025-13-45\n"
+                + "Deniz,+905550000004,TR,,2025-01-15\n");
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(1, result.getImportedCount());
+        assertEquals(3, result.getFailedCount());
+        List<RowError> errors = result.getErrors();
+        assertEquals(new RowError(1, "Phone is required"), errors.get(0));
+        assertEquals(new RowError(2, "Invalid leadId: not-a-uuid"), errors.get(1));
+        assertEquals(3, errors.get(2).getRow());
+        assertEquals(1, insertedRows());
+    }
+
+    @Test
+    void malformedNdjsonLinesAreReportedPerRow() throws IOException {
+        String ndjson = "{\"name\":\"Ada\",\"phone\":\"+905550000001\",\"country\":\"TR\"}\n"
+                + "{\"name\":\"Bob\",\n"
+                + "\n"
+                + "{\"name\":\"Cem\",\"phone\":\"+905550000003\",\"country\":\"TR\"}\n";
+
+        CustomerImportResultDto result = service.importCustomers(stream(ndjson), CustomerImportService.Format.NDJSON);
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    private CustomerImportResultDto importCsv(String csv) throws IOException {
+        return service.importCustomers(stream(csv), CustomerImportService.Format.CSV);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int insertedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        return rows.getValue().size();
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteRequest;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerNote;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerNoteRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerNoteServiceTest {
+
+    private final CustomerNoteRepository noteRepository = mock(CustomerNoteRepository.class);
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final TenantSecurityService tenantSecurityService = mock(TenantSecurityService.class);
+    private final CustomerNoteService service = new CustomerNoteService(noteRepository, customerRepository,
+            tenantSecurityService);
+
+    private final UUID customerId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void addNoteAppendsARowWithoutTouchingTheCustomer() {
+        when(customerRepository.existsById(customerId)).thenReturn(true);
+        when(tenantSecurityService.getCurrentUserId()).thenReturn(userId);
+        when(noteRepository.save(any(CustomerNote.class))).then(returnsFirstArg());
+
+        CustomerNoteDto dto = service.addNote(customerId, CustomerNoteRequest.builder().text("Called back").build());
+
+        assertEquals(customerId, dto.getCustomerId());
+        assertEquals("Called back", dto.getText());
+        assertFalse(dto.getCompleted());
+        assertEquals(userId, dto.getCreatedBy());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    void addNoteToUnknownCustomerIsNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.addNote(customerId, CustomerNoteRequest.builder().text("x").build()));
+        verify(noteRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void legacyItemsKeepTheirOriginalShapeInData() {
+        Map<String, Object> item = Map.of("text", "First visit", "completed", true, "by", "front desk");
+
+        service.appendLegacyNotes(customerId, List.of(item));
+
+        ArgumentCaptor<List<CustomerNote>> saved = ArgumentCaptor.forClass(List.class);
+        verify(noteRepository).saveAll(saved.capture());
+        CustomerNote note = saved.getValue().get(0);
+        assertEquals("First visit", note.getText());
+        assertTrue(note.getCompleted());
+        assertEquals(item, note.getData());
+    }
+
+    @Test
+    void countsAreQueriedInDistinctIdChunks() {
+        List<UUID> ids = new ArrayList<>(IntStream.range(0, CustomerNoteService.ID_CHUNK_SIZE + 1)
+                .mapToObj(i -> UUID.randomUUID())
+                .toList());
+        ids.add(ids.get(0));
+        UUID counted = ids.get(1);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {counted, 4L});
+        when(noteRepository.countByCustomerIds(anyCollection())).thenReturn(rows, List.of());
+
+        Map<UUID, Long> counts = service.countByCustomerIds(ids);
+
+        assertEquals(Map.of(counted, 4L), counts);
+        verify(noteRepository, times(2)).countByCustomerIds(anyCollection());
+        assertEquals(List.of(CustomerNoteService.ID_CHUNK_SIZE, 1),
+                CustomerNoteService.chunk(ids).stream().map(List::size).toList());
+    }
+}
@@ -0,0 +1,101 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.exception.ResourceNotFoundException;
+import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentDto;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerPaymentRequest;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerPayment;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerPaymentRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerPaymentServiceTest {
+
+    private final CustomerPaymentRepository paymentRepository = mock(CustomerPaymentRepository.class);
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerPaymentService service = new CustomerPaymentService(paymentRepository, customerRepository,
+            mock(TenantSecurityService.class));
+
+    private final UUID customerId = UUID.randomUUID();
+
+    @Test
+    void addPaymentKeepsAmountAndCurrency() {
+        when(customerRepository.existsById(customerId)).thenReturn(true);
+        when(paymentRepository.save(any(CustomerPayment.class))).then(returnsFirstArg());
+
+        CustomerPaymentDto dto = service.addPayment(customerId, CustomerPaymentRequest.builder()
+                .text("Deposit")
+                .amount(new BigDecimal("1500.00"))
+                .currency("EUR")
+                .completed(true)
+                .build());
+
+        assertEquals(new BigDecimal("1500.00"), dto.getAmount());
+        assertEquals("EUR", dto.getCurrency());
+        assertEquals(Map.of(), dto.getData());
+    }
+
+    @Test
+    void addPaymentToUnknownCustomerIsNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.addPayment(customerId, CustomerPaymentRequest.builder().text("x").build()));
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void legacyItemsWithUnusableAmountsAreKeptWithoutAmount() {
+        service.appendLegacyPayments(customerId, List.of(
+                Map.of("text", "Deposit", "amount", "250.5"),
+                Map.of("text", "Typo", "amount", "25O")));
+
+        ArgumentCaptor<List<CustomerPayment>> saved = ArgumentCaptor.forClass(List.class);
+        verify(paymentRepository).saveAll(saved.capture());
+        assertEquals(new BigDecimal("250.50"), saved.getValue().get(0).getAmount());
+        assertNull(saved.getValue().get(1).getAmount());
+        assertEquals("25O", saved.getValue().get(1).getData().get("amount"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void legacyItemsKeepTheirCurrencyCutToTheColumnLength() {
+        service.appendLegacyPayments(customerId, List.of(
+                Map.of("text", "Deposit", "amount", "250", "currency", "EUR"),
+                Map.of("text", "Balance", "currency", "Turkish lira")));
+
+        ArgumentCaptor<List<CustomerPayment>> saved = ArgumentCaptor.forClass(List.class);
+        verify(paymentRepository).saveAll(saved.capture());
+        assertEquals("EUR", saved.getValue().get(0).getCurrency());
+        assertEquals("Turkish li", saved.getValue().get(1).getCurrency());
+        assertEquals("Turkish lira", saved.getValue().get(1).getData().get("currency"));
+        assertNull(CustomerPaymentService.toCurrency(null));
+    }
+
+    @Test
+    void amountsOutsideTheColumnRangeAreDropped() {
+        assertEquals(new BigDecimal("12.35"), CustomerPaymentService.toAmount(" 12.345 "));
+        assertEquals(new BigDecimal("-999999999999.99"), CustomerPaymentService.toAmount("-999999999999.99"));
+        assertEquals(new BigDecimal("100.00"), CustomerPaymentService.toAmount(100));
+        assertNull(CustomerPaymentService.toAmount("1000000000000"));
+        assertNull(CustomerPaymentService.toAmount("999999999999.999"));
+        assertNull(CustomerPaymentService.toAmount("1e999999999"));
+        assertNull(CustomerPaymentService.toAmount("n/a"));
+        assertNull(CustomerPaymentService.toAmount(" "));
+    }
+}
@@ -0,0 +1,119 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.modules.ads.matching.DuplicateMatchingService;
+import com.terrarosa.terra_crm.modules.ads.repository.LeadRepository;
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerDto;
+import com.terrarosa.terra_crm.modules.health.entity.Customer;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * JSON Merge Patch semantics of {@link CustomerService#patchCustomer}.
+ */
+class CustomerServiceTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerService service = new CustomerService(customerRepository, mock(LeadRepository.class),
+            mock(CustomerNoteService.class), mock(CustomerPaymentService.class), JsonMapper.builder().build(),
+            mock(DuplicateMatchingService.class), mock(DashboardRollupService.class),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    private final UUID id = UUID.randomUUID();
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = Customer.builder()
+                .name("Ada")
+                .phone("+905550000001")
+                .email("ada@demo.com")
+                .country("TR")
+                .city("Istanbul")
+                .status("new")
+                .build();
+        customer.setId(id);
+        customer.setVersion(3L);
+        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
+        when(customerRepository.saveAndFlush(any(Customer.class))).then(returnsFirstArg());
+    }
+
+    @Test
+    void onlySuppliedFieldsChangeAndNullClears() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("city", "Izmir");
+        patch.put("email", null);
+
+        CustomerDto dto = service.patchCustomer(id, patch, 3L);
+
+        assertEquals("Izmir", dto.getCity());
+        assertNull(dto.getEmail());
+        assertEquals("Ada", dto.getName());
+        assertEquals("+905550000001", dto.getPhone());
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        assertBadRequest(Map.of("nickname", "Addy"));
+    }
+
+    @Test
+    void nullOnRequiredFieldIsRejected() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("name", null);
+
+        assertBadRequest(patch);
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.patchCustomer(id, Map.of("city", "Izmir"), 2L));
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.patchCustomer(id, Map.of("city", "Izmir", "version", 2), null));
+        verify(customerRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void badTypesAreBadRequests() {
+        assertBadRequest(Map.of("consultantId", "not-a-uuid"));
+        assertBadRequest(Map.of("registrationDate", "yesterday"));
+        assertBadRequest(Map.of("tags", Map.of("vip", true)));
+        assertBadRequest(Map.of("version", "three"));
+    }
+
+    @Test
+    void invalidEmailIsRejected() {
+        assertBadRequest(Map.of("email", "not-an-email"));
+    }
+
+    @Test
+    void readOnlySubResourcesAreRejected() {
+        assertBadRequest(Map.of("notes", List.of()));
+    }
+
+    private void assertBadRequest(Map<String, Object> patch) {
+        assertThrows(IllegalArgumentException.class, () -> service.patchCustomer(id, patch, null));
+        verify(customerRepository, never()).saveAndFlush(any());
+    }
+}
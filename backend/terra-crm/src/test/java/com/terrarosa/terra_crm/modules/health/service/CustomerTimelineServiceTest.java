@@ -0,0 +1,152 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.audit.aspect.AuditLogAspect;
+import com.terrarosa.terra_crm.core.audit.entity.AuditLog;
+import com.terrarosa.terra_crm.core.audit.repository.AuditLogRepository;
+import com.terrarosa.terra_crm.core.audit.service.AuditLogService;
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.auth.service.TenantSecurityService;
+import com.terrarosa.terra_crm.modules.health.dto.CustomerNoteRequest;
+import com.terrarosa.terra_crm.modules.health.dto.TimelineEventDto;
+import com.terrarosa.terra_crm.modules.health.entity.CustomerNote;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerFileRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerNoteRepository;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import com.terrarosa.terra_crm.modules.health.repository.ReminderRepository;
+import com.terrarosa.terra_crm.modules.health.service.CustomerTimelineService.Event;
+import com.terrarosa.terra_crm.modules.health.service.CustomerTimelineService.Merged;
+import com.terrarosa.terra_crm.modules.health.service.CustomerTimelineService.Position;
+import com.terrarosa.terra_crm.modules.health.service.CustomerTimelineService.Source;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerTimelineServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void sourcesAreMergedNewestFirst() {
+        Map<Source, List<Event>> sources = new EnumMap<>(Source.class);
+        sources.put(Source.REMINDER, List.of(event(Source.REMINDER, NOON), event(Source.REMINDER, NOON.minusDays(2))));
+        sources.put(Source.FILE_UPLOADED, List.of(event(Source.FILE_UPLOADED, NOON.plusHours(1))));
+        sources.put(Source.AUDIT, List.of(event(Source.AUDIT, NOON), event(Source.AUDIT, NOON.minusDays(1))));
+
+        Merged merged = CustomerTimelineService.merge(sources, 10);
+
+        assertEquals(List.of("FILE_UPLOADED", "REMINDER", "AUDIT", "AUDIT", "REMINDER"),
+                merged.events().stream().map(event -> event.dto().getType()).toList());
+        assertFalse(merged.more());
+    }
+
+    @Test
+    void fullPageReportsMore() {
+        Map<Source, List<Event>> sources = new EnumMap<>(Source.class);
+        sources.put(Source.REMINDER, List.of(event(Source.REMINDER, NOON), event(Source.REMINDER, NOON.minusDays(1))));
+        sources.put(Source.AUDIT, List.of(event(Source.AUDIT, NOON.minusHours(1))));
+
+        Merged cutOff = CustomerTimelineService.merge(sources, 2);
+        assertEquals(2, cutOff.events().size());
+        assertTrue(cutOff.more());
+
+        // A source that returned a full page may have more rows beyond the query limit
+        sources.remove(Source.AUDIT);
+        assertTrue(CustomerTimelineService.merge(sources, 2).more());
+    }
+
+    @Test
+    void cursorRoundTripsAndBoundsEachSource() {
+        UUID id = UUID.randomUUID();
+        Position position = new Position(NOON, Source.FILE_UPLOADED, id);
+
+        assertEquals(position, Position.decode(position.encode()));
+        assertEquals(id, position.boundFor(Source.FILE_UPLOADED).id());
+        assertEquals(new UUID(0L, 0L), position.boundFor(Source.REMINDER).id());
+        assertEquals(new UUID(-1L, -1L), position.boundFor(Source.AUDIT).id());
+        assertEquals(NOON, position.boundFor(Source.AUDIT).time());
+
+        assertThrows(IllegalArgumentException.class, () -> Position.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> Position.decode("bm90fGF8Y3Vyc29y"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void auditedCustomerActionsAppearInTheTimeline() {
+        UUID customerId = UUID.randomUUID();
+        UUID tenantId = UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId.toString(), "tp_timeline");
+        CustomerRepository customerRepository = mock(CustomerRepository.class);
+        when(customerRepository.existsById(customerId)).thenReturn(true);
+        CustomerNoteRepository noteRepository = mock(CustomerNoteRepository.class);
+        when(noteRepository.save(any(CustomerNote.class))).then(returnsFirstArg());
+        AuditLogService auditLogService = mock(AuditLogService.class);
+
+        // Add a note through the audit aspect, as the application context would
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new CustomerNoteService(noteRepository, customerRepository, mock(TenantSecurityService.class)));
+        proxyFactory.addAspect(new AuditLogAspect(auditLogService));
+        CustomerNoteService noteService = proxyFactory.getProxy();
+        noteService.addNote(customerId, CustomerNoteRequest.builder().text("Called back").build());
+
+        ArgumentCaptor<String> resourceType = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<UUID> resourceId = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<Map<String, Object>> metadata = ArgumentCaptor.forClass(Map.class);
+        verify(auditLogService).logAction(eq("CUSTOMER_NOTE_ADDED"), resourceType.capture(), resourceId.capture(),
+                metadata.capture(), any(), any());
+
+        // The timeline reads the entry back by the same resource type and id
+        AuditLog entry = AuditLog.builder()
+                .action("CUSTOMER_NOTE_ADDED")
+                .resourceType(resourceType.getValue())
+                .resourceId(resourceId.getValue())
+                .tenantId(tenantId)
+                .metadata(metadata.getValue())
+                .build();
+        entry.setId(UUID.randomUUID());
+        entry.setCreatedAt(NOON);
+        AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+        when(auditLogRepository.findResourceTimelinePage(eq(entry.getResourceType()), eq(entry.getResourceId()),
+                eq(tenantId), any(LocalDateTime.class), any(UUID.class), anyInt())).thenReturn(List.of(entry));
+        CustomerTimelineService timelineService = new CustomerTimelineService(customerRepository,
+                mock(ReminderRepository.class), mock(CustomerFileRepository.class), auditLogRepository);
+
+        List<TimelineEventDto> items = timelineService.getTimeline(customerId, null, 20).getItems();
+
+        assertEquals(1, items.size());
+        assertEquals("AUDIT", items.get(0).getType());
+        assertEquals("CUSTOMER_NOTE_ADDED", items.get(0).getTitle());
+    }
+
+    private static Event event(Source source, LocalDateTime time) {
+        UUID id = UUID.randomUUID();
+        return new Event(new Position(time, source, id), TimelineEventDto.builder()
+                .type(source.name())
+                .occurredAt(time)
+                .sourceId(id)
+                .build());
+    }
+}
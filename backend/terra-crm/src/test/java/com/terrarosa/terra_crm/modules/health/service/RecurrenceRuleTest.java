@@ -0,0 +1,59 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceRuleTest {
+
+    @Test
+    void monthlyRuleWithCountClampsToMonthEnd() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=3;COUNT=8");
+        LocalDate start = LocalDate.of(2025, 1, 31);
+
+        assertEquals(LocalDate.of(2026, 10, 31), rule.lastOccurrence(start));
+        assertEquals(List.of(LocalDate.of(2026, 4, 30)),
+                rule.occurrencesBetween(start, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 30)));
+        assertEquals(8, rule.occurrencesBetween(start, start, LocalDate.of(2030, 1, 1)).size());
+    }
+
+    @Test
+    void windowFarFromStartOnlyYieldsOccurrencesInWindow() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY");
+        LocalDate start = LocalDate.of(2000, 1, 5);
+
+        List<LocalDate> june = rule.occurrencesBetween(start, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+        assertEquals(List.of(LocalDate.of(2025, 6, 4), LocalDate.of(2025, 6, 11), LocalDate.of(2025, 6, 18),
+                LocalDate.of(2025, 6, 25)), june);
+        assertNull(rule.lastOccurrence(start));
+    }
+
+    @Test
+    void untilIsInclusiveAndAcceptsDateTimeForm() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=DAILY;INTERVAL=2;UNTIL=20250209T000000Z");
+        LocalDate start = LocalDate.of(2025, 2, 1);
+
+        assertEquals(List.of(LocalDate.of(2025, 2, 5), LocalDate.of(2025, 2, 7), LocalDate.of(2025, 2, 9)),
+                rule.occurrencesBetween(start, LocalDate.of(2025, 2, 4), LocalDate.of(2025, 3, 1)));
+        assertTrue(rule.isOccurrence(start, LocalDate.of(2025, 2, 3)));
+        assertFalse(rule.isOccurrence(start, LocalDate.of(2025, 2, 4)));
+        assertEquals("FREQ=DAILY;INTERVAL=2;UNTIL=20250209", rule.toString());
+    }
+
+    @Test
+    void rejectsUnsupportedOrInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=HOURLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20250101"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;INTERVAL=0"));
+    }
+}
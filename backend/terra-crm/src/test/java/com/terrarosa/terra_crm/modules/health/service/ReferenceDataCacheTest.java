@@ -0,0 +1,84 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.health.dto.TagDto;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.CachedList;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.ReferenceList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReferenceDataCacheTest {
+
+    private final ReferenceDataVersionService versionService = mock(ReferenceDataVersionService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReferenceDataCache cache = new ReferenceDataCache(versionService,
+            mock(PlatformTransactionManager.class), meterRegistry, 2, 10);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final TagDto tag = TagDto.builder().id(UUID.randomUUID()).value("vip").build();
+    private final Supplier<List<TagDto>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(tag);
+    };
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void listsAreLoadedOncePerTenantAndVersion() {
+        when(versionService.currentVersion("tp_a")).thenReturn(1L);
+        useTenant("tp_a");
+
+        CachedList<TagDto> first = cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+        CachedList<TagDto> second = cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+
+        assertSame(first, second);
+        assertSame(tag, second.byId().get(tag.getId()));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("reference_data.cache.requests")
+                .tag("list", "tags").tag("result", "hit").counter().count());
+
+        when(versionService.currentVersion("tp_a")).thenReturn(2L);
+        cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void committedChangesAndTenantBoundEvictEntries() {
+        when(versionService.currentVersion(anyString())).thenReturn(1L);
+        useTenant("tp_a");
+        cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+
+        cache.onReferenceDataChanged(new ReferenceDataChangedEvent("tp_a"));
+        cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+        assertEquals(2, loads.get());
+
+        // At most two tenants: loading b and c evicts a, the least recently used
+        useTenant("tp_b");
+        cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+        useTenant("tp_c");
+        cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+        useTenant("tp_a");
+        cache.get(ReferenceList.TAGS, loader, TagDto::getId);
+        assertEquals(5, loads.get());
+    }
+
+    private static void useTenant(String schemaName) {
+        TenantContext.setCurrentTenant(UUID.randomUUID().toString(), schemaName);
+    }
+}
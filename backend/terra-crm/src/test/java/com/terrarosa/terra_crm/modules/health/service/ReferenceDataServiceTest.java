@@ -0,0 +1,47 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.core.tenancy.TenantContext;
+import com.terrarosa.terra_crm.modules.health.dto.ReferenceDataDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReferenceDataServiceTest {
+
+    private final CustomerParametersService parametersService = mock(CustomerParametersService.class);
+    private final ReminderSettingsService reminderSettingsService = mock(ReminderSettingsService.class);
+    private final ReferenceDataVersionService versionService = mock(ReferenceDataVersionService.class);
+    private final ReferenceDataService referenceDataService =
+            new ReferenceDataService(parametersService, reminderSettingsService, versionService);
+
+    @BeforeEach
+    void setTenant() {
+        TenantContext.setCurrentTenant("9b2f7c1e-0000-4000-8000-000000000001", "tp_clinic");
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void sectionsFollowPermissions() {
+        when(versionService.loadVersion("tp_clinic")).thenReturn(7L);
+
+        ReferenceDataDto referenceData = referenceDataService.getReferenceData(false, true);
+
+        assertEquals(7L, referenceData.getVersion());
+        assertNull(referenceData.getCategories());
+        assertNull(referenceData.getFileCategories());
+        assertNotNull(referenceData.getReminderStatuses());
+        verify(parametersService, never()).getAllServices();
+    }
+}
@@ -0,0 +1,60 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.modules.health.dto.ReminderBulkRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.support.SqlArrayValue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies that bulk selections bind to a fixed statement shape regardless of their size.
+ */
+class ReminderBulkServiceTest {
+
+    @Test
+    void idSelectionIsBoundAsSingleArrayParameter() {
+        List<UUID> ids = IntStream.range(0, 2_000).mapToObj(i -> UUID.randomUUID()).toList();
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+
+        ReminderBulkService.appendSelection(sql, args, ReminderBulkRequest.builder().ids(ids).build());
+
+        assertEquals(" AND id = ANY(?)", sql.toString());
+        assertEquals(1, args.size());
+        assertInstanceOf(SqlArrayValue.class, args.get(0));
+    }
+
+    @Test
+    void filterSelectionIsIntersectedWithIds() {
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        ReminderBulkRequest request = ReminderBulkRequest.builder()
+                .ids(List.of(UUID.randomUUID()))
+                .startDate(LocalDate.of(2025, 1, 1))
+                .endDate(LocalDate.of(2025, 1, 31))
+                .categoryId(UUID.randomUUID())
+                .build();
+
+        ReminderBulkService.appendSelection(sql, args, request);
+
+        assertEquals(" AND id = ANY(?) AND reminder_date >= ? AND reminder_date <= ? AND category_id = ?",
+                sql.toString());
+        assertEquals(4, args.size());
+    }
+
+    @Test
+    void rejectsUnboundedSelection() {
+        ReminderBulkRequest request = ReminderBulkRequest.builder().categoryId(UUID.randomUUID()).build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ReminderBulkService.appendSelection(new StringBuilder(), new ArrayList<>(), request));
+    }
+}
@@ -0,0 +1,183 @@
+package com.terrarosa.terra_crm.modules.health.service;
+
+import com.terrarosa.terra_crm.modules.dashboard.rollup.DashboardRollupService;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderCalendarDayDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderCategoryDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderStatusDto;
+import com.terrarosa.terra_crm.modules.health.dto.ReminderSubcategoryDto;
+import com.terrarosa.terra_crm.modules.health.entity.Reminder;
+import com.terrarosa.terra_crm.modules.health.repository.CustomerRepository;
+import com.terrarosa.terra_crm.modules.health.repository.ReminderRepository;
+import com.terrarosa.terra_crm.modules.health.service.ReferenceDataCache.CachedList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that listing reminders resolves references with a fixed number of repository
+ * queries, independent of how many reminders are returned; reference data comes from the
+ * cached reminder settings.
+ */
+class ReminderServiceTest {
+
+    private final ReminderRepository reminderRepository = mock(ReminderRepository.class);
+    private final ReminderSettingsService reminderSettingsService = mock(ReminderSettingsService.class);
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+
+    private final ReminderService reminderService = new ReminderService(reminderRepository, reminderSettingsService,
+            customerRepository, mock(ApplicationEventPublisher.class), mock(DashboardRollupService.class));
+
+    private final ReminderCategoryDto category = ReminderCategoryDto.builder()
+            .id(UUID.randomUUID()).labelEn("Call").build();
+    private final ReminderSubcategoryDto subcategory = ReminderSubcategoryDto.builder()
+            .id(UUID.randomUUID()).labelEn("Follow-up").build();
+    private final ReminderStatusDto status = ReminderStatusDto.builder()
+            .id(UUID.randomUUID()).labelEn("Pending").isCompleted(false).build();
+
+    @BeforeEach
+    void setUp() {
+        when(reminderSettingsService.categories())
+                .thenReturn(CachedList.of(List.of(category), ReminderCategoryDto::getId));
+        when(reminderSettingsService.subcategories())
+                .thenReturn(CachedList.of(List.of(subcategory), ReminderSubcategoryDto::getId));
+        when(reminderSettingsService.statuses())
+                .thenReturn(CachedList.of(List.of(status), ReminderStatusDto::getId));
+    }
+
+    @Test
+    void referenceQueryCountIsIndependentOfResultSize() {
+        int smallListQueries = queriesForListing(1);
+        int largeListQueries = queriesForListing(500);
+
+        assertEquals(smallListQueries, largeListQueries,
+                "Listing 500 reminders should not issue more queries than listing one");
+        // reminders + recurring series + customer names
+        assertEquals(3, largeListQueries);
+    }
+
+    @Test
+    void referencesAreResolvedFromCachedSettingsAndBatchedLookups() {
+        List<Reminder> reminders = reminders(3);
+        UUID customerId = reminders.get(0).getRelationId();
+        when(reminderRepository.findAll()).thenReturn(reminders);
+        when(customerRepository.findNamesByIdIn(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { customerId, "Jane Doe" }));
+
+        List<ReminderDto> dtos = reminderService.getAllReminders();
+
+        assertEquals(3, dtos.size());
+        assertEquals("Call", dtos.get(0).getCategoryLabelEn());
+        assertEquals("Follow-up", dtos.get(0).getSubcategoryLabelEn());
+        assertEquals("Pending", dtos.get(0).getStatusLabelEn());
+        assertEquals("Jane Doe", dtos.get(0).getRelationName());
+    }
+
+    @Test
+    void calendarFoldsAggregateRowsIntoDays() {
+        LocalDate day = LocalDate.of(2025, 3, 10);
+        UUID otherStatus = UUID.randomUUID();
+        when(reminderRepository.countByDayStatusAndCategory(any(), any())).thenReturn(List.of(
+                new Object[] { java.sql.Date.valueOf(day), status.getId(), category.getId(), 2L },
+                new Object[] { java.sql.Date.valueOf(day), otherStatus, category.getId(), 3L },
+                new Object[] { java.sql.Date.valueOf(day.plusDays(1)), status.getId(), category.getId(), 1L }));
+
+        List<ReminderCalendarDayDto> days = reminderService.getCalendar(day, day.plusDays(30));
+
+        assertEquals(2, days.size());
+        assertEquals(day, days.get(0).getDate());
+        assertEquals(5, days.get(0).getTotal());
+        assertEquals(3L, days.get(0).getByStatus().get(otherStatus));
+        assertEquals(5L, days.get(0).getByCategory().get(category.getId()));
+        assertEquals(1, days.get(1).getTotal());
+    }
+
+    @Test
+    void recurringSeriesIsExpandedForTheRequestedWindowOnly() {
+        Reminder series = reminders(1).get(0);
+        series.setReminderDate(LocalDate.of(2024, 1, 15));
+        series.setRecurrenceRule("FREQ=MONTHLY;INTERVAL=3;COUNT=8");
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        when(reminderRepository.findStoredInRange(any(), any())).thenReturn(List.of());
+        when(reminderRepository.findRecurringInRange(start, end)).thenReturn(List.of(series));
+        when(reminderRepository.findExceptionDates(any(), any(), any())).thenReturn(List.<Object[]>of(
+                new Object[] { series.getId(), java.sql.Date.valueOf(LocalDate.of(2025, 4, 15)) }));
+        when(customerRepository.findNamesByIdIn(any())).thenReturn(List.of());
+
+        List<ReminderDto> dtos = reminderService.getRemindersByDateRange(start, end);
+
+        // 2025 occurrences are Jan, Apr, Jul, Oct; Apr has an exception row
+        assertEquals(List.of(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 7, 15), LocalDate.of(2025, 10, 15)),
+                dtos.stream().map(ReminderDto::getReminderDate).toList());
+        assertEquals(series.getId(), dtos.get(0).getSeriesId());
+    }
+
+    @Test
+    void dateRangeIsOnlyLimitedWhenRecurringSeriesMustBeExpanded() {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        List<Reminder> stored = reminders(2);
+        when(reminderRepository.findStoredInRange(start, end)).thenReturn(stored);
+        when(customerRepository.findNamesByIdIn(any())).thenReturn(List.of());
+
+        assertEquals(2, reminderService.getRemindersByDateRange(start, end).size());
+
+        Reminder series = reminders(1).get(0);
+        series.setRecurrenceRule("FREQ=YEARLY");
+        when(reminderRepository.findRecurringInRange(start, end)).thenReturn(List.of(series));
+        assertThrows(IllegalArgumentException.class, () -> reminderService.getRemindersByDateRange(start, end));
+    }
+
+    @Test
+    void calendarRejectsInvertedRange() {
+        LocalDate day = LocalDate.of(2025, 3, 10);
+        assertThrows(IllegalArgumentException.class, () -> reminderService.getCalendar(day, day.minusDays(1)));
+    }
+
+    private int queriesForListing(int reminderCount) {
+        List<Reminder> reminders = reminders(reminderCount);
+        when(reminderRepository.findStoredInRange(any(), any())).thenReturn(reminders);
+        when(customerRepository.findNamesByIdIn(any())).thenReturn(List.of());
+        clearInvocations(reminderRepository, customerRepository);
+
+        reminderService.getRemindersByDateRange(LocalDate.now(), LocalDate.now().plusMonths(1));
+
+        return mockingDetails(reminderRepository).getInvocations().size()
+                + mockingDetails(customerRepository).getInvocations().size();
+    }
+
+    private List<Reminder> reminders(int count) {
+        List<Reminder> reminders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Reminder reminder = Reminder.builder()
+                    .title("Reminder " + i)
+                    .reminderDate(LocalDate.now())
+                    .reminderTime(LocalTime.NOON)
+                    .categoryId(category.getId())
+                    .subcategoryId(subcategory.getId())
+                    .statusId(status.getId())
+                    .relationType("customer")
+                    .relationId(UUID.randomUUID())
+                    .isCompleted(false)
+                    .build();
+            reminder.setId(UUID.randomUUID());
+            reminders.add(reminder);
+        }
+        return reminders;
+    }
+}